@@ -0,0 +1,214 @@
+package com.github.wnebyte.jcli;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jol.info.GraphLayout;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import com.github.wnebyte.jcli.util.JsonWriter;
+
+/**
+ * Measures the heap and metaspace footprint of a {@link CLI} built from generated controllers holding
+ * 10, 100, 1k and 10k Commands of varying shapes.
+ * <br>
+ * Besides the build time reported by JMH, every trial appends one JSON line holding the retained size of the CLI
+ * graph (as measured by JOL), the retained size per Command, and the metaspace growth caused by loading the
+ * controllers and by building the CLI, to the file named by the <code>jcli.footprint.report</code> system property
+ * (<code>build/reports/jmh/footprint.jsonl</code> by default).
+ */
+@State(Scope.Benchmark)
+public class FootprintBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FootprintBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    private static final String REPORT_PROPERTY = "jcli.footprint.report";
+
+    private static final String DEFAULT_REPORT = "build/reports/jmh/footprint.jsonl";
+
+    private static final String PACKAGE = "com.github.wnebyte.jcli.generated";
+
+    private static final int COMMANDS_PER_CONTROLLER = 250;
+
+    /*
+    the argument shapes that generated Commands cycle through.
+     */
+    private static final String[] SHAPES = {
+            "",
+            "@Argument(\"-n\") int n",
+            "@Argument(value = \"-s\", required = true) String s, @Argument(\"-f\") boolean f",
+            "@Argument(\"-a\") int a, @Argument(\"-b\") int b, @Argument(\"-c\") double c",
+            "@Argument(value = \"-v\", description = \"one or more values\") int[] v",
+            "@Argument(value = \"-m\", choices = { \"x\", \"y\" }) String m, @Argument(required = true) int p",
+    };
+
+    @Param({ "10", "100", "1000", "10000" })
+    private int commands;
+
+    private Path dir;
+
+    private URLClassLoader loader;
+
+    private Class<?>[] controllers;
+
+    private long metaspaceBaseline;
+
+    private long metaspaceLoaded;
+
+    private CLI cli;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        dir = Files.createTempDirectory("jcli-footprint");
+        int n = compile(generate(dir, commands));
+        // the baseline is taken after compiling, so that the classes loaded by the compiler are not accounted for.
+        System.gc();
+        metaspaceBaseline = metaspaceUsed();
+        controllers = load(n);
+        metaspaceLoaded = metaspaceUsed();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Fork(value = 1)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public CLI build() {
+        cli = new CLI(new Configuration()
+                .disableScanPackages()
+                .setScanClasses(controllers)
+        );
+        return cli;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.gc();
+        long metaspaceBuilt = metaspaceUsed();
+        long retained = GraphLayout.parseInstance(cli).totalSize();
+        report(retained, metaspaceBuilt);
+        loader.close();
+        try (Stream<Path> stream = Files.walk(dir)) {
+            stream.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private void report(long retained, long metaspaceBuilt) throws IOException {
+        Path path = Paths.get(System.getProperty(REPORT_PROPERTY, DEFAULT_REPORT));
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            JsonWriter json = new JsonWriter(out);
+            json.beginObject()
+                    .name("timestamp").value(System.currentTimeMillis())
+                    .name("javaVersion").value(System.getProperty("java.version"))
+                    .name("commands").value(cli.getModel().size())
+                    .name("retainedBytes").value(retained)
+                    .name("bytesPerCommand").value(retained / cli.getModel().size())
+                    .name("metaspaceLoadBytes").value(metaspaceLoaded - metaspaceBaseline)
+                    .name("metaspaceBuildBytes").value(metaspaceBuilt - metaspaceLoaded)
+                    .endObject()
+                    .newLine();
+            json.flush();
+        }
+    }
+
+    private static long metaspaceUsed() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getName().equals("Metaspace")) {
+                used += pool.getUsage().getUsed();
+            }
+        }
+        return used;
+    }
+
+    /*
+    writes the source of enough controllers to hold n Commands, returns the paths of the source files.
+     */
+    private static List<Path> generate(Path dir, int n) throws IOException {
+        List<Path> sources = new ArrayList<>();
+        Path pkg = Files.createDirectories(dir.resolve(PACKAGE.replace('.', '/')));
+
+        for (int c = 0; c * COMMANDS_PER_CONTROLLER < n; c++) {
+            StringBuilder src = new StringBuilder()
+                    .append("package ").append(PACKAGE).append(";\n\n")
+                    .append("import com.github.wnebyte.jcli.annotation.*;\n\n")
+                    // every other controller prefixes its Commands.
+                    .append((c % 2 == 0) ? "" : "@Controller(\"c" + c + "\")\n")
+                    .append("public class Controller").append(c).append(" {\n");
+
+            for (int i = c * COMMANDS_PER_CONTROLLER; i < Math.min(n, (c + 1) * COMMANDS_PER_CONTROLLER); i++) {
+                src.append("    @Command(value = \"cmd").append(i).append("\", description = \"command number ")
+                        .append(i).append("\")\n")
+                        .append("    public void cmd").append(i).append("(")
+                        .append(SHAPES[i % SHAPES.length]).append(") { }\n");
+            }
+
+            src.append("}\n");
+            Path source = pkg.resolve("Controller" + c + ".java");
+            Files.write(source, src.toString().getBytes(StandardCharsets.UTF_8));
+            sources.add(source);
+        }
+
+        return sources;
+    }
+
+    /*
+    compiles the specified sources into the temporary directory, returns the number of compiled controllers.
+     */
+    private int compile(List<Path> sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException(
+                    "A JDK is required to generate controllers."
+            );
+        }
+        List<String> args = new ArrayList<>();
+        args.add("-parameters");
+        args.add("-classpath");
+        args.add(System.getProperty("java.class.path"));
+        args.add("-d");
+        args.add(dir.toString());
+        sources.forEach(source -> args.add(source.toString()));
+        if (compiler.run(null, null, null, args.toArray(new String[0])) != 0) {
+            throw new IllegalStateException(
+                    "Generated controllers could not be compiled."
+            );
+        }
+        return sources.size();
+    }
+
+    private Class<?>[] load(int n) throws Exception {
+        loader = new URLClassLoader(new URL[] { dir.toUri().toURL() }, getClass().getClassLoader());
+        Class<?>[] classes = new Class<?>[n];
+        for (int c = 0; c < classes.length; c++) {
+            classes[c] = loader.loadClass(PACKAGE + ".Controller" + c);
+        }
+        return classes;
+    }
+}
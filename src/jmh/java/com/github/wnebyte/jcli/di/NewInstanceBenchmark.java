@@ -0,0 +1,89 @@
+package com.github.wnebyte.jcli.di;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import com.github.wnebyte.jcli.annotation.Inject;
+import static com.github.wnebyte.jcli.util.Reflections.getFirstAnnotatedConstructor;
+import static com.github.wnebyte.jcli.util.Reflections.getNoArgsConstructor;
+
+/**
+ * Measures {@link DependencyContainer#newInstance(Class)} for a controller with two constructor and two field
+ * injected dependencies, as is done before every invocation of a transient Command; against a baseline that
+ * makes the reflective lookups on every instantiation, as the container did before it cached injection plans.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1)
+public class NewInstanceBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NewInstanceBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    private DependencyContainer container;
+
+    @Setup
+    public void setup() {
+        container = new DependencyContainer();
+        container.register(String.class, "hello");
+        container.register(Integer.class, 1);
+        container.register(Long.class, 2L);
+        container.register(StringBuilder.class, new StringBuilder());
+    }
+
+    @Benchmark
+    public Object newInstance() throws ReflectiveOperationException {
+        return container.newInstance(Controller.class);
+    }
+
+    @Benchmark
+    public Object reflective() throws ReflectiveOperationException {
+        Constructor<?> cons = getFirstAnnotatedConstructor(Controller.class, Inject.class);
+        cons = (cons == null) ? getNoArgsConstructor(Controller.class) : cons;
+        cons.setAccessible(true);
+        Object object = cons.newInstance("hello", 1);
+        for (Field field : Controller.class.getDeclaredFields()) {
+            field.setAccessible(true);
+            if (field.isAnnotationPresent(Inject.class)) {
+                field.set(object, (field.getType() == Long.class) ? (Object) 2L : new StringBuilder());
+            }
+        }
+        return object;
+    }
+
+    public static class Controller {
+
+        private final String s;
+
+        private final Integer i;
+
+        @Inject
+        private Long l;
+
+        @Inject
+        private StringBuilder sb;
+
+        private int count;
+
+        @Inject
+        public Controller(String s, Integer i) {
+            this.s = s;
+            this.i = i;
+        }
+
+        public Controller() {
+            this(null, null);
+        }
+    }
+}
@@ -4,7 +4,10 @@ import java.util.*;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import com.github.wnebyte.jarguments.Argument;
+import com.github.wnebyte.jarguments.adapter.AbstractTypeAdapterRegistry;
 import com.github.wnebyte.jarguments.util.Strings;
+import com.github.wnebyte.jcli.util.ArraySet;
+import com.github.wnebyte.jcli.util.StringPool;
 
 /**
  * This class represents an abstract executable Command.
@@ -20,8 +23,9 @@ public abstract class AbstractCommand implements Comparable<AbstractCommand> {
     static AbstractCommand stub(Consumer<Object[]> exe) {
         return new AbstractCommand(null, null, null, null) {
             @Override
-            void execute(Object[] args) {
+            Object execute(Object[] args) {
                 exe.accept(args);
+                return null;
             }
         };
     }
@@ -42,15 +46,25 @@ public abstract class AbstractCommand implements Comparable<AbstractCommand> {
     ###########################
     */
 
+    /*
+    Commands are held in large numbers, so their names and arguments are held in (immutable) array-backed sets,
+    which are their own unmodifiable views, and their strings are pooled, as they tend to repeat across Commands.
+     */
+
     protected final String prefix;
 
-    protected final Set<String> names;
+    protected final ArraySet<String> names;
 
     protected final String canonicalName;
 
     protected final String description;
 
-    protected final Set<Argument> arguments;
+    protected final ArraySet<Argument> arguments;
+
+    /*
+    the registry that the Arguments were created with, or null; converts the verbatim values of a token list.
+     */
+    private final AbstractTypeAdapterRegistry typeAdapters;
 
     /*
     ###########################
@@ -64,11 +78,30 @@ public abstract class AbstractCommand implements Comparable<AbstractCommand> {
             String description,
             Set<Argument> arguments
     ) {
-        this.prefix = prefix;
-        this.names = names;
-        this.canonicalName = (names == null || names.isEmpty()) ? null : names.toArray(new String[0])[0];
-        this.description = description;
-        this.arguments = arguments;
+        this(prefix, names, description, arguments, null);
+    }
+
+    protected AbstractCommand(
+            String prefix,
+            Set<String> names,
+            String description,
+            Set<Argument> arguments,
+            AbstractTypeAdapterRegistry typeAdapters
+    ) {
+        this.prefix = StringPool.of(prefix);
+        this.names = (names == null) ? ArraySet.empty() : ArraySet.copyOf(pool(names));
+        this.canonicalName = this.names.isEmpty() ? null : this.names.get(0);
+        this.description = StringPool.of(description);
+        this.arguments = ArraySet.copyOf(arguments);
+        this.typeAdapters = typeAdapters;
+    }
+
+    private static List<String> pool(Set<String> names) {
+        List<String> pooled = new ArrayList<>(names.size());
+        for (String name : names) {
+            pooled.add(StringPool.of(name));
+        }
+        return pooled;
     }
 
     /*
@@ -77,10 +110,23 @@ public abstract class AbstractCommand implements Comparable<AbstractCommand> {
     ###########################
     */
 
-    abstract void execute(Object[] args);
+    /**
+     * Executes this Command with the specified parsed <code>args</code>.
+     * @param args the parsed arguments.
+     * @return the result of the execution, or <code>null</code> if there is none.
+     */
+    abstract Object execute(Object[] args);
 
     public final Set<Argument> getArguments() {
-        return Collections.unmodifiableSet(arguments);
+        return arguments;
+    }
+
+    /**
+     * @return the registry of the type adapters that the Arguments of this Command were created with, or
+     * <code>null</code> if it is not known.
+     */
+    final AbstractTypeAdapterRegistry getTypeAdapters() {
+        return typeAdapters;
     }
 
     public final String getPrefix() {
@@ -91,6 +137,23 @@ public abstract class AbstractCommand implements Comparable<AbstractCommand> {
         return (prefix != null) && !(prefix.equals(Strings.EMPTY));
     }
 
+    /**
+     * @return the number of tokens that select this Command, which is the number of whitespace-separated
+     * segments of its prefix, plus one for its name.
+     */
+    public final int getDepth() {
+        int depth = 1;
+        if (hasPrefix()) {
+            depth++;
+            for (int i = 0; i < prefix.length(); i++) {
+                if (prefix.charAt(i) == ' ') {
+                    depth++;
+                }
+            }
+        }
+        return depth;
+    }
+
     public final String getDescription() {
         return description;
     }
@@ -100,7 +163,7 @@ public abstract class AbstractCommand implements Comparable<AbstractCommand> {
     }
 
     public final Set<String> getNames() {
-        return Collections.unmodifiableSet(names);
+        return names;
     }
 
     public final String getCanonicalName() {
@@ -0,0 +1,153 @@
+package com.github.wnebyte.jcli;
+
+import com.github.wnebyte.jarguments.util.Strings;
+
+/**
+ * This class represents a typed descriptor of an Argument of a Command built by a {@link CommandBuilder}; it
+ * holds the same properties as the {@link com.github.wnebyte.jcli.annotation.Argument} annotation, and its type
+ * parameter is the type of the value that is passed to the handler of the Command.
+ * @param <T> the type of the value.
+ */
+public final class Arg<T> {
+
+    /*
+    ###########################
+    #      STATIC METHODS     #
+    ###########################
+    */
+
+    /**
+     * Constructs a new instance of the specified <code>type</code>.
+     * @param names the (comma-separated) names of the Argument, e.g. <code>"-n, --num"</code>.
+     * @param type the type of the Argument; a TypeAdapter has to be registered for it.
+     * @param <T> the type of the value.
+     * @return a new instance.
+     */
+    public static <T> Arg<T> of(String names, Class<T> type) {
+        return new Arg<>(names, type);
+    }
+
+    public static Arg<Integer> ofInt(String names) {
+        return new Arg<>(names, int.class);
+    }
+
+    public static Arg<Long> ofLong(String names) {
+        return new Arg<>(names, long.class);
+    }
+
+    public static Arg<Double> ofDouble(String names) {
+        return new Arg<>(names, double.class);
+    }
+
+    public static Arg<Boolean> ofBoolean(String names) {
+        return new Arg<>(names, boolean.class);
+    }
+
+    public static Arg<String> ofString(String names) {
+        return new Arg<>(names, String.class);
+    }
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    private final String names;
+
+    private final Class<?> type;
+
+    private String description = Strings.EMPTY;
+
+    private boolean required = false;
+
+    private String[] choices = null;
+
+    private String metavar = null;
+
+    private String defaultValue = null;
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    /*
+    primitive types are held as such (and boxed by the type parameter), so that an omitted Argument receives the
+    same default value as an annotated Parameter of the same type.
+     */
+    private Arg(String names, Class<?> type) {
+        if (names == null || names.trim().isEmpty()) {
+            throw new IllegalArgumentException(
+                    "Names may not be null or empty."
+            );
+        }
+        if (type == null) {
+            throw new NullPointerException(
+                    "Type may not be null."
+            );
+        }
+        this.names = names;
+        this.type = type;
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    public Arg<T> description(String description) {
+        this.description = (description == null) ? Strings.EMPTY : description;
+        return this;
+    }
+
+    public Arg<T> required() {
+        this.required = true;
+        return this;
+    }
+
+    public Arg<T> choices(String... choices) {
+        this.choices = (choices == null || choices.length == 0) ? null : choices.clone();
+        return this;
+    }
+
+    public Arg<T> metavar(String metavar) {
+        this.metavar = Strings.isNullOrEmpty(metavar) ? null : metavar;
+        return this;
+    }
+
+    public Arg<T> defaultValue(String defaultValue) {
+        this.defaultValue = Strings.isNullOrEmpty(defaultValue) ? null : defaultValue;
+        return this;
+    }
+
+    public String getNames() {
+        return names;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public boolean isRequired() {
+        return required;
+    }
+
+    public String[] getChoices() {
+        return (choices == null) ? null : choices.clone();
+    }
+
+    public String getMetavar() {
+        return metavar;
+    }
+
+    public String getDefaultValue() {
+        return defaultValue;
+    }
+}
@@ -0,0 +1,259 @@
+package com.github.wnebyte.jcli;
+
+import java.util.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import com.github.wnebyte.jcli.exception.CommandExecutionException;
+import com.github.wnebyte.jcli.exception.IllegalAnnotationException;
+import com.github.wnebyte.jcli.util.Annotations;
+
+/**
+ * This class binds a consecutive range of parsed values into an object of the type of an
+ * {@link com.github.wnebyte.jcli.annotation.Arguments} annotated Parameter, whose fields are the Arguments.
+ * <br>
+ * Every reflective lookup is made once, when the Command is mapped; the object is constructed, and its fields
+ * are set, by <code>MethodHandle</code>s.
+ */
+final class ArgumentsBinding {
+
+    /*
+    ###########################
+    #      STATIC FIELDS      #
+    ###########################
+    */
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /*
+    ###########################
+    #      STATIC METHODS     #
+    ###########################
+    */
+
+    /**
+     * Returns the binding of the specified <code>param</code>.
+     * @param param the Arguments annotated Parameter.
+     * @return a new instance.
+     * @throws IllegalAnnotationException if the type of the Parameter can not be bound.
+     */
+    static ArgumentsBinding of(Parameter param) {
+        Class<?> type = param.getType();
+        if (type.isPrimitive() || type.isArray() || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalAnnotationException(
+                    String.format(
+                            "The type of an @Arguments annotated Parameter has to be a concrete class: '%s'.",
+                            type.getName()
+                    )
+            );
+        }
+        List<Field> fields = getFields(type);
+        if (fields.isEmpty()) {
+            throw new IllegalAnnotationException(
+                    String.format(
+                            "The type of an @Arguments annotated Parameter has to declare at least one field: '%s'.",
+                            type.getName()
+                    )
+            );
+        }
+
+        // a final field can only be bound by the Constructor whose parameter types are those of the fields.
+        Field fin = getFinalField(fields);
+
+        try {
+            Constructor<?> cons = (fin == null) ? getConstructor(type) : null;
+            if (cons != null) {
+                cons.setAccessible(true);
+                MethodHandle[] setters = new MethodHandle[fields.size()];
+                for (int i = 0; i < setters.length; i++) {
+                    Field field = fields.get(i);
+                    field.setAccessible(true);
+                    setters[i] = LOOKUP.unreflectSetter(field).asType(SETTER_TYPE);
+                }
+                MethodHandle constructor = LOOKUP.unreflectConstructor(cons)
+                        .asType(MethodType.methodType(Object.class));
+                return new ArgumentsBinding(fields, constructor, setters, Annotations.isReusable(param));
+            }
+
+            cons = getConstructor(type, fields);
+            if (cons == null && fin != null) {
+                throw new IllegalAnnotationException(
+                        String.format(
+                                "The type of an @Arguments annotated Parameter has to declare a Constructor whose " +
+                                        "parameter types are those of its fields, as its field: '%s' is final: '%s'.",
+                                fin.getName(), type.getName()
+                        )
+                );
+            }
+            if (cons == null) {
+                throw new IllegalAnnotationException(
+                        String.format(
+                                "The type of an @Arguments annotated Parameter has to declare either a no-args " +
+                                        "Constructor, or a Constructor whose parameter types are those of its " +
+                                        "fields: '%s'.", type.getName()
+                        )
+                );
+            }
+            if (Annotations.isReusable(param)) {
+                throw new IllegalAnnotationException(
+                        (fin == null) ?
+                                String.format(
+                                        "The type of a reusable @Arguments annotated Parameter has to declare a " +
+                                                "no-args Constructor: '%s'.", type.getName()
+                                ) :
+                                String.format(
+                                        "The type of a reusable @Arguments annotated Parameter can not declare the " +
+                                                "final field: '%s': '%s'.", fin.getName(), type.getName()
+                                )
+                );
+            }
+            cons.setAccessible(true);
+            MethodHandle constructor = LOOKUP.unreflectConstructor(cons)
+                    .asSpreader(Object[].class, fields.size())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            return new ArgumentsBinding(fields, constructor, null, false);
+        } catch (IllegalAccessException | SecurityException e) {
+            throw new IllegalAnnotationException(
+                    e.getMessage()
+            );
+        }
+    }
+
+    /*
+    the fields of superclasses come first, each in declaration order.
+     */
+    static List<Field> getFields(Class<?> type) {
+        LinkedList<Class<?>> hierarchy = new LinkedList<>();
+        for (Class<?> cls = type; cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+            hierarchy.addFirst(cls);
+        }
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> cls : hierarchy) {
+            for (Field field : cls.getDeclaredFields()) {
+                int mod = field.getModifiers();
+                if (!Modifier.isStatic(mod) && !Modifier.isTransient(mod) && !field.isSynthetic()) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static Field getFinalField(List<Field> fields) {
+        for (Field field : fields) {
+            if (Modifier.isFinal(field.getModifiers())) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private static Constructor<?> getConstructor(Class<?> type) {
+        try {
+            return type.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Constructor<?> getConstructor(Class<?> type, List<Field> fields) {
+        Class<?>[] types = new Class<?>[fields.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = fields.get(i).getType();
+        }
+        try {
+            return type.getDeclaredConstructor(types);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    private final List<Field> fields;
+
+    /*
+    either () -> Object, in which case the fields are set by the setters; or (Object[]) -> Object, in which case
+    the values are passed to the constructor.
+     */
+    private final MethodHandle constructor;
+
+    private final MethodHandle[] setters;
+
+    private final ThreadLocal<Object> reusable;
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    private ArgumentsBinding(List<Field> fields, MethodHandle constructor, MethodHandle[] setters, boolean reuse) {
+        this.fields = Collections.unmodifiableList(fields);
+        this.constructor = constructor;
+        this.setters = setters;
+        this.reusable = reuse ? ThreadLocal.withInitial(this::construct) : null;
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    /**
+     * @return the fields that are bound, in the order of the values that are bound into them.
+     */
+    List<Field> getFields() {
+        return fields;
+    }
+
+    int size() {
+        return fields.size();
+    }
+
+    /**
+     * Binds the values held by the specified <code>args</code> from the specified <code>offset</code> into an
+     * object.
+     * @param args the parsed values.
+     * @param offset the position of the first value.
+     * @return the (new or reused) object.
+     * @throws CommandExecutionException if the object could not be constructed.
+     */
+    Object bind(Object[] args, int offset) {
+        try {
+            if (setters == null) {
+                return constructor.invokeExact(Arrays.copyOfRange(args, offset, offset + fields.size()));
+            }
+            Object object = (reusable == null) ? construct() : reusable.get();
+            for (int i = 0; i < setters.length; i++) {
+                setters[i].invokeExact(object, args[offset + i]);
+            }
+            return object;
+        } catch (CommandExecutionException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new CommandExecutionException(e);
+        }
+    }
+
+    private Object construct() {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new CommandExecutionException(e);
+        }
+    }
+}
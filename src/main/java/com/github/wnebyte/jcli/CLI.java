@@ -3,20 +3,42 @@ package com.github.wnebyte.jcli;
 import java.util.*;
 import java.util.Scanner;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.concurrent.TimeUnit;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.lang.reflect.Method;
 import com.github.wnebyte.jarguments.ContextView;
 import com.github.wnebyte.jarguments.parser.AbstractParser;
 import com.github.wnebyte.jarguments.parser.Parser;
+import com.github.wnebyte.jarguments.Flag;
 import com.github.wnebyte.jarguments.Formatter;
 import com.github.wnebyte.jarguments.exception.*;
 import com.github.wnebyte.jarguments.util.TokenSequence;
 import com.github.wnebyte.jarguments.util.Strings;
+import com.github.wnebyte.jcli.annotation.Argument;
 import com.github.wnebyte.jcli.annotation.Command;
+import com.github.wnebyte.jcli.annotation.Scope;
+import com.github.wnebyte.jcli.di.DependencyContainer;
+import com.github.wnebyte.jcli.di.IDependencyContainer;
+import com.github.wnebyte.jcli.exception.CommandExecutionException;
+import com.github.wnebyte.jcli.exception.ConfigException;
+import com.github.wnebyte.jcli.exception.JournalException;
+import com.github.wnebyte.jcli.exception.MalformedRequestException;
 import com.github.wnebyte.jcli.exception.UnknownCommandException;
+import com.github.wnebyte.jcli.history.History;
+import com.github.wnebyte.jcli.journal.Journal;
 import com.github.wnebyte.jcli.processor.*;
-import com.github.wnebyte.jcli.util.CommandIdentifier;
+import com.github.wnebyte.jcli.protocol.BinaryRequest;
+import com.github.wnebyte.jcli.util.Annotations;
+import com.github.wnebyte.jcli.util.Globs;
+import com.github.wnebyte.jcli.util.JsonWriter;
 import com.github.wnebyte.jcli.util.Objects;
+import com.github.wnebyte.jcli.util.Reflections;
 
 @SuppressWarnings("resource")
 public class CLI {
@@ -51,14 +73,57 @@ public class CLI {
     }
 
     static TokenSequence slice(TokenSequence tokens, AbstractCommand cmd) {
-        return tokens.subTokens(cmd.hasPrefix() ? 2 : 1, tokens.size());
+        return tokens.subTokens(cmd.getDepth(), tokens.size());
     }
 
-    static boolean isHelp(TokenSequence tokens) {
-        return (tokens != null) && (tokens.size() == 1) &&
-                (tokens.get(0).equals("--help") || tokens.get(0).equals("-h"));
+    static boolean isHelp(Iterable<String> tokens) {
+        if (tokens == null) {
+            return false;
+        }
+        Iterator<String> it = tokens.iterator();
+        if (!it.hasNext()) {
+            return false;
+        }
+        String token = it.next();
+        return !it.hasNext() && (token.equals("--help") || token.equals("-h"));
     }
 
+    /*
+    ###########################
+    #      STATIC FIELDS      #
+    ###########################
+    */
+
+    /**
+     * Status returned when the input was successfully dispatched.
+     */
+    public static final int SUCCESS = 0;
+
+    /**
+     * Status returned when the Command that the input was dispatched to threw an Exception.
+     */
+    public static final int FAILURE = 1;
+
+    /**
+     * Status returned when the input could not be matched to a Command, or could not be parsed.
+     */
+    public static final int USAGE_ERROR = 2;
+
+    /**
+     * Status returned when the input was not dispatched because its session had been cancelled.
+     */
+    public static final int CANCELLED = 130;
+
+    /**
+     * The maximum number of names suggested for input that does not match any Command.
+     */
+    public static final int MAX_SUGGESTIONS = 5;
+
+    /*
+    the maximum number of leading tokens of unknown input that are matched against the (prefixed) names.
+     */
+    private static final int MAX_SUGGESTION_DEPTH = 4;
+
     /*
     ###########################
     #          FIELDS         #
@@ -67,13 +132,43 @@ public class CLI {
 
     protected final Configuration conf;
 
-    protected final List<AbstractCommand> commands;
+    protected final AbstractParser parser;
 
-    protected final Set<String> prefixes;
+    /**
+     * The session on whose behalf input is dispatched unless another one is specified.
+     */
+    protected final InvocationContext session;
 
-    protected final Map<String, AbstractCommand> index;
+    /**
+     * The rendered help views; replaced whenever the help formatter of the <code>Configuration</code> changes.
+     */
+    private volatile HelpCache helpCache;
 
-    protected final AbstractParser parser;
+    /*
+    the writer of the JSON lines reported to the stream that was last reported to; only used while holding the
+    lock of that stream.
+     */
+    private volatile ReportWriter reportWriter;
+
+    /**
+     * The Commands that input is dispatched to, and the objects that they are invoked on; replaced as a whole
+     * whenever Commands are registered or unregistered, and read once per dispatch.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * Tracks the singleton instances of the classes declaring the Commands; guarded by <code>lock</code>.
+     */
+    private final InstanceTracker tracker;
+
+    /**
+     * Binds the Commands to the objects that they are invoked on; shared by every registration, so that the
+     * Commands of a pooled or thread scoped class share its instances, whenever they are registered; guarded by
+     * <code>lock</code>.
+     */
+    private final MethodMapperImpl mapper;
+
+    private final Object lock = new Object();
 
     /*
     ###########################
@@ -93,11 +188,41 @@ public class CLI {
      * @param conf to be used.
      */
     public CLI(Configuration conf) {
+        this(CommandModel.build(conf), conf);
+    }
+
+    /**
+     * Constructs a new front-end to the specified (shared) <code>model</code>, using the specified
+     * <code>Configuration</code>.
+     * <br>
+     * The scanning options and the type adapters of the <code>Configuration</code> are not used, as they are
+     * part of the model; everything else (streams, formatters, dependencies, scanned objects) is specific to
+     * this instance, as are the singleton instances of the classes declaring the Commands of the model.
+     * @param model the Commands to dispatch input to.
+     * @param conf to be used.
+     */
+    public CLI(CommandModel model, Configuration conf) {
+        if (model == null) {
+            throw new NullPointerException(
+                    "CommandModel may not be null."
+            );
+        }
         this.conf = Objects.requireNonNullElseGet(conf, Configuration::new);
-        this.prefixes = new HashSet<>();
-        this.index = new HashMap<>();
         this.parser = new Parser();
-        this.commands = build(new MethodScannerImpl(), new InstanceTrackerImpl(this.conf.getDependencyContainer()));
+        this.session = new InvocationContext(this.conf.in(), this.conf.out(), this.conf.err());
+        this.tracker = new InstanceTrackerImpl(dependencyContainer(this.conf.getDependencyContainer()));
+        this.mapper = new MethodMapperBuilder()
+                .setInstanceTracker(tracker)
+                .setTypeAdapterRegistry(this.conf.getTypeAdapterRegistry())
+                .build();
+        Set<Object> objects = this.conf.getScanObjects();
+        if (objects != null) {
+            tracker.addAll(objects);
+        }
+        initialize(model.getCommands());
+        synchronized (lock) {
+            this.snapshot = new Snapshot(model, bind(model.getCommands(), new IdentityHashMap<>(model.size())));
+        }
     }
 
     /*
@@ -106,89 +231,278 @@ public class CLI {
     ###########################
     */
 
-    private List<AbstractCommand> build(MethodScanner scanner, InstanceTracker tracker) {
-        scan(scanner, tracker);
-        List<AbstractCommand> commands = map(scanner, tracker);
-        index(commands);
-        sort(commands);
-        return commands;
+    /*
+    the dependencies of this instance are registered with a child of the container of the Configuration, rather
+    than with the container itself, which may be shared by other instances.
+     */
+    private IDependencyContainer dependencyContainer(IDependencyContainer parent) {
+        DependencyContainer container = (parent instanceof DependencyContainer) ?
+                new DependencyContainer((DependencyContainer) parent) : new DependencyContainer();
+        container.register(InvocationContext.class, InvocationContext.proxy());
+        container.register(CLI.class, this);
+        return container;
     }
 
-    protected void scan(MethodScanner scanner, InstanceTracker tracker) {
-        Set<Object> objects = conf.getScanObjects();
-        Set<Class<?>> classes = conf.getScanClasses();
-        Set<String> packages = conf.getScanPackages();
-        Set<CommandIdentifier> commandIdentifiers = conf.getScanCommandIdentifiers();
-        Set<Method> methods = conf.getScanMethods();
+    /*
+    constructs the singleton instances of the classes declaring the specified (non-static) Commands up front, so
+    that their dependency graph is resolved, and checked for cycles, at once; and independent classes can be
+    constructed in parallel.
+     */
+    private void initialize(Collection<AbstractCommand> commands) {
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        for (AbstractCommand cmd : commands) {
+            if (cmd instanceof com.github.wnebyte.jcli.Command) {
+                Method method = ((com.github.wnebyte.jcli.Command) cmd).getMethod();
+                Class<?> cls = method.getDeclaringClass();
+                if (cls != CLI.class && !Reflections.isStatic(method) &&
+                        Annotations.getScopeOrDefaultValue(cls, Scope.SINGLETON) == Scope.SINGLETON) {
+                    classes.add(cls);
+                }
+            }
+        }
+        try {
+            tracker.initialize(classes, conf.getInitializationExecutor());
+        } catch (ReflectiveOperationException e) {
+            throw new ConfigException(
+                    e.getMessage()
+            );
+        }
+    }
 
-        if (objects != null) {
-            scanner.scanObjects(objects);
-            tracker.addAll(objects);
+    /*
+    puts the bindings of the specified Commands into the specified Map, and returns it.
+     */
+    private Map<AbstractCommand, Supplier<Object>> bind(
+            Collection<AbstractCommand> commands,
+            Map<AbstractCommand, Supplier<Object>> bindings
+    ) {
+        for (AbstractCommand cmd : commands) {
+            if (cmd instanceof com.github.wnebyte.jcli.Command) {
+                Method method = ((com.github.wnebyte.jcli.Command) cmd).getMethod();
+                bindings.put(cmd, (method.getDeclaringClass() == CLI.class) ? () -> this : mapper.bind(method));
+            }
+        }
+
+        return bindings;
+    }
+
+    /**
+     * Maps the Commands declared by the class of the specified <code>controller</code>, and atomically adds
+     * them to the Commands that input is dispatched to; the (non-static) Commands are invoked on the specified
+     * <code>controller</code>, unless its class is transient.
+     * <br>
+     * Concurrent dispatches see either none or all of the added Commands, and are never blocked.
+     * @param controller the object declaring the Commands.
+     * @return the added Commands.
+     * @throws com.github.wnebyte.jcli.exception.ConfigException if any of the Commands could not be mapped,
+     * or collides with an existing Command or group, or if another instance of the class of the
+     * <code>controller</code> is already tracked (e.g. as the Commands of the class are already registered, or
+     * have been, and one of them is still); in which case none of them are added.
+     */
+    public List<AbstractCommand> register(Object controller) {
+        if (controller == null) {
+            throw new NullPointerException(
+                    "Controller may not be null."
+            );
         }
-        if (classes != null) {
-            scanner.scanClasses(classes);
+        MethodScanner scanner = new MethodScannerImpl();
+        scanner.scanObject(controller);
+        return register(scanner.getScannedElements(), controller);
+    }
+
+    /**
+     * Maps the specified <code>method</code>, and atomically adds it to the Commands that input is dispatched
+     * to; if it is non-static, it is invoked on the tracked (or a new) instance of its declaring class.
+     * @param method the Command annotated Method.
+     * @return the added Command.
+     * @throws com.github.wnebyte.jcli.exception.ConfigException if the Method could not be mapped, or collides
+     * with an existing Command or group.
+     * @see #register(Object)
+     */
+    public AbstractCommand register(Method method) {
+        if (method == null) {
+            throw new NullPointerException(
+                    "Method may not be null."
+            );
+        }
+        return replace(Collections.emptyList(), Collections.singleton(method)).get(0);
+    }
+
+    /**
+     * Atomically adds the specified prebuilt <code>cmd</code>, e.g. built by a {@link CommandBuilder}, to the
+     * Commands that input is dispatched to.
+     * @param cmd the Command.
+     * @return the added Command.
+     * @throws com.github.wnebyte.jcli.exception.ConfigException if the Command collides with an existing Command
+     * or group.
+     */
+    public AbstractCommand register(AbstractCommand cmd) {
+        if (cmd == null) {
+            throw new NullPointerException(
+                    "Command may not be null."
+            );
         }
-        if (packages != null) {
-            scanner.scanUrls(packages);
+        synchronized (lock) {
+            update(Collections.emptyList(), Collections.singletonList(cmd), null);
         }
-        if (commandIdentifiers != null) {
-            scanner.scanMethods(commandIdentifiers.stream().map(CommandIdentifier::getMethod).collect(Collectors.toSet()));
+        return cmd;
+    }
+
+    /**
+     * Atomically removes the Command with the specified <code>prefix</code> and <code>name</code> from the
+     * Commands that input is dispatched to. Dispatches that have already looked the Command up complete
+     * normally.
+     * <br>
+     * Once no Command declared by the same class remains, the tracked instance of the class is released, as are
+     * its pooled and thread instances, those of every thread.
+     * @param prefix the (whitespace-separated) prefix of the Command, or <code>null</code> if it has none.
+     * @param name any of the names of the Command.
+     * @return <code>true</code> if the Command was removed, otherwise <code>false</code>.
+     */
+    public boolean unregister(String prefix, String name) {
+        if (name == null) {
+            return false;
         }
-        if (methods != null) {
-            scanner.scanMethods(methods);
+        String key = (prefix == null || prefix.trim().isEmpty()) ?
+                name : prefix.trim().concat(Strings.WHITESPACE).concat(name);
+
+        synchronized (lock) {
+            AbstractCommand cmd = snapshot.model.get(key);
+            if (cmd == null) {
+                return false;
+            }
+            update(Collections.singleton(cmd), Collections.emptyList(), null);
+            return true;
         }
-        if (!conf.isMapHelpCommand()) {
-            scanner.removeScannedElementIf(m -> m.getDeclaringClass() == CLI.class);
+    }
+
+    /**
+     * Atomically removes the specified <code>commands</code>, and adds the Commands mapped from the specified
+     * <code>methods</code>, in a single step; e.g. to replace the Commands of a reloaded plugin, without there
+     * being a moment at which neither the old nor the new Commands are dispatched to.
+     * @param commands the Commands to remove; those that are not held are ignored.
+     * @param methods the Command annotated Methods to add.
+     * @return the added Commands.
+     * @throws com.github.wnebyte.jcli.exception.ConfigException if any of the Methods could not be mapped, or
+     * collides with a remaining Command or group; in which case nothing is removed or added.
+     * @see #unregister(String, String)
+     */
+    public List<AbstractCommand> replace(
+            Collection<? extends AbstractCommand> commands,
+            Collection<Method> methods
+    ) {
+        if (commands == null) {
+            throw new NullPointerException(
+                    "Commands may not be null."
+            );
         }
-        else {
-            scanner.scanClass(CLI.class);
-            tracker.add(this);
+        if (methods == null) {
+            throw new NullPointerException(
+                    "Methods may not be null."
+            );
         }
-        if (conf.getExcludeClasses() != null) {
-            scanner.removeScannedElementIf(m -> conf.getExcludeClasses().contains(m.getDeclaringClass()));
+        List<AbstractCommand> added = CommandModel.map(methods, conf.getTypeAdapterRegistry(), false);
+        synchronized (lock) {
+            update(commands, added, null);
         }
+        return added;
     }
 
-    protected List<AbstractCommand> map(MethodScanner scanner, InstanceTracker tracker) {
-        return scanner.getScannedElements().stream()
-                .filter(new PreMappingFilter())
-                .map(new MethodMapperBuilder()
-                        .setInstanceTracker(tracker)
-                        .setTypeAdapterRegistry(conf.getTypeAdapterRegistry())
-                        .build()
-                )
-                .filter(Objects::nonNull)
-                .filter(new PostMappingFilter())
-                .collect(Collectors.toCollection(ArrayList::new));
+    private List<AbstractCommand> register(Collection<Method> methods, Object controller) {
+        List<AbstractCommand> added = CommandModel.map(methods, conf.getTypeAdapterRegistry(), false);
+        synchronized (lock) {
+            update(Collections.emptyList(), added, controller);
+        }
+        return added;
     }
 
-    protected void index(List<AbstractCommand> commands) {
-        for (AbstractCommand cmd : commands) {
-            for (String name : cmd.getNames()) {
-                String key;
-
-                if (cmd.hasPrefix()) {
-                    key = cmd.getPrefix().concat(name);
-                    prefixes.add(cmd.getPrefix());
-                } else {
-                    key = name;
-                }
+    /*
+    must hold the lock; the new snapshot is only published once every step has succeeded.
+     */
+    private void update(
+            Collection<? extends AbstractCommand> removed,
+            Collection<AbstractCommand> added,
+            Object controller
+    ) {
+        Snapshot s = snapshot;
+        CommandModel model = removed.isEmpty() ? s.model : s.model.without(removed);
+        model = added.isEmpty() ? model : model.with(added);
+        Map<AbstractCommand, Supplier<Object>> bindings = new IdentityHashMap<>(s.bindings);
+        for (AbstractCommand cmd : removed) {
+            bindings.remove(cmd);
+        }
+        boolean tracked = (controller != null) && tracker.add(controller);
+        if (controller != null && !tracked && !isTracked(controller)) {
+            throw new ConfigException(
+                    String.format(
+                            "Another instance of Class: '%s' is already tracked.", controller.getClass().getSimpleName()
+                    )
+            );
+        }
+        try {
+            bind(added, bindings);
+        } catch (RuntimeException e) {
+            if (tracked) {
+                tracker.remove(controller.getClass());
+            }
+            throw e;
+        }
+        snapshot = new Snapshot(model, bindings);
+        // the help views of the previous model are not retained.
+        helpCache = null;
 
-                if (index.containsKey(key)) {
-                    throw new IllegalStateException(
-                            String.format(
-                                    "Command with name: '%s' has already been indexed.", key
-                            )
-                    );
-                } else {
-                    index.put(key, cmd);
-                }
+        Set<Class<?>> released = new HashSet<>();
+        for (AbstractCommand cmd : removed) {
+            if (cmd instanceof com.github.wnebyte.jcli.Command) {
+                released.add(((com.github.wnebyte.jcli.Command) cmd).getMethod().getDeclaringClass());
             }
         }
+        for (AbstractCommand cmd : model.getCommands()) {
+            if (!released.isEmpty() && cmd instanceof com.github.wnebyte.jcli.Command) {
+                released.remove(((com.github.wnebyte.jcli.Command) cmd).getMethod().getDeclaringClass());
+            }
+        }
+        for (Class<?> cls : released) {
+            tracker.remove(cls);
+            mapper.release(cls);
+        }
     }
 
-    protected void sort(List<AbstractCommand> commands) {
-        commands.sort(AbstractCommand::compareTo);
+    /*
+    must hold the lock; whether the specified object is the tracked instance of its class, which is known to be
+    tracked.
+     */
+    private boolean isTracked(Object controller) {
+        try {
+            return tracker.get(controller.getClass()) == controller;
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    private HelpCache helpCache(CommandModel model) {
+        HelpCache cache = helpCache;
+        Formatter<ContextView> formatter = conf.getHelpFormatter();
+        if (cache == null || !cache.isValidFor(model, formatter)) {
+            cache = new HelpCache(model, formatter);
+            helpCache = cache;
+        }
+        return cache;
+    }
+
+    private static Object invoke(Snapshot s, AbstractCommand cmd, Object[] args) {
+        Supplier<Object> supplier = s.bindings.get(cmd);
+        if (supplier == null) {
+            return cmd.execute(args);
+        }
+        Object object = supplier.get();
+        try {
+            return ((com.github.wnebyte.jcli.Command) cmd).execute(object, args);
+        } finally {
+            if (supplier instanceof ReleasingSupplier) {
+                ((ReleasingSupplier) supplier).release(object);
+            }
+        }
     }
 
     public void accept(String[] input) {
@@ -197,51 +511,534 @@ public class CLI {
     }
 
     public void accept(String input) {
+        accept(input, session);
+    }
+
+    /**
+     * Dispatches the specified <code>input</code> on behalf of a new session which writes to the specified
+     * <code>out</code> and <code>err</code>, instead of to the streams of the <code>Configuration</code>.
+     * @param input to be dispatched.
+     * @param out the standard output of the session.
+     * @param err the error output of the session.
+     * @return the status of the invocation.
+     * @see #accept(String, InvocationContext)
+     */
+    public int accept(String input, PrintStream out, PrintStream err) {
+        return accept(input, new InvocationContext(conf.in(), out, err));
+    }
+
+    /**
+     * Dispatches the specified <code>input</code> on behalf of the specified session.
+     * <br>
+     * Help views, errors, and the output of any Commands that make use of their {@link InvocationContext},
+     * are written to the streams of the session, which allows for a single instance to serve several sessions
+     * concurrently.
+     * @param input to be dispatched.
+     * @param ctx the session on whose behalf the input is to be dispatched.
+     * @return {@link #SUCCESS} if the input was dispatched to a Command that returned normally,
+     * {@link #FAILURE} if the Command threw, {@link #CANCELLED} if the session has been cancelled,
+     * otherwise {@link #USAGE_ERROR}.
+     */
+    public int accept(String input, InvocationContext ctx) {
+        if (ctx.isCancelled()) {
+            return CANCELLED;
+        }
+        InvocationContext prev = InvocationContext.enter(ctx);
+
+        try {
+            return dispatch(input, ctx, true);
+        } finally {
+            InvocationContext.exit(prev);
+        }
+    }
+
+    /**
+     * Dispatches the specified <code>argv</code>, e.g. that of a process, on behalf of the specified session.
+     * <br>
+     * The leading words of the argv name the Command, and every word that follows is passed to the Command as a
+     * verbatim token, as are those of a {@link BinaryRequest}; so the boundaries of the words are retained, and
+     * they may hold whitespace and quotes.
+     * @param argv to be dispatched.
+     * @param ctx the session on whose behalf the argv is to be dispatched.
+     * @return the status of the invocation.
+     * @see #accept(String, InvocationContext)
+     */
+    public int accept(List<String> argv, InvocationContext ctx) {
+        if (argv == null) {
+            throw new NullPointerException(
+                    "Argv may not be null."
+            );
+        }
+        if (ctx.isCancelled()) {
+            return CANCELLED;
+        }
+        InvocationContext prev = InvocationContext.enter(ctx);
+
+        try {
+            return dispatch(argv, ctx);
+        } finally {
+            InvocationContext.exit(prev);
+        }
+    }
+
+    /**
+     * Decodes and dispatches the {@link BinaryRequest} starting at the current position of the specified
+     * <code>request</code>.
+     * @param request to be decoded and dispatched.
+     * @return the status of the invocation.
+     * @see #accept(ByteBuffer, InvocationContext)
+     */
+    public int accept(ByteBuffer request) {
+        return accept(request, session);
+    }
+
+    /**
+     * Decodes and dispatches the {@link BinaryRequest} starting at the current position of the specified
+     * <code>request</code> on behalf of a new session which writes to the specified <code>out</code>
+     * and <code>err</code>.
+     * @param request to be decoded and dispatched.
+     * @param out the standard output of the session.
+     * @param err the error output of the session.
+     * @return the status of the invocation.
+     * @see #accept(ByteBuffer, InvocationContext)
+     */
+    public int accept(ByteBuffer request, PrintStream out, PrintStream err) {
+        return accept(request, new InvocationContext(conf.in(), out, err));
+    }
+
+    /**
+     * Decodes and dispatches the {@link BinaryRequest} starting at the current position of the specified
+     * <code>request</code> on behalf of the specified session.
+     * @param request to be decoded and dispatched.
+     * @param ctx the session on whose behalf the request is to be dispatched.
+     * @return the status of the invocation.
+     * @see #accept(String, InvocationContext)
+     */
+    public int accept(ByteBuffer request, InvocationContext ctx) {
+        if (ctx.isCancelled()) {
+            return CANCELLED;
+        }
+        InvocationContext prev = InvocationContext.enter(ctx);
+
+        try {
+            return dispatch(request, ctx);
+        } finally {
+            InvocationContext.exit(prev);
+        }
+    }
+
+    private int dispatch(String input, InvocationContext ctx, boolean journal) {
         TokenSequence tokens = TokenSequence.tokenize(input);
+        Snapshot s = snapshot;
 
         try {
-            AbstractCommand cmd = lookup(input, tokens);
-            tokens = slice(tokens, cmd);
-            if (isHelp(tokens)) {
-                Formatter<ContextView> formatter
-                        = conf.getHelpFormatter();
-                conf.out().println(formatter.apply(contextViewOf(cmd)));
+            AbstractCommand cmd = lookup(s.model, input, tokens);
+            return execute(s, cmd, input, slice(tokens, cmd), false, ctx, journal);
+        }
+        catch (UnknownCommandException e) {
+            if (conf.isJsonLines()) {
+                report(ctx.out(), null, USAGE_ERROR, 0, null, e);
             } else {
-                Object[] args = parser.parse(input, tokens, cmd.getArguments());
-                cmd.execute(args);
+                Formatter<UnknownCommandException> formatter
+                        = conf.getUnknownCommandFormatter();
+                ctx.err().println(formatter.apply(e));
+            }
+        }
+        return USAGE_ERROR;
+    }
+
+    private int dispatch(List<String> argv, InvocationContext ctx) {
+        String input = String.join(Strings.WHITESPACE, argv);
+        Snapshot s = snapshot;
+
+        try {
+            AbstractCommand cmd = argv.isEmpty() ? null : s.model.find(argv);
+            if (cmd == null) {
+                throw new UnknownCommandException(String.format(
+                        "'%s' is not recognized as an internal command.", input), input,
+                        suggest(s.model, TokenSequence.tokenize(input)));
             }
+            return execute(s, cmd, input, argv.subList(cmd.getDepth(), argv.size()), true, ctx, true);
         }
         catch (UnknownCommandException e) {
-            Formatter<UnknownCommandException> formatter
-                    = conf.getUnknownCommandFormatter();
-            conf.err().println(formatter.apply(e));
+            if (conf.isJsonLines()) {
+                report(ctx.out(), null, USAGE_ERROR, 0, null, e);
+            } else {
+                Formatter<UnknownCommandException> formatter
+                        = conf.getUnknownCommandFormatter();
+                ctx.err().println(formatter.apply(e));
+            }
+        }
+        return USAGE_ERROR;
+    }
+
+    private int dispatch(ByteBuffer request, InvocationContext ctx) {
+        try {
+            BinaryRequest req = BinaryRequest.decode(request);
+            String input = req.toString();
+            Snapshot s = snapshot;
+            AbstractCommand cmd = req.hasId() ?
+                    lookup(s.model, input, req.getId()) :
+                    lookup(s.model, input, TokenSequence.tokenize(req.getName()));
+            return execute(s, cmd, input, req.getTokens(), true, ctx, true);
+        }
+        catch (MalformedRequestException e) {
+            if (conf.isJsonLines()) {
+                report(ctx.out(), null, USAGE_ERROR, 0, null, e);
+            } else {
+                ctx.err().println(e.getMessage());
+            }
+        }
+        catch (UnknownCommandException e) {
+            if (conf.isJsonLines()) {
+                report(ctx.out(), null, USAGE_ERROR, 0, null, e);
+            } else {
+                Formatter<UnknownCommandException> formatter
+                        = conf.getUnknownCommandFormatter();
+                ctx.err().println(formatter.apply(e));
+            }
+        }
+        return USAGE_ERROR;
+    }
+
+    private int execute(
+            Snapshot s,
+            AbstractCommand cmd,
+            String input,
+            Iterable<String> tokens,
+            boolean verbatim,
+            InvocationContext ctx,
+            boolean journal
+    ) {
+        ctx.setResult(null);
+        int status = conf.isJsonLines() ?
+                executeJson(s, cmd, input, tokens, verbatim, ctx) : executeText(s, cmd, input, tokens, verbatim, ctx);
+        Journal j = conf.getJournal();
+
+        // the record is appended after the Command has run, so a failed append reports an input that has taken
+        // effect as a failure.
+        if (journal && j != null && status == SUCCESS && !isHelp(tokens) && !isHelp(cmd)) {
+            try {
+                j.append(record(cmd, tokens, verbatim));
+            }
+            catch (JournalException | IllegalArgumentException e) {
+                ctx.err().printf("(Error): Could not Journal Input: '%s'%n", e.getMessage());
+                return FAILURE;
+            }
+        }
+
+        return status;
+    }
+
+    /*
+    records are the key of the Command followed by its verbatim tokens, quoted as by Journal.join, so that they
+    are replayed by key regardless of how the Command was looked up, and hold tokens with whitespace and quotes.
+     */
+    private static String record(AbstractCommand cmd, Iterable<String> tokens, boolean verbatim) {
+        String args = Journal.join(verbatim ? tokens : TokenListParser.verbatim(tokens, cmd));
+        String key = CommandModel.keyOf(cmd);
+        return args.isEmpty() ? key : key.concat(Strings.WHITESPACE).concat(args);
+    }
+
+    /*
+    whether the specified Command is the help Command of this class.
+     */
+    private static boolean isHelp(AbstractCommand cmd) {
+        return (cmd instanceof com.github.wnebyte.jcli.Command) &&
+                ((com.github.wnebyte.jcli.Command) cmd).getMethod().getDeclaringClass() == CLI.class;
+    }
+
+    /*
+    the tokens of a text input are parsed by the parser; verbatim tokens (of a BinaryRequest) are passed to the
+    Command as they are.
+     */
+    private Object[] parse(
+            AbstractCommand cmd,
+            String input,
+            Iterable<String> tokens,
+            boolean verbatim
+    ) throws ParseException {
+        return verbatim ?
+                TokenListParser.parse(input, tokens, cmd) : parser.parse(input, tokens, cmd.getArguments());
+    }
+
+    private int executeText(
+            Snapshot s,
+            AbstractCommand cmd,
+            String input,
+            Iterable<String> tokens,
+            boolean verbatim,
+            InvocationContext ctx
+    ) {
+        PrintStream err = ctx.err();
+
+        try {
+            if (isHelp(tokens)) {
+                ctx.out().println(helpCache(s.model).get(cmd));
+            } else {
+                Object[] args = parse(cmd, input, tokens, verbatim);
+                ctx.setResult(invoke(s, cmd, args));
+            }
+            return SUCCESS;
+        }
+        catch (CommandExecutionException e) {
+            err.printf("(Error): Method Threw an Exception: '%s'%n", e.getCause().getClass());
+            return FAILURE;
         }
         catch (TypeConversionException e) {
             Formatter<TypeConversionException> formatter
                     = conf.getFormatter(TypeConversionException.class);
-            conf.err().println(formatter.apply(e));
+            err.println(formatter.apply(e));
         }
         catch (NoSuchArgumentException e) {
             Formatter<NoSuchArgumentException> formatter
                     = conf.getFormatter(NoSuchArgumentException.class);
-            conf.err().println(formatter.apply(e));
+            err.println(formatter.apply(e));
         }
         catch (MalformedArgumentException e) {
             Formatter<MalformedArgumentException> formatter
                     = conf.getFormatter(MalformedArgumentException.class);
-            conf.err().println(formatter.apply(e));
+            err.println(formatter.apply(e));
         }
         catch (MissingArgumentException e) {
             Formatter<MissingArgumentException> formatter
                     = conf.getFormatter(MissingArgumentException.class);
-            conf.err().println(formatter.apply(e));
+            err.println(formatter.apply(e));
         }
         catch (ConstraintException e) {
             Formatter<ConstraintException> formatter
                     = conf.getFormatter(ConstraintException.class);
-            conf.err().println(formatter.apply(e));
+            err.println(formatter.apply(e));
         }
         catch (ParseException ignored) {}
+        return USAGE_ERROR;
+    }
+
+    private int executeJson(
+            Snapshot s,
+            AbstractCommand cmd,
+            String input,
+            Iterable<String> tokens,
+            boolean verbatim,
+            InvocationContext ctx
+    ) {
+        long start = System.nanoTime();
+        Object payload = null;
+        Throwable error = null;
+        int status = SUCCESS;
+
+        try {
+            if (isHelp(tokens)) {
+                payload = helpCache(s.model).get(cmd);
+            } else {
+                Object[] args = parse(cmd, input, tokens, verbatim);
+                payload = invoke(s, cmd, args);
+                ctx.setResult(payload);
+            }
+        }
+        catch (CommandExecutionException e) {
+            error = e.getCause();
+            status = FAILURE;
+        }
+        catch (ParseException e) {
+            error = e;
+            status = USAGE_ERROR;
+        }
+
+        report(ctx.out(), cmd, status, System.nanoTime() - start, payload, error);
+        return status;
+    }
+
+    /**
+     * Writes the outcome of an invocation to the specified <code>out</code> as a single line of JSON.
+     * <br>
+     * The line is encoded, while holding the lock of <code>out</code>, so that lines written by concurrent
+     * invocations are never interleaved, by a writer that is reused for as long as lines are reported to the same
+     * stream, and is written to <code>out</code> whenever the buffer of the writer fills up, and once it is done.
+     */
+    private void report(PrintStream out, AbstractCommand cmd, int status, long nanos, Object payload, Throwable error) {
+        synchronized (out) {
+            ReportWriter writer = reportWriter;
+            if (writer == null || writer.out != out) {
+                writer = new ReportWriter(out);
+                reportWriter = writer;
+            }
+            JsonWriter json = writer.json;
+            try {
+                json.beginObject()
+                        .name("command").value((cmd == null) ? null : cmd.getCanonicalName())
+                        .name("status").value(status)
+                        .name("duration").value(TimeUnit.NANOSECONDS.toMicros(nanos))
+                        .name("payload").value(payload);
+                if (error != null) {
+                    json.name("error").value(error.getClass().getSimpleName())
+                            .name("message").value(error.getMessage());
+                }
+                if (error instanceof UnknownCommandException && ((UnknownCommandException) error).hasSuggestions()) {
+                    json.name("suggestions").beginArray();
+                    for (String suggestion : ((UnknownCommandException) error).getSuggestions()) {
+                        json.value(suggestion);
+                    }
+                    json.endArray();
+                }
+                json.endObject().newLine();
+                json.flush();
+            } catch (IOException ignored) {
+                // PrintStreams do not throw; errors are reported by checkError().
+            } catch (RuntimeException | Error e) {
+                // e.g. thrown by the toString method of the payload; the next line starts afresh.
+                json.reset();
+                throw e;
+            }
+        }
+    }
+
+
+    /**
+     * Re-executes every record of the journal stored at the specified <code>path</code>, in the order that
+     * they were appended, e.g. to restore the state held by singleton controllers after a restart.
+     * <br>
+     * Records are the key of the Command that was invoked, followed by its tokens as joined by
+     * {@link Journal#join(Iterable)}, whether the Command was invoked by a text input or a {@link BinaryRequest};
+     * the tokens are passed to the Command verbatim.
+     * <br>
+     * The standard output of replayed Commands is discarded, errors are written to the error output of the
+     * <code>Configuration</code>, and replayed records are not appended to the configured {@link Journal}.
+     * @param path either the directory of a journal, or a single segment.
+     * @return the number of records replayed.
+     * @throws IOException if the journal could not be read.
+     */
+    public long replay(Path path) throws IOException {
+        PrintStream discard = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) { }
+
+            @Override
+            public void write(byte[] b, int off, int len) { }
+        });
+        InvocationContext ctx = new InvocationContext(conf.in(), discard, conf.err());
+        InvocationContext prev = InvocationContext.enter(ctx);
+
+        try {
+            return Journal.read(path, record -> replay(record, ctx));
+        } finally {
+            InvocationContext.exit(prev);
+        }
+    }
+
+    private int replay(String record, InvocationContext ctx) {
+        Snapshot s = snapshot;
+
+        try {
+            List<String> words = Journal.split(record);
+            AbstractCommand cmd = words.isEmpty() ? null : s.model.find(words);
+            if (cmd == null) {
+                throw new UnknownCommandException(String.format(
+                        "'%s' is not recognized as an internal command.", record), record);
+            }
+            return execute(s, cmd, record, words.subList(cmd.getDepth(), words.size()), true, ctx, false);
+        }
+        catch (IllegalArgumentException e) {
+            ctx.err().printf("(Error): Could not Replay Record: '%s'%n", e.getMessage());
+        }
+        catch (UnknownCommandException e) {
+            if (conf.isJsonLines()) {
+                report(ctx.out(), null, USAGE_ERROR, 0, null, e);
+            } else {
+                Formatter<UnknownCommandException> formatter
+                        = conf.getUnknownCommandFormatter();
+                ctx.err().println(formatter.apply(e));
+            }
+        }
+        return USAGE_ERROR;
+    }
+
+    /**
+     * Returns the candidates for completing the word that ends at the specified <code>cursor</code> of the
+     * specified <code>line</code>, e.g. as typed into a line editor, in ascending order.
+     * <br>
+     * The first word completes to the name of an unprefixed Command or a top-level group, and the word after a
+     * group to the name of a Command or a group within it. Once a Command has been named, a word completes to
+     * the name of an Argument that has not yet been given, and the word after the name of an Argument with
+     * choices, to one of its choices. Every candidate is a whole word, which is to replace the partial word; if the cursor
+     * follows whitespace, the partial word is empty, and every candidate in its place is returned.
+     * @param line the line.
+     * @param cursor the position of the cursor within the line.
+     * @return the candidates.
+     */
+    public List<String> complete(String line, int cursor) {
+        line = Objects.requireNonNullElseGet(line, () -> Strings.EMPTY);
+        String text = line.substring(0, Math.min(Math.max(cursor, 0), line.length()));
+        String trimmed = text.trim();
+        List<String> words = trimmed.isEmpty() ?
+                new ArrayList<>() : new ArrayList<>(Arrays.asList(trimmed.split("\\s+")));
+        String partial = (text.isEmpty() || Character.isWhitespace(text.charAt(text.length() - 1))) ?
+                Strings.EMPTY : words.remove(words.size() - 1);
+        CommandModel model = getModel();
+
+        if (words.isEmpty()) {
+            return model.completeName(null, partial, 0);
+        }
+        if (model.isPrefix(String.join(Strings.WHITESPACE, words))) {
+            // the partial word is the name of a Command or a group, within the group.
+            return model.completeName(String.join(Strings.WHITESPACE, words), partial, 0);
+        }
+        AbstractCommand cmd = model.find(words);
+        if (cmd == null) {
+            return new ArrayList<>(0);
+        }
+        List<String> given = words.subList(cmd.getDepth(), words.size());
+        return completeArgument(cmd, given, partial);
+    }
+
+    /*
+    a Command only has a handful of Arguments, so they are scanned rather than indexed.
+     */
+    private static List<String> completeArgument(AbstractCommand cmd, List<String> given, String partial) {
+        Set<String> candidates = new TreeSet<>();
+        String last = given.isEmpty() ? null : given.get(given.size() - 1);
+
+        for (com.github.wnebyte.jarguments.Argument arg : cmd.getArguments()) {
+            if (!arg.hasNames()) {
+                // positional Arguments have no names to complete.
+                continue;
+            }
+            if (last != null && arg.getNames().contains(last) && !(arg instanceof Flag)) {
+                // the partial word is the value of the last Argument.
+                candidates.clear();
+                if (arg.hasChoices()) {
+                    for (String choice : arg.getChoices()) {
+                        if (!choice.isEmpty() && choice.startsWith(partial)) {
+                            candidates.add(choice);
+                        }
+                    }
+                }
+                return new ArrayList<>(candidates);
+            }
+            if (Collections.disjoint(arg.getNames(), given)) {
+                for (String name : arg.getNames()) {
+                    if (name.startsWith(partial)) {
+                        candidates.add(name);
+                    }
+                }
+            }
+        }
+
+        return new ArrayList<>(candidates);
+    }
+
+    /**
+     * @return the Configuration of this instance.
+     */
+    public Configuration getConfiguration() {
+        return conf;
+    }
+
+    /**
+     * @return the Commands that this instance dispatches input to.
+     */
+    public CommandModel getModel() {
+        return snapshot.model;
     }
 
     public Consumer<String> toConsumer() {
@@ -250,45 +1047,230 @@ public class CLI {
 
     public void run() {
         Scanner scanner = new Scanner(conf.in());
+        History history = conf.getHistory();
 
         while (scanner.hasNextLine()) {
             String input = scanner.nextLine();
+            if (history != null) {
+                history.append(input.trim());
+            }
             accept(input);
         }
     }
 
-    protected AbstractCommand lookup(String input, TokenSequence tokens) throws UnknownCommandException {
-        AbstractCommand cmd = getCommand(tokens);
+    protected AbstractCommand lookup(CommandModel model, String input, TokenSequence tokens)
+            throws UnknownCommandException {
+        AbstractCommand cmd = getCommand(model, tokens);
         if (cmd == null) {
             throw new UnknownCommandException(String.format(
-                    "'%s' is not recognized as an internal command.", input), input);
+                    "'%s' is not recognized as an internal command.", input), input, suggest(model, tokens));
         }
         return cmd;
     }
 
-    protected String getKey(TokenSequence tokens) {
-        String key = tokens.get(0);
+    /*
+    the input may be a prefixed name with a typo in any part of its path, followed by arguments, so its leading
+    tokens are matched, longest first.
+     */
+    private static List<String> suggest(CommandModel model, TokenSequence tokens) {
+        if (tokens == null || tokens.size() == 0) {
+            return null;
+        }
+        Set<String> suggestions = new LinkedHashSet<>();
+        int depth = Math.min(tokens.size(), MAX_SUGGESTION_DEPTH);
+        String[] keys = new String[depth];
+        keys[0] = tokens.get(0);
+        for (int i = 1; i < depth; i++) {
+            keys[i] = keys[i - 1].concat(Strings.WHITESPACE).concat(tokens.get(i));
+        }
+        for (int i = depth - 1; i >= 0; i--) {
+            suggestions.addAll(model.suggest(keys[i], MAX_SUGGESTIONS));
+        }
+        List<String> result = new ArrayList<>(suggestions);
+        return (result.size() > MAX_SUGGESTIONS) ? result.subList(0, MAX_SUGGESTIONS) : result;
+    }
 
-        if (tokens.size() >= 2 && prefixes.contains(key)) {
-            key = tokens.get(0).concat(tokens.get(1));
+    protected AbstractCommand lookup(CommandModel model, String input, int id) throws UnknownCommandException {
+        if (id < 0 || id >= model.size()) {
+            throw new UnknownCommandException(String.format(
+                    "'%s' is not recognized as an internal command.", input), input);
         }
+        return model.getCommands().get(id);
+    }
 
-        return key;
+    /**
+     * Returns the id of the Command with the specified (optionally prefixed) <code>name</code>, for use with
+     * {@link BinaryRequest#encode(int, String...)}.
+     * <br>
+     * Ids are stable for as long as the set of mapped Commands remains unchanged, i.e. until a Command is
+     * registered or unregistered.
+     * @param name the (optionally prefixed) name of the Command.
+     * @return the id of the Command if one exists,
+     * otherwise <code>-1</code>.
+     */
+    public int idOf(String name) {
+        CommandModel model = getModel();
+        AbstractCommand cmd = getCommand(model, TokenSequence.tokenize(name));
+        return (cmd == null) ? -1 : model.idOf(cmd);
     }
 
-    protected AbstractCommand getCommand(TokenSequence tokens) {
+    protected AbstractCommand getCommand(CommandModel model, TokenSequence tokens) {
         if (tokens == null || tokens.size() == 0) {
             return null;
         }
-        String key = getKey(tokens);
-        AbstractCommand cmd = index.get(key);
-        return cmd;
+        return model.find(tokens);
     }
 
-    @Command("--help, -h")
-    protected final void help() {
-        for (AbstractCommand cmd : commands) {
-            conf.out().println(conf.getHelpFormatter().apply(contextViewOf(cmd)));
+    /**
+     * Prints the help views of the Commands whose keys match the specified <code>filter</code>, either a prefix
+     * or a glob, one page at a time; or, when writing JSON lines, returns them as the payload, which is written
+     * as an array of views.
+     * <br>
+     * Matching Commands are located by binary search over the Commands sorted by key (prefix followed by name),
+     * and their views are produced one at a time, and written to the output (or the payload) as they are, so
+     * neither the time taken nor the memory used grows with the size of the command set, but only with the size
+     * of the page. Views are rendered once, and are re-rendered only after the help formatter has been replaced.
+     * <br>
+     * As the Commands of a group share the start of their keys, they are listed together, below the Commands of
+     * the enclosing group; a filter that is the (whitespace-separated) path of a group lists the Commands below it.
+     */
+    @Command(value = "--help, -h", description = "prints the help views of the matching commands")
+    protected final Iterable<String> help(
+            InvocationContext ctx,
+            @Argument(value = "--filter, -f", description = "a prefix, or a glob using * and ?", metavar = "PATTERN")
+            String filter,
+            @Argument(value = "--page, -p", description = "the page to print, starting at 1", defaultValue = "1")
+            int page,
+            @Argument(value = "--limit, -l", description = "the number of commands per page", defaultValue = "0")
+            int limit
+    ) {
+        CommandModel model = getModel();
+        long skip = (limit > 0) ? (long) (Math.max(page, 1) - 1) * limit : 0;
+        HelpViews views;
+
+        if (Globs.isGlob(filter)) {
+            String prefix = Globs.literalPrefix(filter);
+            views = new HelpViews(helpCache(model), model.startingWith(prefix), model.keysStartingWith(prefix),
+                    Globs.compile(filter), skip, limit);
+        } else {
+            // a group lists the Commands below it, rather than every key that merely starts with its name.
+            String prefix = model.isPrefix(filter) ? filter.trim().concat(Strings.WHITESPACE) : filter;
+            views = new HelpViews(helpCache(model), model.startingWith(prefix), null, null, skip, limit);
+        }
+
+        if (conf.isJsonLines()) {
+            return views;
+        }
+        PrintStream out = ctx.out();
+        for (String view : views) {
+            out.println(view);
+        }
+        return null;
+    }
+
+    /*
+    ###########################
+    #      NESTED CLASSES     #
+    ###########################
+    */
+
+    /*
+    the help views of a page of matching Commands, in key order; every iteration matches the Commands again, and
+    renders (or looks up) one view at a time, so that the views can be written as they are produced.
+     */
+    private static final class HelpViews implements Iterable<String> {
+
+        private final HelpCache cache;
+
+        private final List<AbstractCommand> commands;
+
+        /*
+        the keys of the Commands, if they are matched by the glob, otherwise null.
+         */
+        private final List<String> keys;
+
+        private final Pattern glob;
+
+        private final long skip;
+
+        private final int limit;
+
+        private HelpViews(
+                HelpCache cache,
+                List<AbstractCommand> commands,
+                List<String> keys,
+                Pattern glob,
+                long skip,
+                int limit
+        ) {
+            this.cache = cache;
+            this.commands = commands;
+            this.keys = keys;
+            this.glob = glob;
+            this.skip = skip;
+            this.limit = limit;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<String>() {
+                // the index of the next Command, and the number of matches up to it.
+                private int i = 0;
+                private long matches = 0;
+
+                @Override
+                public boolean hasNext() {
+                    if (limit > 0 && matches >= skip + limit) {
+                        return false;
+                    }
+                    for (; i < commands.size(); i++) {
+                        if (matches(i)) {
+                            if (matches >= skip) {
+                                return true;
+                            }
+                            matches++;
+                        }
+                    }
+                    return false;
+                }
+
+                @Override
+                public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    matches++;
+                    return cache.get(commands.get(i++));
+                }
+            };
+        }
+
+        private boolean matches(int i) {
+            return (glob == null) || glob.matcher(keys.get(i)).matches();
+        }
+    }
+
+    private static final class ReportWriter {
+
+        private final PrintStream out;
+
+        private final JsonWriter json;
+
+        private ReportWriter(PrintStream out) {
+            this.out = out;
+            this.json = new JsonWriter(out);
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final CommandModel model;
+
+        private final Map<AbstractCommand, Supplier<Object>> bindings;
+
+        private Snapshot(CommandModel model, Map<AbstractCommand, Supplier<Object>> bindings) {
+            this.model = model;
+            this.bindings = bindings;
         }
     }
-}
\ No newline at end of file
+}
@@ -2,13 +2,19 @@ package com.github.wnebyte.jcli;
 
 import java.util.*;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import com.github.wnebyte.jarguments.Argument;
 import com.github.wnebyte.jarguments.util.AbstractArgumentFactory;
 import com.github.wnebyte.jarguments.util.Strings;
+import com.github.wnebyte.jcli.exception.CommandExecutionException;
 import com.github.wnebyte.jcli.exception.IllegalAnnotationException;
+import com.github.wnebyte.jcli.processor.ReleasingSupplier;
 import com.github.wnebyte.jcli.util.Annotations;
+import com.github.wnebyte.jcli.util.StringPool;
 import static com.github.wnebyte.jarguments.util.Objects.requireNonNullElseGet;
 
 /**
@@ -22,26 +28,53 @@ public class Command extends AbstractCommand {
     ###########################
     */
 
+    /**
+     * Supplies the object that the underlying Java Method is invoked on, or is <code>null</code> if this
+     * Command is not bound to one (in which case the object is supplied by the invoking front-end).
+     */
     private final Supplier<Object> supplier;
 
     private final Method method;
 
+    /**
+     * The positions of the Java Parameters that are to receive the current {@link InvocationContext}.
+     */
+    private final int[] contextPositions;
+
+    /**
+     * The bindings of the {@link com.github.wnebyte.jcli.annotation.Arguments} annotated Java Parameters, by
+     * position, or <code>null</code> if there are none.
+     */
+    private final ArgumentsBinding[] argumentsBindings;
+
     /*
     ###########################
     #       CONSTRUCTORS      #
     ###########################
     */
 
+    /**
+     * Constructs a new instance that is not bound to an object; the object that the underlying Java Method is to
+     * be invoked on has to be passed to {@link #execute(Object, Object[])}.
+     * @param method the underlying Java Method.
+     * @param factory to be used to create the Arguments of the Command.
+     */
+    public Command(Method method, AbstractArgumentFactory factory) {
+        this(null, method, factory);
+    }
+
     public Command(
             Supplier<Object> supplier,
             Method method,
             AbstractArgumentFactory factory
     ) {
         super(resolvePrefix(method, factory), resolveNames(method, factory),
-                resolveDesc(method), resolveArgs(method, factory));
+                resolveDesc(method), resolveArgs(method, factory), factory.getTypeAdapters());
         this.supplier = supplier;
         this.method = method;
         this.method.setAccessible(true);
+        this.contextPositions = resolveContextPositions(method);
+        this.argumentsBindings = resolveArgumentsBindings(method);
     }
 
     /*
@@ -51,8 +84,21 @@ public class Command extends AbstractCommand {
     */
 
     private static String resolvePrefix(Method method, AbstractArgumentFactory factory) {
-        String prefix = Annotations.getName(method.getDeclaringClass());
-        return Strings.removeAll(requireNonNullElseGet(prefix, () -> Strings.EMPTY), factory.getExcludeCharacters());
+        return normalizePrefix(Annotations.getPath(method.getDeclaringClass()), factory.getExcludeCharacters());
+    }
+
+    /*
+    the segments of the path are normalized one at a time, as the excluded characters include whitespace.
+     */
+    static String normalizePrefix(List<String> path, Collection<Character> exclude) {
+        StringJoiner prefix = new StringJoiner(Strings.WHITESPACE);
+        for (String segment : path) {
+            segment = Strings.removeAll(segment, exclude);
+            if (!segment.isEmpty()) {
+                prefix.add(segment);
+            }
+        }
+        return prefix.toString();
     }
 
     private static Set<String> resolveNames(Method method, AbstractArgumentFactory factory) {
@@ -66,7 +112,7 @@ public class Command extends AbstractCommand {
         return requireNonNullElseGet(description, () -> Strings.EMPTY);
     }
 
-    private static Set<String> normalize(Set<String> names, Collection<Character> exclude) {
+    static Set<String> normalize(Set<String> names, Collection<Character> exclude) {
         Set<String> set = new LinkedHashSet<>(names.size());
 
         for (String name : names) {
@@ -91,13 +137,30 @@ public class Command extends AbstractCommand {
 
         try {
             for (Parameter param : params) {
+                if (isContext(param)) {
+                    continue;
+                }
+                if (Annotations.isArguments(param)) {
+                    for (Field field : ArgumentsBinding.getFields(param.getType())) {
+                        factory.create(
+                                StringPool.of(Annotations.getNamesAsString(field)),
+                                StringPool.of(Annotations.getDescription(field)),
+                                Annotations.isRequired(field),
+                                Annotations.getChoices(field),
+                                StringPool.of(Annotations.getMetavar(field)),
+                                StringPool.of(Annotations.getDefaultValue(field)),
+                                field.getType()
+                        );
+                    }
+                    continue;
+                }
                 factory.create(
-                        Annotations.getNamesAsString(param),
-                        Annotations.getDescription(param),
+                        StringPool.of(Annotations.getNamesAsString(param)),
+                        StringPool.of(Annotations.getDescription(param)),
                         Annotations.isRequired(param),
                         Annotations.getChoices(param),
-                        Annotations.getMetavar(param),
-                        Annotations.getDefaultValue(param),
+                        StringPool.of(Annotations.getMetavar(param)),
+                        StringPool.of(Annotations.getDefaultValue(param)),
                         param.getType()
                 );
             }
@@ -110,6 +173,33 @@ public class Command extends AbstractCommand {
         return factory.getAll();
     }
 
+    private static boolean isContext(Parameter param) {
+        return (param.getType() == InvocationContext.class);
+    }
+
+    private static int[] resolveContextPositions(Method method) {
+        Parameter[] params = method.getParameters();
+        return IntStream.range(0, params.length)
+                .filter(i -> isContext(params[i]))
+                .toArray();
+    }
+
+    private static ArgumentsBinding[] resolveArgumentsBindings(Method method) {
+        Parameter[] params = method.getParameters();
+        ArgumentsBinding[] bindings = null;
+
+        for (int i = 0; i < params.length; i++) {
+            if (Annotations.isArguments(params[i])) {
+                if (bindings == null) {
+                    bindings = new ArgumentsBinding[params.length];
+                }
+                bindings[i] = ArgumentsBinding.of(params[i]);
+            }
+        }
+
+        return bindings;
+    }
+
     /*
     ###########################
     #         METHODS         #
@@ -120,17 +210,101 @@ public class Command extends AbstractCommand {
      * Executes this <code>Command</code> by invoking its underlying Java Method with the specified
      * <code>args</code>.
      * @param args to be passed to the underlying Java Method.
+     * @return the value returned by the underlying Java Method, or <code>null</code> if it is void.
+     * @throws CommandExecutionException if the underlying Java Method threw, or could not be invoked.
      */
     @Override
-    final void execute(Object[] args) {
+    final Object execute(Object[] args) {
+        if (supplier == null) {
+            throw new IllegalStateException(
+                    "Command is not bound to an object."
+            );
+        }
         Object object = supplier.get();
+        try {
+            return execute(object, args);
+        } finally {
+            if (supplier instanceof ReleasingSupplier) {
+                ((ReleasingSupplier) supplier).release(object);
+            }
+        }
+    }
 
+    /**
+     * Executes this <code>Command</code> by invoking its underlying Java Method on the specified
+     * <code>object</code> with the specified <code>args</code>.
+     * @param object the object to invoke the underlying Java Method on (<code>null</code> if it is static).
+     * @param args to be passed to the underlying Java Method.
+     * @return the value returned by the underlying Java Method, or <code>null</code> if it is void.
+     * @throws CommandExecutionException if the underlying Java Method threw, or could not be invoked.
+     */
+    final Object execute(Object object, Object[] args) {
         try {
-            method.invoke(object, args);
+            return method.invoke(object, expand(args));
         }
-        catch (Exception e) {
-            System.err.printf("(Error): Method Threw an Exception: '%s'%n", e.getCause().getClass());
+        catch (InvocationTargetException e) {
+            throw new CommandExecutionException(e.getCause());
         }
+        catch (IllegalAccessException e) {
+            throw new CommandExecutionException(e);
+        }
+    }
+
+    /**
+     * @return the underlying Java Method.
+     */
+    public final Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Inserts the current {@link InvocationContext} into the specified parsed <code>args</code>.
+     */
+    private Object[] expand(Object[] args) {
+        if (argumentsBindings != null) {
+            return bind(args);
+        }
+        if (contextPositions.length == 0) {
+            return args;
+        }
+        Object[] params = new Object[args.length + contextPositions.length];
+        InvocationContext ctx = InvocationContext.current();
+        int i = 0, j = 0;
+
+        for (int k = 0; k < params.length; k++) {
+            if (j < contextPositions.length && contextPositions[j] == k) {
+                params[k] = ctx;
+                j++;
+            } else {
+                params[k] = args[i++];
+            }
+        }
+
+        return params;
+    }
+
+    /**
+     * Inserts the current {@link InvocationContext} into the specified parsed <code>args</code>, and binds the
+     * consecutive values of every {@link com.github.wnebyte.jcli.annotation.Arguments} annotated Parameter into
+     * a single object.
+     */
+    private Object[] bind(Object[] args) {
+        Object[] params = new Object[argumentsBindings.length];
+        int i = 0, j = 0;
+
+        for (int k = 0; k < params.length; k++) {
+            if (j < contextPositions.length && contextPositions[j] == k) {
+                params[k] = InvocationContext.current();
+                j++;
+            } else if (argumentsBindings[k] != null) {
+                params[k] = argumentsBindings[k].bind(args, i);
+                i += argumentsBindings[k].size();
+            } else {
+                params[k] = args[i++];
+            }
+        }
+
+        return params;
     }
 
     @Override
@@ -0,0 +1,358 @@
+package com.github.wnebyte.jcli;
+
+import java.util.*;
+import com.github.wnebyte.jarguments.Argument;
+import com.github.wnebyte.jarguments.adapter.AbstractTypeAdapterRegistry;
+import com.github.wnebyte.jarguments.adapter.TypeAdapterRegistry;
+import com.github.wnebyte.jarguments.util.AbstractArgumentFactory;
+import com.github.wnebyte.jarguments.util.ArgumentFactory;
+import com.github.wnebyte.jcli.exception.CommandExecutionException;
+import com.github.wnebyte.jcli.exception.ConfigException;
+import com.github.wnebyte.jcli.util.StringPool;
+
+/**
+ * This class is used to build Commands from lambdas and typed {@link Arg} descriptors, without reflection;
+ * e.g.:
+ * <pre>
+ * AbstractCommand cmd = CommandBuilder.named("put")
+ *         .prefix("kv")
+ *         .arg(Arg.ofString("-k").required())
+ *         .arg(Arg.ofInt("-n"))
+ *         .handler((ctx, k, n) -&gt; store.put(k, n));
+ * </pre>
+ * The built Commands are equivalent to those mapped from annotated Java Methods, but no Method, Parameter or
+ * annotation is read to build or execute them. They can be passed to
+ * {@link Configuration#setCommands(AbstractCommand...)}, or registered with a running CLI by
+ * {@link CLI#register(AbstractCommand)}.
+ * <br>
+ * The handler receives the current {@link InvocationContext}, followed by the values of the Arguments, in the
+ * order that they were added. Commands with more than four Arguments, or whose Arguments are only known at
+ * runtime (e.g. read from a configuration file), are built by {@link #args(List)}, whose handler receives the
+ * values as an array.
+ */
+public final class CommandBuilder {
+
+    /*
+    ###########################
+    #      STATIC METHODS     #
+    ###########################
+    */
+
+    /**
+     * Constructs a new instance that builds a Command with the specified <code>names</code>.
+     * @param names the (comma-separated) names of the Command, e.g. <code>"put, p"</code>.
+     * @return a new instance.
+     */
+    public static CommandBuilder named(String names) {
+        return new CommandBuilder(names);
+    }
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    private final String names;
+
+    private String prefix = "";
+
+    private String description = "";
+
+    private AbstractTypeAdapterRegistry adapters = TypeAdapterRegistry.getInstance();
+
+    private final List<Arg<?>> args = new ArrayList<>();
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    private CommandBuilder(String names) {
+        if (names == null || names.trim().isEmpty()) {
+            throw new IllegalArgumentException(
+                    "Names may not be null or empty."
+            );
+        }
+        this.names = names;
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    /**
+     * Specifies the (whitespace-separated) path of groups of the Command, as specified by nested
+     * {@link com.github.wnebyte.jcli.annotation.Controller} annotations for annotated Commands.
+     * @param prefix the prefix.
+     * @return this (for chaining).
+     */
+    public CommandBuilder prefix(String prefix) {
+        this.prefix = (prefix == null) ? "" : prefix;
+        return this;
+    }
+
+    public CommandBuilder description(String description) {
+        this.description = (description == null) ? "" : description;
+        return this;
+    }
+
+    /**
+     * Specifies the registry of the TypeAdapters that the Arguments of the Command are to be converted by;
+     * by default it is the shared {@link TypeAdapterRegistry} instance.
+     * @param adapters the registry.
+     * @return this (for chaining).
+     */
+    public CommandBuilder typeAdapters(AbstractTypeAdapterRegistry adapters) {
+        if (adapters == null) {
+            throw new NullPointerException(
+                    "AbstractTypeAdapterRegistry may not be null."
+            );
+        }
+        this.adapters = adapters;
+        return this;
+    }
+
+    public <A> Arity1<A> arg(Arg<A> a) {
+        return new Arity1<>(add(a));
+    }
+
+    /**
+     * Adds the specified <code>args</code>, whose types are not known until runtime.
+     * @param args the Arguments, in order.
+     * @return the next stage.
+     */
+    public Dynamic args(List<? extends Arg<?>> args) {
+        if (args == null) {
+            throw new NullPointerException(
+                    "Args may not be null."
+            );
+        }
+        args.forEach(this::add);
+        return new Dynamic(this);
+    }
+
+    public AbstractCommand handler(Handler0 handler) {
+        requireNonNull(handler);
+        return build((ctx, values) -> handler.handle(ctx));
+    }
+
+    private CommandBuilder add(Arg<?> arg) {
+        if (arg == null) {
+            throw new NullPointerException(
+                    "Arg may not be null."
+            );
+        }
+        args.add(arg);
+        return this;
+    }
+
+    /*
+    the Arguments are created in the order that they were added, which is the order of the values that the parser
+    passes to the Command.
+     */
+    private AbstractCommand build(Invoker invoker) {
+        AbstractArgumentFactory factory = new ArgumentFactory(adapters, null, null);
+        Collection<Character> exclude = factory.getExcludeCharacters();
+        String prefix = Command.normalizePrefix(Arrays.asList(this.prefix.trim().split("\\s+")), exclude);
+        Set<String> names = Command.normalize(
+                new LinkedHashSet<>(Arrays.asList(this.names.replace(" ", "").split(","))), exclude);
+
+        try {
+            for (Arg<?> arg : args) {
+                factory.create(
+                        StringPool.of(arg.getNames()),
+                        StringPool.of(arg.getDescription()),
+                        arg.isRequired(),
+                        arg.getChoices(),
+                        StringPool.of(arg.getMetavar()),
+                        StringPool.of(arg.getDefaultValue()),
+                        arg.getType()
+                );
+            }
+        } catch (Exception e) {
+            throw new ConfigException(
+                    e.getMessage()
+            );
+        }
+
+        return new BuiltCommand(prefix, names, description, factory.getAll(), adapters, invoker);
+    }
+
+    private static void requireNonNull(Object handler) {
+        if (handler == null) {
+            throw new NullPointerException(
+                    "Handler may not be null."
+            );
+        }
+    }
+
+    /*
+    ###########################
+    #      NESTED CLASSES     #
+    ###########################
+    */
+
+    @FunctionalInterface
+    public interface Handler0 {
+        void handle(InvocationContext ctx) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Handler1<A> {
+        void handle(InvocationContext ctx, A a) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Handler2<A, B> {
+        void handle(InvocationContext ctx, A a, B b) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Handler3<A, B, C> {
+        void handle(InvocationContext ctx, A a, B b, C c) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Handler4<A, B, C, D> {
+        void handle(InvocationContext ctx, A a, B b, C c, D d) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface DynamicHandler {
+        void handle(InvocationContext ctx, Object[] values) throws Exception;
+    }
+
+    public static final class Arity1<A> {
+
+        private final CommandBuilder builder;
+
+        private Arity1(CommandBuilder builder) {
+            this.builder = builder;
+        }
+
+        public <B> Arity2<A, B> arg(Arg<B> b) {
+            return new Arity2<>(builder.add(b));
+        }
+
+        @SuppressWarnings("unchecked")
+        public AbstractCommand handler(Handler1<A> handler) {
+            requireNonNull(handler);
+            return builder.build((ctx, values) -> handler.handle(ctx, (A) values[0]));
+        }
+    }
+
+    public static final class Arity2<A, B> {
+
+        private final CommandBuilder builder;
+
+        private Arity2(CommandBuilder builder) {
+            this.builder = builder;
+        }
+
+        public <C> Arity3<A, B, C> arg(Arg<C> c) {
+            return new Arity3<>(builder.add(c));
+        }
+
+        @SuppressWarnings("unchecked")
+        public AbstractCommand handler(Handler2<A, B> handler) {
+            requireNonNull(handler);
+            return builder.build((ctx, values) -> handler.handle(ctx, (A) values[0], (B) values[1]));
+        }
+    }
+
+    public static final class Arity3<A, B, C> {
+
+        private final CommandBuilder builder;
+
+        private Arity3(CommandBuilder builder) {
+            this.builder = builder;
+        }
+
+        public <D> Arity4<A, B, C, D> arg(Arg<D> d) {
+            return new Arity4<>(builder.add(d));
+        }
+
+        @SuppressWarnings("unchecked")
+        public AbstractCommand handler(Handler3<A, B, C> handler) {
+            requireNonNull(handler);
+            return builder.build((ctx, values) ->
+                    handler.handle(ctx, (A) values[0], (B) values[1], (C) values[2]));
+        }
+    }
+
+    public static final class Arity4<A, B, C, D> {
+
+        private final CommandBuilder builder;
+
+        private Arity4(CommandBuilder builder) {
+            this.builder = builder;
+        }
+
+        @SuppressWarnings("unchecked")
+        public AbstractCommand handler(Handler4<A, B, C, D> handler) {
+            requireNonNull(handler);
+            return builder.build((ctx, values) ->
+                    handler.handle(ctx, (A) values[0], (B) values[1], (C) values[2], (D) values[3]));
+        }
+    }
+
+    public static final class Dynamic {
+
+        private final CommandBuilder builder;
+
+        private Dynamic(CommandBuilder builder) {
+            this.builder = builder;
+        }
+
+        public AbstractCommand handler(DynamicHandler handler) {
+            requireNonNull(handler);
+            return builder.build(handler::handle);
+        }
+    }
+
+    private interface Invoker {
+        void invoke(InvocationContext ctx, Object[] values) throws Exception;
+    }
+
+    /*
+    the parsed values are passed to the handler as they are; there is nothing to expand, as the context is passed
+    separately.
+     */
+    private static final class BuiltCommand extends AbstractCommand {
+
+        private final Invoker invoker;
+
+        private BuiltCommand(
+                String prefix,
+                Set<String> names,
+                String description,
+                Set<Argument> arguments,
+                AbstractTypeAdapterRegistry adapters,
+                Invoker invoker
+        ) {
+            super(prefix, names, description, arguments, adapters);
+            this.invoker = invoker;
+        }
+
+        /**
+         * Executes this Command by calling its handler with the current {@link InvocationContext} and the
+         * specified <code>args</code>.
+         * @param args the parsed arguments.
+         * @return <code>null</code>.
+         * @throws CommandExecutionException if the handler threw.
+         */
+        @Override
+        Object execute(Object[] args) {
+            try {
+                invoker.invoke(InvocationContext.current(), args);
+                return null;
+            } catch (Exception e) {
+                throw new CommandExecutionException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,700 @@
+package com.github.wnebyte.jcli;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+import java.lang.reflect.Method;
+import com.github.wnebyte.jarguments.adapter.AbstractTypeAdapterRegistry;
+import com.github.wnebyte.jarguments.util.ArgumentFactory;
+import com.github.wnebyte.jarguments.util.Strings;
+import com.github.wnebyte.jcli.apropos.Apropos;
+import com.github.wnebyte.jcli.exception.IllegalAnnotationException;
+import com.github.wnebyte.jcli.processor.MethodScanner;
+import com.github.wnebyte.jcli.processor.MethodScannerImpl;
+import com.github.wnebyte.jcli.processor.PostMappingFilter;
+import com.github.wnebyte.jcli.processor.PreMappingFilter;
+import com.github.wnebyte.jcli.util.BKTree;
+import com.github.wnebyte.jcli.util.CommandIdentifier;
+import com.github.wnebyte.jcli.util.Objects;
+import com.github.wnebyte.jcli.util.Trie;
+
+/**
+ * This class represents the immutable, compiled set of Commands that one or more {@link CLI} front-ends
+ * dispatch their input to.
+ * <br>
+ * A model holds the scanned, mapped, indexed and sorted Commands, including their parsed Arguments, but none
+ * of the objects that the Commands are invoked on; those are resolved by every front-end, using its own
+ * <code>Configuration</code> and instance tracker. Building a model once and sharing it between many front-ends
+ * (e.g. one per tenant) therefore avoids repeating the scan and the mapping, and the memory they take up, for every
+ * front-end.
+ */
+public final class CommandModel {
+
+    /*
+    ###########################
+    #      STATIC FIELDS      #
+    ###########################
+    */
+
+    private static final Comparator<Method> METHOD_ORDER =
+            Comparator.comparing((Method method) -> method.getDeclaringClass().getName())
+                    .thenComparing(Method::getName)
+                    .thenComparing(Method::toGenericString);
+
+    /*
+    ###########################
+    #      STATIC METHODS     #
+    ###########################
+    */
+
+    /**
+     * Builds a new model from the scanning options and the type adapters of the specified <code>conf</code>.
+     * @param conf the Configuration to be used, or <code>null</code> for the default Configuration.
+     * @return a new instance.
+     */
+    public static CommandModel build(Configuration conf) {
+        conf = Objects.requireNonNullElseGet(conf, Configuration::new);
+        MethodScanner scanner = new MethodScannerImpl();
+        scan(scanner, conf);
+        List<AbstractCommand> commands = map(
+                scanner.getScannedElements(), conf.getTypeAdapterRegistry(), conf.isParallelMapping());
+        if (conf.getCommands() != null) {
+            // the prebuilt Commands are checked for collisions along with the mapped ones.
+            commands.addAll(conf.getCommands());
+            PostMappingFilter filter = new PostMappingFilter();
+            for (AbstractCommand cmd : commands) {
+                filter.test(cmd);
+            }
+        }
+        commands.sort(AbstractCommand::compareTo);
+        return new CommandModel(commands);
+    }
+
+    /**
+     * Returns the key of the specified <code>cmd</code> as displayed and searched by the help Command, which is
+     * its prefix followed by a whitespace and its canonical name, if it has a prefix, otherwise its canonical name.
+     * @param cmd the Command.
+     * @return the key of the Command.
+     */
+    public static String keyOf(AbstractCommand cmd) {
+        return cmd.hasPrefix() ?
+                cmd.getPrefix().concat(Strings.WHITESPACE).concat(cmd.getCanonicalName()) : cmd.getCanonicalName();
+    }
+
+    private static void scan(MethodScanner scanner, Configuration conf) {
+        Set<Object> objects = conf.getScanObjects();
+        Set<Class<?>> classes = conf.getScanClasses();
+        Set<String> packages = conf.getScanPackages();
+        Set<CommandIdentifier> commandIdentifiers = conf.getScanCommandIdentifiers();
+        Set<Method> methods = conf.getScanMethods();
+
+        if (objects != null) {
+            scanner.scanObjects(objects);
+        }
+        if (classes != null) {
+            scanner.scanClasses(classes);
+        }
+        if (packages != null) {
+            scanner.scanUrls(packages);
+        }
+        if (commandIdentifiers != null) {
+            scanner.scanMethods(commandIdentifiers.stream().map(CommandIdentifier::getMethod).collect(Collectors.toSet()));
+        }
+        if (methods != null) {
+            scanner.scanMethods(methods);
+        }
+        if (!conf.isMapHelpCommand()) {
+            scanner.removeScannedElementIf(m -> m.getDeclaringClass() == CLI.class);
+        }
+        else {
+            scanner.scanClass(CLI.class);
+        }
+        if (!conf.isApropos()) {
+            scanner.removeScannedElementIf(m -> m.getDeclaringClass() == Apropos.class);
+        }
+        else {
+            scanner.scanClass(Apropos.class);
+        }
+        if (conf.getExcludeClasses() != null) {
+            scanner.removeScannedElementIf(m -> conf.getExcludeClasses().contains(m.getDeclaringClass()));
+        }
+    }
+
+    /*
+    the scanned Methods are put in a fixed order, and every Method is filtered and mapped into its own slot, which
+    are then registered, in order, by a single thread; so whether the Methods are mapped one at a time or on the
+    fork/join pool, the same Commands are built, and the first Method (in order) that fails is the one reported.
+     */
+    static List<AbstractCommand> map(
+            Collection<Method> scanned,
+            AbstractTypeAdapterRegistry adapters,
+            boolean parallel
+    ) {
+        Method[] methods = scanned.toArray(new Method[0]);
+        Arrays.sort(methods, METHOD_ORDER);
+        Object[] results = new Object[methods.length];
+        MappingTask task = new MappingTask(methods, results, adapters, parallel, 0, methods.length);
+
+        if (parallel) {
+            ForkJoinPool.commonPool().invoke(task);
+        } else {
+            task.compute();
+        }
+
+        PostMappingFilter filter = new PostMappingFilter();
+        List<AbstractCommand> commands = new ArrayList<>(results.length);
+        for (Object result : results) {
+            if (result instanceof RuntimeException) {
+                throw (RuntimeException) result;
+            }
+            if (result != null && filter.test((AbstractCommand) result)) {
+                commands.add((AbstractCommand) result);
+            }
+        }
+        return commands;
+    }
+
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    private final List<AbstractCommand> commands;
+
+    /*
+    the groups and Commands, keyed on the tokens that select them; the prefix of a Command is the path of groups
+    that lead to it.
+     */
+    private final Node root;
+
+    /*
+    every (optionally prefixed) name, as typed, for suggesting names that resemble unknown input.
+     */
+    private final BKTree names;
+
+    /*
+    the Commands sorted by their keys; built on first use.
+     */
+    private volatile KeyIndex keyIndex;
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    private CommandModel(List<AbstractCommand> commands) {
+        this(commands, new Node(), BKTree.of(namesOf(commands)));
+        Set<Node> copies = Collections.newSetFromMap(new IdentityHashMap<>());
+        copies.add(root);
+        for (AbstractCommand cmd : commands) {
+            insert(root, cmd, copies);
+        }
+    }
+
+    private CommandModel(List<AbstractCommand> commands, Node root, BKTree names) {
+        this.commands = Collections.unmodifiableList(commands);
+        this.root = root;
+        this.names = names;
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    /*
+    models are persistent: a new model shares the nodes of the tree of the model that it is derived from, except
+    for those on the paths of the added or removed Commands, which are copied (once) before they are modified.
+     */
+    private static Node copy(Node parent, String segment, Set<Node> copies) {
+        Node node = parent.groups.get(segment);
+        if (node != null && copies.contains(node)) {
+            return node;
+        }
+        if (node == null) {
+            node = new Node();
+            parent.names = parent.names.with(segment);
+        } else {
+            node = new Node(node);
+        }
+        copies.add(node);
+        parent.groups.put(segment, node);
+        return node;
+    }
+
+    /*
+    collisions are checked per node, so that a name can only select either a group or a Command.
+     */
+    private static void insert(Node root, AbstractCommand cmd, Set<Node> copies) {
+        Node node = root;
+
+        if (cmd.hasPrefix()) {
+            for (String segment : cmd.getPrefix().split(Strings.WHITESPACE)) {
+                if (node.commands.containsKey(segment)) {
+                    throw new IllegalAnnotationException(
+                            String.format(
+                                    "Command: '%s' has a prefix that has already been mapped as a name.", cmd
+                            )
+                    );
+                }
+                node = copy(node, segment, copies);
+            }
+        }
+
+        for (String name : cmd.getNames()) {
+            if (node.commands.containsKey(name)) {
+                throw new IllegalAnnotationException(
+                        String.format(
+                                "A Command with prefix: %s and one or more of the names: %s has already been mapped.",
+                                cmd.getPrefix(), Arrays.toString(cmd.getNames().toArray())
+                        )
+                );
+            }
+            if (node.groups.containsKey(name)) {
+                throw new IllegalAnnotationException(
+                        String.format(
+                                "Command: '%s' has a name that has already been mapped as a prefix.", cmd
+                        )
+                );
+            }
+            node.commands.put(name, cmd);
+            node.names = node.names.with(name);
+        }
+    }
+
+    /*
+    removes the names of the specified Command, and then the groups on its path that have been left empty.
+     */
+    private static void remove(Node root, AbstractCommand cmd, Set<Node> copies) {
+        String[] segments = cmd.hasPrefix() ? cmd.getPrefix().split(Strings.WHITESPACE) : new String[0];
+        Node[] path = new Node[segments.length + 1];
+        path[0] = root;
+
+        for (int i = 0; i < segments.length; i++) {
+            if (!path[i].groups.containsKey(segments[i])) {
+                return;
+            }
+            path[i + 1] = copy(path[i], segments[i], copies);
+        }
+
+        Node node = path[segments.length];
+        for (String name : cmd.getNames()) {
+            if (node.commands.remove(name, cmd)) {
+                node.names = node.names.without(name);
+            }
+        }
+        for (int i = segments.length; i > 0 && path[i].isEmpty(); i--) {
+            path[i - 1].groups.remove(segments[i - 1]);
+            path[i - 1].names = path[i - 1].names.without(segments[i - 1]);
+        }
+    }
+
+    /**
+     * Returns a new model that holds the Commands of this model and the specified <code>commands</code>; this
+     * model is left unchanged.
+     * <br>
+     * Only the specified <code>commands</code> are checked and indexed: the new model shares the groups, and the
+     * names that complete and resemble input, of this one, except for those on the paths of the added Commands,
+     * and builds its sorted index of keys on first use.
+     * @param commands the Commands to add.
+     * @return a new instance.
+     * @throws com.github.wnebyte.jcli.exception.IllegalAnnotationException if any of the Commands collides with
+     * another Command or group.
+     */
+    public CommandModel with(Collection<? extends AbstractCommand> commands) {
+        if (commands == null) {
+            throw new NullPointerException(
+                    "Commands may not be null."
+            );
+        }
+        List<AbstractCommand> added = new ArrayList<>(commands);
+        PostMappingFilter filter = new PostMappingFilter();
+        for (AbstractCommand cmd : added) {
+            filter.test(cmd);
+        }
+        added.sort(AbstractCommand::compareTo);
+
+        Node root = new Node(this.root);
+        Set<Node> copies = Collections.newSetFromMap(new IdentityHashMap<>());
+        copies.add(root);
+        for (AbstractCommand cmd : added) {
+            insert(root, cmd, copies);
+        }
+        BKTree names = this.names;
+        for (String name : namesOf(added)) {
+            names = names.with(name);
+        }
+
+        // merge the (sorted) added Commands into the (sorted) Commands of this model.
+        List<AbstractCommand> list = new ArrayList<>(this.commands.size() + added.size());
+        int i = 0, j = 0;
+        while (i < this.commands.size() && j < added.size()) {
+            list.add((this.commands.get(i).compareTo(added.get(j)) <= 0) ? this.commands.get(i++) : added.get(j++));
+        }
+        list.addAll(this.commands.subList(i, this.commands.size()));
+        list.addAll(added.subList(j, added.size()));
+        return new CommandModel(list, root, names);
+    }
+
+    /**
+     * Returns a new model that holds the Commands of this model, except for the specified <code>commands</code>;
+     * this model is left unchanged, and its groups are shared as by {@link #with(Collection)}.
+     * @param commands the Commands to remove.
+     * @return a new instance.
+     */
+    public CommandModel without(Collection<? extends AbstractCommand> commands) {
+        if (commands == null) {
+            throw new NullPointerException(
+                    "Commands may not be null."
+            );
+        }
+        Set<AbstractCommand> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (AbstractCommand cmd : commands) {
+            if (idOf(cmd) != -1) {
+                removed.add(cmd);
+            }
+        }
+        if (removed.isEmpty()) {
+            return this;
+        }
+
+        Node root = new Node(this.root);
+        Set<Node> copies = Collections.newSetFromMap(new IdentityHashMap<>());
+        copies.add(root);
+        for (AbstractCommand cmd : removed) {
+            remove(root, cmd, copies);
+        }
+        BKTree names = this.names;
+        for (String name : namesOf(removed)) {
+            names = names.without(name);
+        }
+
+        List<AbstractCommand> list = new ArrayList<>(this.commands.size() - removed.size());
+        for (AbstractCommand cmd : this.commands) {
+            if (!removed.contains(cmd)) {
+                list.add(cmd);
+            }
+        }
+        return new CommandModel(list, root, names);
+    }
+
+    /**
+     * @return the (unmodifiable) sorted List of Commands held by this instance.
+     */
+    public List<AbstractCommand> getCommands() {
+        return commands;
+    }
+
+    /**
+     * Returns the Command with the specified <code>key</code>, which is the prefix of the Command followed by a
+     * whitespace and its name, if it has a prefix, otherwise its name.
+     * @param key the (whitespace-separated) key of the Command.
+     * @return the Command if one exists,
+     * otherwise <code>null</code>.
+     */
+    public AbstractCommand get(String key) {
+        if (key == null) {
+            return null;
+        }
+        String trimmed = key.trim();
+        return trimmed.isEmpty() ? null : find(Arrays.asList(trimmed.split("\\s+")));
+    }
+
+    /**
+     * Returns the Command selected by the leading <code>tokens</code>, by descending one group per token until
+     * a token names a Command. The remaining tokens, if any, are the arguments of the Command, and start at
+     * its {@link AbstractCommand#getDepth() depth}.
+     * <br>
+     * Lookup costs one hash lookup per token of the prefix and the name of the Command, regardless of the
+     * number of Commands.
+     * @param tokens the tokens.
+     * @return the Command if one exists,
+     * otherwise <code>null</code>.
+     */
+    public AbstractCommand find(Iterable<String> tokens) {
+        Node node = root;
+        for (String token : tokens) {
+            AbstractCommand cmd = node.commands.get(token);
+            if (cmd != null) {
+                return cmd;
+            }
+            node = node.groups.get(token);
+            if (node == null) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param path a (whitespace-separated) path of tokens.
+     * @return <code>true</code> if the specified <code>path</code> is the prefix of one or more Commands,
+     * otherwise <code>false</code>.
+     */
+    public boolean isPrefix(String path) {
+        return group(path) != null;
+    }
+
+    private Node group(String path) {
+        if (path == null || path.trim().isEmpty()) {
+            return null;
+        }
+        Node node = root;
+        for (String token : path.trim().split("\\s+")) {
+            node = node.groups.get(token);
+            if (node == null) {
+                return null;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Returns the id of the specified <code>cmd</code>, which is its position in the sorted List of Commands.
+     * @param cmd the Command.
+     * @return the id of the Command if it is held by this instance,
+     * otherwise <code>-1</code>.
+     */
+    public int idOf(AbstractCommand cmd) {
+        if (cmd == null || !cmd.hasCanonicalName()) {
+            return -1;
+        }
+        int id = Collections.binarySearch(commands, cmd, AbstractCommand::compareTo);
+        return (id >= 0 && commands.get(id) == cmd) ? id : -1;
+    }
+
+    /**
+     * Returns the (optionally prefixed) names of Commands that most closely resemble the specified
+     * <code>name</code>, ordered by ascending edit distance.
+     * <br>
+     * The names are held in a BK-tree, built with the model, so only a small part of them are compared to the
+     * specified <code>name</code>.
+     * @param name the (optionally prefixed, whitespace-separated) name.
+     * @param limit the maximum number of names to return.
+     * @return the names resembling the specified <code>name</code>.
+     */
+    public List<String> suggest(String name, int limit) {
+        if (name == null || name.isEmpty()) {
+            return new ArrayList<>(0);
+        }
+        // allow for one typo per three characters, but no more than three in total.
+        int maxDistance = Math.max(1, Math.min(3, name.length() / 3));
+        List<String> result = names.search(name, maxDistance);
+        return (result.size() > limit) ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * Returns the Commands whose keys (see {@link #keyOf(AbstractCommand)}) start with the specified
+     * <code>prefix</code>, sorted by their keys.
+     * <br>
+     * The Commands are located by binary search, so the returned (unmodifiable) view is obtained in
+     * <code>O(log n)</code> time, after the sorted index has been built on first use.
+     * @param prefix the prefix, or <code>null</code> for every Command.
+     * @return the matching Commands.
+     */
+    public List<AbstractCommand> startingWith(String prefix) {
+        KeyIndex index = keyIndex();
+        int[] range = index.range(prefix);
+        return index.commands.subList(range[0], range[1]);
+    }
+
+    /**
+     * Returns the keys of the Commands returned by {@link #startingWith(String)}, in the same order, so that
+     * they can be matched without computing the key of every Command again.
+     * @param prefix the prefix, or <code>null</code> for every Command.
+     * @return the (unmodifiable) matching keys.
+     */
+    public List<String> keysStartingWith(String prefix) {
+        KeyIndex index = keyIndex();
+        int[] range = index.range(prefix);
+        return index.keyList.subList(range[0], range[1]);
+    }
+
+    /**
+     * Returns the names that complete the specified <code>partial</code> name, in ascending order.
+     * <br>
+     * If the specified <code>prefix</code> is <code>null</code>, the candidates are the names of the unprefixed
+     * Commands, and of the top-level groups; otherwise they are the names of the Commands and the groups directly
+     * below the group with that (whitespace-separated) path. Names are held in tries, one per group, built with the
+     * model, so completing costs time in proportion to the length of the partial name and the number of
+     * candidates, but not to the number of Commands.
+     * @param prefix the prefix, or <code>null</code>.
+     * @param partial the partial name.
+     * @param limit the maximum number of names to return, or <code>0</code> for no limit.
+     * @return the candidates.
+     */
+    public List<String> completeName(String prefix, String partial, int limit) {
+        Node node = (prefix == null || prefix.isEmpty()) ? root : group(prefix);
+        return (node == null) ? new ArrayList<>(0) : node.names.startingWith(partial, limit);
+    }
+
+    /*
+    the (optionally prefixed) names of the specified Commands, as typed.
+     */
+    private static List<String> namesOf(Collection<AbstractCommand> commands) {
+        List<String> names = new ArrayList<>(commands.size());
+        for (AbstractCommand cmd : commands) {
+            for (String name : cmd.getNames()) {
+                names.add(cmd.hasPrefix() ? cmd.getPrefix().concat(Strings.WHITESPACE).concat(name) : name);
+            }
+        }
+        return names;
+    }
+
+    private KeyIndex keyIndex() {
+        KeyIndex index = keyIndex;
+        if (index == null) {
+            index = new KeyIndex(commands);
+            keyIndex = index;
+        }
+        return index;
+    }
+
+    public int size() {
+        return commands.size();
+    }
+
+    /*
+    ###########################
+    #      NESTED CLASSES     #
+    ###########################
+    */
+
+    /*
+    maps the Methods in the range [from, to) into their slots, splitting the range while it is large.
+     */
+    private static final class MappingTask extends RecursiveAction {
+
+        private static final int THRESHOLD = 16;
+
+        private final Method[] methods;
+
+        private final Object[] results;
+
+        private final AbstractTypeAdapterRegistry adapters;
+
+        private final boolean fork;
+
+        private final int from, to;
+
+        private MappingTask(
+                Method[] methods,
+                Object[] results,
+                AbstractTypeAdapterRegistry adapters,
+                boolean fork,
+                int from,
+                int to
+        ) {
+            this.methods = methods;
+            this.results = results;
+            this.adapters = adapters;
+            this.fork = fork;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (fork && to - from > THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new MappingTask(methods, results, adapters, true, from, mid),
+                        new MappingTask(methods, results, adapters, true, mid, to));
+                return;
+            }
+            PreMappingFilter filter = new PreMappingFilter();
+            for (int i = from; i < to; i++) {
+                try {
+                    results[i] = filter.test(methods[i]) ?
+                            new Command(methods[i], new ArgumentFactory(adapters, null, null)) : null;
+                } catch (RuntimeException e) {
+                    results[i] = e;
+                }
+            }
+        }
+    }
+
+    private static final class KeyIndex {
+
+        private final String[] keys;
+
+        private final List<String> keyList;
+
+        private final List<AbstractCommand> commands;
+
+        private KeyIndex(List<AbstractCommand> commands) {
+            AbstractCommand[] sorted = commands.toArray(new AbstractCommand[0]);
+            Arrays.sort(sorted, Comparator.comparing(CommandModel::keyOf));
+            this.keys = new String[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                keys[i] = keyOf(sorted[i]);
+            }
+            this.keyList = Collections.unmodifiableList(Arrays.asList(keys));
+            this.commands = Collections.unmodifiableList(Arrays.asList(sorted));
+        }
+
+        /*
+        the range [from, to) of the keys that start with the specified prefix.
+         */
+        private int[] range(String prefix) {
+            if (prefix == null || prefix.isEmpty()) {
+                return new int[] { 0, keys.length };
+            }
+            int from = 0, to = keys.length;
+            // the first key that is not less than the prefix.
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) {
+                    from = mid + 1;
+                } else {
+                    to = mid;
+                }
+            }
+            int lo = from;
+            to = keys.length;
+            // the first key, from there on, that does not start with the prefix.
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (keys[mid].startsWith(prefix)) {
+                    from = mid + 1;
+                } else {
+                    to = mid;
+                }
+            }
+            return new int[] { lo, from };
+        }
+    }
+
+    /*
+    the nodes of a model are never modified once it has been constructed; the names of the groups and Commands
+    of a node are also held in a (persistent) trie, for completion.
+     */
+    private static final class Node {
+
+        private final Map<String, Node> groups;
+
+        private final Map<String, AbstractCommand> commands;
+
+        private Trie names;
+
+        private Node() {
+            this.groups = new HashMap<>(4);
+            this.commands = new HashMap<>(4);
+            this.names = new Trie();
+        }
+
+        private Node(Node node) {
+            this.groups = new HashMap<>(node.groups);
+            this.commands = new HashMap<>(node.commands);
+            this.names = node.names;
+        }
+
+        private boolean isEmpty() {
+            return groups.isEmpty() && commands.isEmpty();
+        }
+    }
+}
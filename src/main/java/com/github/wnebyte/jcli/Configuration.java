@@ -1,6 +1,7 @@
 package com.github.wnebyte.jcli;
 
 import java.util.*;
+import java.util.concurrent.Executor;
 import java.io.PrintStream;
 import java.io.InputStream;
 import java.lang.reflect.Method;
@@ -16,6 +17,8 @@ import com.github.wnebyte.jcli.annotation.Command;
 import com.github.wnebyte.jcli.exception.UnknownCommandException;
 import com.github.wnebyte.jcli.di.DependencyContainer;
 import com.github.wnebyte.jcli.di.IDependencyContainer;
+import com.github.wnebyte.jcli.history.History;
+import com.github.wnebyte.jcli.journal.Journal;
 import com.github.wnebyte.jcli.util.CommandIdentifier;
 
 /**
@@ -44,7 +47,9 @@ public class Configuration extends BaseConfiguration {
     */
 
     public static final Formatter<UnknownCommandException> DEFAULT_UNKNOWN_COMMAND_EXCEPTION_FORMATTER
-            = Throwable::getMessage;
+            = e -> e.hasSuggestions() ?
+            e.getMessage() + System.lineSeparator() + "Did you mean: " + String.join(", ", e.getSuggestions()) + "?" :
+            e.getMessage();
 
     /*
     ###########################
@@ -76,6 +81,9 @@ public class Configuration extends BaseConfiguration {
     private Set<Class<?>> excludeClasses
             = null;
 
+    private List<AbstractCommand> commands
+            = null;
+
     private Set<String> packages = new HashSet<String>() {{
         add("");
     }};
@@ -83,6 +91,24 @@ public class Configuration extends BaseConfiguration {
     private boolean mapHelpCommand
             = true;
 
+    private boolean jsonLines
+            = false;
+
+    private boolean mapAproposCommand
+            = false;
+
+    private boolean parallelMapping
+            = false;
+
+    private Executor initializationExecutor
+            = null;
+
+    private Journal journal
+            = null;
+
+    private History history
+            = null;
+
     private Formatter<UnknownCommandException> unknownCommandExceptionFormatter
             = DEFAULT_UNKNOWN_COMMAND_EXCEPTION_FORMATTER;
 
@@ -169,6 +195,9 @@ public class Configuration extends BaseConfiguration {
     /**
      * Specifies that the <code>CLI</code> should use the specified <code>Formatter</code> when catching a
      * thrown <code>UnknownCommandException</code>.
+     * <br>
+     * The names of the Commands that most closely resemble the unknown input are available to the formatter
+     * through {@link UnknownCommandException#getSuggestions()}.
      * @param formatter to be used.
      * @return this (for chaining).
      */
@@ -261,6 +290,20 @@ public class Configuration extends BaseConfiguration {
         return this;
     }
 
+    /**
+     * Specifies that the <code>CLI</code> should hold the specified (prebuilt) <code>commands</code>, in addition
+     * to the Commands mapped from scanned Java Methods; e.g. Commands built by a {@link CommandBuilder}.
+     * @param commands to be held.
+     * @return this (for chaining).
+     */
+    public Configuration setCommands(AbstractCommand... commands) {
+        if (commands != null) {
+            this.commands = new ArrayList<>(Arrays.asList(commands));
+            this.disableScanPackages();
+        }
+        return this;
+    }
+
     /**
      * Specifies that the <code>CLI</code> should exclude the specified <code>classes</code>
      * from being scanned for {@link com.github.wnebyte.jcli.annotation.Command} annotated Java Methods.
@@ -274,6 +317,41 @@ public class Configuration extends BaseConfiguration {
         return this;
     }
 
+    /**
+     * Specifies that the <code>CLI</code> should append every input that was successfully dispatched to a
+     * Command to the specified <code>journal</code>; the journal can later be replayed using
+     * {@link CLI#replay(java.nio.file.Path)}.
+     * <br>
+     * An input is appended once its Command has returned, so that only successful invocations are journaled;
+     * if the append fails, the input is reported as a failure even though its Command has taken effect, and
+     * is missing from the journal.
+     * <br>
+     * <b>Note</b> the <code>CLI</code> does not close the journal.
+     * @param journal the journal to be appended to.
+     * @return this (for chaining).
+     */
+    public Configuration setJournal(Journal journal) {
+        if (journal != null) {
+            this.journal = journal;
+        }
+        return this;
+    }
+
+    /**
+     * Specifies that {@link CLI#run()} should append every line that it reads to the specified
+     * <code>history</code>, which retains the lines across restarts.
+     * <br>
+     * <b>Note</b> the <code>CLI</code> does not close the history.
+     * @param history the history to be appended to.
+     * @return this (for chaining).
+     */
+    public Configuration setHistory(History history) {
+        if (history != null) {
+            this.history = history;
+        }
+        return this;
+    }
+
     /**
      * Specifies that the <code>CLI</code> should <b>not</b> build its default help <code>Command</code>.
      * @return this (for chaining).
@@ -283,6 +361,59 @@ public class Configuration extends BaseConfiguration {
         return this;
     }
 
+    /**
+     * Specifies that the <code>CLI</code> should build the <code>apropos</code> Command, which searches the names
+     * and descriptions of the Commands and their Arguments (see {@link com.github.wnebyte.jcli.apropos.Apropos}).
+     * <b>Note</b> by default it is not built, and its index is never allocated.
+     * @return this (for chaining).
+     */
+    public Configuration enableApropos() {
+        this.mapAproposCommand = true;
+        return this;
+    }
+
+    /**
+     * Specifies that the scanned Java Methods should be mapped into Commands in parallel, on the common
+     * fork/join pool, e.g. when building a large number of Commands.
+     * <b>Note</b> the built Commands, and the error reported if any Method could not be mapped, are the same as
+     * when mapping sequentially, which is the default.
+     * @return this (for chaining).
+     */
+    public Configuration enableParallelMapping() {
+        this.parallelMapping = true;
+        return this;
+    }
+
+    /**
+     * Specifies that the singleton Controllers (and the injectables that they depend on) should be constructed
+     * on the specified <code>executor</code> when the <code>CLI</code> is built; each one as soon as its
+     * dependencies have been, so that independent Controllers with expensive Constructors are constructed in
+     * parallel.
+     * <b>Note</b> that the dependency graph is resolved, and checked for cycles, before anything is constructed,
+     * whether or not an executor is specified; by default, the Controllers are constructed one after another.
+     * @param executor to construct the Controllers on.
+     * @return this (for chaining).
+     */
+    public Configuration setInitializationExecutor(Executor executor) {
+        this.initializationExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Specifies that the <code>CLI</code> should write the outcome of every dispatched input as a single line of
+     * JSON to the standard output, instead of passing it through the configured <code>Formatter</code>s.
+     * <br>
+     * Every line holds the <code>command</code> (canonical name), <code>status</code>,
+     * <code>duration</code> (in microseconds) and <code>payload</code> (the value returned by the Command, or
+     * the rendered help view) of the invocation; failed invocations additionally hold the simple class name of
+     * the <code>error</code> (e.g. <code>MissingArgumentException</code>) and its <code>message</code>.
+     * @return this (for chaining).
+     */
+    public Configuration enableJsonLines() {
+        this.jsonLines = true;
+        return this;
+    }
+
     /**
      * Specifies that the <code>CLI</code> should <b>not</b> scan any packages for {@link Command} annotated Java Methods.
      * <b>Note</b> by default all packages are scanned.
@@ -365,6 +496,13 @@ public class Configuration extends BaseConfiguration {
         return excludeClasses;
     }
 
+    /**
+     * @return the <code>List</code> of prebuilt Commands associated with this Configuration.
+     */
+    public List<AbstractCommand> getCommands() {
+        return commands;
+    }
+
     /**
      * Returns whether the <code>CLI</code> should build its default help Command.
      * @return <code>true</code> if the CLI should build its default help Command,
@@ -374,6 +512,55 @@ public class Configuration extends BaseConfiguration {
         return mapHelpCommand;
     }
 
+    /**
+     * Returns whether the <code>CLI</code> should build the <code>apropos</code> Command.
+     * @return <code>true</code> if the CLI should build the apropos Command,
+     * otherwise <code>false</code>.
+     */
+    public boolean isApropos() {
+        return mapAproposCommand;
+    }
+
+    /**
+     * @return the <code>Executor</code> that the singleton Controllers are to be constructed on, or
+     * <code>null</code> if they are to be constructed one after another.
+     */
+    public Executor getInitializationExecutor() {
+        return initializationExecutor;
+    }
+
+    /**
+     * Returns whether the scanned Java Methods should be mapped into Commands in parallel.
+     * @return <code>true</code> if the Methods should be mapped in parallel,
+     * otherwise <code>false</code>.
+     */
+    public boolean isParallelMapping() {
+        return parallelMapping;
+    }
+
+    /**
+     * Returns whether the <code>CLI</code> should write its output as JSON lines.
+     * @return <code>true</code> if the CLI should write its output as JSON lines,
+     * otherwise <code>false</code>.
+     */
+    public boolean isJsonLines() {
+        return jsonLines;
+    }
+
+    /**
+     * @return the Journal associated with this instance, or <code>null</code> if there is none.
+     */
+    public Journal getJournal() {
+        return journal;
+    }
+
+    /**
+     * @return the History associated with this instance, or <code>null</code> if there is none.
+     */
+    public History getHistory() {
+        return history;
+    }
+
     /**
      * @return the UnknownCommandException Formatter associated with this instance.
      */
@@ -0,0 +1,74 @@
+package com.github.wnebyte.jcli;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import com.github.wnebyte.jarguments.ContextView;
+import com.github.wnebyte.jarguments.Formatter;
+
+/**
+ * This class holds the help views of the Commands of a {@link CommandModel}, as rendered by a particular
+ * help formatter.
+ * <br>
+ * Views are rendered lazily, the first time that they are requested, and are then shared by every subsequent
+ * request. An instance is only valid for the model and the formatter that it was created for; see
+ * {@link #isValidFor(CommandModel, Formatter)}.
+ */
+final class HelpCache {
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    private final CommandModel model;
+
+    private final Formatter<ContextView> formatter;
+
+    private final AtomicReferenceArray<String> views;
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    HelpCache(CommandModel model, Formatter<ContextView> formatter) {
+        this.model = model;
+        this.formatter = formatter;
+        this.views = new AtomicReferenceArray<>(model.size());
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    /**
+     * @param model the current model.
+     * @param formatter the current help formatter.
+     * @return <code>true</code> if this instance was created for the specified <code>model</code> and
+     * <code>formatter</code>, otherwise <code>false</code>.
+     */
+    boolean isValidFor(CommandModel model, Formatter<ContextView> formatter) {
+        return (this.model == model) && (this.formatter == formatter);
+    }
+
+    /**
+     * @param cmd the Command.
+     * @return the help view of the specified <code>cmd</code>.
+     */
+    String get(AbstractCommand cmd) {
+        int id = model.idOf(cmd);
+        if (id < 0) {
+            return formatter.apply(CLI.contextViewOf(cmd));
+        }
+        String view = views.get(id);
+        if (view == null) {
+            // racing threads render identical views, so whichever one is kept does not matter.
+            view = formatter.apply(CLI.contextViewOf(cmd));
+            views.set(id, view);
+        }
+        return view;
+    }
+}
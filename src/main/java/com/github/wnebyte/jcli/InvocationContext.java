@@ -0,0 +1,241 @@
+package com.github.wnebyte.jcli;
+
+import java.util.Map;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.ByteArrayInputStream;
+import com.github.wnebyte.jarguments.util.IConsole;
+
+/**
+ * This class represents the session on whose behalf a {@link CLI} dispatches its input.
+ * <br>
+ * It carries the session's streams, an attribute map which outlives individual invocations, and a cancellation
+ * flag. Commands can receive the current instance by declaring a parameter of this type
+ * (no {@link com.github.wnebyte.jcli.annotation.Argument} annotation is required), or by having it injected
+ * through {@link com.github.wnebyte.jcli.annotation.Inject}; in which case the injected instance always
+ * delegates to the session currently being served by the calling thread.
+ */
+public class InvocationContext implements IConsole {
+
+    /*
+    ###########################
+    #      STATIC FIELDS      #
+    ###########################
+    */
+
+    private static final ThreadLocal<InvocationContext> CURRENT = new ThreadLocal<>();
+
+    private static final InvocationContext PROXY = new Proxy();
+
+    /*
+    ###########################
+    #      STATIC METHODS     #
+    ###########################
+    */
+
+    /**
+     * @return the <code>InvocationContext</code> currently being served by the calling thread,
+     * or <code>null</code> if there is none.
+     */
+    public static InvocationContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return an <code>InvocationContext</code> that delegates to the instance currently being served by the
+     * calling thread.
+     */
+    public static InvocationContext proxy() {
+        return PROXY;
+    }
+
+    static InvocationContext enter(InvocationContext ctx) {
+        InvocationContext prev = CURRENT.get();
+        CURRENT.set(ctx);
+        return prev;
+    }
+
+    static void exit(InvocationContext prev) {
+        if (prev == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(prev);
+        }
+    }
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    private final InputStream in;
+
+    private final PrintStream out;
+
+    private final PrintStream err;
+
+    private final Map<String, Object> attributes;
+
+    private volatile boolean cancelled;
+
+    private volatile Object result;
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    public InvocationContext(PrintStream out, PrintStream err) {
+        this(null, out, err);
+    }
+
+    public InvocationContext(InputStream in, PrintStream out, PrintStream err) {
+        this.in = (in == null) ? new ByteArrayInputStream(new byte[0]) : in;
+        this.out = out;
+        this.err = err;
+        this.attributes = new ConcurrentHashMap<>();
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    @Override
+    public PrintStream out() {
+        return out;
+    }
+
+    @Override
+    public PrintStream err() {
+        return err;
+    }
+
+    @Override
+    public InputStream in() {
+        return in;
+    }
+
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    /**
+     * Associates the specified <code>value</code> with the specified <code>name</code> for the remainder of
+     * this session.
+     * @param name the name of the attribute.
+     * @param value the value of the attribute, or <code>null</code> to remove it.
+     * @return the previous value of the attribute, or <code>null</code> if there was none.
+     */
+    public Object setAttribute(String name, Object value) {
+        return (value == null) ? attributes.remove(name) : attributes.put(name, value);
+    }
+
+    public Map<String, Object> getAttributes() {
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    /**
+     * @return the value returned by the Command most recently invoked on behalf of this session, or
+     * <code>null</code> if it returned none, or did not return normally.
+     */
+    public Object getResult() {
+        return result;
+    }
+
+    void setResult(Object result) {
+        this.result = result;
+    }
+
+    /**
+     * @return whether this session has been cancelled. Long-running Commands are expected to poll this flag.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Cancels this session; no further input will be dispatched on its behalf.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /*
+    ###########################
+    #      NESTED CLASSES     #
+    ###########################
+    */
+
+    private static final class Proxy extends InvocationContext {
+
+        private Proxy() {
+            super(null, null);
+        }
+
+        private static InvocationContext get() {
+            InvocationContext ctx = current();
+            if (ctx == null) {
+                throw new IllegalStateException(
+                        "No InvocationContext is being served by the calling thread."
+                );
+            }
+            return ctx;
+        }
+
+        @Override
+        public PrintStream out() {
+            return get().out();
+        }
+
+        @Override
+        public PrintStream err() {
+            return get().err();
+        }
+
+        @Override
+        public InputStream in() {
+            return get().in();
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return get().getAttribute(name);
+        }
+
+        @Override
+        public Object setAttribute(String name, Object value) {
+            return get().setAttribute(name, value);
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return get().getAttributes();
+        }
+
+        @Override
+        public Object getResult() {
+            return get().getResult();
+        }
+
+        @Override
+        void setResult(Object result) {
+            get().setResult(result);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return get().isCancelled();
+        }
+
+        @Override
+        public void cancel() {
+            get().cancel();
+        }
+    }
+}
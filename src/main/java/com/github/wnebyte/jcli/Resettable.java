@@ -0,0 +1,15 @@
+package com.github.wnebyte.jcli;
+
+/**
+ * Implement this interface in a Controller of {@link com.github.wnebyte.jcli.annotation.Scope#POOLED} scope
+ * to clear the state that an invocation left behind, before the instance is returned to its pool.
+ */
+@FunctionalInterface
+public interface Resettable {
+
+    /**
+     * Is called once an invocation on this instance has completed, before it is returned to its pool. If it
+     * throws, the instance is dropped rather than returned.
+     */
+    void reset();
+}
@@ -0,0 +1,162 @@
+package com.github.wnebyte.jcli;
+
+import java.util.*;
+import com.github.wnebyte.jarguments.Argument;
+import com.github.wnebyte.jarguments.ArgumentSupport;
+import com.github.wnebyte.jarguments.Flag;
+import com.github.wnebyte.jarguments.Optional;
+import com.github.wnebyte.jarguments.Positional;
+import com.github.wnebyte.jarguments.adapter.AbstractTypeAdapterRegistry;
+import com.github.wnebyte.jarguments.adapter.TypeAdapter;
+import com.github.wnebyte.jarguments.exception.ConstraintException;
+import com.github.wnebyte.jarguments.exception.MissingArgumentException;
+import com.github.wnebyte.jarguments.exception.NoSuchArgumentException;
+import com.github.wnebyte.jarguments.exception.ParseException;
+import com.github.wnebyte.jarguments.util.Normalizer;
+import com.github.wnebyte.jarguments.util.Sets;
+import com.github.wnebyte.jarguments.util.Strings;
+
+/**
+ * This class parses a list of verbatim tokens, such as those of a
+ * {@link com.github.wnebyte.jcli.protocol.BinaryRequest}, into the values of the Arguments of a Command.
+ * <br>
+ * Tokens are matched to the Arguments as by the text parser, but every value is taken as is: it is neither
+ * matched against the pattern of its Argument, nor stripped of quote characters, so it may hold whitespace and
+ * quotes, which the text syntax can not express. Values that hold neither, and the values of flags and arrays,
+ * are initialized exactly as by the text parser.
+ */
+final class TokenListParser {
+
+    private TokenListParser() { }
+
+    /**
+     * Parses the specified <code>tokens</code> into the values of the Arguments of the specified <code>cmd</code>.
+     * @param input the input that the tokens were received as, for use in error messages.
+     * @param tokens the tokens following the name of the Command.
+     * @param cmd the Command.
+     * @return the values, in the order of the indices of the Arguments.
+     * @throws ParseException if the tokens could not be parsed.
+     */
+    static Object[] parse(String input, Iterable<String> tokens, AbstractCommand cmd) throws ParseException {
+        Set<Argument> remaining = new LinkedHashSet<>(cmd.getArguments());
+        Map<Argument, String> values = new HashMap<>(remaining.size());
+        Iterator<String> it = tokens.iterator();
+        int position = 0;
+
+        while (it.hasNext()) {
+            String token = it.next();
+            Argument arg = ArgumentSupport.getByName(remaining, token);
+            arg = (arg == null) ? ArgumentSupport.getByPosition(remaining, position++) : arg;
+            if (arg == null) {
+                throw new NoSuchArgumentException(
+                        String.format("Argument with name: '%s' does not exists.", token), null, token, input
+                );
+            }
+            String value;
+            if (arg instanceof Flag || arg instanceof Positional) {
+                value = token;
+            } else if (it.hasNext()) {
+                value = it.next();
+            } else {
+                throw new MissingArgumentException(
+                        String.format("Argument: '%s' requires a value.", token), arg, token, input
+                );
+            }
+            remaining.remove(arg);
+            values.put(arg, value);
+        }
+
+        for (Argument arg : remaining) {
+            if (!(arg instanceof Optional)) {
+                throw new MissingArgumentException(
+                        "Arguments that are required have to be specified.", arg, null, input
+                );
+            }
+            values.put(arg, Strings.EMPTY);
+        }
+
+        Object[] args = new Object[values.size()];
+        for (Map.Entry<Argument, String> entry : values.entrySet()) {
+            Argument arg = entry.getKey();
+            args[arg.getIndex()] = initialize(cmd.getTypeAdapters(), arg, entry.getValue(), input);
+        }
+        return args;
+    }
+
+    /**
+     * Converts the specified <code>tokens</code>, as tokenized from a text input that has been successfully
+     * parsed for the specified <code>cmd</code>, into verbatim tokens that {@link #parse(String, Iterable,
+     * AbstractCommand)} parses into the same values, i.e. strips the quote characters from every value
+     * except for those of arrays, which are initialized as they are.
+     * @param tokens the tokens following the name of the Command.
+     * @param cmd the Command.
+     * @return the verbatim tokens.
+     */
+    static List<String> verbatim(Iterable<String> tokens, AbstractCommand cmd) {
+        Set<Argument> remaining = new LinkedHashSet<>(cmd.getArguments());
+        List<String> verbatim = new ArrayList<>();
+        Iterator<String> it = tokens.iterator();
+        int position = 0;
+
+        while (it.hasNext()) {
+            String token = it.next();
+            Argument arg = ArgumentSupport.getByName(remaining, token);
+            arg = (arg == null) ? ArgumentSupport.getByPosition(remaining, position++) : arg;
+            if (arg == null || arg instanceof Flag) {
+                verbatim.add(token);
+                continue;
+            }
+            if (!(arg instanceof Positional)) {
+                verbatim.add(token);
+                if (!it.hasNext()) {
+                    break;
+                }
+                token = it.next();
+            }
+            remaining.remove(arg);
+            verbatim.add(arg.isArray() ? token : Normalizer.normalize(token));
+        }
+
+        return verbatim;
+    }
+
+    private static Object initialize(
+            AbstractTypeAdapterRegistry adapters,
+            Argument arg,
+            String value,
+            String input
+    ) throws ParseException {
+        try {
+            TypeAdapter<?> adapter = (adapters == null) ? null : adapters.get(arg.getType());
+            if (adapter == null || arg instanceof Flag || arg.isArray() || isVerbatim(value)) {
+                return ArgumentSupport.initialize(arg, value);
+            }
+            if (arg.hasChoices() && !arg.getChoices().contains(value)) {
+                throw new ConstraintException(
+                        String.format(
+                                "'%s' is not contained within choices: %s.", value, Sets.toString(arg.getChoices())
+                        )
+                );
+            }
+            return adapter.convert(value);
+        } catch (ParseException e) {
+            e.initArgument(arg);
+            e.initToken(value);
+            e.initInput(input);
+            throw e;
+        }
+    }
+
+    /*
+    whether the text parser would initialize the specified value as is, i.e. it holds no whitespace or quotes.
+     */
+    private static boolean isVerbatim(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isWhitespace(c) || c == '"' || c == '\'') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -61,14 +61,15 @@ import com.github.wnebyte.jarguments.adapter.TypeAdapter;
  * </p>
  * @see Command
  * @see Controller
+ * @see Arguments
  */
 @Retention(RetentionPolicy.RUNTIME)
-@Target({ElementType.PARAMETER})
+@Target({ElementType.PARAMETER, ElementType.FIELD})
 public @interface Argument {
 
     /**
      * <p>Specify a set of names for this Argument, separated by a comma character.</p>
-     * Defaults to the name of the Java Parameter.
+     * Defaults to the name of the Java Parameter (or Field, see {@link Arguments}).
      * @return the name of this Argument.
      */
     String value() default "";
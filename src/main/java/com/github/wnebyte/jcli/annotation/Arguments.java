@@ -0,0 +1,52 @@
+package com.github.wnebyte.jcli.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotate a Parameter of your {@link Command} annotated Java Methods with this annotation to bind a number of
+ * Arguments into a single object, rather than declaring one {@link Argument} annotated Parameter per Argument.
+ * <br>
+ * Here is an example of usage:<br><br>
+ * <pre>
+ * public class Options {
+ *    {@literal @}Argument(value = "-h, --host", required = true)
+ *     String host;
+ *    {@literal @}Argument("-p, --port")
+ *     int port;
+ *     boolean verbose;
+ * }
+ *
+ *{@literal @}Command
+ * public void connect(
+ *        {@literal @}Arguments Options options
+ * ) {
+ *     // code
+ * }
+ * </pre>
+ * <p>Every non-static, non-transient field of the type of the Parameter (and of its superclasses) becomes an
+ * Argument of the Command; a field may be annotated with {@link Argument} to specify its names, description and
+ * more, and is otherwise named after the field.
+ * <br>
+ * The type has to declare either a no-args Constructor, in which case the fields are set once it has been
+ * constructed, or a Constructor whose parameter types are those of its fields, in declaration order (such as
+ * the canonical Constructor of a record), in which case the values are passed to it.
+ * </p>
+ * @see Argument
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.PARAMETER})
+public @interface Arguments {
+
+    /**
+     * Specify whether the object may be reused across invocations of the Command; in which case one object is
+     * kept per thread, and every one of its fields is overwritten prior to each invocation.
+     * <br>
+     * <b>Note</b> that a reused object must not be retained beyond the invocation it was passed to, and that
+     * its type has to declare a no-args Constructor.
+     * @return whether the object may be reused.
+     */
+    boolean reuse() default false;
+}
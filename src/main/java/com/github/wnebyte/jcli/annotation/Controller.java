@@ -26,6 +26,22 @@ import java.lang.annotation.Target;
  * <b>Note</b> that static Commands will also receive the assigned prefix.</p>
  * <br>
  * <pre>
+ *{@literal @}Controller("cluster")
+ * public class Cluster {
+ *
+ *    {@literal @}Controller("node")
+ *     public static class Node {
+ *         // code
+ *     }
+ * }
+ * </pre>
+ * <p>Commands can be grouped into nested groups, either by nesting Controllers, or by specifying a
+ * whitespace-separated path as the name of a Controller, such as "cluster node".<br>
+ * Here the Commands declared by Node receive the prefix "cluster node", and are invoked as
+ * <code>cluster node &lt;name&gt; [args]</code>.<br>
+ * A nested Controller only inherits the names of the Controllers that directly enclose it.</p>
+ * <br>
+ * <pre>
  *{@literal @}Controller(
  *         Scope.SINGLETON
  * )
@@ -38,6 +54,9 @@ import java.lang.annotation.Target;
  * you're specifying that one object should be used for all subsequent Command invocations.<br>
  * If instead a value of type {@link Scope#TRANSIENT} is specified, a new instance will be constructed
  * prior to each invocation.<br>
+ * A value of type {@link Scope#POOLED} specifies that every invocation is to use an instance of its own, taken
+ * from (and then returned to) a pool, and a value of type {@link Scope#THREAD} specifies that one instance is to
+ * be used per thread.<br>
  * <b>Note</b> that your class will only be instantiated if it declares at least one non-static Command annotated
  * Java Method.</p>
  * <br>
@@ -51,10 +70,17 @@ import java.lang.annotation.Target;
 public @interface Controller {
 
     /**
-     * Specify a name for this Controller.
+     * Specify a name, or a whitespace-separated path of names, for this Controller.
      * @return the name of this Controller.
      */
     String value() default "";
 
     Scope scope() default Scope.SINGLETON;
+
+    /**
+     * Specify the maximum number of idle instances that are kept, if the scope is {@link Scope#POOLED}.
+     * Defaults to twice the number of available processors.
+     * @return the size of the pool.
+     */
+    int poolSize() default 0;
 }
@@ -5,6 +5,8 @@ package com.github.wnebyte.jcli.annotation;
  * <ul>
  *     <li>{@linkplain Scope#TRANSIENT}</li>
  *     <li>{@linkplain Scope#SINGLETON}</li>
+ *     <li>{@linkplain Scope#POOLED}</li>
+ *     <li>{@linkplain Scope#THREAD}</li>
  * </ul>
  * @see Controller
  */
@@ -16,5 +18,20 @@ public enum Scope {
     /**
      * Singleton objects are the same for every invocation.
      */
-    SINGLETON
+    SINGLETON,
+    /**
+     * Pooled objects are only used by one invocation at a time; an idle instance is taken from a bounded pool
+     * before every invocation (or a new instance is provided if there is none), and is returned to the pool once
+     * the invocation completes. Instances that implement {@link com.github.wnebyte.jcli.Resettable} are reset
+     * before they are returned.
+     * @see Controller#poolSize()
+     */
+    POOLED,
+    /**
+     * Thread objects are the same for every invocation served by the same thread; every thread is provided its
+     * own instance. Instances are confined to the invoking thread itself, so a virtual thread is provided its own
+     * instance rather than that of its carrier thread. The instances of every thread are released once no Command
+     * of the class remains registered.
+     */
+    THREAD
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.github.wnebyte.jcli.apropos;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.StringJoiner;
+import com.github.wnebyte.jcli.AbstractCommand;
+import com.github.wnebyte.jcli.CLI;
+import com.github.wnebyte.jcli.CommandModel;
+import com.github.wnebyte.jcli.InvocationContext;
+import com.github.wnebyte.jcli.annotation.Argument;
+import com.github.wnebyte.jcli.annotation.Command;
+import com.github.wnebyte.jcli.annotation.Inject;
+
+/**
+ * This class declares the <code>apropos</code> Command, which is only built when enabled by
+ * {@link com.github.wnebyte.jcli.Configuration#enableApropos()}.
+ * <br>
+ * The {@link AproposIndex} is built on the first search, so a <code>CLI</code> on which no search is made
+ * never pays for it. On the first search after Commands have been registered or unregistered, it is updated
+ * with the Commands that differ, rather than rebuilt.
+ */
+public class Apropos {
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    private final CLI cli;
+
+    private final AproposIndex index;
+
+    /*
+    the model that the index was last updated with; referenced weakly, so that a replaced model is not retained.
+     */
+    private Reference<CommandModel> model;
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    @Inject
+    public Apropos(CLI cli) {
+        this.cli = cli;
+        this.index = new AproposIndex();
+        this.model = new WeakReference<>(null);
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    /**
+     * Prints the key and the description of the Commands that best match the specified <code>terms</code>;
+     * or, when writing JSON lines, returns them as the payload.
+     */
+    @Command(value = "apropos", description = "searches the names and descriptions of the commands and their arguments")
+    public String apropos(
+            InvocationContext ctx,
+            @Argument(description = "the terms to search for", required = true)
+            String terms,
+            @Argument(value = "--limit, -l", description = "the maximum number of commands", defaultValue = "10")
+            int limit
+    ) {
+        List<AbstractCommand> result = index().search(terms, Math.max(limit, 0));
+        StringJoiner joiner = new StringJoiner(System.lineSeparator());
+        for (AbstractCommand cmd : result) {
+            String key = CommandModel.keyOf(cmd);
+            joiner.add(cmd.hasDescription() ? key.concat(" - ").concat(cmd.getDescription()) : key);
+        }
+        if (cli.getConfiguration().isJsonLines()) {
+            return joiner.toString();
+        }
+        if (!result.isEmpty()) {
+            ctx.out().println(joiner.toString());
+        }
+        return null;
+    }
+
+    private synchronized AproposIndex index() {
+        CommandModel model = cli.getModel();
+        if (this.model.get() != model) {
+            index.update(model);
+            this.model = new WeakReference<>(model);
+        }
+        return index;
+    }
+}
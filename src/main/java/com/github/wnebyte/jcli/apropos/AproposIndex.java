@@ -0,0 +1,300 @@
+package com.github.wnebyte.jcli.apropos;
+
+import java.util.*;
+import com.github.wnebyte.jarguments.Argument;
+import com.github.wnebyte.jcli.AbstractCommand;
+import com.github.wnebyte.jcli.CommandModel;
+
+/**
+ * This class is an inverted index over the names and descriptions of Commands and their Arguments.
+ * <br>
+ * Text is split into lower-case terms of letters and digits. Every term maps to the Commands that contain it,
+ * weighted by where it occurs (a Command name weighs more than an Argument description), so that a search only
+ * visits the Commands that contain at least one of its terms. Commands are added and removed one at a time, and
+ * can be added or removed at any time.
+ */
+public final class AproposIndex {
+
+    /*
+    ###########################
+    #      STATIC FIELDS      #
+    ###########################
+    */
+
+    static final float NAME_WEIGHT = 4f;
+
+    static final float DESCRIPTION_WEIGHT = 1f;
+
+    static final float ARGUMENT_NAME_WEIGHT = 2f;
+
+    static final float ARGUMENT_DESCRIPTION_WEIGHT = 0.5f;
+
+    /*
+    terms that only start with a query term score this much of an exact match.
+     */
+    static final float PREFIX_MATCH_FACTOR = 0.5f;
+
+    /*
+    ###########################
+    #      STATIC METHODS     #
+    ###########################
+    */
+
+    /**
+     * Splits the specified <code>text</code> into its lower-case terms.
+     * @param text the text.
+     * @return the terms of the text.
+     */
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        int start = -1;
+
+        for (int i = 0; i <= text.length(); i++) {
+            boolean part = (i < text.length()) && Character.isLetterOrDigit(text.charAt(i));
+            if (part && start == -1) {
+                start = i;
+            } else if (!part && start != -1) {
+                terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+
+        return terms;
+    }
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    /*
+    indexed by the ids of the postings; removed Commands leave a null behind until the index is compacted.
+     */
+    private final List<AbstractCommand> commands;
+
+    private final Map<AbstractCommand, Integer> ids;
+
+    /*
+    sorted, so that the terms that start with a query term are found by a range lookup.
+     */
+    private final NavigableMap<String, Postings> postings;
+
+    private int removed;
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    public AproposIndex() {
+        this.commands = new ArrayList<>();
+        this.ids = new IdentityHashMap<>();
+        this.postings = new TreeMap<>();
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    /**
+     * Adds the specified <code>cmd</code> to this index, unless it has already been added.
+     * @param cmd the Command.
+     */
+    public synchronized void add(AbstractCommand cmd) {
+        if (cmd == null) {
+            throw new NullPointerException(
+                    "Command may not be null."
+            );
+        }
+        if (ids.containsKey(cmd)) {
+            return;
+        }
+        Map<String, Float> weights = new HashMap<>();
+        if (cmd.hasPrefix()) {
+            weigh(weights, cmd.getPrefix(), NAME_WEIGHT);
+        }
+        for (String name : cmd.getNames()) {
+            weigh(weights, name, NAME_WEIGHT);
+        }
+        weigh(weights, cmd.getDescription(), DESCRIPTION_WEIGHT);
+        for (Argument arg : cmd.getArguments()) {
+            // positional Arguments have no names.
+            for (String name : arg.hasNames() ? arg.getNames() : Collections.<String>emptySet()) {
+                weigh(weights, name, ARGUMENT_NAME_WEIGHT);
+            }
+            weigh(weights, arg.getDescription(), ARGUMENT_DESCRIPTION_WEIGHT);
+        }
+
+        int id = commands.size();
+        commands.add(cmd);
+        ids.put(cmd, id);
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new Postings()).add(id, weight));
+    }
+
+    /**
+     * Adds every Command of the specified <code>model</code> to this index.
+     * @param model the model.
+     */
+    public synchronized void addAll(CommandModel model) {
+        for (AbstractCommand cmd : model.getCommands()) {
+            add(cmd);
+        }
+    }
+
+    /**
+     * Removes the specified <code>cmd</code> from this index.
+     * @param cmd the Command.
+     * @return <code>true</code> if the Command was indexed, otherwise <code>false</code>.
+     */
+    public synchronized boolean remove(AbstractCommand cmd) {
+        Integer id = ids.remove(cmd);
+        if (id == null) {
+            return false;
+        }
+        commands.set(id, null);
+        if (++removed > ids.size()) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Brings this index up to date with the specified <code>model</code>; removes the indexed Commands that the
+     * model does not hold, and adds the Commands of the model that are not indexed, so that only the Commands
+     * that differ are split into terms.
+     * @param model the model.
+     */
+    public synchronized void update(CommandModel model) {
+        for (AbstractCommand cmd : new ArrayList<>(ids.keySet())) {
+            if (model.idOf(cmd) < 0) {
+                remove(cmd);
+            }
+        }
+        addAll(model);
+    }
+
+    /*
+    re-indexes the remaining Commands, once more of the postings are removed than not.
+     */
+    private void compact() {
+        List<AbstractCommand> remaining = new ArrayList<>(ids.size());
+        for (AbstractCommand cmd : commands) {
+            if (cmd != null) {
+                remaining.add(cmd);
+            }
+        }
+        commands.clear();
+        ids.clear();
+        postings.clear();
+        removed = 0;
+        for (AbstractCommand cmd : remaining) {
+            add(cmd);
+        }
+    }
+
+    /*
+    a term keeps the highest weight of the places that it occurs in.
+     */
+    private static void weigh(Map<String, Float> weights, String text, float weight) {
+        for (String term : terms(text)) {
+            weights.merge(term, weight, Math::max);
+        }
+    }
+
+    /**
+     * Returns the Commands that match one or more of the terms of the specified <code>query</code>, ordered
+     * by descending relevance.
+     * <br>
+     * Every matching term contributes its weight, scaled by how rare the term is among the indexed Commands;
+     * terms that merely start with a query term contribute less than exact matches.
+     * @param query the query.
+     * @param limit the maximum number of Commands to return, or <code>0</code> for no limit.
+     * @return the matching Commands.
+     */
+    public synchronized List<AbstractCommand> search(String query, int limit) {
+        Map<Integer, Float> scores = new HashMap<>();
+        int n = ids.size();
+
+        for (String term : new LinkedHashSet<>(terms(query))) {
+            for (Map.Entry<String, Postings> e : postings.tailMap(term, true).entrySet()) {
+                if (!e.getKey().startsWith(term)) {
+                    break;
+                }
+                Postings p = e.getValue();
+                int size = live(p);
+                if (size == 0) {
+                    continue;
+                }
+                float idf = (float) Math.log(1.0 + (double) n / size);
+                float factor = e.getKey().equals(term) ? 1f : PREFIX_MATCH_FACTOR;
+                for (int i = 0; i < p.size; i++) {
+                    if (commands.get(p.ids[i]) != null) {
+                        scores.merge(p.ids[i], p.weights[i] * idf * factor, Float::sum);
+                    }
+                }
+            }
+        }
+
+        List<Map.Entry<Integer, Float>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Integer, Float>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        int size = (limit > 0) ? Math.min(limit, ranked.size()) : ranked.size();
+        List<AbstractCommand> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(commands.get(ranked.get(i).getKey()));
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    /*
+    the number of the Commands of the specified postings that have not been removed.
+     */
+    private int live(Postings p) {
+        if (removed == 0) {
+            return p.size;
+        }
+        int size = 0;
+        for (int i = 0; i < p.size; i++) {
+            if (commands.get(p.ids[i]) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /*
+    ###########################
+    #      NESTED CLASSES     #
+    ###########################
+    */
+
+    private static final class Postings {
+
+        private int[] ids = new int[2];
+
+        private float[] weights = new float[2];
+
+        private int size;
+
+        private void add(int id, float weight) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ids[size] = id;
+            weights[size] = weight;
+            size++;
+        }
+    }
+}
@@ -1,14 +1,44 @@
 package com.github.wnebyte.jcli.di;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
 import java.lang.annotation.Annotation;
 import com.github.wnebyte.jcli.annotation.Inject;
-import com.github.wnebyte.jcli.util.Reflections;
+import com.github.wnebyte.jcli.exception.ConfigException;
 import static com.github.wnebyte.jcli.util.Reflections.getNoArgsConstructor;
 import static com.github.wnebyte.jcli.util.Reflections.getFirstAnnotatedConstructor;
 
+/**
+ * This class is a container of registered dependencies, that are injected into the Constructors and/or Fields
+ * of the instances that it constructs.
+ * <br>
+ * The members of a Class that take part in injection are looked up once, on first use, and compiled into an
+ * injection plan, which is cached per Class (in a <code>ClassValue</code>, so that it does not keep the Class
+ * from being unloaded). A plan holds a <code>MethodHandle</code> of the Constructor, and setter handles of the
+ * annotated Fields, along with the dependencies that they resolve to; the dependencies are resolved again only
+ * once a dependency has been registered or unregistered.
+ * <br>
+ * A dependency whose type has not been registered, but which is a concrete class that declares an annotated
+ * Constructor, is an injectable: it is constructed (along with its own dependencies) the first time that it is
+ * needed, and is then kept apart from the registered dependencies, so that it is shared by every instance that
+ * depends on it, until every class that depends on it has been released (see {@link #release(Class)}). A
+ * dependency cycle is reported rather than followed; {@link #newInstances(Collection, Executor)} resolves the
+ * entire graph of a number of classes up front, and constructs the independent ones in parallel.
+ * <br>
+ * A child container (see {@link #DependencyContainer(DependencyContainer)}) falls back on the dependencies
+ * registered with its parent, but registers, and constructs, its own without affecting the parent.
+ */
 public class DependencyContainer implements IDependencyContainer {
 
     /*
@@ -19,6 +49,8 @@ public class DependencyContainer implements IDependencyContainer {
 
     public static final Class<? extends Annotation> DEFAULT_ANNOTATION = Inject.class;
 
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
     /*
     ###########################
     #          FIELDS         #
@@ -27,8 +59,39 @@ public class DependencyContainer implements IDependencyContainer {
 
     private final Map<Class<?>, Object> dependencies;
 
+    /*
+    the container whose registered dependencies are used when none of a type has been registered with this one,
+    or null.
+     */
+    private final DependencyContainer parent;
+
+    /*
+    the injectables that have been constructed; guarded by the lock, but may be read without it.
+     */
+    private final Map<Class<?>, Object> injectables;
+
+    /*
+    the classes that each constructed injectable has been injected into; guarded by the lock.
+     */
+    private final Map<Class<?>, Set<Class<?>>> dependents;
+
+    /*
+    the injectables that are being constructed, keyed by their types; guarded by the lock.
+     */
+    private final Map<Class<?>, CompletableFuture<Object>> pending;
+
     private final Class<? extends Annotation> annotation;
 
+    private final ClassValue<InjectionPlan> plans;
+
+    private final Object lock;
+
+    /*
+    is incremented whenever a dependency is registered or unregistered, which invalidates the dependencies that
+    the plans have resolved; as are those of the children of this container.
+     */
+    private final AtomicInteger version;
+
     /*
     ###########################
     #       CONSTRUCTORS      #
@@ -40,8 +103,34 @@ public class DependencyContainer implements IDependencyContainer {
     }
 
     public DependencyContainer(Class<? extends Annotation> annotation) {
-        this.dependencies = new HashMap<>();
+        this(null, annotation);
+    }
+
+    /**
+     * Constructs a new child of the specified <code>parent</code>, that injects the dependencies registered with
+     * it (as of when they are injected), unless one of the same type has been registered with the child.
+     * Dependencies registered with, and injectables constructed by, the child are not visible to the parent.
+     * @param parent the parent container.
+     */
+    public DependencyContainer(DependencyContainer parent) {
+        this(parent, parent.annotation);
+    }
+
+    private DependencyContainer(DependencyContainer parent, Class<? extends Annotation> annotation) {
+        this.dependencies = new ConcurrentHashMap<>();
+        this.parent = parent;
+        this.injectables = new ConcurrentHashMap<>();
+        this.dependents = new HashMap<>();
+        this.pending = new HashMap<>();
         this.annotation = annotation;
+        this.version = new AtomicInteger();
+        this.lock = new Object();
+        this.plans = new ClassValue<InjectionPlan>() {
+            @Override
+            protected InjectionPlan computeValue(Class<?> cls) {
+                return new InjectionPlan(cls, DependencyContainer.this.annotation);
+            }
+        };
     }
 
     /*
@@ -54,6 +143,7 @@ public class DependencyContainer implements IDependencyContainer {
     public <T, R extends T> void register(Class<T> base, R impl) {
         if (base != null && impl != null) {
             dependencies.put(base, impl);
+            version.incrementAndGet();
         }
     }
 
@@ -61,109 +151,493 @@ public class DependencyContainer implements IDependencyContainer {
     public void unregister(Class<?> base) {
         if (base != null) {
             dependencies.remove(base);
+            version.incrementAndGet();
         }
     }
 
+    /**
+     * Releases the injectables that have been injected into the specified <code>cls</code>, once no other class
+     * depends on them, and in turn those that they depend on; so that they, and the <code>ClassLoader</code> of
+     * their classes, are no longer referenced by this container.
+     * @param cls the class whose instances are no longer in use.
+     */
     @Override
-    public Object newInstance(Class<?> cls) throws ReflectiveOperationException {
-        Object object = newConstructorInjection(cls);
-        if (object != null) {
-            injectFields(object);
+    public void release(Class<?> cls) {
+        if (cls == null) {
+            return;
+        }
+        synchronized (lock) {
+            Deque<Class<?>> released = new ArrayDeque<>(Collections.singleton(cls));
+            while (!released.isEmpty()) {
+                Class<?> c = released.poll();
+                Iterator<Map.Entry<Class<?>, Set<Class<?>>>> it = dependents.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<Class<?>, Set<Class<?>>> entry = it.next();
+                    if (entry.getValue().remove(c) && entry.getValue().isEmpty()) {
+                        it.remove();
+                        injectables.remove(entry.getKey());
+                        released.add(entry.getKey());
+                    }
+                }
+            }
+            // the plans that have resolved the released injectables resolve their dependencies again.
+            version.incrementAndGet();
         }
+    }
+
+    @Override
+    public Object newInstance(Class<?> cls) throws ReflectiveOperationException {
+        return newInstance(cls, new ArrayDeque<>(Collections.singleton(cls)));
+    }
+
+    private Object newInstance(Class<?> cls, Deque<Class<?>> path) throws ReflectiveOperationException {
+        InjectionPlan plan = plans.get(cls);
+        Resolved resolved = resolve(plan, path);
+        Object object = plan.construct(resolved);
+        plan.inject(object, resolved);
         return object;
     }
 
     @Override
     public Object newConstructorInjection(Class<?> cls) throws ReflectiveOperationException {
-        Constructor<?> cons = getFirstAnnotatedConstructor(cls, annotation);
-        cons = (cons == null) ? getNoArgsConstructor(cls) : cons;
-
-        if (cons == null) {
-            throw new InstantiationException(
-                    "Class: '" + cls + "' does not declare an appropriate constructor, " +
-                            "and can therefore not be instantiated."
-            );
-        }
-        else {
-            cons.setAccessible(true); // Todo: reset accessibility flag for reflective member
-            Object[] args = new Object[cons.getParameterCount()];
-            int i = 0;
-            for (Class<?> type : cons.getParameterTypes()) {
-                Object dependency = dependencies.get(type);
-                if (dependency != null) {
-                    args[i++] = dependency;
-                } else {
-                    throw new InstantiationException(
-                            String.format(
-                                    "No Object of type: '%s' has been registered with this dependency container.%n",
-                                    type.getSimpleName()
-                            )
-                    );
+        InjectionPlan plan = plans.get(cls);
+        return plan.construct(resolve(plan, new ArrayDeque<>(Collections.singleton(cls))));
+    }
+
+    @Override
+    public void injectFields(Object obj) throws ReflectiveOperationException {
+        InjectionPlan plan = plans.get(obj.getClass());
+        plan.inject(obj, resolve(plan, new ArrayDeque<>(Collections.singleton(obj.getClass()))));
+    }
+
+    @Override
+    public boolean canInstantiate(Class<?> cls) {
+        return canInstantiate(cls, new HashSet<>());
+    }
+
+    private boolean canInstantiate(Class<?> cls, Set<Class<?>> path) {
+        InjectionPlan plan = plans.get(cls);
+        if (plan.constructor == null || !path.add(cls)) {
+            return false;
+        }
+        for (Class<?>[] types : new Class<?>[][] { plan.parameterTypes, plan.fieldTypes }) {
+            for (Class<?> type : types) {
+                if (lookup(type) == null && !(isInjectable(type) && canInstantiate(type, path))) {
+                    return false;
                 }
             }
-
-            return cons.newInstance(args);
         }
+        path.remove(cls);
+        return true;
     }
 
+    /**
+     * Constructs a new instance of every one of the specified <code>classes</code>, along with the injectables
+     * that they (directly or indirectly) depend on, which are kept until released.
+     * <b>Note</b> that the instances of the specified <code>classes</code> themselves are not kept.
+     * <br>
+     * The dependency graph is resolved before anything is constructed, so that a cycle is reported up front;
+     * then, if an <code>executor</code> is specified, every class is constructed on it as soon as its
+     * dependencies have been, so that independent classes are constructed in parallel.
+     * @param classes the classes.
+     * @param executor to construct the classes on, or <code>null</code> to construct them one after another, in
+     * dependency order, on the calling thread.
+     * @return the new instances, keyed by their classes.
+     * @throws InstantiationException if the dependency graph has a cycle.
+     * @throws ReflectiveOperationException if any of the classes could not be instantiated.
+     */
     @Override
-    public void injectFields(Object obj) throws ReflectiveOperationException {
-        Class<?> cls = obj.getClass();
+    public Map<Class<?>, Object> newInstances(
+            Collection<Class<?>> classes,
+            Executor executor
+    ) throws ReflectiveOperationException {
+        Map<Class<?>, List<Class<?>>> graph = new LinkedHashMap<>();
+        for (Class<?> cls : classes) {
+            sort(cls, graph, new ArrayDeque<>());
+        }
+        Set<Class<?>> roots = new HashSet<>(classes);
+        Map<Class<?>, Object> instances = new ConcurrentHashMap<>();
 
-        for (Field field : cls.getDeclaredFields()) {
-            field.setAccessible(true); // Todo: reset accessibility flag for reflective member
-            Class<?> type = field.getType();
+        if (executor == null) {
+            for (Class<?> cls : graph.keySet()) {
+                construct(cls, roots, instances);
+            }
+        } else {
+            // the graph is in dependency order, so the futures of the dependencies of a class already exist.
+            Map<Class<?>, CompletableFuture<Void>> futures = new HashMap<>();
+            for (Map.Entry<Class<?>, List<Class<?>>> entry : graph.entrySet()) {
+                Class<?> cls = entry.getKey();
+                CompletableFuture<?>[] deps = entry.getValue().stream()
+                        .map(futures::get)
+                        .toArray(CompletableFuture<?>[]::new);
+                futures.put(cls, CompletableFuture.allOf(deps).thenRunAsync(() -> {
+                    try {
+                        construct(cls, roots, instances);
+                    } catch (ReflectiveOperationException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor));
+            }
+            try {
+                CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof ReflectiveOperationException) {
+                    throw (ReflectiveOperationException) e.getCause();
+                }
+                throw e;
+            }
+        }
 
-            if (field.isAnnotationPresent(annotation)) {
-                Object dependency = dependencies.get(type);
+        Map<Class<?>, Object> result = new LinkedHashMap<>();
+        for (Class<?> cls : classes) {
+            result.put(cls, instances.get(cls));
+        }
+        return result;
+    }
 
-                if (dependency != null) {
-                    field.set(obj, dependency);
+    /*
+    constructs the specified class; an injectable that is not one of the roots is kept (unless one has been
+    constructed by now), so that the classes that depend on it share it.
+     */
+    private void construct(
+            Class<?> cls,
+            Set<Class<?>> roots,
+            Map<Class<?>, Object> instances
+    ) throws ReflectiveOperationException {
+        Object object = newInstance(cls);
+        if (!roots.contains(cls)) {
+            synchronized (lock) {
+                Object prev = injectables.putIfAbsent(cls, object);
+                if (prev == null) {
+                    version.incrementAndGet();
                 } else {
-                    throw new ReflectiveOperationException(
-                            String.format(
-                                    "No Object of type: '%s' has been registered with this dependency container.%n",
-                                    type.getSimpleName()
-                            )
-                    );
+                    object = prev;
                 }
             }
         }
+        instances.put(cls, object);
     }
 
-    @Override
-    public boolean canInstantiate(Class<?> cls) {
-        // constructor can be used
-        Constructor<?> cons = getFirstAnnotatedConstructor(cls, annotation);
-        cons = (cons == null) ? getNoArgsConstructor(cls) : cons;
+    /*
+    puts the specified class into the specified graph after the injectables that it depends on (depth-first), each
+    mapped to those of its dependencies that are in the graph.
+     */
+    private void sort(
+            Class<?> cls,
+            Map<Class<?>, List<Class<?>>> graph,
+            Deque<Class<?>> path
+    ) throws InstantiationException {
+        if (graph.containsKey(cls)) {
+            return;
+        }
+        if (path.contains(cls)) {
+            throw new InstantiationException(cycle(path, cls));
+        }
+        path.addLast(cls);
+        InjectionPlan plan = plans.get(cls);
+        List<Class<?>> deps = new ArrayList<>();
+        for (Class<?>[] types : new Class<?>[][] { plan.parameterTypes, plan.fieldTypes }) {
+            for (Class<?> type : types) {
+                if (lookup(type) == null && isInjectable(type)) {
+                    sort(type, graph, path);
+                    deps.add(type);
+                }
+            }
+        }
+        path.removeLast();
+        graph.put(cls, deps);
+    }
 
-        if (cons == null) {
-            return false;
+    private static String cycle(Deque<Class<?>> path, Class<?> cls) {
+        StringJoiner joiner = new StringJoiner(" -> ");
+        boolean in = false;
+        for (Class<?> c : path) {
+            in = in || (c == cls);
+            if (in) {
+                joiner.add(c.getSimpleName());
+            }
         }
-        else {
-            cons.setAccessible(true);
-            for (Class<?> type : cons.getParameterTypes()) {
-                Object dependency = dependencies.get(type);
-                if (dependency == null) {
-                    return false;
+        joiner.add(cls.getSimpleName());
+        return String.format("Dependency cycle: %s.", joiner);
+    }
+
+    /*
+    an injectable is a concrete class that declares an annotated Constructor.
+     */
+    private boolean isInjectable(Class<?> type) {
+        return !type.isInterface() && !type.isArray() && !type.isPrimitive() &&
+                !Modifier.isAbstract(type.getModifiers()) && getFirstAnnotatedConstructor(type, annotation) != null;
+    }
+
+    private Object lookup(Class<?> type) {
+        Object dependency = registered(type);
+        return (dependency == null) ? injectables.get(type) : dependency;
+    }
+
+    private Object registered(Class<?> type) {
+        Object dependency = dependencies.get(type);
+        return (dependency == null && parent != null) ? parent.registered(type) : dependency;
+    }
+
+    /*
+    the version of this container combined with those of its ancestors; as every one of them only ever increases,
+    so does their sum.
+     */
+    private int version() {
+        return (parent == null) ? version.get() : version.get() + parent.version();
+    }
+
+    /*
+    returns the registered dependency of the specified type, or, if there is none and the type is injectable, the
+    kept (or a new) instance of it, and records that it has been injected into the last class of the specified
+    path.
+    the lock is only held to look up, claim and publish an injectable, and not while it is constructed: the
+    thread that claims a type constructs it, and any other thread that needs it meanwhile waits for its future, so
+    that every injectable is constructed once, and unrelated injectables are constructed concurrently.
+     */
+    private Object dependency(Class<?> type, Deque<Class<?>> path) throws ReflectiveOperationException {
+        Object dependency = registered(type);
+        if (dependency != null || !isInjectable(type)) {
+            return dependency;
+        }
+        CompletableFuture<Object> future = null;
+        boolean owner = false;
+        synchronized (lock) {
+            dependency = injectables.get(type);
+            if (dependency == null) {
+                future = pending.get(type);
+                if (future == null) {
+                    future = new CompletableFuture<>();
+                    pending.put(type, future);
+                    owner = true;
                 }
             }
         }
+        if (owner) {
+            dependency = constructInjectable(type, path, future);
+        } else if (dependency == null) {
+            dependency = await(future);
+        }
+        synchronized (lock) {
+            dependents.computeIfAbsent(type, k -> new HashSet<>()).add(path.peekLast());
+        }
+        return dependency;
+    }
 
-        // fields can be used
-        for (Field field : cls.getDeclaredFields()) {
-            field.setAccessible(true);
-            Class<?> type = field.getType();
+    /*
+    constructs the claimed injectable of the specified type, and publishes it, or the failure, to its future.
+    a cycle is reported before anything is constructed, as the threads waiting on the futures of its members would
+    otherwise wait on each other.
+     */
+    private Object constructInjectable(
+            Class<?> type,
+            Deque<Class<?>> path,
+            CompletableFuture<Object> future
+    ) throws ReflectiveOperationException {
+        Object dependency;
+        try {
+            sort(type, new HashMap<>(), new ArrayDeque<>(path));
+            path.addLast(type);
+            try {
+                dependency = newInstance(type, path);
+            } finally {
+                path.removeLast();
+            }
+        } catch (ReflectiveOperationException | RuntimeException | Error e) {
+            synchronized (lock) {
+                pending.remove(type);
+            }
+            future.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (lock) {
+            pending.remove(type);
+            Object prev = injectables.putIfAbsent(type, dependency);
+            if (prev == null) {
+                version.incrementAndGet();
+            } else {
+                dependency = prev;
+            }
+        }
+        future.complete(dependency);
+        return dependency;
+    }
 
-            if (field.isAnnotationPresent(annotation)) {
-                Object dependency = dependencies.get(type);
+    private static Object await(CompletableFuture<Object> future) throws ReflectiveOperationException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ReflectiveOperationException) {
+                throw (ReflectiveOperationException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (cause instanceof RuntimeException) ? (RuntimeException) cause : e;
+        }
+    }
 
-                if (dependency == null) {
-                    return false;
+    /*
+    returns the dependencies of the specified plan, as of the current version; once resolved, they are kept by
+    the plan until the version changes.
+     */
+    private Resolved resolve(InjectionPlan plan, Deque<Class<?>> path) throws ReflectiveOperationException {
+        int version = version();
+        Resolved resolved = plan.resolved;
+        if (resolved != null && resolved.version == version) {
+            return resolved;
+        }
+        Object[] args = new Object[plan.parameterTypes.length];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = dependency(plan.parameterTypes[i], path);
+            if (args[i] == null) {
+                throw new InstantiationException(
+                        String.format(
+                                "No Object of type: '%s' has been registered with this dependency container.%n",
+                                plan.parameterTypes[i].getSimpleName()
+                        )
+                );
+            }
+        }
+        Object[] values = new Object[plan.fieldTypes.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = dependency(plan.fieldTypes[i], path);
+            if (values[i] == null) {
+                throw new ReflectiveOperationException(
+                        String.format(
+                                "No Object of type: '%s' has been registered with this dependency container.%n",
+                                plan.fieldTypes[i].getSimpleName()
+                        )
+                );
+            }
+        }
+        resolved = new Resolved(version, args, values);
+        plan.resolved = resolved;
+        return resolved;
+    }
+
+    /*
+    ###########################
+    #      NESTED CLASSES     #
+    ###########################
+    */
+
+    /*
+    the members of a Class that take part in injection; the reflective lookups are made once, by the constructor.
+     */
+    private static final class InjectionPlan {
+
+        private final Class<?> cls;
+
+        /*
+        (Object[]) -> Object, or null if the Class does not declare an appropriate Constructor.
+         */
+        private final MethodHandle constructor;
+
+        private final Class<?>[] parameterTypes;
+
+        /*
+        (Object, Object) -> void, per annotated Field.
+         */
+        private final MethodHandle[] setters;
+
+        private final Class<?>[] fieldTypes;
+
+        private volatile Resolved resolved;
+
+        private InjectionPlan(Class<?> cls, Class<? extends Annotation> annotation) {
+            this.cls = cls;
+            Constructor<?> cons = getFirstAnnotatedConstructor(cls, annotation);
+            cons = (cons == null) ? getNoArgsConstructor(cls) : cons;
+
+            try {
+                if (cons != null) {
+                    cons.setAccessible(true);
+                    this.parameterTypes = cons.getParameterTypes();
+                    this.constructor = LOOKUP.unreflectConstructor(cons)
+                            .asSpreader(Object[].class, parameterTypes.length)
+                            .asType(MethodType.methodType(Object.class, Object[].class));
+                } else {
+                    this.parameterTypes = new Class<?>[0];
+                    this.constructor = null;
                 }
+
+                List<MethodHandle> setters = new ArrayList<>();
+                List<Class<?>> fieldTypes = new ArrayList<>();
+                for (Field field : cls.getDeclaredFields()) {
+                    if (field.isAnnotationPresent(annotation)) {
+                        int modifiers = field.getModifiers();
+                        // a setter of a static Field does not take an object, and a final Field has none.
+                        if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+                            throw new ConfigException(
+                                    String.format(
+                                            "Field: '%s' of Class: '%s' is %s, and can not be injected.",
+                                            field.getName(), cls.getSimpleName(),
+                                            Modifier.isStatic(modifiers) ? "static" : "final"
+                                    )
+                            );
+                        }
+                        field.setAccessible(true);
+                        setters.add(LOOKUP.unreflectSetter(field)
+                                .asType(MethodType.methodType(void.class, Object.class, Object.class)));
+                        fieldTypes.add(field.getType());
+                    }
+                }
+                this.setters = setters.toArray(new MethodHandle[0]);
+                this.fieldTypes = fieldTypes.toArray(new Class<?>[0]);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
             }
         }
 
-        return true;
+        private Object construct(Resolved resolved) throws ReflectiveOperationException {
+            if (constructor == null) {
+                throw new InstantiationException(
+                        "Class: '" + cls + "' does not declare an appropriate constructor, " +
+                                "and can therefore not be instantiated."
+                );
+            }
+            try {
+                return (Object) constructor.invokeExact(resolved.args);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        private void inject(Object obj, Resolved resolved) throws ReflectiveOperationException {
+            try {
+                for (int i = 0; i < setters.length; i++) {
+                    setters[i].invokeExact(obj, resolved.values[i]);
+                }
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+    }
+
+    private static final class Resolved {
+
+        private final int version;
+
+        /*
+        the dependencies of the Constructor parameters.
+         */
+        private final Object[] args;
+
+        /*
+        the dependencies of the annotated Fields.
+         */
+        private final Object[] values;
+
+        private Resolved(int version, Object[] args, Object[] values) {
+            this.version = version;
+            this.args = args;
+            this.values = values;
+        }
     }
-}
\ No newline at end of file
+}
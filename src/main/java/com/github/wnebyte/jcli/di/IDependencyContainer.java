@@ -1,5 +1,10 @@
 package com.github.wnebyte.jcli.di;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
 public interface IDependencyContainer {
 
     boolean canInstantiate(Class<?> cls);
@@ -13,4 +18,30 @@ public interface IDependencyContainer {
     Object newConstructorInjection(Class<?> cls) throws ReflectiveOperationException;
 
     void injectFields(Object obj) throws ReflectiveOperationException;
-}
\ No newline at end of file
+
+    /**
+     * Releases whatever the implementation has constructed on behalf of the specified <code>cls</code>, whose
+     * instances are no longer in use; by default nothing.
+     * @param cls the class.
+     */
+    default void release(Class<?> cls) { }
+
+    /**
+     * Constructs a new instance of every one of the specified <code>classes</code>; by default one after
+     * another, on the calling thread.
+     * @param classes the classes.
+     * @param executor to construct the classes on, if the implementation supports it, or <code>null</code>.
+     * @return the new instances, keyed by their classes.
+     * @throws ReflectiveOperationException if any of the classes could not be instantiated.
+     */
+    default Map<Class<?>, Object> newInstances(
+            Collection<Class<?>> classes,
+            Executor executor
+    ) throws ReflectiveOperationException {
+        Map<Class<?>, Object> instances = new LinkedHashMap<>();
+        for (Class<?> cls : classes) {
+            instances.put(cls, newInstance(cls));
+        }
+        return instances;
+    }
+}
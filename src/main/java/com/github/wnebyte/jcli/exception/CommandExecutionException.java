@@ -0,0 +1,15 @@
+package com.github.wnebyte.jcli.exception;
+
+/*
+thrown when the Java Method underlying a Command throws, or can not be invoked.
+ */
+public class CommandExecutionException extends RuntimeException {
+
+    public CommandExecutionException(String msg) {
+        super(msg);
+    }
+
+    public CommandExecutionException(Throwable cause) {
+        super(cause);
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.wnebyte.jcli.exception;
+
+/*
+thrown when a record could not be appended to, or read from, a Journal.
+ */
+public class JournalException extends RuntimeException {
+
+    public JournalException(String msg) {
+        super(msg);
+    }
+
+    public JournalException(Throwable cause) {
+        super(cause);
+    }
+}
@@ -0,0 +1,12 @@
+package com.github.wnebyte.jcli.exception;
+
+public class MalformedRequestException extends RuntimeException {
+
+    public MalformedRequestException(String msg) {
+        super(msg);
+    }
+
+    public MalformedRequestException(Throwable cause) {
+        super(cause);
+    }
+}
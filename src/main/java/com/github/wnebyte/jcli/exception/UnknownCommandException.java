@@ -1,25 +1,49 @@
 package com.github.wnebyte.jcli.exception;
 
+import java.util.Collections;
+import java.util.List;
+
 public class UnknownCommandException extends RuntimeException {
 
     private final String input;
 
+    private final List<String> suggestions;
+
     public UnknownCommandException(String input) {
         super();
         this.input = input;
+        this.suggestions = Collections.emptyList();
     }
 
     public UnknownCommandException(String msg, String input) {
+        this(msg, input, null);
+    }
+
+    public UnknownCommandException(String msg, String input, List<String> suggestions) {
         super(msg);
         this.input = input;
+        this.suggestions = (suggestions == null) ?
+                Collections.emptyList() : Collections.unmodifiableList(suggestions);
     }
 
     public UnknownCommandException(Throwable cause, String input) {
         super(cause);
         this.input = input;
+        this.suggestions = Collections.emptyList();
     }
 
     public String getInput() {
         return input;
     }
+
+    /**
+     * @return the (unmodifiable) names of the known Commands that most closely resemble the input, closest first.
+     */
+    public List<String> getSuggestions() {
+        return suggestions;
+    }
+
+    public boolean hasSuggestions() {
+        return !suggestions.isEmpty();
+    }
 }
@@ -0,0 +1,388 @@
+package com.github.wnebyte.jcli.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is a bounded history of command lines, stored in a fixed-size, memory-mapped ring file.
+ * <br>
+ * Every record is stored as its length, its UTF-8 encoded bytes, and its length again, so that the ring can be
+ * walked backwards from its most recent record. Once the ring is full, the oldest records are overwritten.
+ * Appending copies the record into the mapping and updates the header, which the operating system writes back
+ * to the file even if the process crashes; the header is only updated after the record has been written, so a
+ * torn append is never visible. Searches walk the ring from the most recent record and compare raw bytes,
+ * decoding only the records that match, so the history is never read into the heap as a whole. The lengths of
+ * every record are checked against the bounds of the ring, and against each other, as it is walked, so that a
+ * damaged file yields the records that are more recent than the damage.
+ * <br>
+ * Instances are thread-safe.
+ */
+public class History implements Closeable {
+
+    /*
+    ###########################
+    #      STATIC FIELDS      #
+    ###########################
+    */
+
+    public static final int DEFAULT_CAPACITY = 1024 * 1024;
+
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    private static final int MAGIC = 0x4A434C48;
+
+    /*
+    magic (int), capacity (int), tail (long), head (long), padding.
+     */
+    private static final int HEADER_SIZE = 32;
+
+    private static final int CAPACITY_OFFSET = 4;
+
+    private static final int TAIL_OFFSET = 8;
+
+    private static final int HEAD_OFFSET = 16;
+
+    /*
+    the length that precedes, and the length that follows, every record.
+     */
+    private static final int OVERHEAD = 8;
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    private final Path file;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buf;
+
+    private final int capacity;
+
+    /*
+    the logical position of the oldest record, and the logical position that the next record is written at;
+    the physical position of a logical position is its remainder when divided by the capacity.
+     */
+    private long tail;
+
+    private long head;
+
+    private boolean closed;
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    public History(Path file) throws IOException {
+        this(file, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Opens the history stored in the specified <code>file</code>, creating it if it does not exist.
+     * <br>
+     * An existing file keeps the capacity that it was created with.
+     * @param file the file to store the history in.
+     * @param capacity the size (in bytes) of the ring, excluding its header.
+     * @throws IOException if the file could not be opened or mapped, or is not a history file.
+     */
+    public History(Path file, int capacity) throws IOException {
+        if (file == null) {
+            throw new NullPointerException(
+                    "Path may not be null."
+            );
+        }
+        if (capacity <= OVERHEAD) {
+            throw new IllegalArgumentException(
+                    "Capacity must be greater than " + OVERHEAD + "."
+            );
+        }
+        this.file = file;
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            if (channel.size() >= HEADER_SIZE) {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+                if (header.getInt(0) != MAGIC) {
+                    throw new IOException(
+                            String.format(
+                                    "File: '%s' is not a history file.", file
+                            )
+                    );
+                }
+                capacity = header.getInt(CAPACITY_OFFSET);
+                if (capacity <= OVERHEAD) {
+                    throw new IOException(
+                            String.format(
+                                    "File: '%s' is not a history file.", file
+                            )
+                    );
+                }
+            }
+            this.capacity = capacity;
+            this.buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        if (buf.getInt(0) != MAGIC) {
+            buf.putInt(CAPACITY_OFFSET, capacity);
+            buf.putLong(TAIL_OFFSET, 0);
+            buf.putLong(HEAD_OFFSET, 0);
+            buf.putInt(0, MAGIC);
+        }
+        this.tail = buf.getLong(TAIL_OFFSET);
+        this.head = buf.getLong(HEAD_OFFSET);
+        if (tail < 0 || tail > head || head - tail > capacity) {
+            // the header is damaged; start over rather than read garbage.
+            tail = head = 0;
+            buf.putLong(TAIL_OFFSET, 0);
+            buf.putLong(HEAD_OFFSET, 0);
+        }
+        // a record is damaged; keep the records that are more recent than it.
+        long end = head;
+        for (long start; end > tail && (start = startOf(end)) != -1; end = start - 4) { }
+        if (end != tail) {
+            tail = end;
+            buf.putLong(TAIL_OFFSET, tail);
+        }
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    /**
+     * Appends the specified <code>line</code>, unless it is empty, equal to the most recent line, or too long
+     * to ever fit into the ring.
+     * @param line the command line.
+     * @return <code>true</code> if the line was appended, otherwise <code>false</code>.
+     */
+    public synchronized boolean append(String line) {
+        ensureOpen();
+        if (line == null || line.isEmpty()) {
+            return false;
+        }
+        byte[] b = line.getBytes(CHARSET);
+        int size = b.length + OVERHEAD;
+        if (size > capacity || (head > tail && matchesLast(b))) {
+            return false;
+        }
+
+        long newTail = tail;
+        while (head + size - newTail > capacity) {
+            int len = getInt(newTail);
+            if (len < 0 || len > head - newTail - OVERHEAD) {
+                // the record is damaged, and so is the way to the next one.
+                newTail = head;
+                break;
+            }
+            newTail += len + OVERHEAD;
+        }
+        if (newTail != tail) {
+            // the overwritten records are dropped before they are overwritten.
+            tail = newTail;
+            buf.putLong(TAIL_OFFSET, tail);
+        }
+        putInt(head, b.length);
+        put(head + 4, b);
+        putInt(head + 4 + b.length, b.length);
+        head += size;
+        buf.putLong(HEAD_OFFSET, head);
+        return true;
+    }
+
+    private boolean matchesLast(byte[] b) {
+        long start = startOf(head);
+        return (start != -1) && (head - 4 - start == b.length) && regionMatches(start, b);
+    }
+
+    /*
+    returns the logical position of the bytes of the record that ends at the specified position, or -1 if either
+    of its lengths is out of the bounds of the ring, or they differ (e.g. as the file has been damaged), so that
+    walking the ring always stops, and never reads outside of it.
+     */
+    private long startOf(long end) {
+        if (end - tail < OVERHEAD) {
+            return -1;
+        }
+        int len = getInt(end - 4);
+        if (len < 0 || len > end - tail - OVERHEAD) {
+            return -1;
+        }
+        long start = end - 4 - len;
+        return (getInt(start - 4) == len) ? start : -1;
+    }
+
+    /**
+     * Returns the most recent lines, most recent first.
+     * @param limit the maximum number of lines to return, or <code>0</code> for no limit.
+     * @return the most recent lines.
+     */
+    public List<String> recent(int limit) {
+        return search(null, false, limit);
+    }
+
+    /**
+     * Returns the lines that start with the specified <code>prefix</code>, most recent first.
+     * @param prefix the prefix.
+     * @param limit the maximum number of lines to return, or <code>0</code> for no limit.
+     * @return the matching lines.
+     */
+    public List<String> startingWith(String prefix, int limit) {
+        return search(prefix, false, limit);
+    }
+
+    /**
+     * Returns the lines that contain the specified <code>s</code>, most recent first, e.g. for a reverse
+     * incremental search.
+     * @param s the string to search for.
+     * @param limit the maximum number of lines to return, or <code>0</code> for no limit.
+     * @return the matching lines.
+     */
+    public List<String> containing(String s, int limit) {
+        return search(s, true, limit);
+    }
+
+    /*
+    since UTF-8 is self-synchronizing, a line contains (or starts with) a string if and only if its encoding
+    contains (or starts with) the encoding of the string.
+     */
+    private synchronized List<String> search(String s, boolean anywhere, int limit) {
+        ensureOpen();
+        List<String> result = new ArrayList<>();
+        byte[] b = (s == null) ? new byte[0] : s.getBytes(CHARSET);
+        limit = (limit > 0) ? limit : Integer.MAX_VALUE;
+        long end = head;
+
+        while (end > tail && result.size() < limit) {
+            long start = startOf(end);
+            if (start == -1) {
+                break;
+            }
+            int len = (int) (end - 4 - start);
+            if (matches(start, len, b, anywhere)) {
+                byte[] line = new byte[len];
+                get(start, line);
+                result.add(new String(line, CHARSET));
+            }
+            end = start - 4;
+        }
+
+        return result;
+    }
+
+    private boolean matches(long start, int len, byte[] b, boolean anywhere) {
+        if (b.length > len) {
+            return false;
+        }
+        if (!anywhere) {
+            return regionMatches(start, b);
+        }
+        for (long i = start; i <= start + len - b.length; i++) {
+            if (regionMatches(i, b)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean regionMatches(long pos, byte[] b) {
+        for (int i = 0; i < b.length; i++) {
+            if (buf.get(index(pos + i)) != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of lines held by this history.
+     */
+    public synchronized int size() {
+        int n = 0;
+        for (long end = head, start; end > tail && (start = startOf(end)) != -1; end = start - 4) {
+            n++;
+        }
+        return n;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Writes the mapping back to the file, e.g. to make the history survive a power failure as well as a crash.
+     */
+    public synchronized void sync() {
+        ensureOpen();
+        buf.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            buf.force();
+            channel.close();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException(
+                    "History has been closed."
+            );
+        }
+    }
+
+    private int index(long pos) {
+        return HEADER_SIZE + (int) (pos % capacity);
+    }
+
+    /*
+    ints and records may wrap around the end of the ring, so they are copied one byte at a time.
+     */
+    private int getInt(long pos) {
+        return ((buf.get(index(pos)) & 0xFF) << 24) | ((buf.get(index(pos + 1)) & 0xFF) << 16) |
+                ((buf.get(index(pos + 2)) & 0xFF) << 8) | (buf.get(index(pos + 3)) & 0xFF);
+    }
+
+    private void putInt(long pos, int value) {
+        buf.put(index(pos), (byte) (value >>> 24));
+        buf.put(index(pos + 1), (byte) (value >>> 16));
+        buf.put(index(pos + 2), (byte) (value >>> 8));
+        buf.put(index(pos + 3), (byte) value);
+    }
+
+    private void get(long pos, byte[] b) {
+        for (int i = 0; i < b.length; i++) {
+            b[i] = buf.get(index(pos + i));
+        }
+    }
+
+    private void put(long pos, byte[] b) {
+        for (int i = 0; i < b.length; i++) {
+            buf.put(index(pos + i), b[i]);
+        }
+    }
+}
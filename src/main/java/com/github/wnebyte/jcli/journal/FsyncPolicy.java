@@ -0,0 +1,107 @@
+package com.github.wnebyte.jcli.journal;
+
+/**
+ * This class specifies when a {@link Journal} forces its appended records to storage.
+ */
+public final class FsyncPolicy {
+
+    /*
+    ###########################
+    #      STATIC FIELDS      #
+    ###########################
+    */
+
+    private static final FsyncPolicy ALWAYS = new FsyncPolicy(Mode.ALWAYS, 0);
+
+    private static final FsyncPolicy NEVER = new FsyncPolicy(Mode.NEVER, 0);
+
+    /*
+    ###########################
+    #      STATIC METHODS     #
+    ###########################
+    */
+
+    /**
+     * Every append blocks until its record has been forced to storage. Concurrent appends are forced together
+     * (group commit), so the cost of a single force is shared by every append waiting on it.
+     * @return a policy that forces every record before its append returns.
+     */
+    public static FsyncPolicy always() {
+        return ALWAYS;
+    }
+
+    /**
+     * Appends return as soon as their record has been buffered; buffered records are written and forced
+     * to storage every <code>millis</code> milliseconds.
+     * @param millis the interval between forces.
+     * @return a policy that forces records periodically.
+     */
+    public static FsyncPolicy everyMillis(long millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException(
+                    "Interval must be positive."
+            );
+        }
+        return new FsyncPolicy(Mode.INTERVAL, millis);
+    }
+
+    /**
+     * Every append writes its record to the file, but forcing it to storage is left to the operating system.
+     * @return a policy that never forces records.
+     */
+    public static FsyncPolicy never() {
+        return NEVER;
+    }
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    private final Mode mode;
+
+    private final long millis;
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    private FsyncPolicy(Mode mode, long millis) {
+        this.mode = mode;
+        this.millis = millis;
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    Mode getMode() {
+        return mode;
+    }
+
+    long getMillis() {
+        return millis;
+    }
+
+    @Override
+    public String toString() {
+        return (mode == Mode.INTERVAL) ? String.format("every %d ms", millis) : mode.name().toLowerCase();
+    }
+
+    /*
+    ###########################
+    #      NESTED CLASSES     #
+    ###########################
+    */
+
+    enum Mode {
+        ALWAYS,
+        INTERVAL,
+        NEVER
+    }
+}
@@ -0,0 +1,515 @@
+package com.github.wnebyte.jcli.journal;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import com.github.wnebyte.jcli.exception.JournalException;
+
+/**
+ * This class is an append-only log of dispatched command lines, stored as a sequence of segment files within
+ * a directory.
+ * <br>
+ * Every record is a single UTF-8 encoded line. Records are buffered in memory and written to the current
+ * segment with a single gathering write per batch, after which the segment is forced to storage according to
+ * the {@link FsyncPolicy} of the instance. Once the current segment exceeds the configured size, a new one is
+ * started. Opening a journal over a directory that already holds segments never appends to them, so a record
+ * torn by a crash is always the last line of its segment, and is skipped when the journal is read.
+ * <br>
+ * Instances are thread-safe.
+ */
+public class Journal implements Closeable {
+
+    /*
+    ###########################
+    #      STATIC FIELDS      #
+    ###########################
+    */
+
+    public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    private static final String SUFFIX = ".log";
+
+    /*
+    the number of buffered bytes at which an append writes the pending batch, regardless of the FsyncPolicy.
+     */
+    private static final int HIGH_WATER_MARK = 256 * 1024;
+
+    /*
+    ###########################
+    #      STATIC METHODS     #
+    ###########################
+    */
+
+    /**
+     * Returns the segments of the journal stored in the specified <code>dir</code>, in the order that they
+     * were written.
+     * @param dir the directory of the journal.
+     * @return the segments of the journal.
+     * @throws IOException if the directory could not be listed.
+     */
+    public static List<Path> segments(Path dir) throws IOException {
+        try (Stream<Path> stream = Files.list(dir)) {
+            return stream
+                    .filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Passes every complete record of the journal stored at the specified <code>path</code> to the specified
+     * <code>consumer</code>, in the order that they were appended.
+     * @param path either the directory of a journal, or a single segment.
+     * @param consumer to be passed every record.
+     * @return the number of records read.
+     * @throws IOException if the journal could not be read.
+     */
+    public static long read(Path path, Consumer<String> consumer) throws IOException {
+        List<Path> segments = Files.isDirectory(path) ? segments(path) : Collections.singletonList(path);
+        long count = 0;
+
+        for (Path segment : segments) {
+            try (BufferedReader reader = Files.newBufferedReader(segment, CHARSET)) {
+                StringBuilder line = new StringBuilder();
+                int c;
+
+                while ((c = reader.read()) != -1) {
+                    if (c == '\n') {
+                        consumer.accept(line.toString());
+                        line.setLength(0);
+                        count++;
+                    } else {
+                        line.append((char) c);
+                    }
+                }
+                // a trailing line without a terminator is a torn record.
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Joins the specified <code>words</code> into a single record, from which {@link #split(String)} restores
+     * them exactly.
+     * <br>
+     * Words are separated by a single space. Words that are empty, or hold whitespace, quotes or backslashes,
+     * are enclosed in double quotes, within which backslashes, double quotes, and line terminators are escaped
+     * with a backslash; the record never holds a line terminator.
+     * @param words the words to be joined.
+     * @return the record.
+     */
+    public static String join(Iterable<String> words) {
+        StringBuilder record = new StringBuilder();
+
+        for (String word : words) {
+            if (record.length() != 0) {
+                record.append(' ');
+            }
+            if (!isPlain(word)) {
+                record.append('"');
+                for (int i = 0; i < word.length(); i++) {
+                    char c = word.charAt(i);
+                    switch (c) {
+                        case '\\':
+                        case '"':
+                            record.append('\\').append(c);
+                            break;
+                        case '\n':
+                            record.append("\\n");
+                            break;
+                        case '\r':
+                            record.append("\\r");
+                            break;
+                        default:
+                            record.append(c);
+                    }
+                }
+                record.append('"');
+            } else {
+                record.append(word);
+            }
+        }
+
+        return record.toString();
+    }
+
+    /**
+     * Splits the specified <code>record</code>, as joined by {@link #join(Iterable)}, into its words.
+     * <br>
+     * Single quoted words are accepted as well, and are taken as they are.
+     * @param record the record to be split.
+     * @return the words of the record.
+     * @throws IllegalArgumentException if the record holds an unterminated quote, or an invalid escape.
+     */
+    public static List<String> split(String record) {
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        int i = 0;
+        int len = record.length();
+
+        while (i < len) {
+            char c = record.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            word.setLength(0);
+            if (c == '"' || c == '\'') {
+                i++;
+                while (true) {
+                    if (i >= len) {
+                        throw new IllegalArgumentException(
+                                String.format("Record: '%s' holds an unterminated quote.", record)
+                        );
+                    }
+                    char d = record.charAt(i++);
+                    if (d == c) {
+                        break;
+                    } else if (d == '\\' && c == '"') {
+                        char e = (i < len) ? record.charAt(i++) : 0;
+                        switch (e) {
+                            case '\\':
+                            case '"':
+                                word.append(e);
+                                break;
+                            case 'n':
+                                word.append('\n');
+                                break;
+                            case 'r':
+                                word.append('\r');
+                                break;
+                            default:
+                                throw new IllegalArgumentException(
+                                        String.format("Record: '%s' holds an invalid escape.", record)
+                                );
+                        }
+                    } else {
+                        word.append(d);
+                    }
+                }
+            } else {
+                while (i < len && !Character.isWhitespace(record.charAt(i))) {
+                    word.append(record.charAt(i++));
+                }
+            }
+            words.add(word.toString());
+        }
+
+        return words;
+    }
+
+    /*
+    whether the specified word is written as it is, i.e. is non-empty and holds no whitespace, quotes or
+    backslashes.
+     */
+    private static boolean isPlain(String word) {
+        if (word.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (Character.isWhitespace(c) || c == '"' || c == '\'' || c == '\\') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    private final Path dir;
+
+    private final FsyncPolicy policy;
+
+    private final long segmentSize;
+
+    private final ScheduledExecutorService scheduler;
+
+    /*
+    guards appended, pending and pendingBytes.
+     */
+    private final Object appendLock = new Object();
+
+    /*
+    guards channel, segment, written and durable; held by the thread that writes (and forces) a batch.
+     */
+    private final Object commitLock = new Object();
+
+    private long appended;
+
+    private List<ByteBuffer> pending;
+
+    private int pendingBytes;
+
+    private long written;
+
+    private long durable;
+
+    private FileChannel channel;
+
+    private long segment;
+
+    private volatile boolean closed;
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    public Journal(Path dir) throws IOException {
+        this(dir, FsyncPolicy.always());
+    }
+
+    public Journal(Path dir, FsyncPolicy policy) throws IOException {
+        this(dir, policy, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens a journal in the specified <code>dir</code>, creating it if it does not exist.
+     * @param dir the directory to store segments in.
+     * @param policy when appended records are to be forced to storage.
+     * @param segmentSize the size (in bytes) at which a new segment is started.
+     * @throws IOException if the directory or the first segment could not be created.
+     */
+    public Journal(Path dir, FsyncPolicy policy, long segmentSize) throws IOException {
+        if (dir == null || policy == null) {
+            throw new NullPointerException(
+                    "Path and/or FsyncPolicy may not be null."
+            );
+        }
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException(
+                    "Segment size must be positive."
+            );
+        }
+        this.dir = Files.createDirectories(dir);
+        this.policy = policy;
+        this.segmentSize = segmentSize;
+        this.pending = new ArrayList<>();
+        List<Path> segments = segments(dir);
+        this.segment = segments.isEmpty() ? 0 : indexOf(segments.get(segments.size() - 1));
+        this.channel = roll();
+
+        if (policy.getMode() == FsyncPolicy.Mode.INTERVAL) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "jcli-journal");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleWithFixedDelay(() -> {
+                try {
+                    sync();
+                } catch (JournalException ignored) {
+                    // the batch is retried on the next tick.
+                }
+            }, policy.getMillis(), policy.getMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    /**
+     * Appends the specified <code>record</code>, and, depending on the <code>FsyncPolicy</code> of this
+     * instance, waits for it to be forced to storage.
+     * @param record the command line to be appended; may not contain line terminators.
+     * @throws JournalException if the record could not be written, or this instance has been closed.
+     */
+    public void append(String record) {
+        if (record.indexOf('\n') != -1 || record.indexOf('\r') != -1) {
+            throw new IllegalArgumentException(
+                    "Record may not contain line terminators."
+            );
+        }
+        byte[] b = record.concat("\n").getBytes(CHARSET);
+        long seq;
+        boolean full;
+
+        synchronized (appendLock) {
+            if (closed) {
+                throw new JournalException(
+                        "Journal has been closed."
+                );
+            }
+            seq = ++appended;
+            pending.add(ByteBuffer.wrap(b));
+            pendingBytes += b.length;
+            full = (pendingBytes >= HIGH_WATER_MARK);
+        }
+
+        switch (policy.getMode()) {
+            case ALWAYS:
+                commit(seq, true);
+                break;
+            case NEVER:
+                commit(seq, false);
+                break;
+            case INTERVAL:
+                if (full) {
+                    commit(seq, false);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Writes every buffered record, and forces the current segment to storage.
+     * @throws JournalException if the records could not be written.
+     */
+    public void sync() {
+        long seq;
+        synchronized (appendLock) {
+            seq = appended;
+        }
+        commit(seq, true);
+    }
+
+    /**
+     * @return the directory of this journal.
+     */
+    public Path getDirectory() {
+        return dir;
+    }
+
+    public FsyncPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Writes and forces every buffered record, and releases the resources held by this instance.
+     * @throws IOException if the records could not be written, or the segment could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (appendLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        try {
+            sync();
+        } catch (JournalException e) {
+            throw new IOException(e.getCause());
+        } finally {
+            synchronized (commitLock) {
+                channel.close();
+            }
+        }
+    }
+
+    /*
+    Writes every record up to (and including) the specified sequence number, unless a concurrent caller has
+    already done so. Callers queue up on the commit lock while the current leader writes and forces its batch;
+    once they acquire it they will, more often than not, find that their records have been forced as part of
+    that batch, and return without issuing a force of their own.
+     */
+    private void commit(long seq, boolean force) {
+        synchronized (commitLock) {
+            if (durable >= seq || (!force && written >= seq)) {
+                return;
+            }
+            List<ByteBuffer> batch;
+            long upto;
+
+            synchronized (appendLock) {
+                batch = pending;
+                upto = appended;
+                pending = new ArrayList<>();
+                pendingBytes = 0;
+            }
+
+            try {
+                if (!batch.isEmpty()) {
+                    ByteBuffer[] srcs = batch.toArray(new ByteBuffer[0]);
+                    long remaining = 0;
+                    for (ByteBuffer src : srcs) {
+                        remaining += src.remaining();
+                    }
+                    while (remaining > 0) {
+                        remaining -= channel.write(srcs);
+                    }
+                }
+                written = upto;
+                if (force) {
+                    channel.force(false);
+                    durable = upto;
+                }
+                if (channel.position() >= segmentSize) {
+                    channel.force(false);
+                    channel.close();
+                    channel = roll();
+                    durable = upto;
+                }
+            } catch (IOException e) {
+                requeue(batch);
+                throw new JournalException(e);
+            }
+        }
+    }
+
+    /*
+    puts the unwritten remainder of a failed batch back in front of the records appended since, so that it is
+    retried by the next commit rather than lost.
+     */
+    private void requeue(List<ByteBuffer> batch) {
+        List<ByteBuffer> unwritten = new ArrayList<>(batch.size());
+        long bytes = 0;
+        for (ByteBuffer src : batch) {
+            if (src.hasRemaining()) {
+                unwritten.add(src);
+                bytes += src.remaining();
+            }
+        }
+        if (unwritten.isEmpty()) {
+            return;
+        }
+        synchronized (appendLock) {
+            unwritten.addAll(pending);
+            pending = unwritten;
+            pendingBytes += bytes;
+        }
+    }
+
+    private FileChannel roll() throws IOException {
+        Path path = dir.resolve(String.format("%020d%s", ++segment, SUFFIX));
+        return FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+}
@@ -0,0 +1,458 @@
+package com.github.wnebyte.jcli.plugin;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import com.github.wnebyte.jcli.AbstractCommand;
+import com.github.wnebyte.jcli.CLI;
+import com.github.wnebyte.jcli.exception.ConfigException;
+import com.github.wnebyte.jcli.processor.MethodScanner;
+import com.github.wnebyte.jcli.processor.MethodScannerImpl;
+
+/**
+ * This class loads the Commands of the controller jars held by a directory into a live {@link CLI}, and, once
+ * started, keeps them in step with the directory: jars that are added or modified are (re)loaded, and jars that
+ * are removed are unloaded, without restarting the <code>CLI</code>.
+ * <br>
+ * Every jar is loaded by its own child <code>ClassLoader</code>, from a private copy, so that the jar can be
+ * replaced or removed while it is loaded, and only its own classes are scanned. A jar that is created or modified
+ * in the directory is only (re)loaded once it has been left unchanged for a short while, so that a jar is not
+ * loaded, and reported as broken, while it is still being written. Its Commands are swapped into the
+ * <code>CLI</code> in a single step (see {@link CLI#replace(Collection, Collection)}), so dispatches see either the
+ * old or the new Commands of a reloaded jar. Once a jar has been unloaded, neither the <code>CLI</code> nor this
+ * loader hold any reference to its classes, so its <code>ClassLoader</code> and classes can be collected.
+ * <b>Note</b> that type adapters for the classes of a plugin must not be registered with the
+ * {@link com.github.wnebyte.jarguments.adapter.AbstractTypeAdapterRegistry} of the <code>CLI</code>, as it would
+ * retain them.
+ */
+public class PluginLoader implements Closeable {
+
+    /*
+    ###########################
+    #      STATIC FIELDS      #
+    ###########################
+    */
+
+    private static final String JAR_SUFFIX = ".jar";
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    /*
+    the time that a jar has to be left unchanged, after it was created or modified, before it is (re)loaded; a jar
+    that is being written raises a burst of events, and is not loaded until it has been written.
+     */
+    private static final long QUIET_PERIOD_MILLIS = 500;
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    private final CLI cli;
+
+    private final Path dir;
+
+    private final Path shadowDir;
+
+    private final Map<Path, Plugin> plugins;
+
+    private WatchService watcher;
+
+    private Thread thread;
+
+    private boolean closed;
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    /**
+     * Constructs a new instance that loads the jars held by the specified <code>dir</code> into the specified
+     * <code>cli</code>.
+     * @param cli the CLI to load the Commands into.
+     * @param dir the directory holding the plugin jars.
+     * @throws IOException if the directory for the private copies of the jars could not be created.
+     */
+    public PluginLoader(CLI cli, Path dir) throws IOException {
+        if (cli == null) {
+            throw new NullPointerException(
+                    "CLI may not be null."
+            );
+        }
+        if (dir == null) {
+            throw new NullPointerException(
+                    "Path may not be null."
+            );
+        }
+        this.cli = cli;
+        this.dir = dir.toAbsolutePath().normalize();
+        this.shadowDir = Files.createTempDirectory("jcli-plugins");
+        this.plugins = new HashMap<>();
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    /**
+     * Loads every jar held by the directory, and starts watching it for changes on a daemon thread.
+     * <br>
+     * Jars that could not be loaded are reported to the error output of the <code>CLI</code>, and are retried
+     * when they are next modified.
+     * @throws IOException if the directory could not be read or watched.
+     */
+    public synchronized void start() throws IOException {
+        ensureOpen();
+        if (watcher != null) {
+            return;
+        }
+        watcher = dir.getFileSystem().newWatchService();
+        dir.register(watcher,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + JAR_SUFFIX)) {
+            for (Path jar : stream) {
+                tryLoad(jar);
+            }
+        }
+
+        thread = new Thread(this::watch, "jcli-plugin-loader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /*
+    events of created and modified jars are held back per jar, until its size has been unchanged, and no event
+    has been raised for it, for the quiet period.
+     */
+    private void watch() {
+        WatchService watcher;
+        synchronized (this) {
+            watcher = this.watcher;
+        }
+        Map<Path, Pending> pending = new HashMap<>();
+
+        while (true) {
+            WatchKey key;
+            try {
+                key = pending.isEmpty() ? watcher.take() : watcher.poll(timeout(pending), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            if (key != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        rescan(pending);
+                        continue;
+                    }
+                    Path jar = dir.resolve((Path) event.context());
+                    if (!isJar(jar)) {
+                        continue;
+                    }
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        pending.remove(jar);
+                        unload(jar);
+                    } else {
+                        pending.put(jar, new Pending(jar));
+                    }
+                }
+                if (!key.reset()) {
+                    return;
+                }
+            }
+            settle(pending);
+        }
+    }
+
+    /*
+    the time until the first pending jar is due.
+     */
+    private static long timeout(Map<Path, Pending> pending) {
+        long due = Long.MAX_VALUE;
+        for (Pending p : pending.values()) {
+            due = Math.min(due, p.due);
+        }
+        return Math.max(1, due - System.currentTimeMillis());
+    }
+
+    /*
+    loads the pending jars that are due, unless their size has changed meanwhile, in which case they are due
+    again after another quiet period.
+     */
+    private void settle(Map<Path, Pending> pending) {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<Path, Pending>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Path, Pending> entry = it.next();
+            Pending p = entry.getValue();
+            if (p.due > now) {
+                continue;
+            }
+            Pending q = new Pending(entry.getKey());
+            if (q.size != p.size) {
+                entry.setValue(q);
+            } else {
+                it.remove();
+                if (Files.exists(entry.getKey())) {
+                    tryLoad(entry.getKey());
+                }
+            }
+        }
+    }
+
+    /*
+    events have been lost, so the jars that no longer exist are unloaded, and every other jar is reloaded once it
+    is left unchanged.
+     */
+    private synchronized void rescan(Map<Path, Pending> pending) {
+        if (closed) {
+            return;
+        }
+        for (Path jar : new ArrayList<>(plugins.keySet())) {
+            if (!Files.exists(jar)) {
+                pending.remove(jar);
+                unload(jar);
+            }
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + JAR_SUFFIX)) {
+            for (Path jar : stream) {
+                pending.put(jar, new Pending(jar));
+            }
+        } catch (IOException e) {
+            err().printf("(Error): Could not Read Plugin Directory: '%s'%n", e.getMessage());
+        }
+    }
+
+    private synchronized void tryLoad(Path jar) {
+        if (closed) {
+            return;
+        }
+        try {
+            load(jar);
+        } catch (IOException | RuntimeException | LinkageError e) {
+            // the jar may still be being written; it is retried when it is next modified.
+            err().printf("(Error): Could not Load Plugin: '%s' (%s)%n", jar.getFileName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the Commands of the specified <code>jar</code> into the <code>CLI</code>, replacing those of its
+     * previously loaded version, if any, in a single step.
+     * <br>
+     * If the jar could not be loaded, its previously loaded version, if any, remains loaded.
+     * @param jar the jar.
+     * @return the loaded Commands.
+     * @throws IOException if the jar could not be read.
+     * @throws ConfigException if any of the Commands could not be mapped, or collides with another Command.
+     */
+    public synchronized List<AbstractCommand> load(Path jar) throws IOException {
+        ensureOpen();
+        jar = jar.toAbsolutePath().normalize();
+        Path shadow = Files.createTempFile(shadowDir, "plugin", JAR_SUFFIX);
+        URLClassLoader loader = null;
+
+        try {
+            Files.copy(jar, shadow, StandardCopyOption.REPLACE_EXISTING);
+            loader = new URLClassLoader(new URL[] { shadow.toUri().toURL() }, CLI.class.getClassLoader());
+            Set<Method> methods = scan(shadow, loader);
+            Plugin prev = plugins.get(jar);
+            List<AbstractCommand> commands = cli.replace(
+                    (prev == null) ? Collections.emptyList() : prev.commands, methods);
+            plugins.put(jar, new Plugin(shadow, loader, commands));
+            if (prev != null) {
+                prev.release();
+            }
+            return commands;
+        } catch (IOException | RuntimeException | LinkageError e) {
+            if (loader != null) {
+                loader.close();
+            }
+            Files.deleteIfExists(shadow);
+            throw e;
+        }
+    }
+
+    /*
+    only the classes of the jar itself are scanned; they are loaded without being initialized.
+     */
+    private static Set<Method> scan(Path jar, ClassLoader loader) throws IOException {
+        MethodScanner scanner = new MethodScannerImpl();
+
+        try (JarFile file = new JarFile(jar.toFile())) {
+            Enumeration<JarEntry> entries = file.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (!name.endsWith(CLASS_SUFFIX) || name.startsWith("META-INF/") || name.endsWith("module-info.class")) {
+                    continue;
+                }
+                String className = name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.');
+                try {
+                    scanner.scanClass(Class.forName(className, false, loader));
+                } catch (ClassNotFoundException e) {
+                    throw new ConfigException(e);
+                }
+            }
+        }
+
+        return scanner.getScannedElements();
+    }
+
+    /**
+     * Unloads the Commands of the specified <code>jar</code> from the <code>CLI</code>, and releases its
+     * <code>ClassLoader</code>.
+     * @param jar the jar.
+     * @return <code>true</code> if the jar was loaded, otherwise <code>false</code>.
+     */
+    public synchronized boolean unload(Path jar) {
+        Plugin plugin = plugins.remove(jar.toAbsolutePath().normalize());
+        if (plugin == null) {
+            return false;
+        }
+        cli.replace(plugin.commands, Collections.emptySet());
+        plugin.release();
+        return true;
+    }
+
+    /**
+     * @return the jars that are currently loaded.
+     */
+    public synchronized Set<Path> getPlugins() {
+        return new HashSet<>(plugins.keySet());
+    }
+
+    /**
+     * @param jar the jar.
+     * @return the Commands of the specified <code>jar</code> that are currently loaded, or an empty List if the
+     * jar is not loaded.
+     */
+    public synchronized List<AbstractCommand> getCommands(Path jar) {
+        Plugin plugin = plugins.get(jar.toAbsolutePath().normalize());
+        return (plugin == null) ? Collections.emptyList() : plugin.commands;
+    }
+
+    public Path getDirectory() {
+        return dir;
+    }
+
+    /**
+     * Stops watching the directory, and unloads every jar.
+     */
+    @Override
+    public void close() throws IOException {
+        Thread thread;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (watcher != null) {
+                watcher.close();
+            }
+            thread = this.thread;
+            for (Path jar : new ArrayList<>(plugins.keySet())) {
+                unload(jar);
+            }
+        }
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // the copies of the unloaded jars have been deleted, unless they could not be (e.g. as they were still
+        // open), in which case they are deleted along with the directory.
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(shadowDir)) {
+            for (Path shadow : stream) {
+                Files.deleteIfExists(shadow);
+            }
+        }
+        Files.deleteIfExists(shadowDir);
+    }
+
+    /*
+    the directory holding the private copies of the loaded jars.
+     */
+    Path getShadowDirectory() {
+        return shadowDir;
+    }
+
+    private static boolean isJar(Path path) {
+        return path.getFileName().toString().endsWith(JAR_SUFFIX);
+    }
+
+    private PrintStream err() {
+        return cli.getConfiguration().err();
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException(
+                    "PluginLoader has been closed."
+            );
+        }
+    }
+
+    /*
+    ###########################
+    #      NESTED CLASSES     #
+    ###########################
+    */
+
+    private static final class Pending {
+
+        private final long size;
+
+        private final long due;
+
+        private Pending(Path jar) {
+            long size;
+            try {
+                size = Files.size(jar);
+            } catch (IOException e) {
+                size = -1;
+            }
+            this.size = size;
+            this.due = System.currentTimeMillis() + QUIET_PERIOD_MILLIS;
+        }
+    }
+
+    private static final class Plugin {
+
+        private final Path shadow;
+
+        private final URLClassLoader loader;
+
+        private final List<AbstractCommand> commands;
+
+        private Plugin(Path shadow, URLClassLoader loader, List<AbstractCommand> commands) {
+            this.shadow = shadow;
+            this.loader = loader;
+            this.commands = Collections.unmodifiableList(commands);
+        }
+
+        private void release() {
+            try {
+                loader.close();
+                Files.deleteIfExists(shadow);
+            } catch (IOException ignored) {
+                // the copy is in a temporary directory.
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.wnebyte.jcli.processor;
 
 import java.util.Collection;
+import java.util.concurrent.Executor;
 
 public interface InstanceTracker {
 
@@ -12,7 +13,11 @@ public interface InstanceTracker {
 
     Object get(Class<?> cls) throws ReflectiveOperationException;
 
+    Object remove(Class<?> cls);
+
     Object newInstance(Class<?> cls) throws ReflectiveOperationException;
 
+    void initialize(Collection<Class<?>> classes, Executor executor) throws ReflectiveOperationException;
+
     boolean canInstantiate(Class<?> cls);
 }
@@ -1,6 +1,9 @@
 package com.github.wnebyte.jcli.processor;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
 import com.github.wnebyte.jcli.util.TypeSet;
 import com.github.wnebyte.jcli.di.IDependencyContainer;
 
@@ -73,6 +76,20 @@ public class InstanceTrackerImpl implements InstanceTracker {
         return object;
     }
 
+    /**
+     * Stops tracking the <code>Object</code> that is of the specified <code>cls</code>, if one is being tracked,
+     * so that the next call to {@link #get(Class)} constructs a new instance; and releases the dependencies
+     * that this instance's {@link IDependencyContainer} has constructed on behalf of <code>cls</code>.
+     * @param cls the class of the Object.
+     * @return the Object that is no longer tracked, or <code>null</code> if there was none.
+     */
+    @Override
+    public Object remove(Class<?> cls) {
+        Object object = typeSet.remove(cls);
+        dependencyContainer.release(cls);
+        return object;
+    }
+
     /**
      * Constructs and returns a new instance of the specified <code>aClass</code> using this instance's
      * {@link IDependencyContainer} (does not track/store the result).
@@ -84,6 +101,27 @@ public class InstanceTrackerImpl implements InstanceTracker {
         return dependencyContainer.newInstance(cls);
     }
 
+    /**
+     * Constructs and tracks an instance of every one of the specified <code>classes</code> that is not already
+     * being tracked, using this instance's {@link IDependencyContainer}, which resolves their dependencies up
+     * front, and constructs them on the specified <code>executor</code>, if it is not <code>null</code>.
+     * @param classes the classes of the Objects.
+     * @param executor to construct the Objects on, or <code>null</code>.
+     * @throws ReflectiveOperationException if any of the Objects could not be constructed.
+     */
+    @Override
+    public void initialize(Collection<Class<?>> classes, Executor executor) throws ReflectiveOperationException {
+        List<Class<?>> untracked = new ArrayList<>();
+        for (Class<?> cls : classes) {
+            if (typeSet.get(cls) == null && !untracked.contains(cls)) {
+                untracked.add(cls);
+            }
+        }
+        if (!untracked.isEmpty()) {
+            typeSet.addAll(dependencyContainer.newInstances(untracked, executor).values());
+        }
+    }
+
     @Override
     public boolean canInstantiate(Class<?> cls) {
         return dependencyContainer.canInstantiate(cls);
@@ -1,7 +1,11 @@
 package com.github.wnebyte.jcli.processor;
 
+import java.util.Map;
 import java.util.Set;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Collections;
+import java.util.WeakHashMap;
 import java.util.function.Supplier;
 import java.lang.reflect.Method;
 import com.github.wnebyte.jarguments.adapter.AbstractTypeAdapterRegistry;
@@ -10,6 +14,7 @@ import com.github.wnebyte.jcli.*;
 import com.github.wnebyte.jcli.annotation.Scope;
 import com.github.wnebyte.jcli.exception.ConfigException;
 import com.github.wnebyte.jcli.util.Annotations;
+import com.github.wnebyte.jcli.util.ObjectPool;
 import com.github.wnebyte.jcli.util.Reflections;
 
 public class MethodMapperImpl implements MethodMapper {
@@ -26,6 +31,11 @@ public class MethodMapperImpl implements MethodMapper {
 
     private final Set<Class<?>> classes;
 
+    /*
+    the pooled and thread-confined Suppliers, per class, so that the Commands of a class share them.
+     */
+    private final Map<Class<?>, Supplier<Object>> scoped;
+
     /*
     ###########################
     #       CONSTRUCTORS      #
@@ -36,6 +46,7 @@ public class MethodMapperImpl implements MethodMapper {
         this.tracker = tracker;
         this.adapters = adapters;
         this.classes = new HashSet<>();
+        this.scoped = new HashMap<>();
     }
 
     /*
@@ -54,6 +65,18 @@ public class MethodMapperImpl implements MethodMapper {
      */
     @Override
     public Command apply(Method method) {
+        return new Command(bind(method), method, new ArgumentFactory(adapters, null, null));
+    }
+
+    /**
+     * Returns a <code>Supplier</code> of the object that the specified <code>method</code> is to be invoked on,
+     * in accordance with the {@link Scope} of its declaring class.
+     * @param method a Method.
+     * @return a Supplier of <code>null</code> if the Method is static, otherwise a Supplier of the (singleton,
+     * transient, pooled or thread) instance of its declaring class; a {@link ReleasingSupplier} if it is pooled.
+     * @throws ConfigException if the Method is non-static and its declaring class could not be instantiated.
+     */
+    public Supplier<Object> bind(Method method) {
         final Class<?> cls = method.getDeclaringClass();
         final Scope scope = Annotations.getScopeOrDefaultValue(cls, Scope.SINGLETON);
         Supplier<Object> supplier;
@@ -74,24 +97,35 @@ public class MethodMapperImpl implements MethodMapper {
         }
         else if (scope == Scope.TRANSIENT) {
             // a new object will be used for each subsequent invocation.
-            if (classes.add(cls)) {
-                if (!tracker.canInstantiate(cls)) {
-                    throw new ConfigException(
-                            String.format(
-                                    "Class: '%s' could not be instantiated.", cls.getSimpleName()
-                            )
-                    );
-                }
-            }
-            supplier = () -> {
-                try {
-                    return tracker.newInstance(cls);
-                } catch (ReflectiveOperationException e) {
-                    throw new ConfigException(
-                            e.getMessage()
-                    );
-                }
-            };
+            ensureInstantiable(cls);
+            supplier = () -> newInstance(cls);
+        }
+        else if (scope == Scope.POOLED) {
+            // an idle object from the pool will be used for each subsequent invocation, and then returned.
+            ensureInstantiable(cls);
+            supplier = scoped.computeIfAbsent(cls, c -> {
+                ObjectPool<Object> pool = new ObjectPool<>(Annotations.getPoolSize(c), () -> newInstance(c),
+                        o -> {
+                            if (o instanceof Resettable) {
+                                ((Resettable) o).reset();
+                            }
+                        });
+                return new ReleasingSupplier() {
+                    @Override
+                    public Object get() {
+                        return pool.acquire();
+                    }
+                    @Override
+                    public void release(Object object) {
+                        pool.release(object);
+                    }
+                };
+            });
+        }
+        else if (scope == Scope.THREAD) {
+            // the same object will be used for all subsequent invocations served by the same thread.
+            ensureInstantiable(cls);
+            supplier = scoped.computeIfAbsent(cls, c -> new ThreadSupplier(() -> newInstance(c)));
         }
         else {
             throw new IllegalStateException(
@@ -101,7 +135,103 @@ public class MethodMapperImpl implements MethodMapper {
             );
         }
 
-        return new Command(supplier, method, new ArgumentFactory(adapters, null, null));
+        return supplier;
+    }
+
+    /**
+     * Forgets the specified <code>cls</code>, whose Commands are no longer bound, so that the Suppliers of its
+     * pooled or thread instances, and the class itself, are no longer referenced by this instance; Commands of the
+     * class that are bound later on are provided new instances.
+     * @param cls the class.
+     */
+    public void release(Class<?> cls) {
+        classes.remove(cls);
+        Supplier<Object> supplier = scoped.remove(cls);
+        if (supplier instanceof ThreadSupplier) {
+            ((ThreadSupplier) supplier).clear();
+        }
+    }
+
+    /*
+    a class is only remembered once it has been checked, so that every Command of a class that can not be
+    instantiated is rejected, and not only the first.
+     */
+    private void ensureInstantiable(Class<?> cls) {
+        if (!classes.contains(cls)) {
+            if (!tracker.canInstantiate(cls)) {
+                throw new ConfigException(
+                        String.format(
+                                "Class: '%s' could not be instantiated.", cls.getSimpleName()
+                        )
+                );
+            }
+            classes.add(cls);
+        }
+    }
+
+    private Object newInstance(Class<?> cls) {
+        try {
+            return tracker.newInstance(cls);
+        } catch (ReflectiveOperationException e) {
+            throw new ConfigException(
+                    e.getMessage()
+            );
+        }
     }
 
-}
\ No newline at end of file
+    /*
+    ###########################
+    #      NESTED CLASSES     #
+    ###########################
+    */
+
+    /*
+    supplies every thread its own instance. The instances are held in a box per thread, and every box is
+    registered, so that clear() can drop the instances of all threads, and not only those of the calling thread,
+    once the Commands of the class are unregistered; the boxes themselves are left to be reclaimed with the
+    ThreadLocal. Invocations that are still in flight at that point are provided new, unconfined instances.
+     */
+    private static final class ThreadSupplier implements Supplier<Object> {
+
+        private final Supplier<Object> factory;
+
+        private final ThreadLocal<Object[]> local;
+
+        private final Set<Object[]> boxes;
+
+        private volatile boolean cleared;
+
+        private ThreadSupplier(Supplier<Object> factory) {
+            this.factory = factory;
+            this.boxes = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+            this.local = ThreadLocal.withInitial(() -> {
+                Object[] box = new Object[1];
+                boxes.add(box);
+                return box;
+            });
+        }
+
+        @Override
+        public Object get() {
+            if (cleared) {
+                return factory.get();
+            }
+            Object[] box = local.get();
+            if (box[0] == null) {
+                box[0] = factory.get();
+            }
+            return box[0];
+        }
+
+        private void clear() {
+            cleared = true;
+            synchronized (boxes) {
+                for (Object[] box : boxes) {
+                    box[0] = null;
+                }
+                boxes.clear();
+            }
+            local.remove();
+        }
+    }
+}
@@ -1,10 +1,21 @@
 package com.github.wnebyte.jcli.processor;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import com.github.wnebyte.jarguments.util.Strings;
 import com.github.wnebyte.jcli.AbstractCommand;
 import com.github.wnebyte.jcli.exception.IllegalAnnotationException;
-import com.github.wnebyte.jcli.util.Sets;
 
+/**
+ * This class is the registration phase of the mapping of Commands, which rejects every Command that has no name,
+ * or that collides with a previously registered Command or group.
+ * <br>
+ * Registered groups and names are held in a tree of hash tables, keyed on the tokens that select them, so every
+ * name is checked, and registered, by a single atomic operation on the table of its group; the names, and the
+ * groups, claimed by a Command that collides are released again before it is rejected. Instances are
+ * thread-safe, and can be used to filter a parallel stream.
+ */
 public class PostMappingFilter implements Filter<AbstractCommand> {
 
     /*
@@ -13,7 +24,7 @@ public class PostMappingFilter implements Filter<AbstractCommand> {
     ###########################
     */
 
-    private final List<AbstractCommand> commands;
+    private final Node root;
 
     /*
     ###########################
@@ -22,7 +33,7 @@ public class PostMappingFilter implements Filter<AbstractCommand> {
     */
 
     public PostMappingFilter() {
-        this.commands = new ArrayList<>();
+        this.root = new Node();
     }
 
     /*
@@ -44,42 +55,110 @@ public class PostMappingFilter implements Filter<AbstractCommand> {
             );
         }
 
-        // check if names have previously been mapped.
-        boolean nameCollision = commands.stream()
-                .anyMatch(c -> c.getPrefix().equals(prefix) && Sets.intersects(c.getNames(), names));
-
-        if (nameCollision) {
-            throw new IllegalAnnotationException(
-                    String.format(
-                            "A Command with prefix: %s and one or more of the names: %s has already been mapped.",
-                            prefix, Arrays.toString(names.toArray())
-                    )
-            );
-        }
+        String[] segments = cmd.hasPrefix() ? prefix.split(Strings.WHITESPACE) : new String[0];
+        Node[] path = new Node[segments.length + 1];
+        path[0] = root;
+        Node node = root;
 
         if (cmd.hasPrefix()) {
             // check if prefix collides with any of the names.
-            nameCollision = names.contains(prefix);
-            if (nameCollision) {
+            if (names.contains(segments[segments.length - 1])) {
                 throw new IllegalAnnotationException(
                         String.format(
                                 "Command: '%s' has a duplicate prefix/name.", cmd
                         )
                 );
             }
-            // check if prefix collides with any of the previously mapped names.
-            nameCollision = commands.stream()
-                    .anyMatch(c -> c.getNames().contains(prefix));
-            if (nameCollision) {
+            for (int i = 0; i < segments.length; i++) {
+                // check if prefix collides with any of the previously mapped names.
+                Object entry = node.entries.compute(segments[i], (s, e) -> claim(e));
+                if (!(entry instanceof Node)) {
+                    release(path, segments, i);
+                    throw new IllegalAnnotationException(
+                            String.format(
+                                    "Command: '%s' has a prefix that has already been mapped as a name.", cmd
+                            )
+                    );
+                }
+                node = (Node) entry;
+                path[i + 1] = node;
+            }
+        }
+
+        List<String> claimed = new ArrayList<>(names.size());
+
+        for (String name : names) {
+            Object entry = node.entries.putIfAbsent(name, cmd);
+            if (entry == null) {
+                claimed.add(name);
+                continue;
+            }
+            // release the names and groups claimed so far, so that a rejected Command leaves no trace.
+            for (String n : claimed) {
+                node.entries.remove(n, cmd);
+            }
+            release(path, segments, segments.length);
+            // check if names have previously been mapped.
+            if (entry instanceof AbstractCommand) {
                 throw new IllegalAnnotationException(
                         String.format(
-                                "Command: '%s' has a prefix that has already been mapped as a name.", cmd
+                                "A Command with prefix: %s and one or more of the names: %s has already been mapped.",
+                                prefix, Arrays.toString(names.toArray())
                         )
                 );
             }
+            // check if names have previously been mapped as a prefix.
+            throw new IllegalAnnotationException(
+                    String.format(
+                            "Command: '%s' has a name that has already been mapped as a prefix.", cmd
+                    )
+            );
         }
 
-        commands.add(cmd);
         return true;
     }
-}
\ No newline at end of file
+
+    /*
+    every Command that passes through a group holds a claim on it, which is only given up if the Command is
+    rejected, so a group is removed once no registered (or in-flight) Command passes through it.
+     */
+    private static Object claim(Object entry) {
+        if (entry == null) {
+            Node node = new Node();
+            node.claims = 1;
+            return node;
+        }
+        if (entry instanceof Node) {
+            ((Node) entry).claims++;
+        }
+        return entry;
+    }
+
+    /*
+    gives up the claims on the first depth groups of the specified path, from the bottom up.
+     */
+    private static void release(Node[] path, String[] segments, int depth) {
+        for (int i = depth; i > 0; i--) {
+            Node node = path[i];
+            path[i - 1].entries.computeIfPresent(segments[i - 1],
+                    (s, e) -> (e == node && --node.claims == 0) ? null : e);
+        }
+    }
+
+    /*
+    ###########################
+    #      NESTED CLASSES     #
+    ###########################
+    */
+
+    /*
+    every entry is either the Node of a group, or the Command that a name has been registered by; the claims
+    on a Node are only read and written while its entry in the table of its parent is locked by compute.
+     */
+    private static final class Node {
+
+        private final ConcurrentMap<String, Object> entries = new ConcurrentHashMap<>(4);
+
+        private int claims;
+    }
+}
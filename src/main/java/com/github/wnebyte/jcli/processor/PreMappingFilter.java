@@ -2,6 +2,7 @@ package com.github.wnebyte.jcli.processor;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import com.github.wnebyte.jcli.InvocationContext;
 import com.github.wnebyte.jcli.exception.ConfigException;
 import com.github.wnebyte.jcli.util.Annotations;
 import com.github.wnebyte.jcli.exception.IllegalAnnotationException;
@@ -25,9 +26,11 @@ public class PreMappingFilter implements Filter<Method> {
             );
         }
         for (Parameter param : method.getParameters()) {
-            if (Annotations.isNotAnnotated(param)) {
+            if (Annotations.isNotAnnotated(param) && !Annotations.isArguments(param) &&
+                    param.getType() != InvocationContext.class) {
                 throw new IllegalAnnotationException(
-                        "Method's Parameters have to be annotated with @Argument."
+                        "Method's Parameters have to be annotated with @Argument or @Arguments, " +
+                                "or be of type InvocationContext."
                 );
             }
         }
@@ -0,0 +1,17 @@
+package com.github.wnebyte.jcli.processor;
+
+import java.util.function.Supplier;
+
+/**
+ * This interface represents a Supplier of the objects that Commands are invoked on, that is to be handed back
+ * every supplied object once the invocation has completed; e.g. to return it to a pool.
+ */
+public interface ReleasingSupplier extends Supplier<Object> {
+
+    /**
+     * Is called once the invocation on the specified <code>object</code> has completed, whether normally or
+     * not.
+     * @param object the object that was supplied.
+     */
+    void release(Object object);
+}
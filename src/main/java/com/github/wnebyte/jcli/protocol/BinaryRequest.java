@@ -0,0 +1,221 @@
+package com.github.wnebyte.jcli.protocol;
+
+import java.util.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import com.github.wnebyte.jarguments.util.Strings;
+import com.github.wnebyte.jcli.exception.MalformedRequestException;
+
+/**
+ * This class represents a length-prefixed binary request, used by machine clients to dispatch a
+ * Command without having to join (and have the CLI re-tokenize) a line of input.
+ * <br>
+ * A request is laid out as follows (all integers are big-endian):
+ * <pre>
+ * byte   kind          ({@link #BY_ID} or {@link #BY_NAME})
+ * int    id            (if kind is BY_ID)
+ * int    len, byte[]   (if kind is BY_NAME) UTF-8 encoded name, optionally preceded by a prefix and a whitespace
+ * int    argc
+ * argc * (int len, byte[]) UTF-8 encoded tokens
+ * </pre>
+ * Each token is passed to the Command as a single, verbatim value, which may hold whitespace and quote
+ * characters; so no quoting or escaping is required on the part of the client.
+ */
+public final class BinaryRequest {
+
+    /*
+    ###########################
+    #      STATIC FIELDS      #
+    ###########################
+    */
+
+    public static final byte BY_ID = 0;
+
+    public static final byte BY_NAME = 1;
+
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    /*
+    ###########################
+    #      STATIC METHODS     #
+    ###########################
+    */
+
+    /**
+     * Encodes a new request for the Command with the specified <code>id</code>.
+     * @param id the id of the Command.
+     * @param tokens the tokens to be passed to the Command.
+     * @return a new, flipped ByteBuffer.
+     */
+    public static ByteBuffer encode(int id, String... tokens) {
+        byte[][] encoded = encodeAll(tokens);
+        ByteBuffer buf = ByteBuffer.allocate(1 + 4 + size(encoded));
+        buf.put(BY_ID).putInt(id);
+        return putAll(buf, encoded);
+    }
+
+    /**
+     * Encodes a new request for the Command with the specified <code>name</code>.
+     * @param name the (optionally prefixed) name of the Command.
+     * @param tokens the tokens to be passed to the Command.
+     * @return a new, flipped ByteBuffer.
+     */
+    public static ByteBuffer encode(String name, String... tokens) {
+        byte[] n = name.getBytes(CHARSET);
+        byte[][] encoded = encodeAll(tokens);
+        ByteBuffer buf = ByteBuffer.allocate(1 + 4 + n.length + size(encoded));
+        buf.put(BY_NAME).putInt(n.length).put(n);
+        return putAll(buf, encoded);
+    }
+
+    /**
+     * Decodes the request starting at the current position of the specified <code>buf</code>. The position of
+     * the buffer is advanced past the request.
+     * @param buf the buffer to decode from.
+     * @return the decoded request.
+     * @throws MalformedRequestException if the buffer does not contain a well-formed request.
+     */
+    public static BinaryRequest decode(ByteBuffer buf) {
+        try {
+            byte kind = buf.get();
+            int id = -1;
+            String name = null;
+
+            if (kind == BY_ID) {
+                id = buf.getInt();
+            } else if (kind == BY_NAME) {
+                name = getString(buf);
+            } else {
+                throw new MalformedRequestException(
+                        String.format(
+                                "Request kind: '%d' is not recognized.", kind
+                        )
+                );
+            }
+
+            int argc = buf.getInt();
+            if (argc < 0 || argc > buf.remaining() / 4) {
+                throw new MalformedRequestException(
+                        String.format(
+                                "Request has an illegal argument count: %d.", argc
+                        )
+                );
+            }
+            String[] tokens = new String[argc];
+            for (int i = 0; i < argc; i++) {
+                tokens[i] = getString(buf);
+            }
+
+            return new BinaryRequest(id, name, Arrays.asList(tokens));
+        } catch (BufferUnderflowException e) {
+            throw new MalformedRequestException(
+                    "Request is truncated."
+            );
+        }
+    }
+
+    private static String getString(ByteBuffer buf) {
+        int len = buf.getInt();
+        if (len < 0 || len > buf.remaining()) {
+            throw new MalformedRequestException(
+                    String.format(
+                            "Request has an illegal token length: %d.", len
+                    )
+            );
+        }
+
+        String s;
+        if (buf.hasArray()) {
+            s = new String(buf.array(), buf.arrayOffset() + buf.position(), len, CHARSET);
+            buf.position(buf.position() + len);
+        } else {
+            byte[] b = new byte[len];
+            buf.get(b);
+            s = new String(b, CHARSET);
+        }
+        return s;
+    }
+
+    private static byte[][] encodeAll(String[] tokens) {
+        tokens = (tokens == null) ? new String[0] : tokens;
+        byte[][] encoded = new byte[tokens.length][];
+        for (int i = 0; i < tokens.length; i++) {
+            encoded[i] = tokens[i].getBytes(CHARSET);
+        }
+        return encoded;
+    }
+
+    private static int size(byte[][] encoded) {
+        int size = 4;
+        for (byte[] b : encoded) {
+            size += 4 + b.length;
+        }
+        return size;
+    }
+
+    private static ByteBuffer putAll(ByteBuffer buf, byte[][] encoded) {
+        buf.putInt(encoded.length);
+        for (byte[] b : encoded) {
+            buf.putInt(b.length).put(b);
+        }
+        buf.flip();
+        return buf;
+    }
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    private final int id;
+
+    private final String name;
+
+    private final List<String> tokens;
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    private BinaryRequest(int id, String name, List<String> tokens) {
+        this.id = id;
+        this.name = name;
+        this.tokens = tokens;
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    public boolean hasId() {
+        return (name == null);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the (fixed-size) tokens of this request.
+     */
+    public List<String> getTokens() {
+        return tokens;
+    }
+
+    @Override
+    public String toString() {
+        String head = hasId() ? "#" + id : name;
+        return tokens.isEmpty() ? head : head + Strings.WHITESPACE + String.join(Strings.WHITESPACE, tokens);
+    }
+}
@@ -0,0 +1,258 @@
+package com.github.wnebyte.jcli.server;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import static com.github.wnebyte.jcli.server.DaemonProtocol.*;
+
+/**
+ * This class is a thin client that forwards its argv, stdin, stdout and stderr to a running
+ * {@link DaemonServer}, and exits with the status returned by it.
+ * <br>
+ * When invoked with one or more arguments, the arguments are dispatched as they are, and stdin is not read;
+ * otherwise every line read from stdin is dispatched.
+ * <br>
+ * Every connection is authenticated with the token that the server has written to its token file, which is
+ * read before connecting; by default {@link DaemonServer#tokenFile(Path, int)} within
+ * {@link DaemonServer#defaultDirectory()}.
+ * <br>
+ * The port of the server is read from the <code>jcli.daemon.port</code> system property, or the
+ * <code>JCLI_DAEMON_PORT</code> environment variable, and defaults to {@link DaemonServer#DEFAULT_PORT}.
+ */
+public class DaemonClient {
+
+    /*
+    ###########################
+    #      STATIC FIELDS      #
+    ###########################
+    */
+
+    public static final String PORT_PROPERTY = "jcli.daemon.port";
+
+    public static final String PORT_ENV = "JCLI_DAEMON_PORT";
+
+    /**
+     * Status returned when the server could not be reached.
+     */
+    public static final int UNAVAILABLE = 69;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /*
+    ###########################
+    #     UTILITY METHODS     #
+    ###########################
+    */
+
+    public static void main(String[] args) {
+        DaemonClient client = new DaemonClient(resolvePort());
+        int status;
+
+        try {
+            status = client.invoke(args, System.in, System.out, System.err);
+        } catch (IOException e) {
+            System.err.printf("(Error): Could not reach the daemon on port %d: '%s'%n", client.port, e.getMessage());
+            status = UNAVAILABLE;
+        }
+
+        System.exit(status);
+    }
+
+    private static int resolvePort() {
+        String port = System.getProperty(PORT_PROPERTY, System.getenv(PORT_ENV));
+        return (port == null) ? DaemonServer.DEFAULT_PORT : Integer.parseInt(port.trim());
+    }
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    private final int port;
+
+    private final Path tokenFile;
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    public DaemonClient() {
+        this(DaemonServer.DEFAULT_PORT);
+    }
+
+    public DaemonClient(int port) {
+        this(port, DaemonServer.tokenFile(DaemonServer.defaultDirectory(), port));
+    }
+
+    /**
+     * Constructs a new instance.
+     * @param port the loopback port of the server.
+     * @param tokenFile the token file of the server.
+     */
+    public DaemonClient(int port, Path tokenFile) {
+        if (tokenFile == null) {
+            throw new NullPointerException(
+                    "Path may not be null."
+            );
+        }
+        this.port = port;
+        this.tokenFile = tokenFile;
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    /**
+     * Forwards the specified <code>args</code> (or, if there are none, the contents of <code>in</code>) to the server,
+     * and copies the output of the invocation to <code>out</code> and <code>err</code>.
+     * @param args the argv to be forwarded.
+     * @param in the stdin to be forwarded if <code>args</code> is empty.
+     * @param out the stream to copy stdout to.
+     * @param err the stream to copy stderr to.
+     * @return the exit status of the invocation.
+     * @throws IOException if the token file could not be read, the server could not be reached, or if the
+     * connection was lost.
+     */
+    public int invoke(String[] args, InputStream in, OutputStream out, OutputStream err) throws IOException {
+        byte[] token = readToken();
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             DataInputStream sin = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream sout = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            write(sout, AUTH, token, 0, token.length);
+            boolean hasArgs = (args != null) && (args.length > 0);
+
+            if (hasArgs) {
+                for (String arg : args) {
+                    write(sout, ARGUMENT, arg);
+                }
+                writeEmpty(sout, EOF);
+            } else {
+                Thread pump = new Thread(() -> pump(in, sout), "jcli-daemon-stdin");
+                pump.setDaemon(true);
+                pump.start();
+            }
+
+            return read(sin, out, err);
+        }
+    }
+
+    /**
+     * Forwards the specified binary <code>requests</code> to the server, and copies the output of the
+     * invocation to <code>out</code> and <code>err</code>.
+     * @param requests the encoded {@link com.github.wnebyte.jcli.protocol.BinaryRequest}s to be forwarded.
+     * @param out the stream to copy stdout to.
+     * @param err the stream to copy stderr to.
+     * @return the exit status of the invocation.
+     * @throws IOException if the token file could not be read, the server could not be reached, or if the
+     * connection was lost.
+     */
+    public int invoke(ByteBuffer[] requests, OutputStream out, OutputStream err) throws IOException {
+        byte[] token = readToken();
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             DataInputStream sin = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream sout = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            write(sout, AUTH, token, 0, token.length);
+            if (requests != null) {
+                for (ByteBuffer request : requests) {
+                    write(sout, REQUEST, request);
+                }
+            }
+            writeEmpty(sout, EOF);
+            return read(sin, out, err);
+        }
+    }
+
+    /**
+     * Asks the server for the candidates for completing the word that ends at the specified <code>cursor</code>
+     * of the specified <code>line</code>.
+     * @param line the partial line.
+     * @param cursor the position of the cursor within the line.
+     * @return the candidates.
+     * @throws IOException if the token file could not be read, the server could not be reached, or if the
+     * connection was lost.
+     * @see com.github.wnebyte.jcli.CLI#complete(String, int)
+     */
+    public List<String> complete(String line, int cursor) throws IOException {
+        byte[] token = readToken();
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             DataInputStream sin = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream sout = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            write(sout, AUTH, token, 0, token.length);
+            byte[] b = line.getBytes(CHARSET);
+            byte[] payload = new byte[4 + b.length];
+            payload[0] = (byte) (cursor >>> 24);
+            payload[1] = (byte) (cursor >>> 16);
+            payload[2] = (byte) (cursor >>> 8);
+            payload[3] = (byte) cursor;
+            System.arraycopy(b, 0, payload, 4, b.length);
+            write(sout, COMPLETE, payload, 0, payload.length);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            read(sin, out, new ByteArrayOutputStream());
+            List<String> candidates = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(new ByteArrayInputStream(out.toByteArray()), CHARSET))) {
+                String candidate;
+                while ((candidate = reader.readLine()) != null) {
+                    candidates.add(candidate);
+                }
+            }
+            return candidates;
+        }
+    }
+
+    private byte[] readToken() throws IOException {
+        return Files.readAllBytes(tokenFile);
+    }
+
+    private int read(DataInputStream in, OutputStream out, OutputStream err) throws IOException {
+        while (true) {
+            byte type = in.readByte();
+            byte[] payload = readPayload(in);
+
+            switch (type) {
+                case STDOUT:
+                    out.write(payload);
+                    out.flush();
+                    break;
+                case STDERR:
+                    err.write(payload);
+                    err.flush();
+                    break;
+                case EXIT:
+                    return toStatus(payload);
+                default:
+                    throw new IOException(
+                            String.format(
+                                    "Unexpected frame: '%c'.", (char) type
+                            )
+                    );
+            }
+        }
+    }
+
+    private void pump(InputStream in, DataOutputStream out) {
+        byte[] buf = new byte[BUFFER_SIZE];
+        int n;
+
+        try {
+            while ((n = in.read(buf)) != -1) {
+                write(out, STDIN, buf, 0, n);
+            }
+            writeEmpty(out, EOF);
+        } catch (IOException ignored) {
+            // the connection has been closed by the server.
+        }
+    }
+}
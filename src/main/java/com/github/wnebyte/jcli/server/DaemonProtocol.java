@@ -0,0 +1,193 @@
+package com.github.wnebyte.jcli.server;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class declares the frames exchanged between a {@link DaemonServer} and a {@link DaemonClient}.
+ * <br>
+ * Every frame consists of a one byte type, a four byte length, and a payload of said length. Every connection
+ * starts with an {@link #AUTH} frame.
+ */
+final class DaemonProtocol {
+
+    /*
+    ###########################
+    #      STATIC FIELDS      #
+    ###########################
+    */
+
+    static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    /**
+     * The greatest length of a payload; a frame that claims a greater length is rejected before its payload is
+     * allocated.
+     */
+    static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+    /**
+     * Client to server; carries the token that the server has written to its token file, and has to be the
+     * first frame of every connection.
+     */
+    static final byte AUTH = 'T';
+
+    /**
+     * Client to server; carries a single (UTF-8 encoded) element of the client's argv.
+     */
+    static final byte ARGUMENT = 'A';
+
+    /**
+     * Client to server; carries a chunk of the client's stdin.
+     */
+    static final byte STDIN = 'I';
+
+    /**
+     * Client to server; carries a single {@link com.github.wnebyte.jcli.protocol.BinaryRequest}.
+     */
+    static final byte REQUEST = 'R';
+
+    /**
+     * Client to server; carries the (four byte) position of the cursor followed by a (UTF-8 encoded) partial
+     * line, and is answered with one line of stdout per completion candidate.
+     */
+    static final byte COMPLETE = 'C';
+
+    /**
+     * Client to server; signals that the client's stdin has been exhausted.
+     */
+    static final byte EOF = 'Z';
+
+    /**
+     * Server to client; carries a chunk of output that is to be written to the client's stdout.
+     */
+    static final byte STDOUT = 'O';
+
+    /**
+     * Server to client; carries a chunk of output that is to be written to the client's stderr.
+     */
+    static final byte STDERR = 'E';
+
+    /**
+     * Server to client; carries the (four byte) exit status of the invocation, and ends the exchange.
+     */
+    static final byte EXIT = 'X';
+
+    private static final byte[] EMPTY = new byte[0];
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    private DaemonProtocol() { }
+
+    /*
+    ###########################
+    #     UTILITY METHODS     #
+    ###########################
+    */
+
+    static void write(DataOutputStream out, byte type, byte[] b, int off, int len) throws IOException {
+        synchronized (out) {
+            out.writeByte(type);
+            out.writeInt(len);
+            out.write(b, off, len);
+            out.flush();
+        }
+    }
+
+    static void write(DataOutputStream out, byte type, ByteBuffer buf) throws IOException {
+        byte[] b = new byte[buf.remaining()];
+        buf.get(b);
+        write(out, type, b, 0, b.length);
+    }
+
+    static void write(DataOutputStream out, byte type, String s) throws IOException {
+        byte[] b = s.getBytes(CHARSET);
+        write(out, type, b, 0, b.length);
+    }
+
+    static void writeEmpty(DataOutputStream out, byte type) throws IOException {
+        write(out, type, EMPTY, 0, 0);
+    }
+
+    static void writeExit(DataOutputStream out, int status) throws IOException {
+        byte[] b = new byte[] {
+                (byte) (status >>> 24), (byte) (status >>> 16), (byte) (status >>> 8), (byte) status
+        };
+        write(out, EXIT, b, 0, b.length);
+    }
+
+    static byte[] readPayload(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0) {
+            throw new IOException(
+                    String.format(
+                            "Frame has a negative length: %d.", len
+                    )
+            );
+        }
+        if (len > MAX_FRAME_LENGTH) {
+            throw new IOException(
+                    String.format(
+                            "Frame length: %d exceeds the maximum of %d.", len, MAX_FRAME_LENGTH
+                    )
+            );
+        }
+        byte[] b = new byte[len];
+        in.readFully(b);
+        return b;
+    }
+
+    static int toStatus(byte[] b) {
+        return ((b[0] & 0xFF) << 24) | ((b[1] & 0xFF) << 16) | ((b[2] & 0xFF) << 8) | (b[3] & 0xFF);
+    }
+
+    /**
+     * Returns a new <code>PrintStream</code> whose output is written as frames of the specified <code>type</code>.
+     * @param out the stream to write frames to.
+     * @param type the type of the frames.
+     * @return a new auto-flushing PrintStream.
+     */
+    static PrintStream newPrintStream(DataOutputStream out, byte type) {
+        try {
+            return new PrintStream(
+                    new BufferedOutputStream(new FrameOutputStream(out, type)), true, CHARSET.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /*
+    ###########################
+    #      NESTED CLASSES     #
+    ###########################
+    */
+
+    private static final class FrameOutputStream extends OutputStream {
+
+        private final DataOutputStream out;
+
+        private final byte type;
+
+        private FrameOutputStream(DataOutputStream out, byte type) {
+            this.out = out;
+            this.type = type;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > 0) {
+                DaemonProtocol.write(out, type, b, off, len);
+            }
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.github.wnebyte.jcli.server;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import com.github.wnebyte.jcli.CLI;
+import com.github.wnebyte.jcli.InvocationContext;
+import static com.github.wnebyte.jcli.server.DaemonProtocol.*;
+
+/**
+ * This class keeps a single, fully built {@link CLI} warm and serves invocations forwarded to it by
+ * {@link DaemonClient} instances over a loopback socket, so that repeated invocations do not have to pay for
+ * JVM startup and classpath scanning.
+ * <br>
+ * Each connection represents one invocation: the client's argv (if any) is dispatched as is, by
+ * {@link CLI#accept(List, InvocationContext)}, followed by every line read from the client's stdin, and every
+ * binary request sent by the client. The exit status returned to the client is the greatest status returned by
+ * any of the dispatched argv, lines or requests.
+ * <br>
+ * Once bound, the server writes a random token to its token file, which only the owner may read (where the file
+ * system supports POSIX permissions); a connection that does not start with the token is closed unserved, so
+ * only the processes of the user that started the server can dispatch to it, as with a Unix domain socket.
+ * <br>
+ * Every connection is served on behalf of its own {@link InvocationContext}, so the output of concurrent
+ * invocations is never interleaved.
+ */
+public class DaemonServer implements Closeable {
+
+    /*
+    ###########################
+    #      STATIC FIELDS      #
+    ###########################
+    */
+
+    public static final int DEFAULT_PORT = 7733;
+
+    private static final int BACKLOG = 50;
+
+    private static final int TOKEN_LENGTH = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /*
+    ###########################
+    #      STATIC METHODS     #
+    ###########################
+    */
+
+    /**
+     * @return the directory that token files are written to by default, i.e. <code>~/.jcli</code>.
+     */
+    public static Path defaultDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".jcli");
+    }
+
+    /**
+     * @param dir the directory of the token file.
+     * @param port the port of the server.
+     * @return the token file of the server bound to the specified <code>port</code>.
+     */
+    public static Path tokenFile(Path dir, int port) {
+        return dir.resolve(String.format("daemon-%d.token", port));
+    }
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    private final CLI cli;
+
+    private final int port;
+
+    private final ExecutorService executor;
+
+    private final Set<InvocationContext> sessions;
+
+    private final Path dir;
+
+    private volatile ServerSocket socket;
+
+    private volatile byte[] token;
+
+    private volatile Path tokenFile;
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    public DaemonServer(CLI cli) {
+        this(cli, DEFAULT_PORT);
+    }
+
+    public DaemonServer(CLI cli, int port) {
+        this(cli, port, Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "jcli-daemon-session");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Constructs a new instance.
+     * @param cli the CLI to dispatch invocations to.
+     * @param port the loopback port to listen on, or <code>0</code> for an ephemeral port.
+     * @param executor the executor on which connections are to be served.
+     */
+    public DaemonServer(CLI cli, int port, ExecutorService executor) {
+        this(cli, port, executor, defaultDirectory());
+    }
+
+    /**
+     * Constructs a new instance.
+     * @param cli the CLI to dispatch invocations to.
+     * @param port the loopback port to listen on, or <code>0</code> for an ephemeral port.
+     * @param executor the executor on which connections are to be served.
+     * @param dir the directory that the token file is to be written to.
+     */
+    public DaemonServer(CLI cli, int port, ExecutorService executor, Path dir) {
+        if (cli == null || executor == null || dir == null) {
+            throw new NullPointerException(
+                    "CLI, ExecutorService and/or Path may not be null."
+            );
+        }
+        this.cli = cli;
+        this.port = port;
+        this.executor = executor;
+        this.dir = dir;
+        this.sessions = ConcurrentHashMap.newKeySet();
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    /**
+     * Binds this instance to its loopback port, writes its token file, and starts accepting connections on a
+     * new thread.
+     * @return this (for chaining).
+     * @throws IOException if the port could not be bound, or the token file could not be written.
+     */
+    public DaemonServer start() throws IOException {
+        if (socket != null) {
+            throw new IllegalStateException(
+                    "DaemonServer has already been started."
+            );
+        }
+        socket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        try {
+            writeToken(tokenFile(dir, socket.getLocalPort()));
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        Thread thread = new Thread(this::listen, "jcli-daemon");
+        thread.start();
+        return this;
+    }
+
+    /**
+     * @return the port this instance is bound to, or <code>-1</code> if it has not been started.
+     */
+    public int getPort() {
+        ServerSocket socket = this.socket;
+        return (socket == null) ? -1 : socket.getLocalPort();
+    }
+
+    /**
+     * @return the token file of this instance, or <code>null</code> if it has not been started.
+     */
+    public Path getTokenFile() {
+        return tokenFile;
+    }
+
+    @Override
+    public void close() throws IOException {
+        ServerSocket socket = this.socket;
+        if (socket != null) {
+            socket.close();
+        }
+        Path tokenFile = this.tokenFile;
+        if (tokenFile != null) {
+            Files.deleteIfExists(tokenFile);
+        }
+        for (InvocationContext session : sessions) {
+            session.cancel();
+        }
+        executor.shutdown();
+    }
+
+    /*
+    the file is created readable and writable by its owner only, before the token is written to it.
+     */
+    private void writeToken(Path file) throws IOException {
+        byte[] b = new byte[TOKEN_LENGTH];
+        RANDOM.nextBytes(b);
+        StringBuilder hex = new StringBuilder(2 * b.length);
+        for (byte x : b) {
+            hex.append(String.format("%02x", x));
+        }
+        boolean posix = file.getFileSystem().supportedFileAttributeViews().contains("posix");
+
+        if (posix) {
+            Files.createDirectories(dir, PosixFilePermissions.asFileAttribute(
+                    PosixFilePermissions.fromString("rwx------")));
+            Files.deleteIfExists(file);
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(
+                    PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createDirectories(dir);
+            Files.deleteIfExists(file);
+            File f = Files.createFile(file).toFile();
+            f.setReadable(false, false);
+            f.setWritable(false, false);
+            f.setReadable(true, true);
+            f.setWritable(true, true);
+        }
+        Files.write(file, hex.toString().getBytes(CHARSET));
+        token = hex.toString().getBytes(CHARSET);
+        tokenFile = file;
+    }
+
+    private void listen() {
+        ServerSocket socket = this.socket;
+
+        while (!socket.isClosed()) {
+            try {
+                Socket connection = socket.accept();
+                try {
+                    executor.execute(() -> serve(connection));
+                } catch (RejectedExecutionException e) {
+                    // accepted while closing; close the connection, so that the client is not left waiting.
+                    connection.close();
+                    break;
+                }
+            } catch (SocketException e) {
+                // the server socket has been closed.
+                break;
+            } catch (IOException ignored) {
+                // failed to accept a single connection; keep listening.
+            }
+        }
+    }
+
+    private void serve(Socket connection) {
+        try (Socket s = connection;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()))) {
+            PrintStream stdout = newPrintStream(out, STDOUT);
+            PrintStream stderr = newPrintStream(out, STDERR);
+            InvocationContext ctx = new InvocationContext(stdout, stderr);
+            sessions.add(ctx);
+            try {
+                if (in.readByte() != AUTH || !MessageDigest.isEqual(token, readPayload(in))) {
+                    throw new IOException(
+                            "Connection did not authenticate."
+                    );
+                }
+                List<String> argv = new ArrayList<>();
+                ByteArrayOutputStream line = new ByteArrayOutputStream();
+                int status = CLI.SUCCESS;
+                byte type = in.readByte();
+
+                if (type == COMPLETE) {
+                    complete(readPayload(in), stdout);
+                    stdout.flush();
+                    writeExit(out, status);
+                    return;
+                }
+                while (type == ARGUMENT) {
+                    argv.add(new String(readPayload(in), CHARSET));
+                    type = in.readByte();
+                }
+                if (!argv.isEmpty()) {
+                    status = cli.accept(argv, ctx);
+                }
+
+                while (type == STDIN || type == REQUEST) {
+                    byte[] payload = readPayload(in);
+                    if (type == REQUEST) {
+                        status = Math.max(status, cli.accept(ByteBuffer.wrap(payload), ctx));
+                    } else {
+                        for (byte b : payload) {
+                            if (b == '\n') {
+                                status = Math.max(status, accept(line, ctx));
+                            } else {
+                                line.write(b);
+                            }
+                        }
+                    }
+                    type = in.readByte();
+                }
+                if (type != EOF) {
+                    throw new IOException(
+                            String.format(
+                                    "Unexpected frame: '%c'.", (char) type
+                            )
+                    );
+                }
+                readPayload(in);
+                if (line.size() > 0) {
+                    status = Math.max(status, accept(line, ctx));
+                }
+
+                stdout.flush();
+                stderr.flush();
+                writeExit(out, status);
+            } finally {
+                sessions.remove(ctx);
+            }
+        } catch (IOException e) {
+            // the client has disconnected, failed to authenticate, or sent a malformed frame.
+        }
+    }
+
+    private void complete(byte[] payload, PrintStream out) throws IOException {
+        if (payload.length < 4) {
+            throw new IOException(
+                    "Completion frame is too short."
+            );
+        }
+        int cursor = toStatus(payload);
+        String line = new String(payload, 4, payload.length - 4, CHARSET);
+        for (String candidate : cli.complete(line, cursor)) {
+            out.println(candidate);
+        }
+    }
+
+    private int accept(ByteArrayOutputStream line, InvocationContext ctx) {
+        String input = new String(line.toByteArray(), CHARSET);
+        line.reset();
+        if (input.endsWith("\r")) {
+            input = input.substring(0, input.length() - 1);
+        }
+        return cli.accept(input, ctx);
+    }
+}
@@ -0,0 +1,611 @@
+package com.github.wnebyte.jcli.server;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.github.wnebyte.jarguments.util.Strings;
+import com.github.wnebyte.jcli.CLI;
+import com.github.wnebyte.jcli.InvocationContext;
+import com.github.wnebyte.jcli.util.JsonWriter;
+
+/**
+ * This class exposes the Commands of a {@link CLI} over HTTP, using the JDK's built-in
+ * {@link HttpServer}.
+ * <br>
+ * A request of the form <code>POST /&lt;prefix&gt;/&lt;name&gt;</code> is dispatched to the Command with the
+ * specified (optionally prefixed) name. The request body, if any, has to be an <code>application/json</code>
+ * array of strings, whose elements are passed to the Command as its verbatim tokens
+ * (e.g. <code>["-n", "1", "-s", "a value"]</code>), as by {@link CLI#accept(List, InvocationContext)}. The
+ * response is streamed back as a chunked JSON document of the form:
+ * <pre>
+ * {"command":"prefix name","output":[{"stream":"out","text":"..."},...],"status":0,"result":...}
+ * </pre>
+ * where every element of <code>output</code> represents one line written to the standard or error output
+ * of the invocation, <code>status</code> is the status of the invocation, and <code>result</code> the value
+ * returned by the Command. Lines of standard output are sent to the client as soon as they have been written;
+ * the status line is sent along with the first of them, or once the invocation completes, so an invocation
+ * that completes without writing to its standard output is answered with <code>200</code> if it succeeded,
+ * <code>400</code> on a usage error, <code>503</code> if it was cancelled, and otherwise <code>500</code>; once
+ * the status line has been sent, the <code>status</code> of the document is authoritative.
+ * <br>
+ * Requests whose Host header does not name the endpoint, or whose Origin header does not name a loopback host,
+ * are rejected with <code>403</code>, and a POST without a JSON body with <code>415</code>, so web pages can
+ * not dispatch to the endpoint, whether cross-origin or by way of DNS rebinding.
+ * <br>
+ * A request of the form <code>GET /?line=&lt;partial line&gt;&amp;cursor=&lt;position&gt;</code> is answered
+ * with the completion candidates of {@link CLI#complete(String, int)}, as <code>{"candidates":[...]}</code>;
+ * the cursor defaults to the end of the line.
+ * <br>
+ * Requests are served on the configured <code>Executor</code>; on Java 21+ an
+ * <code>Executors.newVirtualThreadPerTaskExecutor()</code> can be supplied.
+ */
+public class HttpEndpoint implements Closeable {
+
+    /*
+    ###########################
+    #      STATIC FIELDS      #
+    ###########################
+    */
+
+    public static final int DEFAULT_PORT = 7780;
+
+    /**
+     * The maximum size (in bytes) of a request body.
+     */
+    public static final int MAX_BODY_SIZE = 64 * 1024;
+
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    private static final String CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private static final int BACKLOG = 50;
+
+    private static final Set<String> LOOPBACK_HOSTS = new HashSet<>(Arrays.asList(
+            "localhost", "127.0.0.1", "[::1]"
+    ));
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    private final CLI cli;
+
+    private final InetSocketAddress address;
+
+    private final Executor executor;
+
+    private volatile HttpServer server;
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    public HttpEndpoint(CLI cli) {
+        this(cli, DEFAULT_PORT);
+    }
+
+    public HttpEndpoint(CLI cli, int port) {
+        this(cli, new InetSocketAddress(InetAddress.getLoopbackAddress(), port), Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "jcli-http");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Constructs a new instance.
+     * @param cli the CLI to dispatch requests to.
+     * @param address the address to listen on; a port of <code>0</code> selects an ephemeral port.
+     * @param executor the executor on which requests are to be served.
+     */
+    public HttpEndpoint(CLI cli, InetSocketAddress address, Executor executor) {
+        if (cli == null || address == null || executor == null) {
+            throw new NullPointerException(
+                    "CLI, InetSocketAddress and/or Executor may not be null."
+            );
+        }
+        this.cli = cli;
+        this.address = address;
+        this.executor = executor;
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    /**
+     * Binds this instance to its address and starts serving requests.
+     * @return this (for chaining).
+     * @throws IOException if the address could not be bound.
+     */
+    public HttpEndpoint start() throws IOException {
+        if (server != null) {
+            throw new IllegalStateException(
+                    "HttpEndpoint has already been started."
+            );
+        }
+        HttpServer server = HttpServer.create(address, BACKLOG);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        this.server = server;
+        return this;
+    }
+
+    /**
+     * @return the port this instance is bound to, or <code>-1</code> if it has not been started.
+     */
+    public int getPort() {
+        HttpServer server = this.server;
+        return (server == null) ? -1 : server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        HttpServer server = this.server;
+        if (server != null) {
+            server.stop(0);
+        }
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!isSameOrigin(exchange)) {
+                exchange.sendResponseHeaders(403, -1);
+                return;
+            }
+            if ("GET".equals(exchange.getRequestMethod()) && wordsOf(exchange.getRequestURI().getRawPath()).isEmpty()) {
+                complete(exchange);
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            if (!isJson(exchange.getRequestHeaders().getFirst("Content-Type"))) {
+                exchange.sendResponseHeaders(415, -1);
+                return;
+            }
+            List<String> argv = wordsOf(exchange.getRequestURI().getRawPath());
+            String name = String.join(Strings.WHITESPACE, argv);
+            if (name.isEmpty() || cli.idOf(name) == -1) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            String body = readBody(exchange.getRequestBody());
+            if (body == null) {
+                exchange.sendResponseHeaders(413, -1);
+                return;
+            }
+            try {
+                argv.addAll(parseArgs(body));
+            } catch (IllegalArgumentException e) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+
+            Response response = new Response(exchange, name);
+            LineOutputStream out = new LineOutputStream(response, "out");
+            LineOutputStream err = new LineOutputStream(response, "err");
+            PrintStream stdout = new PrintStream(out, true, CHARSET.name());
+            PrintStream stderr = new PrintStream(err, true, CHARSET.name());
+            InvocationContext ctx = new InvocationContext(stdout, stderr);
+            int status = cli.accept(argv, ctx);
+            stdout.flush();
+            stderr.flush();
+            out.close();
+            err.close();
+            response.end(status, ctx.getResult());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /*
+    guards against cross-origin requests (CSRF) from web pages, and against DNS rebinding: the Host header has to
+    name this endpoint, and the Origin header, which browsers send with every cross-origin POST, a loopback host.
+     */
+    private boolean isSameOrigin(HttpExchange exchange) {
+        String host = exchange.getRequestHeaders().getFirst("Host");
+        if (host == null || !isHost(host, true)) {
+            return false;
+        }
+        String origin = exchange.getRequestHeaders().getFirst("Origin");
+        if (origin == null) {
+            return true;
+        }
+        int i = origin.indexOf("://");
+        return (i != -1) && isHost(origin.substring(i + 3), false);
+    }
+
+    /*
+    whether the specified authority (host[:port]) names a loopback host, or the host of this endpoint; and, if
+    the port is to be matched, the port of this endpoint.
+     */
+    private boolean isHost(String authority, boolean matchPort) {
+        int i = authority.lastIndexOf(':');
+        String host = (i > authority.lastIndexOf(']')) ? authority.substring(0, i) : authority;
+        String port = (i > authority.lastIndexOf(']')) ? authority.substring(i + 1) : null;
+        boolean known = LOOPBACK_HOSTS.contains(host.toLowerCase(Locale.ROOT)) ||
+                host.equalsIgnoreCase(address.getHostString());
+        return known && (!matchPort || String.valueOf(getPort()).equals(port));
+    }
+
+    /*
+    requiring a JSON body makes every POST a non-simple request, which a browser will not send cross-origin
+    without a CORS preflight, which this endpoint does not answer.
+     */
+    private static boolean isJson(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        int i = contentType.indexOf(';');
+        String type = ((i == -1) ? contentType : contentType.substring(0, i)).trim();
+        return type.equalsIgnoreCase("application/json");
+    }
+
+    /*
+    maps the status of an invocation to the status code of its response.
+     */
+    private static int codeOf(int status) {
+        switch (status) {
+            case CLI.SUCCESS:
+                return 200;
+            case CLI.USAGE_ERROR:
+                return 400;
+            case CLI.CANCELLED:
+                return 503;
+            default:
+                return 500;
+        }
+    }
+
+    /*
+    GET /?line=<partial line>[&cursor=<position>] -> {"candidates":[...]}
+     */
+    private void complete(HttpExchange exchange) throws IOException {
+        String line = null;
+        String cursor = null;
+        String query = exchange.getRequestURI().getRawQuery();
+
+        if (query != null) {
+            for (String param : query.split("&")) {
+                int i = param.indexOf('=');
+                String key = (i == -1) ? param : param.substring(0, i);
+                String value = (i == -1) ? Strings.EMPTY : URLDecoder.decode(param.substring(i + 1), CHARSET.name());
+                if (key.equals("line")) {
+                    line = value;
+                } else if (key.equals("cursor")) {
+                    cursor = value;
+                }
+            }
+        }
+        if (line == null) {
+            exchange.sendResponseHeaders(400, -1);
+            return;
+        }
+        int position;
+        try {
+            position = (cursor == null) ? line.length() : Integer.parseInt(cursor);
+        } catch (NumberFormatException e) {
+            exchange.sendResponseHeaders(400, -1);
+            return;
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        JsonWriter json = new JsonWriter(body);
+        json.beginObject()
+                .name("candidates").beginArray();
+        for (String candidate : cli.complete(line, position)) {
+            json.value(candidate);
+        }
+        json.endArray()
+                .endObject();
+        json.flush();
+
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(200, body.size());
+        body.writeTo(exchange.getResponseBody());
+    }
+
+    /*
+    "/prefix/name" -> ["prefix", "name"]
+     */
+    private static List<String> wordsOf(String path) throws UnsupportedEncodingException {
+        List<String> words = new ArrayList<>();
+
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                words.add(URLDecoder.decode(segment, CHARSET.name()));
+            }
+        }
+
+        return words;
+    }
+
+    /*
+    returns null if the body exceeds MAX_BODY_SIZE.
+     */
+    private static String readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buf = new byte[4096];
+        int n;
+
+        while ((n = in.read(buf)) != -1) {
+            body.write(buf, 0, n);
+            if (body.size() > MAX_BODY_SIZE) {
+                return null;
+            }
+        }
+
+        return new String(body.toByteArray(), CHARSET).trim();
+    }
+
+    /*
+    ["-n", "a value"] -> [-n, a value]; an empty body holds no arguments.
+     */
+    static List<String> parseArgs(String body) {
+        List<String> args = new ArrayList<>();
+        if (body.isEmpty()) {
+            return args;
+        }
+        int i = skip(body, 0);
+        if (i == body.length() || body.charAt(i) != '[') {
+            throw new IllegalArgumentException(
+                    "Body has to be a JSON array of strings."
+            );
+        }
+        i = skip(body, i + 1);
+        if (i < body.length() && body.charAt(i) == ']') {
+            i++;
+        } else {
+            while (true) {
+                StringBuilder arg = new StringBuilder();
+                i = parseString(body, i, arg);
+                args.add(arg.toString());
+                i = skip(body, i);
+                if (i < body.length() && body.charAt(i) == ',') {
+                    i = skip(body, i + 1);
+                } else if (i < body.length() && body.charAt(i) == ']') {
+                    i++;
+                    break;
+                } else {
+                    throw new IllegalArgumentException(
+                            String.format("Expected ',' or ']' at: %d.", i)
+                    );
+                }
+            }
+        }
+        if (skip(body, i) != body.length()) {
+            throw new IllegalArgumentException(
+                    String.format("Unexpected character at: %d.", i)
+            );
+        }
+        return args;
+    }
+
+    /*
+    parses the JSON string starting at the specified index into the specified builder, and returns the index
+    following it.
+     */
+    private static int parseString(String s, int i, StringBuilder out) {
+        if (i == s.length() || s.charAt(i) != '"') {
+            throw new IllegalArgumentException(
+                    String.format("Expected a string at: %d.", i)
+            );
+        }
+        for (i = i + 1; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"') {
+                return i + 1;
+            }
+            if (c < 0x20) {
+                throw new IllegalArgumentException(
+                        String.format("Unescaped control character at: %d.", i)
+                );
+            }
+            if (c != '\\') {
+                out.append(c);
+                continue;
+            }
+            if (++i == s.length()) {
+                break;
+            }
+            c = s.charAt(i);
+            switch (c) {
+                case '"':
+                case '\\':
+                case '/':
+                    out.append(c);
+                    break;
+                case 'b':
+                    out.append('\b');
+                    break;
+                case 'f':
+                    out.append('\f');
+                    break;
+                case 'n':
+                    out.append('\n');
+                    break;
+                case 'r':
+                    out.append('\r');
+                    break;
+                case 't':
+                    out.append('\t');
+                    break;
+                case 'u':
+                    if (i + 4 >= s.length()) {
+                        throw new IllegalArgumentException(
+                                String.format("Invalid escape at: %d.", i)
+                        );
+                    }
+                    try {
+                        out.append((char) Integer.parseInt(s.substring(i + 1, i + 5), 16));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException(
+                                String.format("Invalid escape at: %d.", i)
+                        );
+                    }
+                    i += 4;
+                    break;
+                default:
+                    throw new IllegalArgumentException(
+                            String.format("Invalid escape at: %d.", i)
+                    );
+            }
+        }
+        throw new IllegalArgumentException(
+                "Unterminated string."
+        );
+    }
+
+    private static int skip(String s, int i) {
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /*
+    ###########################
+    #      NESTED CLASSES     #
+    ###########################
+    */
+
+    /**
+     * Writes the response document of a single invocation. The status line and headers are sent with the first
+     * line of standard output, until which lines of error output are held back, or once the invocation
+     * completes; so an invocation that fails before writing to its standard output is answered with the status
+     * code that corresponds to its status.
+     */
+    private static final class Response {
+
+        private final HttpExchange exchange;
+
+        private final String name;
+
+        private final List<String[]> pending = new ArrayList<>();
+
+        private JsonWriter json;
+
+        private Response(HttpExchange exchange, String name) {
+            this.exchange = exchange;
+            this.name = name;
+        }
+
+        private synchronized void emit(String stream, String text) throws IOException {
+            if (json == null && stream.equals("out")) {
+                commit(200);
+            }
+            if (json == null) {
+                pending.add(new String[] { stream, text });
+                return;
+            }
+            line(stream, text);
+            json.flush();
+        }
+
+        private synchronized void end(int status, Object result) throws IOException {
+            if (json == null) {
+                commit(codeOf(status));
+            }
+            json.endArray()
+                    .name("status").value(status)
+                    .name("result").value(result)
+                    .endObject();
+            json.flush();
+        }
+
+        private void commit(int code) throws IOException {
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            // a response length of 0 selects chunked transfer encoding.
+            exchange.sendResponseHeaders(code, 0);
+            json = new JsonWriter(exchange.getResponseBody());
+            json.beginObject()
+                    .name("command").value(name)
+                    .name("output").beginArray();
+            for (String[] line : pending) {
+                line(line[0], line[1]);
+            }
+            pending.clear();
+            json.flush();
+        }
+
+        private void line(String stream, String text) throws IOException {
+            json.beginObject()
+                    .name("stream").value(stream)
+                    .name("text").value(text)
+                    .endObject();
+        }
+    }
+
+    /**
+     * Passes every line written to it to the response, as an element of its output.
+     */
+    private static final class LineOutputStream extends OutputStream {
+
+        private final Response response;
+
+        private final String stream;
+
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        private LineOutputStream(Response response, String stream) {
+            this.response = response;
+            this.stream = stream;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (b == '\n') {
+                emit();
+            } else {
+                line.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (line.size() > 0) {
+                emit();
+            }
+        }
+
+        private void emit() throws IOException {
+            int len = line.size();
+            byte[] b = line.toByteArray();
+            if (len > 0 && b[len - 1] == '\r') {
+                len--;
+            }
+            String text = new String(b, 0, len, CHARSET);
+            line.reset();
+            response.emit(stream, text);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.wnebyte.jcli.util;
 
 import java.util.*;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.lang.annotation.Annotation;
@@ -48,6 +49,16 @@ public class Annotations {
         return false;
     }
 
+    /**
+     * @param cls the class.
+     * @return the size of the pool of the specified <code>cls</code>, if it is a Controller that specifies one,
+     * otherwise twice the number of available processors.
+     */
+    public static int getPoolSize(Class<?> cls) {
+        int size = isAnnotated(cls) ? cls.getAnnotation(Controller.class).poolSize() : 0;
+        return (size > 0) ? size : 2 * Runtime.getRuntime().availableProcessors();
+    }
+
     public static String getName(Class<?> cls) {
         if (isAnnotated(cls)) {
             return cls.getAnnotation(Controller.class).value();
@@ -55,6 +66,28 @@ public class Annotations {
         return null;
     }
 
+    /**
+     * Returns the path of the specified <code>cls</code>, which is the names of the Controllers that directly
+     * enclose it, outermost first, followed by its own name, each split on whitespace.
+     * @param cls the Class.
+     * @return the path of the Class, which is empty if the Class is not annotated, or has no name.
+     */
+    public static List<String> getPath(Class<?> cls) {
+        LinkedList<String> path = new LinkedList<>();
+
+        while (isAnnotated(cls)) {
+            String[] segments = getName(cls).trim().split("\\s+");
+            for (int i = segments.length - 1; i >= 0; i--) {
+                if (!segments[i].isEmpty()) {
+                    path.addFirst(segments[i]);
+                }
+            }
+            cls = cls.getEnclosingClass();
+        }
+
+        return path;
+    }
+
     /*
     ###########################
     #     COMMAND METHODS     #
@@ -110,6 +143,17 @@ public class Annotations {
         return !isAnnotated(param);
     }
 
+    public static boolean isArguments(Parameter param) {
+        return (param != null) && (param.isAnnotationPresent(Arguments.class));
+    }
+
+    public static boolean isReusable(Parameter param) {
+        if (isArguments(param)) {
+            return param.getAnnotation(Arguments.class).reuse();
+        }
+        return false;
+    }
+
     /*
     public static String[] getNames(Parameter param) {
         if (isAnnotated(param)) {
@@ -173,4 +217,63 @@ public class Annotations {
         }
         return null;
     }
+
+    /*
+    ###########################
+    #      FIELD METHODS      #
+    ###########################
+    */
+
+    public static boolean isAnnotated(Field field) {
+        return (field != null) && (field.isAnnotationPresent(Argument.class));
+    }
+
+    /*
+    unlike a Parameter, the name of a Field is always available, so it is used when no names are specified.
+     */
+    public static String getNamesAsString(Field field) {
+        if (isAnnotated(field)) {
+            String name = field.getAnnotation(Argument.class).value();
+            return (name == null || name.equals("")) ? field.getName() : name;
+        }
+        return field.getName();
+    }
+
+    public static String getDescription(Field field) {
+        if (isAnnotated(field)) {
+            return field.getAnnotation(Argument.class).description();
+        }
+        return "";
+    }
+
+    public static String getDefaultValue(Field field) {
+        if (isAnnotated(field)) {
+            String defaultValue = field.getAnnotation(Argument.class).defaultValue();
+            return defaultValue.equals("") ? null : defaultValue;
+        }
+        return null;
+    }
+
+    public static boolean isRequired(Field field) {
+        if (isAnnotated(field)) {
+            return field.getAnnotation(Argument.class).required();
+        }
+        return false;
+    }
+
+    public static String[] getChoices(Field field) {
+        if (isAnnotated(field)) {
+            String[] array = field.getAnnotation(Argument.class).choices();
+            return (array.length == 1 && array[0].equals("")) ? null : array;
+        }
+        return null;
+    }
+
+    public static String getMetavar(Field field) {
+        if (isAnnotated(field)) {
+            String metavar = field.getAnnotation(Argument.class).metavar();
+            return Strings.isNullOrEmpty(metavar) ? null : metavar;
+        }
+        return null;
+    }
 }
@@ -0,0 +1,140 @@
+package com.github.wnebyte.jcli.util;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class is an immutable <code>Set</code> backed by an array, which retains the iteration order of the
+ * elements it was created from.
+ * <br>
+ * Lookups are linear, so instances are only suitable for the small sets (a handful of names or arguments) held by
+ * every Command; in exchange they take up a fraction of the space of a <code>HashSet</code>, and are their own
+ * unmodifiable view.
+ * @param <E> the type of the elements.
+ */
+public final class ArraySet<E> extends AbstractSet<E> {
+
+    /*
+    ###########################
+    #      STATIC FIELDS      #
+    ###########################
+    */
+
+    private static final ArraySet<?> EMPTY = new ArraySet<>(new Object[0]);
+
+    /*
+    ###########################
+    #      STATIC METHODS     #
+    ###########################
+    */
+
+    @SuppressWarnings("unchecked")
+    public static <E> ArraySet<E> empty() {
+        return (ArraySet<E>) EMPTY;
+    }
+
+    /**
+     * Returns an <code>ArraySet</code> containing the distinct elements of the specified <code>c</code>,
+     * in iteration order.
+     * @param c the elements.
+     * @param <E> the type of the elements.
+     * @return a new instance, the specified <code>c</code> if it already is an <code>ArraySet</code>,
+     * or the empty instance.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> ArraySet<E> copyOf(Collection<? extends E> c) {
+        if (c == null || c.isEmpty()) {
+            return empty();
+        }
+        if (c instanceof ArraySet) {
+            return (ArraySet<E>) c;
+        }
+        Object[] elements = new Object[c.size()];
+        int size = 0;
+
+        for (E e : c) {
+            if (indexOf(elements, size, e) == -1) {
+                elements[size++] = e;
+            }
+        }
+
+        return new ArraySet<>((size == elements.length) ? elements : Arrays.copyOf(elements, size));
+    }
+
+    private static int indexOf(Object[] elements, int size, Object o) {
+        for (int i = 0; i < size; i++) {
+            if (java.util.Objects.equals(elements[i], o)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    private final Object[] elements;
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    private ArraySet(Object[] elements) {
+        this.elements = elements;
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        return (E) elements[index];
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(elements, elements.length, o) != -1;
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return elements.clone();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private int cursor;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < elements.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (cursor >= elements.length) {
+                    throw new NoSuchElementException();
+                }
+                return (E) elements[cursor++];
+            }
+        };
+    }
+}
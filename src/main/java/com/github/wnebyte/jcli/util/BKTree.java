@@ -0,0 +1,372 @@
+package com.github.wnebyte.jcli.util;
+
+import java.util.*;
+
+/**
+ * This class is a Burkhard-Keller tree of strings under the Levenshtein (edit) distance.
+ * <br>
+ * Every child of a node is keyed by its distance to the node, so that, by the triangle inequality, a search
+ * for the strings within distance <code>d</code> of a query only descends into the children whose keys lie within
+ * <code>d</code> of the distance between the query and the node, and visits a small part of the tree.
+ * <br>
+ * Trees are immutable and persistent: {@link #with(String)} and {@link #without(String)} return new trees that
+ * share every node of the original tree, except for those on the path to the added or removed string.
+ */
+public final class BKTree {
+
+    /*
+    ###########################
+    #      STATIC METHODS     #
+    ###########################
+    */
+
+    /**
+     * @param s1 the first string.
+     * @param s2 the second string.
+     * @return the minimum number of single-character insertions, deletions and substitutions required to turn
+     * <code>s1</code> into <code>s2</code>.
+     */
+    public static int distance(CharSequence s1, CharSequence s2) {
+        int n = s1.length(), m = s2.length();
+        int[] prev = new int[m + 1];
+        int[] curr = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            prev[j] = j;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            curr[0] = i;
+            char c = s1.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                int cost = (c == s2.charAt(j - 1)) ? 0 : 1;
+                curr[j] = Math.min(Math.min(curr[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+            }
+            int[] tmp = prev;
+            prev = curr;
+            curr = tmp;
+        }
+
+        return prev[m];
+    }
+
+    /**
+     * Returns a new tree that holds the specified <code>strings</code>.
+     * @param strings the strings.
+     * @return a new instance.
+     */
+    public static BKTree of(Iterable<String> strings) {
+        if (strings == null) {
+            throw new NullPointerException(
+                    "Strings may not be null."
+            );
+        }
+        Node root = null;
+        int size = 0;
+        // the nodes are not yet shared with any other tree, so they are modified in place.
+        for (String s : strings) {
+            if (s == null) {
+                throw new NullPointerException(
+                        "String may not be null."
+                );
+            }
+            if (root == null) {
+                root = new Node(s, false);
+                size++;
+                continue;
+            }
+            Node node = root;
+            while (true) {
+                int d = distance(s, node.value);
+                if (d == 0) {
+                    break;
+                }
+                Node child = node.child(d);
+                if (child == null) {
+                    node.put(d, new Node(s, false));
+                    size++;
+                    break;
+                }
+                node = child;
+            }
+        }
+        return new BKTree(root, size, 0);
+    }
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    private final Node root;
+
+    private final int size;
+
+    /*
+    the number of nodes whose strings have been removed.
+     */
+    private final int removed;
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    /**
+     * Constructs a new empty tree.
+     */
+    public BKTree() {
+        this(null, 0, 0);
+    }
+
+    private BKTree(Node root, int size, int removed) {
+        this.root = root;
+        this.size = size;
+        this.removed = removed;
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    /**
+     * Returns a new tree that holds the strings of this tree and the specified <code>s</code>; this tree is
+     * left unchanged.
+     * <br>
+     * The new tree shares the nodes of this one, except for those on the path to the specified <code>s</code>,
+     * which are copied.
+     * @param s the string.
+     * @return a new instance, or this instance if it already holds the specified <code>s</code>.
+     */
+    public BKTree with(String s) {
+        if (s == null) {
+            throw new NullPointerException(
+                    "String may not be null."
+            );
+        }
+        if (root == null) {
+            return new BKTree(new Node(s, false), 1, 0);
+        }
+        List<Node> path = new ArrayList<>();
+        List<Integer> keys = new ArrayList<>();
+        Node node = root;
+
+        while (true) {
+            int d = distance(s, node.value);
+            if (d == 0) {
+                // a removed string is restored in its old place.
+                return node.removed ?
+                        copy(path, keys, node.withRemoved(false), size + 1, removed - 1) : this;
+            }
+            Node child = node.child(d);
+            if (child == null) {
+                return copy(path, keys, node.with(d, new Node(s, false)), size + 1, removed);
+            }
+            path.add(node);
+            keys.add(d);
+            node = child;
+        }
+    }
+
+    /**
+     * Returns a new tree that holds the strings of this tree, except for the specified <code>s</code>; this tree
+     * is left unchanged.
+     * <br>
+     * The node of the specified <code>s</code> is kept (but marked as removed), as the nodes below it are keyed
+     * by their distance to it, until the removed nodes outnumber the others, at which point the tree is rebuilt.
+     * @param s the string.
+     * @return a new instance, or this instance if it does not hold the specified <code>s</code>.
+     */
+    public BKTree without(String s) {
+        if (s == null || root == null) {
+            return this;
+        }
+        List<Node> path = new ArrayList<>();
+        List<Integer> keys = new ArrayList<>();
+        Node node = root;
+
+        while (true) {
+            int d = distance(s, node.value);
+            if (d == 0) {
+                if (node.removed) {
+                    return this;
+                }
+                if (removed + 1 > size - 1) {
+                    List<String> strings = new ArrayList<>(size - 1);
+                    collect(root, s, strings);
+                    return of(strings);
+                }
+                return copy(path, keys, node.withRemoved(true), size - 1, removed + 1);
+            }
+            Node child = node.child(d);
+            if (child == null) {
+                return this;
+            }
+            path.add(node);
+            keys.add(d);
+            node = child;
+        }
+    }
+
+    /*
+    copies the specified path, bottom-up, so that it leads to the specified replacement of its last node.
+     */
+    private static BKTree copy(List<Node> path, List<Integer> keys, Node replacement, int size, int removed) {
+        Node node = replacement;
+        for (int i = path.size() - 1; i >= 0; i--) {
+            node = path.get(i).replace(keys.get(i), node);
+        }
+        return new BKTree(node, size, removed);
+    }
+
+    /*
+    collects the strings that have not been removed, except for the specified excluded string.
+     */
+    private static void collect(Node root, String excluded, List<String> result) {
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (!node.removed && !node.value.equals(excluded)) {
+                result.add(node.value);
+            }
+            for (int i = 0; i < node.size; i++) {
+                stack.push(node.children[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the strings held by this tree that are within <code>maxDistance</code> of the specified
+     * <code>query</code>, ordered by ascending distance, and then alphabetically.
+     * @param query the query.
+     * @param maxDistance the maximum distance.
+     * @return the matching strings.
+     */
+    public List<String> search(String query, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        if (root == null || query == null) {
+            return new ArrayList<>(0);
+        }
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            int d = distance(query, node.value);
+            if (d <= maxDistance && !node.removed) {
+                matches.add(new Match(node.value, d));
+            }
+            for (int i = 0; i < node.size; i++) {
+                if (Math.abs(node.keys[i] - d) <= maxDistance) {
+                    stack.push(node.children[i]);
+                }
+            }
+        }
+
+        matches.sort(Comparator.comparingInt((Match match) -> match.distance).thenComparing(match -> match.value));
+        List<String> result = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            result.add(match.value);
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /*
+    ###########################
+    #      NESTED CLASSES     #
+    ###########################
+    */
+
+    /*
+    children are held in small parallel arrays, as most nodes have only a few; a node is never modified once it
+    has been shared by a tree.
+     */
+    private static final class Node {
+
+        private final String value;
+
+        private final boolean removed;
+
+        private int[] keys;
+
+        private Node[] children;
+
+        private int size;
+
+        private Node(String value, boolean removed) {
+            this.value = value;
+            this.removed = removed;
+        }
+
+        private Node(Node node, boolean removed, int capacity) {
+            this(node.value, removed);
+            if (capacity > 0) {
+                this.keys = (node.keys == null) ? new int[capacity] : Arrays.copyOf(node.keys, capacity);
+                this.children = (node.children == null) ? new Node[capacity] : Arrays.copyOf(node.children, capacity);
+                this.size = node.size;
+            }
+        }
+
+        private Node child(int key) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private void put(int key, Node child) {
+            if (keys == null) {
+                keys = new int[2];
+                children = new Node[2];
+            } else if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                children = Arrays.copyOf(children, size * 2);
+            }
+            keys[size] = key;
+            children[size] = child;
+            size++;
+        }
+
+        private Node with(int key, Node child) {
+            Node node = new Node(this, removed, size + 1);
+            node.put(key, child);
+            return node;
+        }
+
+        private Node withRemoved(boolean removed) {
+            return new Node(this, removed, size);
+        }
+
+        private Node replace(int key, Node child) {
+            Node node = new Node(this, removed, size);
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    node.children[i] = child;
+                }
+            }
+            return node;
+        }
+    }
+
+    private static final class Match {
+
+        private final String value;
+
+        private final int distance;
+
+        private Match(String value, int distance) {
+            this.value = value;
+            this.distance = distance;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.wnebyte.jcli.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * This class compiles globs, in which <code>*</code> matches any sequence of characters and <code>?</code>
+ * matches any single character, into <code>Pattern</code>s.
+ */
+public class Globs {
+
+    public static boolean isGlob(String s) {
+        return (s != null) && (s.indexOf('*') != -1 || s.indexOf('?') != -1);
+    }
+
+    /**
+     * @param glob the glob.
+     * @return the characters of the specified <code>glob</code> that precede its first wildcard, which every
+     * match of the glob starts with.
+     */
+    public static String literalPrefix(String glob) {
+        int i = 0;
+        while (i < glob.length() && glob.charAt(i) != '*' && glob.charAt(i) != '?') {
+            i++;
+        }
+        return glob.substring(0, i);
+    }
+
+    public static Pattern compile(String glob) {
+        StringBuilder regex = new StringBuilder();
+        int start = 0;
+
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*' || c == '?') {
+                if (start < i) {
+                    regex.append(Pattern.quote(glob.substring(start, i)));
+                }
+                regex.append((c == '*') ? ".*" : ".");
+                start = i + 1;
+            }
+        }
+        if (start < glob.length()) {
+            regex.append(Pattern.quote(glob.substring(start)));
+        }
+
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+}
@@ -0,0 +1,376 @@
+package com.github.wnebyte.jcli.util;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * This class is a minimal, streaming JSON encoder.
+ * <br>
+ * Names and values are escaped and UTF-8 encoded directly into an internal byte buffer, which is written to the
+ * underlying <code>OutputStream</code> when it fills up, or when the instance is flushed; no intermediate
+ * <code>String</code>s are created. Instances keep track of where separators are required, but do not otherwise
+ * validate the structure of the document being written.
+ * <br>
+ * Instances are not thread-safe.
+ */
+public final class JsonWriter implements Flushable {
+
+    /*
+    ###########################
+    #      STATIC FIELDS      #
+    ###########################
+    */
+
+    private static final int DEFAULT_BUFFER_SIZE = 512;
+
+    private static final byte[] HEX = {
+            '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
+    };
+
+    private static final byte[] TRUE = { 't', 'r', 'u', 'e' };
+
+    private static final byte[] FALSE = { 'f', 'a', 'l', 's', 'e' };
+
+    private static final byte[] NULL = { 'n', 'u', 'l', 'l' };
+
+    private static final byte[] MIN_LONG = "-9223372036854775808".getBytes();
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    private final OutputStream out;
+
+    private final byte[] buf;
+
+    private int count;
+
+    /*
+    whether the container at a given depth (1-based) requires a separator before its next element.
+     */
+    private boolean[] separate;
+
+    private int depth;
+
+    private boolean named;
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    public JsonWriter(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    public JsonWriter(OutputStream out, int bufferSize) {
+        if (out == null) {
+            throw new NullPointerException(
+                    "OutputStream may not be null."
+            );
+        }
+        this.out = out;
+        this.buf = new byte[Math.max(bufferSize, 32)];
+        this.separate = new boolean[8];
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    public JsonWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    public JsonWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    public JsonWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    /**
+     * Writes the specified <code>name</code>; the next call is expected to write its value.
+     * @param name the name of the member.
+     * @return this (for chaining).
+     * @throws IOException if an I/O error occurs.
+     */
+    public JsonWriter name(CharSequence name) throws IOException {
+        separator();
+        string(name);
+        write(':');
+        named = true;
+        return this;
+    }
+
+    public JsonWriter value(CharSequence value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        separator();
+        string(value);
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException {
+        separator();
+        number(value);
+        return this;
+    }
+
+    /**
+     * Writes the specified <code>value</code>, or <code>null</code> if it is not finite (as JSON has no
+     * representation for NaN or the infinities).
+     * @param value the value to be written.
+     * @return this (for chaining).
+     * @throws IOException if an I/O error occurs.
+     */
+    public JsonWriter value(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return nullValue();
+        }
+        if (value == (long) value) {
+            return value((long) value);
+        }
+        separator();
+        String s = Double.toString(value);
+        ensure(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            buf[count++] = (byte) s.charAt(i);
+        }
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        separator();
+        write(value ? TRUE : FALSE);
+        return this;
+    }
+
+    /**
+     * Writes the specified <code>value</code>; <code>null</code>, booleans and numbers as such, an
+     * <code>Iterable</code> as an array of its elements, each written as it is iterated over, and any other
+     * object as the string returned by its <code>toString</code> method.
+     * @param value the value.
+     * @return this (for chaining).
+     * @throws IOException if an I/O error occurs.
+     */
+    public JsonWriter value(Object value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        } else if (value instanceof Boolean) {
+            return value(((Boolean) value).booleanValue());
+        } else if (value instanceof Long || value instanceof Integer ||
+                value instanceof Short || value instanceof Byte) {
+            return value(((Number) value).longValue());
+        } else if (value instanceof Number) {
+            return value(((Number) value).doubleValue());
+        } else if (value instanceof CharSequence) {
+            return value((CharSequence) value);
+        } else if (value instanceof Iterable) {
+            beginArray();
+            for (Object element : (Iterable<?>) value) {
+                value(element);
+            }
+            return endArray();
+        } else {
+            return value(String.valueOf(value));
+        }
+    }
+
+    public JsonWriter nullValue() throws IOException {
+        separator();
+        write(NULL);
+        return this;
+    }
+
+    /**
+     * Writes a single line break; used to delimit documents when writing JSON lines.
+     * @return this (for chaining).
+     * @throws IOException if an I/O error occurs.
+     */
+    public JsonWriter newLine() throws IOException {
+        write('\n');
+        return this;
+    }
+
+    /**
+     * Writes the contents of the internal buffer to the underlying stream, and flushes it.
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    /**
+     * Discards any buffered (unwritten) output, and the state of the document being written, so that the
+     * instance can be reused for a new document after a previous one was left incomplete.
+     */
+    public void reset() {
+        count = 0;
+        depth = 0;
+        named = false;
+    }
+
+    private JsonWriter open(char c) throws IOException {
+        separator();
+        write(c);
+        if (++depth == separate.length) {
+            separate = Arrays.copyOf(separate, depth * 2);
+        }
+        separate[depth] = false;
+        return this;
+    }
+
+    private JsonWriter close(char c) throws IOException {
+        if (depth == 0) {
+            throw new IllegalStateException(
+                    "There is no open object or array."
+            );
+        }
+        depth--;
+        write(c);
+        return this;
+    }
+
+    private void separator() throws IOException {
+        if (named) {
+            named = false;
+            return;
+        }
+        if (depth == 0) {
+            // top-level values (e.g. JSON lines) are not separated.
+            return;
+        }
+        if (separate[depth]) {
+            write(',');
+        } else {
+            separate[depth] = true;
+        }
+    }
+
+    private void string(CharSequence s) throws IOException {
+        write('"');
+        int len = s.length();
+
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+
+            if (c == '"' || c == '\\') {
+                write('\\');
+                write(c);
+            } else if (c < 0x20) {
+                escape(c);
+            } else if (c < 0x80) {
+                write(c);
+            } else if (c < 0x800) {
+                ensure(2);
+                buf[count++] = (byte) (0xC0 | (c >> 6));
+                buf[count++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                ensure(4);
+                buf[count++] = (byte) (0xF0 | (cp >> 18));
+                buf[count++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[count++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[count++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogates can not be encoded as UTF-8.
+                escape(c);
+            } else {
+                ensure(3);
+                buf[count++] = (byte) (0xE0 | (c >> 12));
+                buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+
+        write('"');
+    }
+
+    private void escape(char c) throws IOException {
+        switch (c) {
+            case '\n':
+                write('\\');
+                write('n');
+                break;
+            case '\r':
+                write('\\');
+                write('r');
+                break;
+            case '\t':
+                write('\\');
+                write('t');
+                break;
+            default:
+                ensure(6);
+                buf[count++] = '\\';
+                buf[count++] = 'u';
+                buf[count++] = HEX[(c >> 12) & 0xF];
+                buf[count++] = HEX[(c >> 8) & 0xF];
+                buf[count++] = HEX[(c >> 4) & 0xF];
+                buf[count++] = HEX[c & 0xF];
+        }
+    }
+
+    private void number(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            write(MIN_LONG);
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            buf[count++] = '-';
+            value = -value;
+        }
+        int start = count;
+        do {
+            buf[count++] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+        // digits were written in reverse order.
+        for (int i = start, j = count - 1; i < j; i++, j--) {
+            byte b = buf[i];
+            buf[i] = buf[j];
+            buf[j] = b;
+        }
+    }
+
+    private void write(char c) throws IOException {
+        ensure(1);
+        buf[count++] = (byte) c;
+    }
+
+    private void write(byte[] b) throws IOException {
+        ensure(b.length);
+        System.arraycopy(b, 0, buf, count, b.length);
+        count += b.length;
+    }
+
+    private void ensure(int n) throws IOException {
+        if (buf.length - count < n) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (count > 0) {
+            out.write(buf, 0, count);
+            count = 0;
+        }
+    }
+}
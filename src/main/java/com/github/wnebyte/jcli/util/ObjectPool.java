@@ -0,0 +1,126 @@
+package com.github.wnebyte.jcli.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * This class is a bounded, lock-free pool of objects.
+ * <br>
+ * The idle objects are held in a fixed number of slots, which are claimed and filled by compare-and-set; every
+ * thread starts its search at a slot of its own, so that threads mostly touch different slots. When no idle
+ * object is found, a new one is constructed; when no slot is free, a released object is dropped.
+ * @param <T> the type of the objects.
+ */
+public final class ObjectPool<T> {
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    private final AtomicReferenceArray<T> slots;
+
+    private final Supplier<? extends T> factory;
+
+    private final Consumer<? super T> reset;
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    /**
+     * Constructs a new instance.
+     * @param capacity the maximum number of idle objects.
+     * @param factory constructs a new object when none is idle.
+     * @param reset is called with every released object before it is returned to the pool; an object whose
+     * reset throws is dropped.
+     */
+    public ObjectPool(int capacity, Supplier<? extends T> factory, Consumer<? super T> reset) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(
+                    "Capacity has to be positive."
+            );
+        }
+        if (factory == null) {
+            throw new NullPointerException(
+                    "Factory may not be null."
+            );
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.factory = factory;
+        this.reset = (reset == null) ? t -> { } : reset;
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    /**
+     * @return an idle object, or a new one if there is none.
+     */
+    public T acquire() {
+        int n = slots.length();
+        int start = start(n);
+        for (int i = 0; i < n; i++) {
+            int index = (start + i) % n;
+            T object = slots.get(index);
+            if (object != null && slots.compareAndSet(index, object, null)) {
+                return object;
+            }
+        }
+        return factory.get();
+    }
+
+    /**
+     * Resets the specified <code>object</code>, and returns it to the pool, unless the pool is full.
+     * @param object the object.
+     * @return <code>true</code> if the object was returned to the pool, otherwise <code>false</code>.
+     */
+    public boolean release(T object) {
+        if (object == null) {
+            return false;
+        }
+        try {
+            reset.accept(object);
+        } catch (RuntimeException e) {
+            return false;
+        }
+        int n = slots.length();
+        int start = start(n);
+        for (int i = 0; i < n; i++) {
+            int index = (start + i) % n;
+            if (slots.get(index) == null && slots.compareAndSet(index, null, object)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of idle objects.
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    private static int start(int n) {
+        long id = Thread.currentThread().getId();
+        return (int) ((id ^ (id >>> 16)) & Integer.MAX_VALUE) % n;
+    }
+}
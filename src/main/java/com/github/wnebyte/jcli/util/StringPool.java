@@ -0,0 +1,59 @@
+package com.github.wnebyte.jcli.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * This class deduplicates equal strings, such as the names and descriptions that are repeated across the
+ * Commands of large applications, so that a single instance of each is retained.
+ * <br>
+ * Unlike <code>String.intern()</code>, pooled strings are held weakly, on the heap rather than in the JVM's string
+ * table, so a string that is no longer referenced by any Command, e.g. that of an unloaded plugin, is reclaimed
+ * along with its entry.
+ */
+public final class StringPool {
+
+    /*
+    ###########################
+    #      STATIC FIELDS      #
+    ###########################
+    */
+
+    private static final Map<String, WeakReference<String>> POOL = new WeakHashMap<>();
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    private StringPool() { }
+
+    /*
+    ###########################
+    #     UTILITY METHODS     #
+    ###########################
+    */
+
+    /**
+     * Returns the pooled instance that is equal to the specified <code>s</code>; pooling <code>s</code> if there
+     * is none.
+     * @param s the string.
+     * @return the pooled string, or <code>null</code> if <code>s</code> is <code>null</code>.
+     */
+    public static String of(String s) {
+        if (s == null) {
+            return null;
+        }
+        synchronized (POOL) {
+            WeakReference<String> ref = POOL.get(s);
+            String pooled = (ref == null) ? null : ref.get();
+            if (pooled == null) {
+                POOL.put(s, new WeakReference<>(s));
+                pooled = s;
+            }
+            return pooled;
+        }
+    }
+}
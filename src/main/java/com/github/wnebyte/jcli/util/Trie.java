@@ -0,0 +1,216 @@
+package com.github.wnebyte.jcli.util;
+
+import java.util.*;
+
+/**
+ * This class is a prefix tree of strings.
+ * <br>
+ * Every node holds its children in a pair of small arrays, sorted by character, so that the strings that start
+ * with a prefix are located by descending one node per character of the prefix, and are then collected in
+ * sorted order by visiting only the nodes below it.
+ * <br>
+ * Tries are immutable and persistent: {@link #with(String)} and {@link #without(String)} return new tries that
+ * share every node of the original trie, except for those on the path to the added or removed string.
+ */
+public final class Trie {
+
+    /*
+    ###########################
+    #          FIELDS         #
+    ###########################
+    */
+
+    private final Node root;
+
+    private final int size;
+
+    /*
+    ###########################
+    #       CONSTRUCTORS      #
+    ###########################
+    */
+
+    /**
+     * Constructs a new empty trie.
+     */
+    public Trie() {
+        this(Node.EMPTY, 0);
+    }
+
+    private Trie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /*
+    ###########################
+    #         METHODS         #
+    ###########################
+    */
+
+    /**
+     * Returns a new trie that holds the strings of this trie and the specified <code>s</code>; this trie is
+     * left unchanged.
+     * @param s the string.
+     * @return a new instance, or this instance if it already holds the specified <code>s</code>.
+     */
+    public Trie with(String s) {
+        if (s == null) {
+            throw new NullPointerException(
+                    "String may not be null."
+            );
+        }
+        return contains(s) ? this : new Trie(with(root, s, 0), size + 1);
+    }
+
+    /**
+     * Returns a new trie that holds the strings of this trie, except for the specified <code>s</code>; this trie
+     * is left unchanged.
+     * @param s the string.
+     * @return a new instance, or this instance if it does not hold the specified <code>s</code>.
+     */
+    public Trie without(String s) {
+        if (!contains(s)) {
+            return this;
+        }
+        Node node = without(root, s, 0);
+        return new Trie((node == null) ? Node.EMPTY : node, size - 1);
+    }
+
+    /*
+    copies the nodes on the path to the string; every other node is shared with the original trie.
+     */
+    private static Node with(Node node, String s, int i) {
+        if (i == s.length()) {
+            return new Node(node.keys, node.children, true);
+        }
+        char c = s.charAt(i);
+        Node child = node.get(c);
+        return node.with(c, with((child == null) ? Node.EMPTY : child, s, i + 1));
+    }
+
+    /*
+    returns null in place of a node that is left without strings, so that it is removed from its parent.
+     */
+    private static Node without(Node node, String s, int i) {
+        Node result;
+        if (i == s.length()) {
+            result = new Node(node.keys, node.children, false);
+        } else {
+            char c = s.charAt(i);
+            result = node.with(c, without(node.get(c), s, i + 1));
+        }
+        return (result.keys.length == 0 && !result.terminal) ? null : result;
+    }
+
+    /**
+     * @param s the string.
+     * @return <code>true</code> if this trie holds the specified <code>s</code>, otherwise <code>false</code>.
+     */
+    public boolean contains(String s) {
+        Node node = find(s);
+        return (node != null) && node.terminal;
+    }
+
+    /**
+     * Returns the strings held by this trie that start with the specified <code>prefix</code>, in ascending order.
+     * @param prefix the prefix.
+     * @param limit the maximum number of strings to return, or <code>0</code> for no limit.
+     * @return the matching strings.
+     */
+    public List<String> startingWith(String prefix, int limit) {
+        List<String> result = new ArrayList<>();
+        Node node = find(prefix);
+        if (node != null) {
+            collect(node, new StringBuilder(prefix), result, (limit > 0) ? limit : Integer.MAX_VALUE);
+        }
+        return result;
+    }
+
+    private Node find(String s) {
+        if (s == null) {
+            return null;
+        }
+        Node node = root;
+        for (int i = 0; i < s.length() && node != null; i++) {
+            node = node.get(s.charAt(i));
+        }
+        return node;
+    }
+
+    private static void collect(Node node, StringBuilder sb, List<String> result, int limit) {
+        if (node.terminal) {
+            result.add(sb.toString());
+        }
+        for (int i = 0; i < node.keys.length && result.size() < limit; i++) {
+            sb.append(node.keys[i]);
+            collect(node.children[i], sb, result, limit);
+            sb.setLength(sb.length() - 1);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /*
+    ###########################
+    #      NESTED CLASSES     #
+    ###########################
+    */
+
+    private static final class Node {
+
+        private static final Node EMPTY = new Node(new char[0], new Node[0], false);
+
+        private final char[] keys;
+
+        private final Node[] children;
+
+        private final boolean terminal;
+
+        private Node(char[] keys, Node[] children, boolean terminal) {
+            this.keys = keys;
+            this.children = children;
+            this.terminal = terminal;
+        }
+
+        private Node get(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return (i >= 0) ? children[i] : null;
+        }
+
+        /*
+        returns a copy of this node, in which the child for the specified character is replaced, added, or
+        removed if the specified child is null.
+         */
+        private Node with(char c, Node child) {
+            int i = Arrays.binarySearch(keys, c);
+            char[] keys;
+            Node[] children;
+            if (i >= 0 && child != null) {
+                keys = this.keys;
+                children = this.children.clone();
+                children[i] = child;
+            } else if (i >= 0) {
+                keys = new char[this.keys.length - 1];
+                children = new Node[keys.length];
+                System.arraycopy(this.keys, 0, keys, 0, i);
+                System.arraycopy(this.keys, i + 1, keys, i, keys.length - i);
+                System.arraycopy(this.children, 0, children, 0, i);
+                System.arraycopy(this.children, i + 1, children, i, keys.length - i);
+            } else {
+                i = -(i + 1);
+                keys = new char[this.keys.length + 1];
+                children = new Node[keys.length];
+                System.arraycopy(this.keys, 0, keys, 0, i);
+                System.arraycopy(this.keys, i, keys, i + 1, this.keys.length - i);
+                System.arraycopy(this.children, 0, children, 0, i);
+                System.arraycopy(this.children, i, children, i + 1, this.keys.length - i);
+                keys[i] = c;
+                children[i] = child;
+            }
+            return new Node(keys, children, terminal);
+        }
+    }
+}
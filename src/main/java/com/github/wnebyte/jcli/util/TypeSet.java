@@ -39,6 +39,14 @@ public class TypeSet extends DerivedSet<Object> {
                 .orElse(null);
     }
 
+    public Object remove(Class<?> cls) {
+        Object object = get(cls);
+        if (object != null) {
+            set.remove(object);
+        }
+        return object;
+    }
+
     public int size() {
         return set.size();
     }
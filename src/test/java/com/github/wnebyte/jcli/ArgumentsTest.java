@@ -0,0 +1,237 @@
+package com.github.wnebyte.jcli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.annotation.Argument;
+import com.github.wnebyte.jcli.annotation.Arguments;
+import com.github.wnebyte.jcli.annotation.Command;
+import com.github.wnebyte.jcli.annotation.Controller;
+import com.github.wnebyte.jcli.annotation.Scope;
+import com.github.wnebyte.jcli.exception.IllegalAnnotationException;
+
+public class ArgumentsTest {
+
+    private static final List<Object> received = new ArrayList<>();
+
+    private final PrintStream discard = new PrintStream(new ByteArrayOutputStream(), true);
+
+    private final CLI cli = new CLI(new Configuration()
+            .disableScanPackages()
+            .disableMapHelpCommand()
+            .setScanClasses(Connections.class)
+    );
+
+    private int accept(String input) {
+        return cli.accept(input, discard, discard);
+    }
+
+    @Test
+    public void testBind00() {
+        received.clear();
+        Assert.assertEquals(CLI.SUCCESS, accept("conn open -H localhost -p 8080 verbose"));
+        Options options = (Options) received.get(0);
+        Assert.assertEquals("localhost", options.host);
+        Assert.assertEquals(8080, options.port);
+        Assert.assertTrue(options.verbose);
+        Assert.assertEquals(3, options.retries);
+        Assert.assertNotNull(received.get(1));
+
+        // the host is required.
+        Assert.assertEquals(CLI.USAGE_ERROR, accept("conn open -p 8080"));
+    }
+
+    @Test
+    public void testBind01() {
+        received.clear();
+        Assert.assertEquals(CLI.SUCCESS, accept("conn send -m hello -t remote --timeout 10"));
+        Assert.assertEquals("hello", received.get(0));
+        Target target = (Target) received.get(1);
+        Assert.assertEquals("remote", target.host);
+        Assert.assertEquals(10L, target.timeout);
+    }
+
+    @Test
+    public void testReuse00() {
+        received.clear();
+        Assert.assertEquals(CLI.SUCCESS, accept("conn ping -H a"));
+        Assert.assertEquals(CLI.SUCCESS, accept("conn ping -H b -p 1"));
+        Assert.assertSame(received.get(0), received.get(1));
+        // every field is overwritten; those that are omitted receive their default value.
+        Assert.assertEquals("b", ((Options) received.get(1)).host);
+        Assert.assertEquals(1, ((Options) received.get(1)).port);
+        Assert.assertEquals(CLI.SUCCESS, accept("conn ping -H c"));
+        Assert.assertEquals(0, ((Options) received.get(2)).port);
+
+        received.clear();
+        Assert.assertEquals(CLI.SUCCESS, accept("conn open -H a"));
+        Assert.assertEquals(CLI.SUCCESS, accept("conn open -H a"));
+        Assert.assertNotSame(received.get(0), received.get(2));
+    }
+
+    @Test
+    public void testIllegal00() {
+        for (Class<?> cls : new Class<?>[] { NoConstructor.class, Reused.class }) {
+            try {
+                CommandModel.build(new Configuration()
+                        .disableScanPackages()
+                        .disableMapHelpCommand()
+                        .setScanClasses(cls));
+                Assert.fail("expected an IllegalAnnotationException");
+            } catch (IllegalAnnotationException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testIllegal01() {
+        try {
+            CommandModel.build(new Configuration()
+                    .disableScanPackages()
+                    .disableMapHelpCommand()
+                    .setScanClasses(FinalField.class));
+            Assert.fail("expected an IllegalAnnotationException");
+        } catch (IllegalAnnotationException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("'b' is final"));
+        }
+    }
+
+    @Test
+    public void testFinal00() {
+        // a final field is bound by the Constructor whose parameter types are those of the fields.
+        CLI cli = new CLI(new Configuration()
+                .disableScanPackages()
+                .disableMapHelpCommand()
+                .setScanClasses(Both.class)
+                .setOut(discard)
+        );
+        received.clear();
+        Assert.assertEquals(CLI.SUCCESS, cli.accept("cmd -a 1 -b 2", discard, discard));
+        Both.Values values = (Both.Values) received.get(0);
+        Assert.assertEquals(1, values.a);
+        Assert.assertEquals(2, values.b);
+    }
+
+    public static class Base {
+
+        @Argument(value = "--host, -H", required = true)
+        String host;
+    }
+
+    public static class Options extends Base {
+
+        @Argument("-p, --port")
+        int port;
+
+        boolean verbose;
+
+        @Argument(value = "--retries", defaultValue = "3")
+        private int retries;
+
+        static int ignored;
+
+        transient Object alsoIgnored;
+    }
+
+    /*
+    immutable; the values are passed to its constructor.
+     */
+    public static final class Target {
+
+        @Argument(value = "-t", required = true)
+        private final String host;
+
+        @Argument("--timeout")
+        private final long timeout;
+
+        Target(String host, long timeout) {
+            this.host = host;
+            this.timeout = timeout;
+        }
+    }
+
+    @Controller(value = "conn", scope = Scope.SINGLETON)
+    public static class Connections {
+
+        @Command
+        public void open(@Arguments Options options, InvocationContext ctx) {
+            received.add(options);
+            received.add(ctx);
+        }
+
+        @Command
+        public void send(@Argument(value = "-m", required = true) String message, @Arguments Target target) {
+            received.add(message);
+            received.add(target);
+        }
+
+        @Command
+        public void ping(@Arguments(reuse = true) Options options) {
+            received.add(options);
+        }
+    }
+
+    public static class NoConstructor {
+
+        public static class Values {
+
+            int a;
+
+            Values(String unrelated) { }
+        }
+
+        @Command
+        public void cmd(@Arguments Values values) { }
+    }
+
+    public static class FinalField {
+
+        public static class Values {
+
+            @Argument("-a")
+            int a;
+
+            @Argument("-b")
+            final int b = 0;
+        }
+
+        @Command
+        public void cmd(@Arguments Values values) { }
+    }
+
+    public static class Both {
+
+        public static class Values {
+
+            @Argument("-a")
+            int a;
+
+            @Argument("-b")
+            final int b;
+
+            Values() {
+                this.b = 0;
+            }
+
+            Values(int a, int b) {
+                this.a = a;
+                this.b = b;
+            }
+        }
+
+        @Command
+        public static void cmd(@Arguments Values values) {
+            received.add(values);
+        }
+    }
+
+    public static class Reused {
+
+        @Command
+        public void cmd(@Arguments(reuse = true) Target target) { }
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.wnebyte.jcli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.annotation.Command;
+import com.github.wnebyte.jcli.exception.IllegalAnnotationException;
+import static com.github.wnebyte.jcli.Arg.*;
+
+public class CommandBuilderTest {
+
+    private final PrintStream discard = new PrintStream(new ByteArrayOutputStream(), true);
+
+    private final Map<String, Integer> store = new HashMap<>();
+
+    private final AbstractCommand put = CommandBuilder.named("put, p")
+            .prefix("kv")
+            .description("puts a value")
+            .arg(ofString("-k").required())
+            .arg(ofInt("-n"))
+            .handler((ctx, k, n) -> store.put(k, n));
+
+    private final AbstractCommand get = CommandBuilder.named("get")
+            .prefix("kv")
+            .arg(ofString("-k").required())
+            .handler((ctx, k) -> ctx.out().println(store.get(k)));
+
+    private static CLI cli(Configuration conf) {
+        return new CLI(conf.disableScanPackages().disableMapHelpCommand());
+    }
+
+    private static String run(CLI cli, String input) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Assert.assertEquals(CLI.SUCCESS, cli.accept(input, new PrintStream(out, true), System.err));
+        return out.toString().trim();
+    }
+
+    @Test
+    public void testBuild00() {
+        Assert.assertEquals("kv", put.getPrefix());
+        Assert.assertEquals(Arrays.asList("put", "p"), new ArrayList<>(put.getNames()));
+        Assert.assertEquals("puts a value", put.getDescription());
+        Assert.assertEquals(2, put.getArguments().size());
+        Assert.assertFalse(put instanceof com.github.wnebyte.jcli.Command);
+    }
+
+    @Test
+    public void testExecute00() {
+        CLI cli = cli(new Configuration().setCommands(put, get));
+        Assert.assertEquals(2, cli.getModel().size());
+        run(cli, "kv put -k a -n 3");
+        Assert.assertEquals(Integer.valueOf(3), store.get("a"));
+        // the values are passed in the order that the Arguments were added, whatever their order of input.
+        run(cli, "kv p -n 4 -k b");
+        Assert.assertEquals(Integer.valueOf(4), store.get("b"));
+        Assert.assertEquals("3", run(cli, "kv get -k a"));
+        // an omitted primitive Argument receives the same default as an annotated Parameter.
+        run(cli, "kv put -k c");
+        Assert.assertEquals(Integer.valueOf(0), store.get("c"));
+        Assert.assertEquals(CLI.USAGE_ERROR, cli.accept("kv put -n 1", discard, discard));
+    }
+
+    @Test
+    public void testRegister00() {
+        CLI cli = cli(new Configuration().setScanClasses(Local.class));
+        cli.register(put);
+        Assert.assertSame(put, cli.getModel().get("kv put"));
+        run(cli, "kv put -k a -n 1");
+        Assert.assertEquals(Integer.valueOf(1), store.get("a"));
+        Assert.assertTrue(cli.unregister("kv", "p"));
+        Assert.assertEquals(CLI.USAGE_ERROR, cli.accept("kv put -k a -n 1", discard, discard));
+
+        AbstractCommand status = CommandBuilder.named("status").handler(ctx -> { });
+        try {
+            cli.register(status);
+            Assert.fail("expected an IllegalAnnotationException");
+        } catch (IllegalAnnotationException e) {
+            // expected
+        }
+    }
+
+    @Test(expected = IllegalAnnotationException.class)
+    public void testCollision00() {
+        cli(new Configuration()
+                .setScanClasses(Local.class)
+                .setCommands(CommandBuilder.named("status").handler(ctx -> { })));
+    }
+
+    @Test
+    public void testDynamic00() {
+        List<Object[]> calls = new ArrayList<>();
+        List<Arg<?>> args = new ArrayList<>();
+        for (String name : new String[] { "-a", "-b", "-c", "-d", "-e" }) {
+            args.add(ofInt(name));
+        }
+        AbstractCommand sum = CommandBuilder.named("sum")
+                .args(args)
+                .handler((ctx, values) -> calls.add(values));
+        CLI cli = cli(new Configuration().setCommands(sum));
+
+        run(cli, "sum -e 5 -a 1 -c 3");
+        Assert.assertEquals(1, calls.size());
+        Assert.assertArrayEquals(new Object[] { 1, 0, 3, 0, 5 }, calls.get(0));
+    }
+
+    @Test
+    public void testFailure00() {
+        AbstractCommand fail = CommandBuilder.named("fail").handler(ctx -> {
+            throw new Exception("fail");
+        });
+        CLI cli = cli(new Configuration().setCommands(fail));
+        Assert.assertEquals(CLI.FAILURE, cli.accept("fail", discard, discard));
+    }
+
+    public static class Local {
+
+        @Command
+        public void status() { }
+    }
+}
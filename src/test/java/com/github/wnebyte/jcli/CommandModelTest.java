@@ -0,0 +1,174 @@
+package com.github.wnebyte.jcli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.annotation.Argument;
+import com.github.wnebyte.jcli.annotation.Command;
+import com.github.wnebyte.jcli.annotation.Inject;
+import com.github.wnebyte.jcli.exception.IllegalAnnotationException;
+
+public class CommandModelTest {
+
+    private static CommandModel newModel() {
+        return CommandModel.build(new Configuration()
+                .disableScanPackages()
+                .setScanClasses(Counter.class)
+        );
+    }
+
+    private static AbstractCommand command(String prefix, String... names) {
+        return new AbstractCommand(prefix, new LinkedHashSet<>(Arrays.asList(names)), "", null) {
+            @Override
+            Object execute(Object[] args) {
+                return null;
+            }
+        };
+    }
+
+    private static CLI newFrontEnd(CommandModel model, ByteArrayOutputStream out) {
+        return new CLI(model, new Configuration()
+                .setOut(new PrintStream(out, true))
+        );
+    }
+
+    @Test
+    public void testModel00() {
+        CommandModel model = newModel();
+        // add, total, and the help Command.
+        Assert.assertEquals(3, model.size());
+        Assert.assertNotNull(model.get("add"));
+        Assert.assertNull(model.get("foo"));
+        Assert.assertFalse(model.isPrefix("add"));
+    }
+
+    @Test
+    public void testShared00() {
+        CommandModel model = newModel();
+        ByteArrayOutputStream out1 = new ByteArrayOutputStream();
+        ByteArrayOutputStream out2 = new ByteArrayOutputStream();
+        CLI cli1 = newFrontEnd(model, out1);
+        CLI cli2 = newFrontEnd(model, out2);
+
+        cli1.accept("add -n 1");
+        cli1.accept("add -n 2");
+        cli2.accept("add -n 5");
+        cli1.accept("total");
+        cli2.accept("total");
+
+        // each front-end has its own singleton Counter, and its own streams.
+        Assert.assertEquals("3", out1.toString().trim());
+        Assert.assertEquals("5", out2.toString().trim());
+        Assert.assertSame(cli1.getModel().getCommands(), cli2.getModel().getCommands());
+    }
+
+    @Test
+    public void testScanObjects00() {
+        CommandModel model = newModel();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Counter counter = new Counter();
+        counter.total = 10;
+        CLI cli = new CLI(model, new Configuration()
+                .setOut(new PrintStream(out, true))
+                .setScanObjects(counter)
+        );
+        cli.accept("add -n 1");
+        Assert.assertEquals(11, counter.total);
+    }
+
+    @Test
+    public void testHelp00() {
+        CommandModel model = newModel();
+        ByteArrayOutputStream out1 = new ByteArrayOutputStream();
+        ByteArrayOutputStream out2 = new ByteArrayOutputStream();
+        newFrontEnd(model, out1).accept("--help");
+        Assert.assertTrue(out1.toString().contains("add"));
+        Assert.assertEquals(0, out2.size());
+    }
+
+    @Test
+    public void testWith00() {
+        CommandModel model = newModel();
+        AbstractCommand push = command("queue", "push");
+        AbstractCommand pop = command("queue", "pop");
+        AbstractCommand peek = command("queue sub", "peek");
+        CommandModel added = model.with(Arrays.asList(pop, push, peek));
+
+        Assert.assertEquals(6, added.size());
+        Assert.assertSame(push, added.get("queue push"));
+        Assert.assertSame(peek, added.get("queue sub peek"));
+        Assert.assertNotNull(added.get("add"));
+        Assert.assertEquals("queue pop", added.suggest("queue pip", 5).get(0));
+        Assert.assertEquals(Arrays.asList("pop", "push", "sub"), added.completeName("queue", "", 0));
+        Assert.assertEquals(Arrays.asList("queue"), added.completeName(null, "q", 0));
+        for (AbstractCommand cmd : added.getCommands()) {
+            Assert.assertSame(cmd, added.getCommands().get(added.idOf(cmd)));
+        }
+        // the model that the new one was derived from is left unchanged.
+        Assert.assertEquals(3, model.size());
+        Assert.assertNull(model.get("queue push"));
+        Assert.assertFalse(model.isPrefix("queue"));
+        Assert.assertEquals(-1, model.idOf(push));
+        Assert.assertEquals(Collections.emptyList(), model.completeName(null, "q", 0));
+        Assert.assertEquals(Collections.emptyList(), model.suggest("queue pip", 5));
+
+        CommandModel removed = added.without(Arrays.asList(push, peek));
+        Assert.assertEquals(4, removed.size());
+        Assert.assertNull(removed.get("queue push"));
+        Assert.assertSame(pop, removed.get("queue pop"));
+        Assert.assertFalse(removed.isPrefix("queue sub"));
+        Assert.assertSame(peek, added.get("queue sub peek"));
+        Assert.assertSame(removed, removed.without(Collections.singleton(push)));
+        Assert.assertEquals(Arrays.asList("pop"), removed.completeName("queue", "", 0));
+        Assert.assertEquals(Arrays.asList("queue pop"), removed.suggest("queue pish", 5));
+        Assert.assertEquals(Arrays.asList("pop", "push", "sub"), added.completeName("queue", "", 0));
+        CommandModel empty = removed.without(Collections.singleton(pop));
+        Assert.assertFalse(empty.isPrefix("queue"));
+        Assert.assertEquals(Collections.emptyList(), empty.completeName(null, "q", 0));
+        Assert.assertEquals(Collections.emptyList(), empty.suggest("queue pop", 5));
+        Assert.assertEquals(-1, empty.idOf(pop));
+    }
+
+    @Test
+    public void testWith01() {
+        CommandModel model = newModel().with(Collections.singleton(command("queue", "push")));
+        for (AbstractCommand cmd : new AbstractCommand[] {
+                command("", "add"), command("queue", "push", "p"), command("add", "x"), command("", "queue")
+        }) {
+            try {
+                model.with(Collections.singleton(cmd));
+                Assert.fail("expected a collision with: " + cmd);
+            } catch (IllegalAnnotationException e) {
+                // expected
+            }
+        }
+        Assert.assertEquals(4, model.size());
+        Assert.assertNull(model.get("queue p"));
+        Assert.assertNotNull(model.with(Collections.singleton(command("queue", "pop"))).get("queue pop"));
+    }
+
+    public static class Counter {
+
+        @Inject
+        private InvocationContext ctx;
+
+        private int total;
+
+        @Command
+        public void add(
+                @Argument(value = "-n")
+                int n
+        ) {
+            total += n;
+        }
+
+        @Command
+        public void total() {
+            ctx.out().println(total);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.wnebyte.jcli;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.annotation.Argument;
+import com.github.wnebyte.jcli.annotation.Command;
+import com.github.wnebyte.jcli.annotation.Controller;
+
+public class CompletionTest {
+
+    private final CLI cli = new CLI(new Configuration()
+            .disableScanPackages()
+            .disableMapHelpCommand()
+            .setScanClasses(Local.class, Remote.class)
+    );
+
+    @Test
+    public void testName00() {
+        Assert.assertEquals(Arrays.asList("commit", "config"), cli.complete("co", 2));
+        Assert.assertEquals(Arrays.asList("commit", "config", "remote"), cli.complete("", 0));
+        Assert.assertEquals(Arrays.asList("remote"), cli.complete("  re", 4));
+        Assert.assertEquals(Collections.emptyList(), cli.complete("x", 1));
+    }
+
+    @Test
+    public void testPrefix00() {
+        Assert.assertEquals(Arrays.asList("add", "remove"), cli.complete("remote ", 7));
+        Assert.assertEquals(Arrays.asList("remove"), cli.complete("remote rem", 10));
+        // the cursor may precede the end of the line.
+        Assert.assertEquals(Arrays.asList("add", "remove"), cli.complete("remote rem", 7));
+    }
+
+    @Test
+    public void testArgument00() {
+        Assert.assertEquals(Arrays.asList("--all", "--message", "-a", "-m"), cli.complete("commit ", 7));
+        Assert.assertEquals(Arrays.asList("--all", "--message"), cli.complete("commit --", 9));
+        // Arguments that have been given are not suggested again.
+        Assert.assertEquals(Arrays.asList("--all", "-a"), cli.complete("commit -m hello ", 16));
+        Assert.assertEquals(Arrays.asList("-u"), cli.complete("remote add ", 11));
+        // positional Arguments have no names to suggest.
+        Assert.assertEquals(Arrays.asList("--force"), cli.complete("remote remove ", 14));
+    }
+
+    @Test
+    public void testChoices00() {
+        Assert.assertEquals(Arrays.asList("global", "local"), cli.complete("config --scope ", 15));
+        Assert.assertEquals(Arrays.asList("local"), cli.complete("config --scope l", 16));
+        // values without choices have no candidates.
+        Assert.assertEquals(Collections.emptyList(), cli.complete("commit -m ", 10));
+    }
+
+    public static class Local {
+
+        @Command
+        public void commit(
+                @Argument(value = "--message, -m") String m,
+                @Argument(value = "--all, -a") boolean all
+        ) { }
+
+        @Command
+        public void config(
+                @Argument(value = "--scope", choices = { "local", "global" }) String scope
+        ) { }
+    }
+
+    @Controller("remote")
+    public static class Remote {
+
+        @Command
+        public void add(
+                @Argument(value = "-u") String u
+        ) { }
+
+        @Command
+        public void remove(
+                @Argument(required = true) String name,
+                @Argument(value = "--force") boolean force
+        ) { }
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.wnebyte.jcli;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import org.junit.Test;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.openjdk.jol.info.GraphLayout;
+import com.github.wnebyte.jarguments.Argument;
+import com.github.wnebyte.jarguments.util.ArgumentFactory;
+import com.github.wnebyte.jcli.annotation.Command;
+
+public class FootprintTest {
+
+    static {
+        // lets JOL compute field offsets on JDKs that hide them from Unsafe, e.g. for hidden classes on JDK 17.
+        if (System.getProperty("jol.magicFieldOffset") == null) {
+            System.setProperty("jol.magicFieldOffset", "true");
+        }
+    }
+
+    private static List<AbstractCommand> newCommands() throws NoSuchMethodException {
+        List<AbstractCommand> commands = new ArrayList<>();
+        for (String name : new String[] { "foo", "bar", "baz", "qux" }) {
+            Method method = FootprintTest.class.getMethod(name, int.class, String.class);
+            commands.add(new com.github.wnebyte.jcli.Command(() -> null, method, new ArgumentFactory()));
+        }
+        return commands;
+    }
+
+    @Test
+    public void testNames00() throws NoSuchMethodException {
+        AbstractCommand cmd = newCommands().get(0);
+        Assert.assertSame(cmd.getNames(), cmd.getNames());
+        Assert.assertSame(cmd.getArguments(), cmd.getArguments());
+        Assert.assertEquals("foo", cmd.getCanonicalName());
+        Assert.assertTrue(cmd.getNames().contains("-f"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testNames01() throws NoSuchMethodException {
+        newCommands().get(0).getNames().add("x");
+    }
+
+    @Test
+    public void testSharing00() throws NoSuchMethodException {
+        List<AbstractCommand> commands = newCommands();
+        AbstractCommand foo = commands.get(0);
+        AbstractCommand bar = commands.get(1);
+        // the annotation values of different methods are distinct instances, until they are pooled.
+        Assert.assertSame(foo.getDescription(), bar.getDescription());
+        Argument[] args = foo.getArguments().toArray(new Argument[0]);
+        Argument[] others = bar.getArguments().toArray(new Argument[0]);
+        for (int i = 0; i < args.length; i++) {
+            Assert.assertSame(args[i].getDescription(), others[i].getDescription());
+        }
+    }
+
+    /*
+    the names, strings and arguments held by a Command.
+     */
+    private static Object[] layoutOf(AbstractCommand cmd) {
+        return new Object[] { cmd.getPrefix(), cmd.getNames(), cmd.getDescription(), cmd.getArguments() };
+    }
+
+    /*
+    the same, as held before they were compacted: in hash sets, and as copies of their strings. The Arguments
+    themselves are held by both layouts.
+     */
+    private static Object[] baselineOf(AbstractCommand cmd) {
+        LinkedHashSet<String> names = new LinkedHashSet<>();
+        for (String name : cmd.getNames()) {
+            names.add(new String(name));
+        }
+        return new Object[] {
+                new String(cmd.getPrefix()), names, new String(cmd.getDescription()),
+                new LinkedHashSet<>(cmd.getArguments())
+        };
+    }
+
+    /*
+    JOL can not introspect every object on every JVM, in which case the footprint is not measured.
+     */
+    private static long sizeOf(Object... roots) {
+        try {
+            return GraphLayout.parseInstance(roots).totalSize();
+        } catch (RuntimeException | LinkageError e) {
+            Assume.assumeNoException(e);
+            return -1;
+        }
+    }
+
+    @Test
+    public void testFootprint00() throws NoSuchMethodException {
+        List<Object[]> layouts = new ArrayList<>();
+        List<Object[]> baselines = new ArrayList<>();
+        for (AbstractCommand cmd : newCommands()) {
+            layouts.add(layoutOf(cmd));
+            baselines.add(baselineOf(cmd));
+        }
+        // the additional heap taken up by each identically shaped Command, in either layout.
+        long marginal = (sizeOf(layouts.toArray()) - sizeOf(layouts.get(0))) / (layouts.size() - 1);
+        long baseline = (sizeOf(baselines.toArray()) - sizeOf(baselines.get(0))) / (baselines.size() - 1);
+        Assert.assertTrue("marginal footprint of " + marginal + " B, baseline of " + baseline + " B",
+                marginal < baseline);
+    }
+
+    @Command(value = "foo, -f", description = "a shared description")
+    public void foo(
+            @com.github.wnebyte.jcli.annotation.Argument(value = "-n") int n,
+            @com.github.wnebyte.jcli.annotation.Argument(value = "-s") String s
+    ) { }
+
+    @Command(value = "bar, -b", description = "a shared description")
+    public void bar(
+            @com.github.wnebyte.jcli.annotation.Argument(value = "-n") int n,
+            @com.github.wnebyte.jcli.annotation.Argument(value = "-s") String s
+    ) { }
+
+    @Command(value = "baz", description = "a shared description")
+    public void baz(
+            @com.github.wnebyte.jcli.annotation.Argument(value = "-n") int n,
+            @com.github.wnebyte.jcli.annotation.Argument(value = "-s") String s
+    ) { }
+
+    @Command(value = "qux", description = "a shared description")
+    public void qux(
+            @com.github.wnebyte.jcli.annotation.Argument(value = "-n") int n,
+            @com.github.wnebyte.jcli.annotation.Argument(value = "-s") String s
+    ) { }
+}
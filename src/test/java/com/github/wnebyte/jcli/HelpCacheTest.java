@@ -0,0 +1,67 @@
+package com.github.wnebyte.jcli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.annotation.Argument;
+import com.github.wnebyte.jcli.annotation.Command;
+
+public class HelpCacheTest {
+
+    private final AtomicInteger renders = new AtomicInteger();
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private final Configuration conf = new Configuration()
+            .disableScanPackages()
+            .setScanClasses(HelpCacheTest.class)
+            .setOut(new PrintStream(out, true))
+            .setHelpFormatter(view -> {
+                renders.incrementAndGet();
+                return view.getDescription();
+            });
+
+    @Test
+    public void testHelp00() {
+        CLI cli = new CLI(conf);
+        cli.accept("--help");
+        int n = renders.get();
+        // foo, bar, and the help Command.
+        Assert.assertEquals(3, n);
+        String first = out.toString();
+        out.reset();
+        cli.accept("--help");
+        cli.accept("foo -h");
+        Assert.assertEquals(n, renders.get());
+        Assert.assertTrue(out.toString().startsWith(first));
+        Assert.assertTrue(out.toString().endsWith("the foo command" + System.lineSeparator()));
+    }
+
+    @Test
+    public void testHelp01() {
+        CLI cli = new CLI(conf);
+        cli.accept("bar -h");
+        cli.accept("bar -h");
+        Assert.assertEquals(1, renders.get());
+    }
+
+    @Test
+    public void testInvalidate00() {
+        CLI cli = new CLI(conf);
+        cli.accept("foo -h");
+        conf.setHelpFormatter(view -> "replaced");
+        out.reset();
+        cli.accept("foo -h");
+        Assert.assertEquals("replaced", out.toString().trim());
+    }
+
+    @Command(description = "the foo command")
+    public void foo(
+            @Argument(value = "-n") int n
+    ) { }
+
+    @Command(description = "the bar command")
+    public void bar() { }
+}
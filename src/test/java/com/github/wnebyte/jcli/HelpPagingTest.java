@@ -0,0 +1,102 @@
+package com.github.wnebyte.jcli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.annotation.Command;
+import com.github.wnebyte.jcli.annotation.Controller;
+
+public class HelpPagingTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private final CLI cli = new CLI(new Configuration()
+            .disableScanPackages()
+            .setScanClasses(Local.class, Remote.class)
+            .setOut(new PrintStream(out, true))
+            .setHelpFormatter(view -> view.getName())
+    );
+
+    private List<String> help(String input) {
+        out.reset();
+        cli.accept(input);
+        return Arrays.stream(out.toString().split(System.lineSeparator()))
+                .filter(line -> !line.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testStartingWith00() {
+        List<String> keys = cli.getModel().startingWith("remote ").stream()
+                .map(CommandModel::keyOf)
+                .collect(Collectors.toList());
+        Assert.assertEquals(Arrays.asList("remote add", "remote remove"), keys);
+        Assert.assertTrue(cli.getModel().startingWith("zzz").isEmpty());
+        Assert.assertEquals(cli.getModel().size(), cli.getModel().startingWith(null).size());
+    }
+
+    @Test
+    public void testFilter00() {
+        Assert.assertEquals(Arrays.asList("add", "amend"), help("--help -f a"));
+        Assert.assertEquals(Arrays.asList("remote add", "remote remove"), help("--help --filter remote"));
+    }
+
+    @Test
+    public void testGlob00() {
+        Assert.assertEquals(Arrays.asList("add", "remote add"), help("--help -f *add"));
+        Assert.assertEquals(Arrays.asList("remote remove"), help("--help -f remote?r*"));
+    }
+
+    @Test
+    public void testPage00() {
+        List<String> all = help("--help");
+        Assert.assertEquals(all.subList(0, 2), help("--help -l 2"));
+        Assert.assertEquals(all.subList(2, 4), help("--help -l 2 -p 2"));
+        Assert.assertEquals(Arrays.asList("amend"), help("--help -f a -l 1 -p 2"));
+        Assert.assertEquals(Arrays.asList("remote add"), help("--help -f *add -l 1 -p 2"));
+        Assert.assertTrue(help("--help -l 2 -p 100").isEmpty());
+    }
+
+    @Test
+    public void testJson00() {
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        CLI cli = new CLI(new Configuration()
+                .disableScanPackages()
+                .setScanClasses(Local.class, Remote.class)
+                .setOut(new PrintStream(json, true))
+                .setHelpFormatter(view -> view.getName())
+                .enableJsonLines()
+        );
+        cli.accept("--help -f *add -l 1 -p 2");
+        Assert.assertTrue(json.toString(), json.toString().contains("\"payload\":[\"remote add\"]"));
+        json.reset();
+        cli.accept("--help -f a");
+        Assert.assertTrue(json.toString(), json.toString().contains("\"payload\":[\"add\",\"amend\"]"));
+    }
+
+    public static class Local {
+
+        @Command
+        public void add() { }
+
+        @Command
+        public void amend() { }
+
+        @Command
+        public void status() { }
+    }
+
+    @Controller("remote")
+    public static class Remote {
+
+        @Command
+        public void add() { }
+
+        @Command
+        public void remove() { }
+    }
+}
@@ -0,0 +1,135 @@
+package com.github.wnebyte.jcli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.annotation.Argument;
+import com.github.wnebyte.jcli.annotation.Command;
+import com.github.wnebyte.jcli.annotation.Inject;
+
+public class InvocationContextTest {
+
+    private static CLI newCLI() {
+        return new CLI(new Configuration()
+                .disableScanPackages()
+                .setScanClasses(InvocationContextTest.class, Injected.class)
+        );
+    }
+
+    private static InvocationContext newContext(ByteArrayOutputStream out, ByteArrayOutputStream err) {
+        return new InvocationContext(new PrintStream(out, true), new PrintStream(err, true));
+    }
+
+    @Test
+    public void testParameter00() {
+        CLI cli = newCLI();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int status = cli.accept("echo -s hello", newContext(out, err));
+        Assert.assertEquals(CLI.SUCCESS, status);
+        Assert.assertEquals("hello", out.toString().trim());
+        Assert.assertEquals(0, err.size());
+    }
+
+    @Test
+    public void testInject00() {
+        CLI cli = newCLI();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        InvocationContext ctx = newContext(out, err);
+        Assert.assertEquals(CLI.SUCCESS, cli.accept("count", ctx));
+        Assert.assertEquals(CLI.SUCCESS, cli.accept("count", ctx));
+        Assert.assertEquals(2, ctx.getAttribute("count"));
+        Assert.assertEquals("2", out.toString().trim().split("\\s+")[1]);
+    }
+
+    @Test
+    public void testIsolation00() throws Exception {
+        CLI cli = newCLI();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<String>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < 16; i++) {
+                final String s = "s" + i;
+                futures.add(executor.submit((Callable<String>) () -> {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    InvocationContext ctx = newContext(out, new ByteArrayOutputStream());
+                    for (int j = 0; j < 50; j++) {
+                        cli.accept("echo -s " + s, ctx);
+                    }
+                    return out.toString();
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                String[] lines = futures.get(i).get().trim().split("\\s+");
+                Assert.assertEquals(50, lines.length);
+                for (String line : lines) {
+                    Assert.assertEquals("s" + i, line);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailure00() {
+        CLI cli = newCLI();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int status = cli.accept("fail", newContext(out, err));
+        Assert.assertEquals(CLI.FAILURE, status);
+        Assert.assertTrue(err.toString().contains(UnsupportedOperationException.class.getName()));
+    }
+
+    @Test
+    public void testCancel00() {
+        CLI cli = newCLI();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        InvocationContext ctx = newContext(out, new ByteArrayOutputStream());
+        ctx.cancel();
+        Assert.assertEquals(CLI.CANCELLED, cli.accept("echo -s hello", ctx));
+        Assert.assertEquals(0, out.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testProxy00() {
+        InvocationContext.proxy().out();
+    }
+
+    @Command
+    public static void echo(
+            InvocationContext ctx,
+            @Argument(value = "-s")
+            String s
+    ) {
+        ctx.out().println(s);
+    }
+
+    @Command
+    public static void fail() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static class Injected {
+
+        @Inject
+        private InvocationContext ctx;
+
+        @Command
+        public void count() {
+            Integer count = (Integer) ctx.getAttribute("count");
+            count = (count == null) ? 1 : count + 1;
+            ctx.setAttribute("count", count);
+            ctx.out().println(count);
+        }
+    }
+}
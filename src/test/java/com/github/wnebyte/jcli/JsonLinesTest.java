@@ -0,0 +1,133 @@
+package com.github.wnebyte.jcli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.annotation.Argument;
+import com.github.wnebyte.jcli.annotation.Command;
+
+public class JsonLinesTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private CLI newCLI() {
+        return new CLI(new Configuration()
+                .disableScanPackages()
+                .setScanClasses(JsonLinesTest.class)
+                .setOut(new PrintStream(out, true))
+                .setErr(new PrintStream(err, true))
+                .enableJsonLines()
+        );
+    }
+
+    /*
+    the duration varies between runs.
+     */
+    private String[] lines() {
+        return out.toString().replaceAll("\"duration\":\\d+", "\"duration\":0").split("\n");
+    }
+
+    @Test
+    public void testResult00() {
+        CLI cli = newCLI();
+        cli.accept("add -a 1 -b 2");
+        cli.accept("name -s \"a b\"");
+        cli.accept("none");
+        String[] lines = lines();
+        Assert.assertEquals(3, lines.length);
+        Assert.assertEquals("{\"command\":\"add\",\"status\":0,\"duration\":0,\"payload\":3}", lines[0]);
+        Assert.assertEquals("{\"command\":\"name\",\"status\":0,\"duration\":0,\"payload\":\"a b\"}", lines[1]);
+        Assert.assertEquals("{\"command\":\"none\",\"status\":0,\"duration\":0,\"payload\":null}", lines[2]);
+        Assert.assertEquals(0, err.size());
+    }
+
+    @Test
+    public void testError00() {
+        CLI cli = newCLI();
+        cli.accept("add -a 1 -c 2");
+        cli.accept("add -a x -b 1");
+        cli.accept("fail");
+        cli.accept("foo");
+        String[] lines = lines();
+        Assert.assertEquals(4, lines.length);
+        Assert.assertTrue(lines[0].startsWith(
+                "{\"command\":\"add\",\"status\":2,\"duration\":0,\"payload\":null," +
+                        "\"error\":\"NoSuchArgumentException\",\"message\":"));
+        Assert.assertTrue(lines[1].contains("\"error\":\"TypeConversionException\""));
+        Assert.assertEquals(
+                "{\"command\":\"fail\",\"status\":1,\"duration\":0,\"payload\":null," +
+                        "\"error\":\"IllegalStateException\",\"message\":\"a \\\"message\\\"\"}", lines[2]);
+        Assert.assertTrue(lines[3].startsWith(
+                "{\"command\":null,\"status\":2,\"duration\":0,\"payload\":null," +
+                        "\"error\":\"UnknownCommandException\""));
+        Assert.assertEquals(0, err.size());
+    }
+
+    @Test
+    public void testHelp00() {
+        CLI cli = newCLI();
+        cli.accept("add --help");
+        String[] lines = lines();
+        Assert.assertEquals(1, lines.length);
+        Assert.assertTrue(lines[0].startsWith("{\"command\":\"add\",\"status\":0,\"duration\":0,\"payload\":\""));
+        Assert.assertTrue(lines[0].contains("adds two numbers"));
+    }
+
+    @Test
+    public void testReset00() {
+        CLI cli = newCLI();
+        try {
+            cli.accept("broken");
+            Assert.fail("expected an IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        out.reset();
+        // the line that was left incomplete does not affect the next one.
+        cli.accept("add -a 1 -b 2");
+        cli.accept("none");
+        String[] lines = lines();
+        Assert.assertEquals(2, lines.length);
+        Assert.assertEquals("{\"command\":\"add\",\"status\":0,\"duration\":0,\"payload\":3}", lines[0]);
+        Assert.assertEquals("{\"command\":\"none\",\"status\":0,\"duration\":0,\"payload\":null}", lines[1]);
+    }
+
+    @Command(description = "adds two numbers")
+    public static int add(
+            @Argument(value = "-a")
+            int a,
+            @Argument(value = "-b")
+            int b
+    ) {
+        return a + b;
+    }
+
+    @Command
+    public static String name(
+            @Argument(value = "-s")
+            String s
+    ) {
+        return s;
+    }
+
+    @Command
+    public static void none() { }
+
+    @Command
+    public static void fail() {
+        throw new IllegalStateException("a \"message\"");
+    }
+
+    @Command
+    public static Object broken() {
+        return new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException();
+            }
+        };
+    }
+}
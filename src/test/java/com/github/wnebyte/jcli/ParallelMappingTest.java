@@ -0,0 +1,109 @@
+package com.github.wnebyte.jcli;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.annotation.Argument;
+import com.github.wnebyte.jcli.annotation.Command;
+import com.github.wnebyte.jcli.annotation.Controller;
+import com.github.wnebyte.jcli.exception.IllegalAnnotationException;
+
+public class ParallelMappingTest {
+
+    private static Configuration conf(Class<?>... classes) {
+        return new Configuration()
+                .disableScanPackages()
+                .disableMapHelpCommand()
+                .setScanClasses(classes);
+    }
+
+    private static List<String> describe(CommandModel model) {
+        return model.getCommands().stream()
+                .map(cmd -> CommandModel.keyOf(cmd) + " " + cmd)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Method> methods(CommandModel model) {
+        return model.getCommands().stream()
+                .map(cmd -> ((com.github.wnebyte.jcli.Command) cmd).getMethod())
+                .collect(Collectors.toList());
+    }
+
+    private static String error(Configuration conf) {
+        try {
+            CommandModel.build(conf);
+            Assert.fail("expected an IllegalAnnotationException");
+            return null;
+        } catch (IllegalAnnotationException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Test
+    public void testIdentical00() {
+        CommandModel sequential = CommandModel.build(conf(Wide.class, Narrow.class));
+        CommandModel parallel = CommandModel.build(conf(Wide.class, Narrow.class).enableParallelMapping());
+        Assert.assertEquals(28, sequential.size());
+        Assert.assertEquals(describe(sequential), describe(parallel));
+        // Arguments compare their (per-instance) patterns by identity, so Commands are compared by method.
+        Assert.assertEquals(methods(sequential), methods(parallel));
+    }
+
+    @Test
+    public void testError00() {
+        String expected = error(conf(Wide.class, Dup1.class, Dup2.class));
+        Assert.assertTrue(expected, expected.contains("[add]"));
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals(expected, error(conf(Wide.class, Dup1.class, Dup2.class).enableParallelMapping()));
+        }
+    }
+
+    @Controller("wide")
+    public static class Wide {
+        @Command public void a0(@Argument(value = "-x") int x) { }
+        @Command public void a1(@Argument(value = "-x") int x) { }
+        @Command public void a2(@Argument(value = "-x") int x) { }
+        @Command public void a3(@Argument(value = "-x") int x) { }
+        @Command public void a4(@Argument(value = "-x") int x) { }
+        @Command public void a5(@Argument(value = "-x") int x) { }
+        @Command public void a6(@Argument(value = "-x") int x) { }
+        @Command public void a7(@Argument(value = "-x") int x) { }
+        @Command public void b0(@Argument(value = "-y") String y) { }
+        @Command public void b1(@Argument(value = "-y") String y) { }
+        @Command public void b2(@Argument(value = "-y") String y) { }
+        @Command public void b3(@Argument(value = "-y") String y) { }
+        @Command public void b4(@Argument(value = "-y") String y) { }
+        @Command public void b5(@Argument(value = "-y") String y) { }
+        @Command public void b6(@Argument(value = "-y") String y) { }
+        @Command public void b7(@Argument(value = "-y") String y) { }
+        @Command public void c0(@Argument(value = "-z") boolean z) { }
+        @Command public void c1(@Argument(value = "-z") boolean z) { }
+        @Command public void c2(@Argument(value = "-z") boolean z) { }
+        @Command public void c3(@Argument(value = "-z") boolean z) { }
+        @Command public void c4(@Argument(value = "-z") boolean z) { }
+        @Command public void c5(@Argument(value = "-z") boolean z) { }
+        @Command public void c6(@Argument(value = "-z") boolean z) { }
+        @Command public void c7(@Argument(value = "-z") boolean z) { }
+    }
+
+    public static class Narrow {
+        @Command public void add(@Argument(value = "-x", required = true) int x) { }
+        @Command public void rm() { }
+        @Command public static void ls() { }
+        @Command("--status, -s") public void status() { }
+    }
+
+    @Controller("dup")
+    public static class Dup1 {
+        @Command public void add() { }
+        @Command public void rm() { }
+    }
+
+    @Controller("dup")
+    public static class Dup2 {
+        @Command public void add() { }
+        @Command public void rm() { }
+    }
+}
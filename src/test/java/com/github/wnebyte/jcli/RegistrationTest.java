@@ -0,0 +1,169 @@
+package com.github.wnebyte.jcli;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.exception.IllegalAnnotationException;
+import com.github.wnebyte.jcli.processor.PostMappingFilter;
+
+public class RegistrationTest {
+
+    private static final int SIZE = 100_000;
+
+    private static AbstractCommand command(String prefix, String... names) {
+        return new AbstractCommand(prefix, new LinkedHashSet<>(Arrays.asList(names)), "", null) {
+            @Override
+            Object execute(Object[] args) {
+                return null;
+            }
+        };
+    }
+
+    /*
+    a quarter of the Commands are unprefixed, and the rest are spread over groups of up to three levels.
+     */
+    private static List<AbstractCommand> commands(int size) {
+        List<AbstractCommand> commands = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            switch (i % 4) {
+                case 0:
+                    commands.add(command("", "cmd" + i, "c" + i));
+                    break;
+                case 1:
+                    commands.add(command("g" + (i % 100), "cmd" + i));
+                    break;
+                case 2:
+                    commands.add(command("g" + (i % 100) + " n" + (i % 10), "cmd" + i));
+                    break;
+                default:
+                    commands.add(command("g" + (i % 100) + " n" + (i % 10) + " m", "cmd" + i));
+            }
+        }
+        return commands;
+    }
+
+    @Test
+    public void testSequential00() {
+        List<AbstractCommand> commands = commands(SIZE);
+        long start = System.nanoTime();
+        List<AbstractCommand> result = commands.stream()
+                .filter(new PostMappingFilter())
+                .collect(Collectors.toList());
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assert.assertEquals(SIZE, result.size());
+        Assert.assertTrue("took " + millis + " ms", millis < 1000);
+    }
+
+    @Test
+    public void testParallel00() {
+        List<AbstractCommand> commands = commands(SIZE);
+        List<AbstractCommand> result = commands.parallelStream()
+                .filter(new PostMappingFilter())
+                .collect(Collectors.toList());
+        Assert.assertEquals(commands, result);
+    }
+
+    @Test(expected = IllegalAnnotationException.class)
+    public void testParallel01() {
+        List<AbstractCommand> commands = commands(SIZE);
+        commands.add(command("g99 n9 m", "cmd" + (SIZE - 1)));
+        commands.parallelStream()
+                .filter(new PostMappingFilter())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testCollision00() {
+        assertCollides(command("", "a"), command("", "b", "a"));
+        assertCollides(command("g", "a"), command("g", "a"));
+        // a name can not also be a group, in either order.
+        assertCollides(command("", "g"), command("g", "a"));
+        assertCollides(command("g h", "a"), command("g", "h"));
+        assertCollides(command("g", "g"));
+        // the same name in different groups is fine.
+        PostMappingFilter filter = new PostMappingFilter();
+        Assert.assertTrue(filter.test(command("g", "a")));
+        Assert.assertTrue(filter.test(command("g h", "a")));
+        Assert.assertTrue(filter.test(command("", "a")));
+    }
+
+    @Test
+    public void testCollision01() {
+        PostMappingFilter filter = new PostMappingFilter();
+        Assert.assertTrue(filter.test(command("", "b")));
+        try {
+            filter.test(command("", "a", "b"));
+            Assert.fail("expected a collision");
+        } catch (IllegalAnnotationException e) {
+            // expected
+        }
+        // the rejected Command did not keep its name 'a'.
+        Assert.assertTrue(filter.test(command("", "a")));
+    }
+
+    @Test
+    public void testCollision02() throws Exception {
+        // two Commands that each claim the names of the other, in a new group, may both be rejected.
+        String[] names1 = new String[40], names2 = new String[40];
+        for (int i = 0; i < 20; i++) {
+            names1[i] = names2[i + 20] = "a" + i;
+            names1[i + 20] = names2[i] = "b" + i;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 1000; i++) {
+                PostMappingFilter filter = new PostMappingFilter();
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                AbstractCommand cmd1 = command("g h", names1);
+                AbstractCommand cmd2 = command("g h", names2);
+                Future<Boolean> f1 = executor.submit(() -> test(filter, barrier, cmd1));
+                Future<Boolean> f2 = executor.submit(() -> test(filter, barrier, cmd2));
+                if (!f1.get() && !f2.get()) {
+                    // the rejected Commands did not keep the group 'g h'.
+                    Assert.assertTrue(filter.test(command("g", "h")));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // but a rejected Command does not release the groups that registered Commands pass through.
+        PostMappingFilter filter = new PostMappingFilter();
+        Assert.assertTrue(filter.test(command("g h", "a")));
+        Assert.assertFalse(test(filter, null, command("g h", "b", "a")));
+        Assert.assertFalse(test(filter, null, command("", "g")));
+        Assert.assertFalse(test(filter, null, command("g", "h")));
+    }
+
+    private static boolean test(PostMappingFilter filter, CyclicBarrier barrier, AbstractCommand cmd)
+            throws Exception {
+        if (barrier != null) {
+            barrier.await();
+        }
+        try {
+            return filter.test(cmd);
+        } catch (IllegalAnnotationException e) {
+            return false;
+        }
+    }
+
+    private static void assertCollides(AbstractCommand... commands) {
+        PostMappingFilter filter = new PostMappingFilter();
+        try {
+            for (AbstractCommand cmd : commands) {
+                filter.test(cmd);
+            }
+            Assert.fail("expected a collision between: " + Arrays.toString(commands));
+        } catch (IllegalAnnotationException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.github.wnebyte.jcli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.annotation.Argument;
+import com.github.wnebyte.jcli.annotation.Command;
+import com.github.wnebyte.jcli.annotation.Controller;
+import com.github.wnebyte.jcli.annotation.Scope;
+import com.github.wnebyte.jcli.exception.ConfigException;
+import com.github.wnebyte.jcli.exception.IllegalAnnotationException;
+
+public class RuntimeRegistrationTest {
+
+    private static final AtomicInteger instances = new AtomicInteger();
+
+    private final PrintStream discard = new PrintStream(new ByteArrayOutputStream(), true);
+
+    private final CLI cli = new CLI(new Configuration()
+            .disableScanPackages()
+            .disableMapHelpCommand()
+            .setScanClasses(Local.class)
+            .setOut(discard)
+            .setErr(discard)
+    );
+
+    private int accept(String input) {
+        return cli.accept(input, discard, discard);
+    }
+
+    @Test
+    public void testRegister00() {
+        Feature feature = new Feature();
+        List<AbstractCommand> added = cli.register(feature);
+        Assert.assertEquals(2, added.size());
+        Assert.assertEquals(3, cli.getModel().size());
+        Assert.assertEquals(CLI.SUCCESS, accept("feature inc -n 2"));
+        Assert.assertEquals(CLI.SUCCESS, accept("feature inc -n 3"));
+        // the Commands are invoked on the registered object.
+        Assert.assertEquals(5, feature.count);
+    }
+
+    @Test
+    public void testRegister01() throws NoSuchMethodException {
+        CommandModel before = cli.getModel();
+        try {
+            cli.register(new Clash());
+            Assert.fail("expected an IllegalAnnotationException");
+        } catch (IllegalAnnotationException e) {
+            // expected
+        }
+        // nothing is added when any of the Commands collides.
+        Assert.assertSame(before, cli.getModel());
+        Assert.assertEquals(CLI.USAGE_ERROR, accept("noop"));
+
+        AbstractCommand cmd = cli.register(Clash.class.getMethod("noop"));
+        Assert.assertEquals("noop", cmd.getCanonicalName());
+        Assert.assertEquals(CLI.SUCCESS, accept("noop"));
+    }
+
+    @Test
+    public void testRegister02() {
+        Feature tracked = new Feature();
+        CLI cli = new CLI(CommandModel.build(new Configuration()
+                .disableScanPackages()
+                .disableMapHelpCommand()
+                .setScanClasses(Local.class)
+        ), new Configuration()
+                .setScanObjects(tracked)
+        );
+        try {
+            cli.register(new Feature());
+            Assert.fail("expected a ConfigException");
+        } catch (ConfigException e) {
+            // expected
+        }
+        Assert.assertEquals(1, cli.getModel().size());
+        // the tracked instance itself can be registered.
+        cli.register(tracked);
+        Assert.assertEquals(CLI.SUCCESS, cli.accept("feature inc -n 2", discard, discard));
+        Assert.assertEquals(2, tracked.count);
+    }
+
+    @Test
+    public void testUnregister00() throws NoSuchMethodException {
+        instances.set(0);
+        cli.register(Feature.class.getMethod("inc", int.class));
+        Assert.assertEquals(1, instances.get());
+        Assert.assertEquals(CLI.SUCCESS, accept("feature inc -n 1"));
+
+        Assert.assertTrue(cli.unregister("feature", "inc"));
+        Assert.assertFalse(cli.unregister("feature", "inc"));
+        Assert.assertFalse(cli.getModel().isPrefix("feature"));
+        Assert.assertEquals(CLI.USAGE_ERROR, accept("feature inc -n 1"));
+        Assert.assertEquals(CLI.SUCCESS, accept("status"));
+
+        // the released instance is not reused.
+        cli.register(Feature.class.getMethod("inc", int.class));
+        Assert.assertEquals(2, instances.get());
+        Assert.assertTrue(cli.unregister(null, "status"));
+        Assert.assertEquals(CLI.USAGE_ERROR, accept("status"));
+    }
+
+    @Test
+    public void testRegister03() throws NoSuchMethodException {
+        // every Command of a class that can not be instantiated is rejected, and not only the first.
+        for (String name : new String[] { "a", "b", "a" }) {
+            try {
+                cli.register(Unresolvable.class.getMethod(name));
+                Assert.fail("expected a ConfigException");
+            } catch (ConfigException e) {
+                // expected
+            }
+        }
+        Assert.assertEquals(1, cli.getModel().size());
+    }
+
+    @Test
+    public void testConcurrent00() throws InterruptedException {
+        AtomicBoolean done = new AtomicBoolean();
+        ConcurrentLinkedQueue<Object> unexpected = new ConcurrentLinkedQueue<>();
+        Thread[] readers = new Thread[4];
+
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(() -> {
+                while (!done.get()) {
+                    try {
+                        int status = accept("feature inc -n 1");
+                        if (status != CLI.SUCCESS && status != CLI.USAGE_ERROR) {
+                            unexpected.add(status);
+                        }
+                        if (accept("status") != CLI.SUCCESS) {
+                            unexpected.add("status");
+                        }
+                    } catch (RuntimeException e) {
+                        unexpected.add(e);
+                    }
+                }
+            });
+            readers[i].start();
+        }
+        for (int i = 0; i < 200; i++) {
+            cli.register(new Feature());
+            Assert.assertTrue(cli.unregister("feature", "inc"));
+            Assert.assertTrue(cli.unregister("feature", "reset"));
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        Assert.assertTrue(unexpected.toString(), unexpected.isEmpty());
+        Assert.assertEquals(1, cli.getModel().size());
+    }
+
+    public static class Local {
+
+        @Command
+        public void status() { }
+    }
+
+    @Controller("feature")
+    public static class Feature {
+
+        private int count;
+
+        public Feature() {
+            instances.incrementAndGet();
+        }
+
+        @Command
+        public void inc(
+                @Argument(value = "-n") int n
+        ) {
+            count += n;
+        }
+
+        @Command
+        public void reset() {
+            count = 0;
+        }
+    }
+
+    @Controller(value = "unresolvable", scope = Scope.TRANSIENT)
+    public static class Unresolvable {
+
+        public Unresolvable(Thread thread) { }
+
+        @Command
+        public void a() { }
+
+        @Command
+        public void b() { }
+    }
+
+    public static class Clash {
+
+        @Command
+        public void noop() { }
+
+        @Command
+        public void status() { }
+    }
+}
@@ -0,0 +1,166 @@
+package com.github.wnebyte.jcli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.annotation.Command;
+import com.github.wnebyte.jcli.annotation.Controller;
+import com.github.wnebyte.jcli.annotation.Scope;
+
+public class ScopeTest {
+
+    private static final Set<Object> seen = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    private static final AtomicInteger resets = new AtomicInteger();
+
+    private static volatile CountDownLatch latch;
+
+    private final PrintStream discard = new PrintStream(new ByteArrayOutputStream(), true);
+
+    private final CLI cli = new CLI(new Configuration()
+            .disableScanPackages()
+            .disableMapHelpCommand()
+            .setScanClasses(Pooled.class, PerThread.class)
+    );
+
+    private int accept(String input) {
+        return cli.accept(input, discard, discard);
+    }
+
+    @Test
+    public void testPooled00() {
+        seen.clear();
+        resets.set(0);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(CLI.SUCCESS, accept("pooled use"));
+        }
+        // sequential invocations reuse the idle instance, which is reset after every invocation.
+        Assert.assertEquals(1, seen.size());
+        Assert.assertEquals(10, resets.get());
+        Assert.assertEquals(CLI.FAILURE, accept("pooled fail"));
+        Assert.assertEquals(11, resets.get());
+    }
+
+    @Test
+    public void testPooled01() throws InterruptedException {
+        seen.clear();
+        latch = new CountDownLatch(3);
+        Thread[] threads = new Thread[3];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> accept("pooled await"));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // concurrent invocations are isolated from each other.
+        Assert.assertEquals(3, seen.size());
+
+        seen.clear();
+        latch = null;
+        for (int i = 0; i < 3; i++) {
+            accept("pooled use");
+        }
+        Assert.assertEquals(1, seen.size());
+    }
+
+    @Test
+    public void testThread00() throws InterruptedException {
+        seen.clear();
+        accept("thread use");
+        accept("thread use");
+        Assert.assertEquals(1, seen.size());
+
+        Thread thread = new Thread(() -> {
+            accept("thread use");
+            accept("thread use");
+        });
+        thread.start();
+        thread.join();
+        Assert.assertEquals(2, seen.size());
+    }
+
+    @Test
+    public void testThread01() throws NoSuchMethodException, InterruptedException {
+        CLI cli = new CLI(new Configuration()
+                .disableScanPackages()
+                .disableMapHelpCommand()
+        );
+        seen.clear();
+        cli.register(PerThread.class.getMethod("use"));
+        Thread thread = new Thread(() -> cli.accept("thread use", discard, discard));
+        thread.start();
+        thread.join();
+        Assert.assertEquals(CLI.SUCCESS, cli.accept("thread use", discard, discard));
+        Assert.assertEquals(2, seen.size());
+        // the instances of every thread are released along with the last Command of the class.
+        Assert.assertTrue(cli.unregister("thread", "use"));
+        cli.register(PerThread.class.getMethod("use"));
+        Assert.assertEquals(CLI.SUCCESS, cli.accept("thread use", discard, discard));
+        Assert.assertEquals(3, seen.size());
+    }
+
+    @Test
+    public void testPooled02() throws NoSuchMethodException {
+        CLI cli = new CLI(new Configuration()
+                .disableScanPackages()
+                .disableMapHelpCommand()
+        );
+        seen.clear();
+        latch = new CountDownLatch(1);
+        cli.register(Pooled.class.getMethod("use"));
+        Assert.assertEquals(CLI.SUCCESS, cli.accept("pooled use", discard, discard));
+        // Commands of the class that are registered later on share its pool.
+        cli.register(Pooled.class.getMethod("await"));
+        Assert.assertEquals(CLI.SUCCESS, cli.accept("pooled await", discard, discard));
+        Assert.assertEquals(1, seen.size());
+        latch = null;
+    }
+
+    @Controller(value = "pooled", scope = Scope.POOLED, poolSize = 2)
+    public static class Pooled implements Resettable {
+
+        private boolean used;
+
+        @Command
+        public void use() {
+            Assert.assertFalse("not reset", used);
+            used = true;
+            seen.add(this);
+        }
+
+        @Command
+        public void await() throws InterruptedException {
+            seen.add(this);
+            latch.countDown();
+            latch.await(10, TimeUnit.SECONDS);
+        }
+
+        @Command
+        public void fail() {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void reset() {
+            used = false;
+            resets.incrementAndGet();
+        }
+    }
+
+    @Controller(value = "thread", scope = Scope.THREAD)
+    public static class PerThread {
+
+        @Command
+        public void use() {
+            seen.add(this);
+        }
+    }
+}
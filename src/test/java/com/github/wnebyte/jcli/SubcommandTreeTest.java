@@ -0,0 +1,158 @@
+package com.github.wnebyte.jcli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.annotation.Argument;
+import com.github.wnebyte.jcli.annotation.Command;
+import com.github.wnebyte.jcli.annotation.Controller;
+import com.github.wnebyte.jcli.exception.IllegalAnnotationException;
+
+public class SubcommandTreeTest {
+
+    private static final AtomicReference<String> last = new AtomicReference<>();
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private final CLI cli = new CLI(new Configuration()
+            .disableScanPackages()
+            .setScanClasses(Local.class, Cluster.class, Cluster.Node.class, Pool.class)
+            .setOut(new PrintStream(out, true))
+            .setHelpFormatter(view -> view.getName())
+    );
+
+    private String run(String input) {
+        last.set(null);
+        cli.accept(input);
+        return last.get();
+    }
+
+    private List<String> help(String input) {
+        out.reset();
+        cli.accept(input);
+        return Arrays.stream(out.toString().split(System.lineSeparator()))
+                .filter(line -> !line.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testPrefix00() {
+        Assert.assertEquals("cluster node", cli.getModel().get("cluster node drain").getPrefix());
+        Assert.assertEquals(3, cli.getModel().get("cluster node drain").getDepth());
+        Assert.assertEquals("cluster pool", cli.getModel().get("cluster pool resize").getPrefix());
+        Assert.assertEquals(1, cli.getModel().get("status").getDepth());
+        Assert.assertTrue(cli.getModel().isPrefix("cluster"));
+        Assert.assertTrue(cli.getModel().isPrefix("cluster node"));
+        Assert.assertFalse(cli.getModel().isPrefix("node"));
+        Assert.assertNull(cli.getModel().get("cluster node"));
+        Assert.assertNull(cli.getModel().get("node drain"));
+    }
+
+    @Test
+    public void testDispatch00() {
+        Assert.assertEquals("status", run("status"));
+        Assert.assertEquals("cluster status", run("cluster status"));
+        Assert.assertEquals("cluster node drain false", run("cluster node drain"));
+        Assert.assertEquals("cluster node drain true", run("cluster node drain --force"));
+        Assert.assertEquals("cluster pool resize 3", run("cluster pool resize -s 3"));
+        Assert.assertNull(run("cluster node"));
+        Assert.assertNull(run("cluster drain"));
+    }
+
+    @Test
+    public void testHelp00() {
+        Assert.assertEquals(Arrays.asList("cluster node drain", "cluster node list"),
+                help("--help -f \"cluster node\""));
+        Assert.assertEquals(Arrays.asList("cluster node drain", "cluster node list",
+                "cluster pool resize", "cluster status"), help("--help -f cluster"));
+    }
+
+    @Test
+    public void testComplete00() {
+        Assert.assertEquals(Arrays.asList("node", "pool", "status"), cli.complete("cluster ", 8));
+        Assert.assertEquals(Arrays.asList("drain", "list"), cli.complete("cluster node ", 13));
+        Assert.assertEquals(Arrays.asList("--force", "-f"), cli.complete("cluster node drain ", 19));
+        Assert.assertEquals(Collections.emptyList(), cli.complete("cluster x ", 10));
+    }
+
+    @Test(expected = IllegalAnnotationException.class)
+    public void testCollision00() {
+        CommandModel.build(new Configuration()
+                .disableScanPackages()
+                .disableMapHelpCommand()
+                .setScanClasses(Cluster.Node.class, Clash.class));
+    }
+
+    @Test(expected = IllegalAnnotationException.class)
+    public void testCollision01() {
+        CommandModel.build(new Configuration()
+                .disableScanPackages()
+                .disableMapHelpCommand()
+                .setScanClasses(Pool.class, Duplicate.class));
+    }
+
+    public static class Local {
+
+        @Command
+        public void status() {
+            last.set("status");
+        }
+    }
+
+    @Controller("cluster")
+    public static class Cluster {
+
+        @Command
+        public void status() {
+            last.set("cluster status");
+        }
+
+        @Controller("node")
+        public static class Node {
+
+            @Command
+            public void drain(
+                    @Argument(value = "--force, -f") boolean force
+            ) {
+                last.set("cluster node drain " + force);
+            }
+
+            @Command
+            public void list() { }
+        }
+    }
+
+    @Controller("cluster  pool")
+    public static class Pool {
+
+        @Command
+        public void resize(
+                @Argument(value = "--size, -s") int size
+        ) {
+            last.set("cluster pool resize " + size);
+        }
+    }
+
+    /*
+    'node' is already a group of 'cluster'.
+     */
+    @Controller("cluster")
+    public static class Clash {
+
+        @Command
+        public void node() { }
+    }
+
+    @Controller("cluster pool")
+    public static class Duplicate {
+
+        @Command
+        public void resize() { }
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.wnebyte.jcli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.annotation.Argument;
+import com.github.wnebyte.jcli.annotation.Command;
+import com.github.wnebyte.jcli.annotation.Controller;
+import com.github.wnebyte.jcli.exception.UnknownCommandException;
+
+public class SuggestionTest {
+
+    private final AtomicReference<UnknownCommandException> caught = new AtomicReference<>();
+
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private final Configuration conf = new Configuration()
+            .disableScanPackages()
+            .setScanClasses(Local.class, Remote.class)
+            .setErr(new PrintStream(err, true));
+
+    private List<String> suggestionsFor(String input) {
+        CLI cli = new CLI(conf.setUnknownCommandFormatter(e -> {
+            caught.set(e);
+            return e.getMessage();
+        }));
+        cli.accept(input);
+        return caught.get().getSuggestions();
+    }
+
+    @Test
+    public void testSuggest00() {
+        Assert.assertEquals(Arrays.asList("commit"), suggestionsFor("comit -m hello"));
+        Assert.assertEquals(Arrays.asList("remote add"), suggestionsFor("remote ad -u x"));
+        Assert.assertEquals(Arrays.asList("remote add"), suggestionsFor("remot add"));
+        Assert.assertEquals(Collections.emptyList(), suggestionsFor("xyzzy"));
+    }
+
+    @Test
+    public void testDefaultFormatter00() {
+        new CLI(conf).accept("stats");
+        Assert.assertTrue(err.toString().contains("Did you mean: status?"));
+    }
+
+    public static class Local {
+
+        @Command
+        public void commit(
+                @Argument(value = "-m") String m
+        ) { }
+
+        @Command
+        public void status() { }
+    }
+
+    @Controller("remote")
+    public static class Remote {
+
+        @Command
+        public void add(
+                @Argument(value = "-u") String u
+        ) { }
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.wnebyte.jcli.apropos;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.CLI;
+import com.github.wnebyte.jcli.CommandModel;
+import com.github.wnebyte.jcli.Configuration;
+import com.github.wnebyte.jcli.annotation.Argument;
+import com.github.wnebyte.jcli.annotation.Command;
+import com.github.wnebyte.jcli.annotation.Controller;
+
+public class AproposTest {
+
+    private static CommandModel newModel(boolean apropos) {
+        Configuration conf = new Configuration()
+                .disableScanPackages()
+                .setScanClasses(Local.class, Remote.class);
+        return CommandModel.build(apropos ? conf.enableApropos() : conf);
+    }
+
+    private static List<String> keysOf(AproposIndex index, String query) {
+        return index.search(query, 0).stream()
+                .map(CommandModel::keyOf)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testTerms00() {
+        Assert.assertEquals(Arrays.asList("push", "a", "remote", "url2"), AproposIndex.terms("--push A remote-URL2!"));
+        Assert.assertTrue(AproposIndex.terms(null).isEmpty());
+    }
+
+    @Test
+    public void testSearch00() {
+        AproposIndex index = new AproposIndex();
+        index.addAll(newModel(false));
+        // a name outranks a description.
+        Assert.assertEquals(Arrays.asList("remote add", "commit"), keysOf(index, "remote"));
+        Assert.assertEquals(Arrays.asList("commit"), keysOf(index, "message"));
+        // prefixes of terms match too.
+        Assert.assertEquals(Arrays.asList("remote add", "commit"), keysOf(index, "rem"));
+        Assert.assertTrue(keysOf(index, "nothing").isEmpty());
+    }
+
+    @Test
+    public void testSearch01() {
+        AproposIndex index = new AproposIndex();
+        index.addAll(newModel(false));
+        // matching more terms ranks higher.
+        Assert.assertEquals("commit", keysOf(index, "commit staged changes").get(0));
+        Assert.assertEquals(1, index.search("remote", 1).size());
+    }
+
+    @Test
+    public void testDisabled00() {
+        Assert.assertNull(newModel(false).get("apropos"));
+        Assert.assertNotNull(newModel(true).get("apropos"));
+    }
+
+    @Test
+    public void testApropos00() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CLI cli = new CLI(newModel(true), new Configuration()
+                .setOut(new PrintStream(out, true)));
+        cli.accept("apropos url");
+        Assert.assertEquals("remote add - adds a remote", out.toString().trim());
+    }
+
+    @Test
+    public void testApropos01() throws NoSuchMethodException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CLI cli = new CLI(new Configuration()
+                .disableScanPackages()
+                .setScanClasses(Remote.class)
+                .enableApropos()
+                .setOut(new PrintStream(out, true)));
+        cli.accept("apropos \"staged changes\"");
+        Assert.assertEquals(0, out.size());
+        // the index is updated with the Commands that are registered and unregistered later on.
+        cli.register(Local.class.getMethod("commit", String.class));
+        cli.accept("apropos \"staged changes\"");
+        Assert.assertEquals("commit - records the staged changes", out.toString().trim());
+        out.reset();
+        Assert.assertTrue(cli.unregister(null, "commit"));
+        cli.accept("apropos \"staged changes\"");
+        Assert.assertEquals(0, out.size());
+    }
+
+    @Test
+    public void testRemove00() {
+        CommandModel model = newModel(false);
+        AproposIndex index = new AproposIndex();
+        index.addAll(model);
+        Assert.assertTrue(index.remove(model.get("remote add")));
+        Assert.assertFalse(index.remove(model.get("remote add")));
+        Assert.assertEquals(Arrays.asList("commit"), keysOf(index, "remote"));
+        Assert.assertEquals(model.size() - 1, index.size());
+        // the index is compacted once most of its Commands are removed.
+        Assert.assertTrue(index.remove(model.get("status")));
+        Assert.assertTrue(index.remove(model.get("--help")));
+        Assert.assertEquals(Arrays.asList("commit"), keysOf(index, "remote"));
+        index.update(model);
+        Assert.assertEquals(model.size(), index.size());
+        Assert.assertEquals(Arrays.asList("remote add", "commit"), keysOf(index, "remote"));
+    }
+
+    public static class Local {
+
+        @Command(description = "records the staged changes")
+        public void commit(
+                @Argument(value = "-m", description = "the message, e.g. why the remote changed") String m
+        ) { }
+
+        @Command(description = "shows the working tree status")
+        public void status() { }
+    }
+
+    @Controller("remote")
+    public static class Remote {
+
+        @Command(description = "adds a remote")
+        public void add(
+                @Argument(value = "url", required = true, description = "the url") String url
+        ) { }
+    }
+}
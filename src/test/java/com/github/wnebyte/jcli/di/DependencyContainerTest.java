@@ -1,6 +1,8 @@
 package com.github.wnebyte.jcli.di;
 
+import java.lang.reflect.InvocationTargetException;
 import com.github.wnebyte.jcli.annotation.Inject;
+import com.github.wnebyte.jcli.exception.ConfigException;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -25,6 +27,70 @@ public class DependencyContainerTest {
         Assert.assertEquals("hello", clsC.a);
     }
 
+    @Test
+    public void testNewInstance() throws ReflectiveOperationException {
+        IDependencyContainer dependencyContainer = new DependencyContainer();
+        Assert.assertFalse(dependencyContainer.canInstantiate(ClassD.class));
+        try {
+            dependencyContainer.newInstance(ClassD.class);
+            Assert.fail("expected an InstantiationException");
+        } catch (InstantiationException e) {
+            // expected
+        }
+
+        dependencyContainer.register(String.class, "hello");
+        dependencyContainer.register(Integer.class, 1);
+        Assert.assertTrue(dependencyContainer.canInstantiate(ClassD.class));
+        ClassD d1 = (ClassD) dependencyContainer.newInstance(ClassD.class);
+        ClassD d2 = (ClassD) dependencyContainer.newInstance(ClassD.class);
+        Assert.assertNotSame(d1, d2);
+        Assert.assertEquals("hello", d2.a);
+        Assert.assertEquals(Integer.valueOf(1), d2.b);
+
+        // the dependencies are resolved again once they change.
+        dependencyContainer.register(String.class, "there");
+        Assert.assertEquals("there", ((ClassD) dependencyContainer.newInstance(ClassD.class)).a);
+        dependencyContainer.unregister(Integer.class);
+        Assert.assertFalse(dependencyContainer.canInstantiate(ClassD.class));
+        try {
+            dependencyContainer.newInstance(ClassD.class);
+            Assert.fail("expected a ReflectiveOperationException");
+        } catch (ReflectiveOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testNewInstanceThrows() throws ReflectiveOperationException {
+        IDependencyContainer dependencyContainer = new DependencyContainer();
+        try {
+            dependencyContainer.newInstance(ClassE.class);
+            Assert.fail("expected an InvocationTargetException");
+        } catch (InvocationTargetException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        try {
+            dependencyContainer.newInstance(ClassF.class);
+            Assert.fail("expected an InstantiationException");
+        } catch (InstantiationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testStaticField() {
+        IDependencyContainer dependencyContainer = new DependencyContainer();
+        dependencyContainer.register(String.class, "hello");
+        try {
+            dependencyContainer.newInstance(ClassG.class);
+            Assert.fail("expected a ConfigException");
+        } catch (ConfigException e) {
+            Assert.assertEquals("Field: 'a' of Class: 'ClassG' is static, and can not be injected.", e.getMessage());
+        } catch (ReflectiveOperationException e) {
+            Assert.fail(e.toString());
+        }
+    }
+
     private static class ClassA {
 
         @Inject
@@ -54,4 +120,35 @@ public class DependencyContainerTest {
             this.a = a;
         }
     }
+
+    private static class ClassD {
+
+        private final String a;
+
+        @Inject
+        private Integer b;
+
+        @Inject
+        ClassD(String a) {
+            this.a = a;
+        }
+    }
+
+    private static class ClassE {
+
+        ClassE() {
+            throw new IllegalStateException();
+        }
+    }
+
+    private static class ClassF {
+
+        ClassF(int unrelated) { }
+    }
+
+    private static class ClassG {
+
+        @Inject
+        private static String a;
+    }
 }
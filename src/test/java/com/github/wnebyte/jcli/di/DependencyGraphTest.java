@@ -0,0 +1,313 @@
+package com.github.wnebyte.jcli.di;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.CLI;
+import com.github.wnebyte.jcli.Configuration;
+import com.github.wnebyte.jcli.annotation.Command;
+import com.github.wnebyte.jcli.annotation.Inject;
+import com.github.wnebyte.jcli.exception.ConfigException;
+
+public class DependencyGraphTest {
+
+    private static final long DELAY = 300;
+
+    private static final AtomicInteger repositories = new AtomicInteger();
+
+    @Test
+    public void testRecursive00() throws ReflectiveOperationException {
+        repositories.set(0);
+        IDependencyContainer container = new DependencyContainer();
+        container.register(String.class, "url");
+        Assert.assertTrue(container.canInstantiate(Orders.class));
+        Orders orders = (Orders) container.newInstance(Orders.class);
+        Users users = (Users) container.newInstance(Users.class);
+        Assert.assertEquals("url", orders.service.repository.url);
+        // an injectable is constructed once, and is then shared.
+        Assert.assertSame(orders.service, users.service);
+        Assert.assertEquals(1, repositories.get());
+
+        container.unregister(String.class);
+        Assert.assertTrue(container.canInstantiate(Orders.class));
+        Assert.assertFalse(new DependencyContainer().canInstantiate(Orders.class));
+    }
+
+    @Test
+    public void testRelease00() throws ReflectiveOperationException {
+        repositories.set(0);
+        IDependencyContainer container = new DependencyContainer();
+        container.register(String.class, "url");
+        Orders orders = (Orders) container.newInstance(Orders.class);
+        Users users = (Users) container.newInstance(Users.class);
+
+        // the injectables are kept while any class depends on them.
+        container.release(Orders.class);
+        Assert.assertSame(users.service, ((Orders) container.newInstance(Orders.class)).service);
+        container.release(Orders.class);
+        container.release(Users.class);
+        Orders other = (Orders) container.newInstance(Orders.class);
+        Assert.assertNotSame(orders.service, other.service);
+        Assert.assertEquals(2, repositories.get());
+    }
+
+    @Test
+    public void testRoots00() throws ReflectiveOperationException {
+        IDependencyContainer container = new DependencyContainer();
+        container.register(String.class, "url");
+        Map<Class<?>, Object> instances = container.newInstances(Arrays.asList(Orders.class, Users.class), null);
+        Assert.assertSame(((Orders) instances.get(Orders.class)).service, ((Users) instances.get(Users.class)).service);
+        // the roots themselves are not kept.
+        Assert.assertNotSame(instances.get(Orders.class), ((Report) container.newInstance(Report.class)).orders);
+    }
+
+    @Test
+    public void testCycle00() {
+        IDependencyContainer container = new DependencyContainer();
+        Assert.assertFalse(container.canInstantiate(A.class));
+        try {
+            container.newInstances(Arrays.asList(Root.class, A.class), null);
+            Assert.fail("expected an InstantiationException");
+        } catch (ReflectiveOperationException e) {
+            Assert.assertEquals("Dependency cycle: A -> B -> C -> A.", e.getMessage());
+        }
+        try {
+            container.newInstance(A.class);
+            Assert.fail("expected an InstantiationException");
+        } catch (ReflectiveOperationException e) {
+            Assert.assertEquals("Dependency cycle: A -> B -> C -> A.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testParallel00() throws ReflectiveOperationException, InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            IDependencyContainer container = new DependencyContainer();
+            long start = System.nanoTime();
+            Map<Class<?>, Object> instances = container.newInstances(
+                    Arrays.asList(Slow3.class, Joined.class), pool);
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            Assert.assertEquals(2, instances.size());
+            // the three independent classes are constructed at once, and then the class that depends on them.
+            Assert.assertTrue("took " + millis + " ms", millis < 3 * DELAY);
+            Joined joined = (Joined) instances.get(Joined.class);
+            Joined other = (Joined) container.newInstance(Joined.class);
+            Assert.assertSame(joined.slow1, other.slow1);
+            Assert.assertSame(joined.slow2, other.slow2);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrent00() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            IDependencyContainer container = new DependencyContainer();
+            long start = System.nanoTime();
+            Future<?> f1 = pool.submit(() -> container.newInstance(Joined.class));
+            Future<?> f2 = pool.submit(() -> container.newInstance(Joined.class));
+            Future<?> f3 = pool.submit(() -> container.newInstance(Single.class));
+            Joined joined = (Joined) f1.get();
+            Object single = f3.get();
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // unrelated injectables are constructed at once, but each of them only once.
+            Assert.assertTrue("took " + millis + " ms", millis < 3 * DELAY);
+            Assert.assertSame(joined.slow1, ((Joined) f2.get()).slow1);
+            Assert.assertSame(joined.slow2, ((Joined) f2.get()).slow2);
+            Assert.assertSame(((Single) single).slow3, ((Single) container.newInstance(Single.class)).slow3);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testCLI00() {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            CLI cli = new CLI(new Configuration()
+                    .disableScanPackages()
+                    .disableMapHelpCommand()
+                    .setScanClasses(Orders.class, Users.class)
+                    .registerDependency(String.class, "url")
+                    .setInitializationExecutor(pool));
+            Assert.assertEquals(CLI.SUCCESS, cli.accept("orders", System.out, System.err));
+        } finally {
+            pool.shutdown();
+        }
+        try {
+            new CLI(new Configuration()
+                    .disableScanPackages()
+                    .disableMapHelpCommand()
+                    .setScanClasses(Root.class));
+            Assert.fail("expected a ConfigException");
+        } catch (ConfigException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Dependency cycle"));
+        }
+    }
+
+    @Test
+    public void testChild00() throws ReflectiveOperationException {
+        DependencyContainer parent = new DependencyContainer();
+        DependencyContainer child = new DependencyContainer(parent);
+        child.register(Service.class, new Service());
+        Assert.assertFalse(child.canInstantiate(Repository.class));
+
+        // dependencies registered with the parent later on are injected by the child.
+        parent.register(String.class, "url");
+        Assert.assertEquals("url", ((Repository) child.newInstance(Repository.class)).url);
+        child.register(String.class, "child");
+        Assert.assertEquals("child", ((Repository) child.newInstance(Repository.class)).url);
+        Assert.assertEquals("url", ((Repository) parent.newInstance(Repository.class)).url);
+        // the parent does not see the dependencies registered with the child.
+        Assert.assertNotSame(
+                ((Orders) child.newInstance(Orders.class)).service, ((Orders) parent.newInstance(Orders.class)).service
+        );
+    }
+
+    @Test
+    public void testCLI01() {
+        Configuration conf = new Configuration()
+                .disableScanPackages()
+                .disableMapHelpCommand()
+                .setScanClasses(Shell.class);
+        CLI cli = new CLI(conf);
+        Assert.assertEquals(CLI.SUCCESS, cli.accept("shell", System.out, System.err));
+        // the dependencies of the CLI are not registered with the container of the Configuration.
+        Assert.assertFalse(conf.getDependencyContainer().canInstantiate(Shell.class));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(DELAY);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class Repository {
+
+        private final String url;
+
+        @Inject
+        Repository(String url) {
+            this.url = url;
+            repositories.incrementAndGet();
+        }
+    }
+
+    public static class Service {
+
+        @Inject
+        private Repository repository;
+
+        @Inject
+        Service() { }
+    }
+
+    public static class Orders {
+
+        private final Service service;
+
+        @Inject
+        public Orders(Service service) {
+            this.service = service;
+        }
+
+        @Command
+        public void orders() {
+            Assert.assertNotNull(service.repository);
+        }
+    }
+
+    public static class Users {
+
+        @Inject
+        private Service service;
+
+        @Command
+        public void users() { }
+    }
+
+    public static class Report {
+
+        @Inject
+        private Orders orders;
+    }
+
+    public static class Shell {
+
+        private final CLI cli;
+
+        @Inject
+        public Shell(CLI cli) {
+            this.cli = cli;
+        }
+
+        @Command
+        public void shell() {
+            Assert.assertNotNull(cli);
+        }
+    }
+
+    public static class A {
+        @Inject A(B b) { }
+    }
+
+    public static class B {
+        @Inject B(C c) { }
+    }
+
+    public static class C {
+        @Inject C(A a) { }
+    }
+
+    public static class Root {
+
+        @Inject
+        private A a;
+
+        @Command
+        public void root() { }
+    }
+
+    public static class Slow1 {
+        @Inject Slow1() { sleep(); }
+    }
+
+    public static class Slow2 {
+        @Inject Slow2() { sleep(); }
+    }
+
+    public static class Slow3 {
+        @Inject Slow3() { sleep(); }
+    }
+
+    public static class Single {
+
+        @Inject
+        private Slow3 slow3;
+    }
+
+    public static class Joined {
+
+        private final Slow1 slow1;
+
+        private final Slow2 slow2;
+
+        @Inject
+        Joined(Slow1 slow1, Slow2 slow2) {
+            this.slow1 = slow1;
+            this.slow2 = slow2;
+        }
+    }
+}
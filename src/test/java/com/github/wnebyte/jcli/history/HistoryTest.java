@@ -0,0 +1,141 @@
+package com.github.wnebyte.jcli.history;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.CLI;
+import com.github.wnebyte.jcli.Configuration;
+
+public class HistoryTest {
+
+    private Path file;
+
+    @Before
+    public void before() throws IOException {
+        file = Files.createTempFile("jcli-history", ".ring");
+        Files.delete(file);
+    }
+
+    @After
+    public void after() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testAppend00() throws IOException {
+        try (History history = new History(file)) {
+            Assert.assertTrue(history.append("commit -m a"));
+            Assert.assertTrue(history.append("status"));
+            Assert.assertFalse(history.append("status"));
+            Assert.assertFalse(history.append(""));
+            Assert.assertTrue(history.append("commit -m b"));
+            Assert.assertEquals(3, history.size());
+            Assert.assertEquals(Arrays.asList("commit -m b", "status", "commit -m a"), history.recent(0));
+            Assert.assertEquals(Arrays.asList("commit -m b"), history.recent(1));
+        }
+    }
+
+    @Test
+    public void testSearch00() throws IOException {
+        try (History history = new History(file)) {
+            history.append("commit -m a");
+            history.append("status");
+            history.append("commit -m \u00e5\u00e4\u00f6");
+            Assert.assertEquals(Arrays.asList("commit -m \u00e5\u00e4\u00f6", "commit -m a"),
+                    history.startingWith("commit", 0));
+            Assert.assertEquals(Arrays.asList("commit -m \u00e5\u00e4\u00f6"), history.containing("\u00e4", 0));
+            Assert.assertEquals(Arrays.asList("status"), history.containing("tat", 0));
+            Assert.assertEquals(Collections.emptyList(), history.startingWith("push", 0));
+        }
+    }
+
+    @Test
+    public void testWrap00() throws IOException {
+        // room for 4 records of 8 bytes, each with 8 bytes of overhead.
+        try (History history = new History(file, 70)) {
+            for (int i = 0; i < 10; i++) {
+                history.append("line-00" + i);
+            }
+            Assert.assertEquals(4, history.size());
+            Assert.assertEquals(Arrays.asList("line-009", "line-008", "line-007", "line-006"), history.recent(0));
+            Assert.assertFalse(history.append(new String(new char[100]).replace('\0', 'x')));
+        }
+    }
+
+    @Test
+    public void testReopen00() throws IOException {
+        try (History history = new History(file, 70)) {
+            for (int i = 0; i < 7; i++) {
+                history.append("line-00" + i);
+            }
+        }
+        // the capacity of an existing file is kept.
+        try (History history = new History(file, 1024)) {
+            Assert.assertEquals(70, history.getCapacity());
+            Assert.assertEquals(Arrays.asList("line-006", "line-005", "line-004", "line-003"), history.recent(0));
+            history.append("line-007");
+            Assert.assertEquals("line-007", history.recent(1).get(0));
+        }
+    }
+
+    @Test
+    public void testDamaged00() throws IOException {
+        // a negative length, a length reaching past the tail, and a length that its record does not agree with.
+        for (int len : new int[] { -5, Integer.MAX_VALUE, 14, 0 }) {
+            Files.deleteIfExists(file);
+            try (History history = new History(file, 70)) {
+                history.append("one");
+                history.append("two");
+                history.append("three");
+            }
+            // the trailing length of "two" is at 11 + 4 + 3 in the ring, which follows a header of 32 bytes.
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write((ByteBuffer) ByteBuffer.allocate(4).putInt(len).flip(), 32 + 18);
+            }
+            try (History history = new History(file, 70)) {
+                Assert.assertEquals(1, history.size());
+                Assert.assertEquals(Arrays.asList("three"), history.recent(0));
+                for (int i = 0; i < 10; i++) {
+                    history.append("line-00" + i);
+                }
+                Assert.assertEquals(4, history.size());
+                Assert.assertEquals(Arrays.asList("line-009", "line-008", "line-007", "line-006"), history.recent(0));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotHistory00() throws IOException {
+        Files.write(file, new byte[64]);
+        new History(file).close();
+    }
+
+    @Test
+    public void testRun00() throws IOException {
+        try (History history = new History(file)) {
+            byte[] in = "foo\n\nbar -n 1\n".getBytes(StandardCharsets.UTF_8);
+            CLI cli = new CLI(new Configuration()
+                    .disableScanPackages()
+                    .setScanClasses(HistoryTest.class)
+                    .setIn(new ByteArrayInputStream(in))
+                    .setErr(new PrintStream(new ByteArrayOutputStream()))
+                    .setHistory(history)
+            );
+            cli.run();
+            Assert.assertEquals(Arrays.asList("bar -n 1", "foo"), history.recent(0));
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.github.wnebyte.jcli.journal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.CLI;
+import com.github.wnebyte.jcli.Configuration;
+import com.github.wnebyte.jcli.annotation.Argument;
+import com.github.wnebyte.jcli.annotation.Command;
+import com.github.wnebyte.jcli.protocol.BinaryRequest;
+
+public class JournalTest {
+
+    private static final List<Integer> STATE = new ArrayList<>();
+
+    private static final List<String> TEXTS = new ArrayList<>();
+
+    private Path dir;
+
+    @Before
+    public void before() throws IOException {
+        dir = Files.createTempDirectory("jcli-journal");
+        STATE.clear();
+        TEXTS.clear();
+    }
+
+    @After
+    public void after() throws IOException {
+        try (Stream<Path> stream = Files.walk(dir)) {
+            stream.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static List<String> records(Path path) throws IOException {
+        List<String> records = new ArrayList<>();
+        Journal.read(path, records::add);
+        return records;
+    }
+
+    @Test
+    public void testAppend00() throws IOException {
+        try (Journal journal = new Journal(dir, FsyncPolicy.always())) {
+            journal.append("a");
+            journal.append("b -n 1");
+        }
+        Assert.assertEquals(Arrays.asList("a", "b -n 1"), records(dir));
+    }
+
+    @Test
+    public void testAppend01() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try (Journal journal = new Journal(dir, FsyncPolicy.always())) {
+            for (int i = 0; i < 400; i++) {
+                final String record = "record " + i;
+                executor.execute(() -> journal.append(record));
+            }
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+        List<String> records = records(dir);
+        Assert.assertEquals(400, records.size());
+        Assert.assertEquals(400, records.stream().distinct().count());
+    }
+
+    @Test
+    public void testInterval00() throws IOException {
+        try (Journal journal = new Journal(dir, FsyncPolicy.everyMillis(10_000))) {
+            journal.append("a");
+            Assert.assertEquals(0, records(dir).size());
+            journal.sync();
+            Assert.assertEquals(1, records(dir).size());
+            journal.append("b");
+        }
+        Assert.assertEquals(Arrays.asList("a", "b"), records(dir));
+    }
+
+    @Test
+    public void testSegments00() throws IOException {
+        try (Journal journal = new Journal(dir, FsyncPolicy.never(), 16)) {
+            for (int i = 0; i < 10; i++) {
+                journal.append("record " + i);
+            }
+        }
+        // every segment holds two records, and a new one is started once it is full.
+        Assert.assertEquals(6, Journal.segments(dir).size());
+        // reopening starts a new segment instead of appending to an existing one.
+        try (Journal journal = new Journal(dir, FsyncPolicy.never(), 16)) {
+            journal.append("record 10");
+        }
+        List<String> records = records(dir);
+        Assert.assertEquals(11, records.size());
+        Assert.assertEquals("record 10", records.get(10));
+    }
+
+    @Test
+    public void testTornRecord00() throws IOException {
+        try (Journal journal = new Journal(dir)) {
+            journal.append("a");
+        }
+        Path segment = Journal.segments(dir).get(0);
+        Files.write(segment, "b -n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        Assert.assertEquals(Arrays.asList("a"), records(dir));
+    }
+
+    @Test
+    public void testReplay00() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (Journal journal = new Journal(dir)) {
+            CLI cli = new CLI(new Configuration()
+                    .disableScanPackages()
+                    .setScanClasses(JournalTest.class)
+                    .setOut(new PrintStream(out, true))
+                    .setJournal(journal)
+            );
+            cli.accept("push -n 1");
+            cli.accept("push -n x");
+            cli.accept("push --help");
+            cli.accept("push -n 2");
+        }
+        Assert.assertEquals(Arrays.asList("push -n 1", "push -n 2"), records(dir));
+        Assert.assertEquals(Arrays.asList(1, 2), STATE);
+
+        STATE.clear();
+        out.reset();
+        CLI cli = new CLI(new Configuration()
+                .disableScanPackages()
+                .setScanClasses(JournalTest.class)
+                .setOut(new PrintStream(out, true))
+        );
+        Assert.assertEquals(2, cli.replay(dir));
+        Assert.assertEquals(Arrays.asList(1, 2), STATE);
+        Assert.assertEquals(0, out.size());
+    }
+
+    @Test
+    public void testJoin00() {
+        List<String> words = Arrays.asList("a", "b c", "", "d\"e", "f'g", "h\\i", "j\nk\rl", "-n");
+        String record = Journal.join(words);
+        Assert.assertEquals(-1, record.indexOf('\n'));
+        Assert.assertEquals(-1, record.indexOf('\r'));
+        Assert.assertEquals(words, Journal.split(record));
+        Assert.assertEquals("a -n 1", Journal.join(Arrays.asList("a", "-n", "1")));
+        Assert.assertEquals(Arrays.asList("a b", "c"), Journal.split("'a b'  c"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSplit00() {
+        Journal.split("a \"b");
+    }
+
+    @Test
+    public void testReplay01() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (Journal journal = new Journal(dir)) {
+            CLI cli = new CLI(new Configuration()
+                    .disableScanPackages()
+                    .setScanClasses(JournalTest.class)
+                    .setOut(new PrintStream(out, true))
+                    .setJournal(journal)
+            );
+            cli.accept(BinaryRequest.encode("echo", "a \"b\" 'c'"));
+            cli.accept(BinaryRequest.encode(cli.idOf("echo"), "d\ne"));
+            cli.accept("echo \"f g\"");
+            cli.accept("--help");
+        }
+        Assert.assertEquals(Arrays.asList("echo \"a \\\"b\\\" 'c'\"", "echo \"d\\ne\"", "echo \"f g\""), records(dir));
+        Assert.assertEquals(Arrays.asList("a \"b\" 'c'", "d\ne", "f g"), TEXTS);
+
+        TEXTS.clear();
+        CLI cli = new CLI(new Configuration()
+                .disableScanPackages()
+                .setScanClasses(JournalTest.class)
+                .setOut(new PrintStream(out, true))
+        );
+        Assert.assertEquals(3, cli.replay(dir));
+        Assert.assertEquals(Arrays.asList("a \"b\" 'c'", "d\ne", "f g"), TEXTS);
+    }
+
+    @Command
+    public static void echo(
+            @Argument(required = true)
+            String text
+    ) {
+        TEXTS.add(text);
+    }
+
+    @Command
+    public static void push(
+            @Argument(value = "-n")
+            int n
+    ) {
+        STATE.add(n);
+    }
+}
@@ -0,0 +1,260 @@
+package com.github.wnebyte.jcli.plugin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.AbstractCommand;
+import com.github.wnebyte.jcli.CLI;
+import com.github.wnebyte.jcli.Command;
+import com.github.wnebyte.jcli.Configuration;
+
+public class PluginLoaderTest {
+
+    private static final String SOURCE =
+            "package plugin;%n" +
+            "import com.github.wnebyte.jcli.InvocationContext;%n" +
+            "import com.github.wnebyte.jcli.annotation.Command;%n" +
+            "import com.github.wnebyte.jcli.annotation.Controller;%n" +
+            "@Controller(\"%s\")%n" +
+            "public class Greeter {%n" +
+            "    @Command%n" +
+            "    public void hello(InvocationContext ctx) { ctx.out().println(\"%s\"); }%n" +
+            "}%n";
+
+    /*
+    a Greeter whose output is held by an injectable, which the container constructs.
+     */
+    private static final String INJECTED_SOURCE =
+            "package plugin;%n" +
+            "import com.github.wnebyte.jcli.InvocationContext;%n" +
+            "import com.github.wnebyte.jcli.annotation.Command;%n" +
+            "import com.github.wnebyte.jcli.annotation.Controller;%n" +
+            "import com.github.wnebyte.jcli.annotation.Inject;%n" +
+            "@Controller(\"%s\")%n" +
+            "public class Greeter {%n" +
+            "    private final Greeting greeting;%n" +
+            "    @Inject public Greeter(Greeting greeting) { this.greeting = greeting; }%n" +
+            "    @Command%n" +
+            "    public void hello(InvocationContext ctx) { ctx.out().println(greeting.text); }%n" +
+            "}%n" +
+            "class Greeting {%n" +
+            "    final String text = \"%s\";%n" +
+            "    @Inject Greeting() { }%n" +
+            "}%n";
+
+    private final PrintStream discard = new PrintStream(new ByteArrayOutputStream(), true);
+
+    private final CLI cli = new CLI(new Configuration()
+            .disableScanPackages()
+            .disableMapHelpCommand()
+            .setErr(discard)
+    );
+
+    private Path dir;
+
+    private Path work;
+
+    @Before
+    public void before() throws IOException {
+        dir = Files.createTempDirectory("jcli-plugin-dir");
+        work = Files.createTempDirectory("jcli-plugin-work");
+    }
+
+    @After
+    public void after() throws IOException {
+        for (Path path : Arrays.asList(dir, work)) {
+            try (Stream<Path> paths = Files.walk(path)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    /*
+    compiles a Greeter controller with the specified prefix and output into a jar.
+     */
+    private Path jar(String name, String prefix, String output) throws IOException {
+        return jar(name, SOURCE, prefix, output);
+    }
+
+    private Path jar(String name, String source, String prefix, String output) throws IOException {
+        Path src = Files.createDirectories(work.resolve(name).resolve("plugin"));
+        Path file = src.resolve("Greeter.java");
+        Files.write(file, String.format(source, prefix, output).getBytes(StandardCharsets.UTF_8));
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        int status = javac.run(null, null, null,
+                "-classpath", System.getProperty("java.class.path"), "-d", src.getParent().toString(), file.toString());
+        Assert.assertEquals(0, status);
+
+        Path jar = work.resolve(name + ".jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+             DirectoryStream<Path> classes = Files.newDirectoryStream(src, "*.class")) {
+            for (Path cls : classes) {
+                out.putNextEntry(new JarEntry("plugin/" + cls.getFileName()));
+                Files.copy(cls, out);
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private String run(String input) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cli.accept(input, new PrintStream(out, true), discard);
+        return out.toString().trim();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue("timed out", System.currentTimeMillis() < deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    public void testLoad00() throws IOException {
+        try (PluginLoader loader = new PluginLoader(cli, dir)) {
+            Path jar = Files.copy(jar("v1", "greet", "hello v1"), dir.resolve("greeter.jar"));
+            Assert.assertEquals(1, loader.load(jar).size());
+            Assert.assertEquals("hello v1", run("greet hello"));
+
+            Files.copy(jar("v2", "greet", "hello v2"), jar, StandardCopyOption.REPLACE_EXISTING);
+            loader.load(jar);
+            Assert.assertEquals("hello v2", run("greet hello"));
+            Assert.assertEquals(1, cli.getModel().size());
+
+            Assert.assertTrue(loader.unload(jar));
+            Assert.assertFalse(loader.unload(jar));
+            Assert.assertEquals(0, cli.getModel().size());
+        }
+    }
+
+    @Test
+    public void testRelease00() throws IOException, InterruptedException {
+        try (PluginLoader loader = new PluginLoader(cli, dir)) {
+            Path jar = Files.copy(jar("v1", "greet", "hello v1"), dir.resolve("greeter.jar"));
+            WeakReference<ClassLoader> ref = loadAndRun(loader, jar);
+            Assert.assertTrue(loader.unload(jar));
+
+            for (int i = 0; i < 20 && ref.get() != null; i++) {
+                System.gc();
+                Thread.sleep(50);
+            }
+            Assert.assertNull("the ClassLoader of an unloaded plugin is retained", ref.get());
+        }
+    }
+
+    @Test
+    public void testRelease01() throws IOException, InterruptedException {
+        try (PluginLoader loader = new PluginLoader(cli, dir)) {
+            Path jar = Files.copy(jar("v1", INJECTED_SOURCE, "greet", "hello v1"), dir.resolve("greeter.jar"));
+            WeakReference<ClassLoader> ref = loadAndRun(loader, jar);
+            Assert.assertTrue(loader.unload(jar));
+
+            for (int i = 0; i < 20 && ref.get() != null; i++) {
+                System.gc();
+                Thread.sleep(50);
+            }
+            Assert.assertNull("the ClassLoader of an unloaded plugin with injectables is retained", ref.get());
+        }
+    }
+
+    private WeakReference<ClassLoader> loadAndRun(PluginLoader loader, Path jar) throws IOException {
+        List<AbstractCommand> commands = loader.load(jar);
+        Assert.assertEquals("hello v1", run("greet hello"));
+        run("--help");
+        return new WeakReference<>(((Command) commands.get(0)).getMethod().getDeclaringClass().getClassLoader());
+    }
+
+    @Test
+    public void testWatch00() throws IOException, InterruptedException {
+        Path v1 = jar("v1", "greet", "hello v1");
+        Files.copy(v1, dir.resolve("a.jar"));
+
+        try (PluginLoader loader = new PluginLoader(cli, dir)) {
+            loader.start();
+            // jars that exist when started are loaded at once.
+            Assert.assertEquals("hello v1", run("greet hello"));
+
+            Path b = jar("b", "wave", "wave");
+            Files.copy(b, work.resolve("tmp.jar"));
+            Files.move(work.resolve("tmp.jar"), dir.resolve("b.jar"));
+            await(() -> cli.getModel().isPrefix("wave"));
+            Assert.assertEquals("wave", run("wave hello"));
+
+            Files.delete(dir.resolve("a.jar"));
+            await(() -> !cli.getModel().isPrefix("greet"));
+            Assert.assertEquals(1, loader.getPlugins().size());
+        }
+        // closing the loader unloads every plugin.
+        Assert.assertEquals(0, cli.getModel().size());
+    }
+
+    @Test
+    public void testWatch01() throws IOException, InterruptedException {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        CLI cli = new CLI(new Configuration()
+                .disableScanPackages()
+                .disableMapHelpCommand()
+                .setErr(new PrintStream(err, true))
+        );
+        byte[] bytes = Files.readAllBytes(jar("v1", "greet", "hello v1"));
+        Path shadowDir;
+
+        try (PluginLoader loader = new PluginLoader(cli, dir)) {
+            loader.start();
+            shadowDir = loader.getShadowDirectory();
+            // a jar that is written in a number of steps is only loaded once it has been written.
+            try (OutputStream out = Files.newOutputStream(dir.resolve("greeter.jar"))) {
+                int step = bytes.length / 4 + 1;
+                for (int i = 0; i < bytes.length; i += step) {
+                    out.write(bytes, i, Math.min(step, bytes.length - i));
+                    out.flush();
+                    Thread.sleep(100);
+                }
+            }
+            await(() -> cli.getModel().isPrefix("greet"));
+            Assert.assertEquals("", err.toString());
+            Assert.assertTrue(Files.isDirectory(shadowDir));
+        }
+        // closing the loader deletes the copies of the jars, and their directory.
+        Assert.assertFalse(Files.exists(shadowDir));
+    }
+
+    @Test
+    public void testBroken00() throws IOException {
+        try (PluginLoader loader = new PluginLoader(cli, dir)) {
+            Path jar = Files.copy(jar("v1", "greet", "hello v1"), dir.resolve("greeter.jar"));
+            loader.load(jar);
+            Files.write(jar, new byte[] { 1, 2, 3 });
+            try {
+                loader.load(jar);
+                Assert.fail("expected an IOException");
+            } catch (IOException e) {
+                // expected
+            }
+            // the previously loaded version remains loaded.
+            Assert.assertEquals("hello v1", run("greet hello"));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.wnebyte.jcli.protocol;
+
+import java.util.Arrays;
+import java.nio.ByteBuffer;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.CLI;
+import com.github.wnebyte.jcli.Configuration;
+import com.github.wnebyte.jcli.annotation.Argument;
+import com.github.wnebyte.jcli.annotation.Command;
+import com.github.wnebyte.jcli.exception.MalformedRequestException;
+
+public class BinaryRequestTest {
+
+    private static String value;
+
+    @Test
+    public void testRoundTrip00() {
+        BinaryRequest req = BinaryRequest.decode(BinaryRequest.encode(7, "-n", "1"));
+        Assert.assertTrue(req.hasId());
+        Assert.assertEquals(7, req.getId());
+        Assert.assertEquals(Arrays.asList("-n", "1"), req.getTokens());
+    }
+
+    @Test
+    public void testRoundTrip01() {
+        BinaryRequest req = BinaryRequest.decode(BinaryRequest.encode("foo", "-s", "hello there"));
+        Assert.assertFalse(req.hasId());
+        Assert.assertEquals("foo", req.getName());
+        Assert.assertEquals(Arrays.asList("-s", "hello there"), req.getTokens());
+    }
+
+    @Test(expected = MalformedRequestException.class)
+    public void testTruncated00() {
+        ByteBuffer buf = BinaryRequest.encode("foo", "-s", "hello");
+        buf.limit(buf.limit() - 1);
+        BinaryRequest.decode(buf);
+    }
+
+    @Test(expected = MalformedRequestException.class)
+    public void testIllegalKind00() {
+        BinaryRequest.decode(ByteBuffer.wrap(new byte[] { 9, 0, 0, 0, 0 }));
+    }
+
+    @Test
+    public void testAccept00() {
+        CLI cli = new CLI(new Configuration()
+                .disableScanPackages()
+                .setScanClasses(BinaryRequestTest.class)
+        );
+        int status = cli.accept(BinaryRequest.encode("foo", "-s", "hello there"));
+        Assert.assertEquals(CLI.SUCCESS, status);
+        Assert.assertEquals("hello there", value);
+        status = cli.accept(BinaryRequest.encode(cli.idOf("foo"), "-s", "hi"));
+        Assert.assertEquals(CLI.SUCCESS, status);
+        Assert.assertEquals("hi", value);
+    }
+
+    @Test
+    public void testAccept01() {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        CLI cli = new CLI(new Configuration()
+                .disableScanPackages()
+                .setScanClasses(BinaryRequestTest.class)
+        );
+        PrintStream ps = new PrintStream(err, true);
+        Assert.assertEquals(CLI.USAGE_ERROR, cli.accept(BinaryRequest.encode(-1), System.out, ps));
+        Assert.assertEquals(CLI.USAGE_ERROR, cli.accept(BinaryRequest.encode("bar"), System.out, ps));
+        Assert.assertEquals(CLI.USAGE_ERROR, cli.accept(ByteBuffer.allocate(0), System.out, ps));
+        Assert.assertTrue(err.size() > 0);
+    }
+
+    @Test
+    public void testVerbatim00() {
+        CLI cli = new CLI(new Configuration()
+                .disableScanPackages()
+                .setScanClasses(BinaryRequestTest.class)
+        );
+        // whitespace and quotes of either kind are passed as they are.
+        for (String s : new String[] { "say \"hi\", it's me", "a\"b", "'quoted'", "\"", " padded " }) {
+            Assert.assertEquals(CLI.SUCCESS, cli.accept(BinaryRequest.encode("foo", "-s", s)));
+            Assert.assertEquals(s, value);
+        }
+        Assert.assertEquals(CLI.SUCCESS, cli.accept(BinaryRequest.encode("bar", "one two", "-n", "3")));
+        Assert.assertEquals("one two:3", value);
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream ps = new PrintStream(err, true);
+        Assert.assertEquals(CLI.USAGE_ERROR, cli.accept(BinaryRequest.encode("bar", "one two", "-n", "x y"), System.out, ps));
+        Assert.assertEquals(CLI.USAGE_ERROR, cli.accept(BinaryRequest.encode("bar", "-n", "3"), System.out, ps));
+        Assert.assertEquals(CLI.USAGE_ERROR, cli.accept(BinaryRequest.encode("baz", "-c", "c d"), System.out, ps));
+        Assert.assertEquals(CLI.SUCCESS, cli.accept(BinaryRequest.encode("baz", "-c", "a b")));
+        Assert.assertEquals("a b", value);
+    }
+
+    @Command
+    public static void bar(
+            @Argument(required = true)
+            String text,
+            @Argument("-n")
+            int n
+    ) {
+        value = text + ":" + n;
+    }
+
+    @Command
+    public static void baz(
+            @Argument(value = "-c", choices = { "a b", "c" })
+            String c
+    ) {
+        value = c;
+    }
+
+    @Command
+    public static void foo(
+            @Argument(value = "-s", required = true)
+            String s
+    ) {
+        value = s;
+    }
+}
@@ -0,0 +1,190 @@
+package com.github.wnebyte.jcli.server;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.CLI;
+import com.github.wnebyte.jcli.Configuration;
+import com.github.wnebyte.jcli.annotation.Argument;
+import com.github.wnebyte.jcli.annotation.Command;
+import com.github.wnebyte.jcli.protocol.BinaryRequest;
+
+public class DaemonServerTest {
+
+    private static final List<String> VALUES = new ArrayList<>();
+
+    private Path dir;
+
+    @Before
+    public void before() throws IOException {
+        dir = Files.createTempDirectory("jcli-daemon");
+        VALUES.clear();
+    }
+
+    @After
+    public void after() throws IOException {
+        try (Stream<Path> stream = Files.walk(dir)) {
+            stream.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static CLI newCLI() {
+        return new CLI(new Configuration()
+                .disableScanPackages()
+                .setScanClasses(DaemonServerTest.class)
+        );
+    }
+
+    private DaemonServer newServer() throws IOException {
+        return new DaemonServer(newCLI(), 0, Executors.newCachedThreadPool(), dir).start();
+    }
+
+    private static DaemonClient newClient(DaemonServer server) {
+        return new DaemonClient(server.getPort(), server.getTokenFile());
+    }
+
+    @Test
+    public void testArgv00() throws IOException {
+        try (DaemonServer server = newServer()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ByteArrayOutputStream err = new ByteArrayOutputStream();
+            int status = newClient(server)
+                    .invoke(new String[] { "foo", "-h" }, null, out, err);
+            Assert.assertEquals(CLI.SUCCESS, status);
+            Assert.assertTrue(out.toString("UTF-8").contains("a description"));
+            Assert.assertEquals(0, err.size());
+        }
+    }
+
+    @Test
+    public void testArgv01() throws IOException {
+        try (DaemonServer server = newServer()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ByteArrayOutputStream err = new ByteArrayOutputStream();
+            int status = newClient(server)
+                    .invoke(new String[] { "bar" }, null, out, err);
+            Assert.assertEquals(CLI.USAGE_ERROR, status);
+            Assert.assertTrue(err.toString("UTF-8").contains("'bar'"));
+        }
+    }
+
+    @Test
+    public void testStdin00() throws IOException {
+        try (DaemonServer server = newServer()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ByteArrayOutputStream err = new ByteArrayOutputStream();
+            byte[] in = "foo -h\r\nfoo -n 1\nbar".getBytes(StandardCharsets.UTF_8);
+            int status = newClient(server)
+                    .invoke(new String[0], new ByteArrayInputStream(in), out, err);
+            Assert.assertEquals(CLI.USAGE_ERROR, status);
+            Assert.assertTrue(out.toString("UTF-8").contains("a description"));
+            Assert.assertTrue(err.toString("UTF-8").contains("'bar'"));
+        }
+    }
+
+    @Test
+    public void testRequest00() throws IOException {
+        try (DaemonServer server = newServer()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ByteArrayOutputStream err = new ByteArrayOutputStream();
+            int status = newClient(server).invoke(new ByteBuffer[] {
+                    BinaryRequest.encode("foo", "-h"),
+                    BinaryRequest.encode("foo", "-n", "1")
+            }, out, err);
+            Assert.assertEquals(CLI.SUCCESS, status);
+            Assert.assertTrue(out.toString("UTF-8").contains("a description"));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnavailable00() throws IOException {
+        DaemonServer server = newServer();
+        DaemonClient client = newClient(server);
+        server.close();
+        client.invoke(new String[] { "foo" }, null,
+                new ByteArrayOutputStream(), new ByteArrayOutputStream());
+    }
+
+    @Test
+    public void testComplete00() throws IOException {
+        try (DaemonServer server = newServer()) {
+            DaemonClient client = newClient(server);
+            Assert.assertEquals(Arrays.asList("foo"), client.complete("fo", 2));
+            Assert.assertEquals(Arrays.asList("-n"), client.complete("foo ", 4));
+        }
+    }
+
+    @Test
+    public void testArgv02() throws IOException {
+        try (DaemonServer server = newServer()) {
+            ByteArrayOutputStream err = new ByteArrayOutputStream();
+            // every element of the argv is a single token, whitespace and quotes included.
+            int status = newClient(server).invoke(new String[] { "put", "hello \"world\"", "-n", "2" }, null,
+                    new ByteArrayOutputStream(), err);
+            Assert.assertEquals(err.toString("UTF-8"), CLI.SUCCESS, status);
+            Assert.assertEquals(Arrays.asList("hello \"world\"", "2"), VALUES);
+        }
+    }
+
+    @Test
+    public void testAuth00() throws IOException {
+        Path file;
+        try (DaemonServer server = newServer()) {
+            file = server.getTokenFile();
+            Assert.assertTrue(Files.exists(file));
+            if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                Assert.assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(file)));
+            }
+            Path forged = dir.resolve("forged.token");
+            Files.write(forged, "0000".getBytes(StandardCharsets.UTF_8));
+            try {
+                new DaemonClient(server.getPort(), forged).invoke(new String[] { "put", "x" }, null,
+                        new ByteArrayOutputStream(), new ByteArrayOutputStream());
+                Assert.fail("IOException expected");
+            } catch (IOException expected) { }
+            Assert.assertTrue(VALUES.isEmpty());
+        }
+        Assert.assertTrue(Files.notExists(file));
+    }
+
+    @Test
+    public void testFrameLength00() throws IOException {
+        try (DaemonServer server = newServer();
+             Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+             DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+             DataInputStream in = new DataInputStream(socket.getInputStream())) {
+            // a frame that claims more than the maximum length is rejected before its payload is allocated.
+            out.writeByte('T');
+            out.writeInt(Integer.MAX_VALUE);
+            out.flush();
+            Assert.assertEquals(-1, in.read());
+        }
+    }
+
+    @Command
+    public static void put(
+            @Argument(required = true) String value,
+            @Argument(value = "-n") int n
+    ) {
+        VALUES.add(value);
+        VALUES.add(String.valueOf(n));
+    }
+
+    @Command(description = "a description")
+    public static void foo(
+            @Argument(value = "-n")
+            int n
+    ) { }
+}
@@ -0,0 +1,195 @@
+package com.github.wnebyte.jcli.server;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import org.junit.Test;
+import org.junit.Assert;
+import com.github.wnebyte.jcli.CLI;
+import com.github.wnebyte.jcli.Configuration;
+import com.github.wnebyte.jcli.InvocationContext;
+import com.github.wnebyte.jcli.annotation.Argument;
+import com.github.wnebyte.jcli.annotation.Command;
+
+public class HttpEndpointTest {
+
+    private static HttpEndpoint newEndpoint() throws IOException {
+        CLI cli = new CLI(new Configuration()
+                .disableScanPackages()
+                .setScanClasses(HttpEndpointTest.class)
+        );
+        return new HttpEndpoint(cli, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                Executors.newFixedThreadPool(2)).start();
+    }
+
+    private static HttpURLConnection post(HttpEndpoint endpoint, String path, String body) throws IOException {
+        URL url = new URL("http", InetAddress.getLoopbackAddress().getHostAddress(), endpoint.getPort(), path);
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        conn.setRequestMethod("POST");
+        conn.setRequestProperty("Content-Type", "application/json; charset=utf-8");
+        conn.setDoOutput(true);
+        try (OutputStream out = conn.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return conn;
+    }
+
+    /*
+    sends the specified request as is, since HttpURLConnection does not allow for the Host and Origin headers to
+    be set, and returns the status line of the response.
+     */
+    private static String raw(HttpEndpoint endpoint, String request) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), endpoint.getPort())) {
+            socket.getOutputStream().write(request.getBytes(StandardCharsets.UTF_8));
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            return reader.readLine();
+        }
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[1024];
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            out.write(buf, 0, n);
+        }
+        in.close();
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testPost00() throws IOException {
+        try (HttpEndpoint endpoint = newEndpoint()) {
+            HttpURLConnection conn = post(endpoint, "/greet", "[\"-n\", \"a \\\"name\\\"\"]");
+            Assert.assertEquals(200, conn.getResponseCode());
+            Assert.assertEquals("chunked", conn.getHeaderField("Transfer-Encoding"));
+            Assert.assertEquals(
+                    "{\"command\":\"greet\",\"output\":[{\"stream\":\"out\",\"text\":\"hello a \\\"name\\\"\"}," +
+                            "{\"stream\":\"err\",\"text\":\"bye\"}],\"status\":0,\"result\":null}",
+                    read(conn.getInputStream())
+            );
+        }
+    }
+
+    @Test
+    public void testPost01() throws IOException {
+        try (HttpEndpoint endpoint = newEndpoint()) {
+            HttpURLConnection conn = post(endpoint, "/greet", "[\"-x\"]");
+            // an invocation that fails before writing to its standard output is answered with an error code.
+            Assert.assertEquals(400, conn.getResponseCode());
+            String json = read(conn.getErrorStream());
+            Assert.assertTrue(json.contains("\"stream\":\"err\""));
+            Assert.assertTrue(json.endsWith("\"status\":" + CLI.USAGE_ERROR + ",\"result\":null}"));
+        }
+    }
+
+    @Test
+    public void testResult00() throws IOException {
+        try (HttpEndpoint endpoint = newEndpoint()) {
+            HttpURLConnection conn = post(endpoint, "/sum", "[\"1\", \"2\"]");
+            Assert.assertEquals(200, conn.getResponseCode());
+            Assert.assertEquals("{\"command\":\"sum\",\"output\":[],\"status\":0,\"result\":3}",
+                    read(conn.getInputStream()));
+            conn = post(endpoint, "/sum", "[\"1\", \"-1\"]");
+            Assert.assertEquals(500, conn.getResponseCode());
+            Assert.assertTrue(read(conn.getErrorStream()).endsWith("\"status\":" + CLI.FAILURE + ",\"result\":null}"));
+        }
+    }
+
+    @Test
+    public void testBody00() {
+        Assert.assertEquals(Arrays.asList("a b", "\"\n\u00e9", ""),
+                HttpEndpoint.parseArgs(" [ \"a b\" , \"\\\"\\n\\u00e9\", \"\" ] "));
+        Assert.assertTrue(HttpEndpoint.parseArgs("[]").isEmpty());
+        Assert.assertTrue(HttpEndpoint.parseArgs("").isEmpty());
+        for (String body : Arrays.asList("-n 1", "[\"a\"", "[\"a\",]", "[1]", "[\"a\"] x", "[\"\\x\"]")) {
+            try {
+                HttpEndpoint.parseArgs(body);
+                Assert.fail(body);
+            } catch (IllegalArgumentException expected) { }
+        }
+    }
+
+    @Test
+    public void testForbidden00() throws IOException {
+        try (HttpEndpoint endpoint = newEndpoint()) {
+            String host = "127.0.0.1:" + endpoint.getPort();
+            String body = "[\"-n\", \"x\"]";
+            String request = "POST /greet HTTP/1.1\r\nHost: %s\r\n%sContent-Type: %s\r\n" +
+                    "Content-Length: " + body.length() + "\r\nConnection: close\r\n\r\n" + body;
+            Assert.assertTrue(raw(endpoint, String.format(request, host, "", "application/json"))
+                    .contains(" 200 "));
+            Assert.assertTrue(raw(endpoint, String.format(request, host, "Origin: http://localhost:8080\r\n",
+                    "application/json")).contains(" 200 "));
+            // cross-origin requests from web pages.
+            Assert.assertTrue(raw(endpoint, String.format(request, host, "Origin: http://example.com\r\n",
+                    "application/json")).contains(" 403 "));
+            Assert.assertTrue(raw(endpoint, String.format(request, host, "Origin: null\r\n",
+                    "application/json")).contains(" 403 "));
+            Assert.assertTrue(raw(endpoint, String.format(request, host, "", "text/plain"))
+                    .contains(" 415 "));
+            // DNS rebinding.
+            Assert.assertTrue(raw(endpoint, String.format(request, "example.com:" + endpoint.getPort(), "",
+                    "application/json")).contains(" 403 "));
+            Assert.assertTrue(raw(endpoint, String.format(request, "127.0.0.1:1", "",
+                    "application/json")).contains(" 403 "));
+        }
+    }
+
+    @Test
+    public void testNotFound00() throws IOException {
+        try (HttpEndpoint endpoint = newEndpoint()) {
+            HttpURLConnection conn = post(endpoint, "/bar", "");
+            Assert.assertEquals(404, conn.getResponseCode());
+        }
+    }
+
+    @Test
+    public void testMethodNotAllowed00() throws IOException {
+        try (HttpEndpoint endpoint = newEndpoint()) {
+            URL url = new URL("http", InetAddress.getLoopbackAddress().getHostAddress(), endpoint.getPort(), "/greet");
+            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+            Assert.assertEquals(405, conn.getResponseCode());
+            Assert.assertEquals("POST", conn.getHeaderField("Allow"));
+        }
+    }
+
+    @Test
+    public void testComplete00() throws IOException {
+        try (HttpEndpoint endpoint = newEndpoint()) {
+            URL url = new URL("http", InetAddress.getLoopbackAddress().getHostAddress(), endpoint.getPort(),
+                    "/?line=greet%20&cursor=6");
+            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+            Assert.assertEquals(200, conn.getResponseCode());
+            Assert.assertEquals("{\"candidates\":[\"-n\"]}", read(conn.getInputStream()));
+        }
+    }
+
+    @Command
+    public static void greet(
+            InvocationContext ctx,
+            @Argument(value = "-n")
+            String name
+    ) {
+        ctx.out().println("hello " + name);
+        ctx.err().println("bye");
+    }
+
+    @Command
+    public static int sum(
+            @Argument(required = true) int a,
+            @Argument(required = true) int b
+    ) {
+        if (b < 0) {
+            throw new IllegalArgumentException();
+        }
+        return a + b;
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.wnebyte.jcli.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Test;
+import org.junit.Assert;
+
+public class BKTreeTest {
+
+    @Test
+    public void testDistance00() {
+        Assert.assertEquals(0, BKTree.distance("", ""));
+        Assert.assertEquals(3, BKTree.distance("", "abc"));
+        Assert.assertEquals(3, BKTree.distance("kitten", "sitting"));
+        Assert.assertEquals(1, BKTree.distance("commit", "comit"));
+    }
+
+    @Test
+    public void testSearch00() {
+        BKTree tree = new BKTree();
+        for (String s : new String[] { "commit", "command", "comment", "status", "stash", "commit" }) {
+            tree = tree.with(s);
+        }
+        Assert.assertEquals(5, tree.size());
+        Assert.assertEquals(Arrays.asList("commit"), tree.search("comit", 1));
+        Assert.assertEquals(Arrays.asList("status", "stash"), tree.search("stats", 2));
+        Assert.assertEquals(Collections.emptyList(), tree.search("xyz", 1));
+    }
+
+    @Test
+    public void testSearch01() {
+        // compare against a linear scan.
+        Random random = new Random(7);
+        String[] words = IntStream.range(0, 2000)
+                .mapToObj(i -> Integer.toString(random.nextInt(100000), 36))
+                .toArray(String[]::new);
+        BKTree tree = BKTree.of(Arrays.asList(words));
+
+        for (String query : new String[] { "abc", "1x2", "zz", "k0b" }) {
+            Assert.assertEquals(
+                    Arrays.stream(words).distinct()
+                            .filter(w -> BKTree.distance(query, w) <= 1)
+                            .sorted()
+                            .collect(Collectors.toList()),
+                    tree.search(query, 1).stream().sorted().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testWithout00() {
+        BKTree tree = BKTree.of(Arrays.asList("commit", "command", "comment", "status", "stash"));
+        BKTree removed = tree.without("commit").without("stash");
+        Assert.assertSame(removed, removed.without("stash"));
+        Assert.assertEquals(3, removed.size());
+        Assert.assertEquals(Arrays.asList("comment"), removed.search("comit", 3));
+        Assert.assertEquals(Arrays.asList("status"), removed.search("stats", 2));
+        // a removed string can be added again.
+        Assert.assertEquals(Arrays.asList("commit", "comment"), removed.with("commit").search("comit", 3));
+        // the original tree is left unchanged.
+        Assert.assertEquals(5, tree.size());
+        Assert.assertEquals(Arrays.asList("commit", "comment"), tree.search("comit", 3));
+    }
+
+    @Test
+    public void testWithout01() {
+        // compare against a linear scan, while removing more strings than are left.
+        Random random = new Random(11);
+        List<String> words = IntStream.range(0, 1000)
+                .mapToObj(i -> Integer.toString(random.nextInt(100000), 36))
+                .distinct()
+                .collect(Collectors.toList());
+        BKTree tree = BKTree.of(words);
+        List<String> left = new ArrayList<>(words);
+        for (int i = 0; i < words.size() - 10; i++) {
+            String word = left.remove(random.nextInt(left.size()));
+            tree = tree.without(word);
+        }
+        Assert.assertEquals(left.size(), tree.size());
+
+        for (String query : new String[] { "abc", "1x2", "zz", "k0b" }) {
+            Assert.assertEquals(
+                    left.stream()
+                            .filter(w -> BKTree.distance(query, w) <= 3)
+                            .sorted()
+                            .collect(Collectors.toList()),
+                    tree.search(query, 3).stream().sorted().collect(Collectors.toList()));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.wnebyte.jcli.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+import org.junit.Assert;
+
+public class JsonWriterTest {
+
+    private static String write(JsonWriterConsumer consumer, int bufferSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonWriter json = new JsonWriter(out, bufferSize);
+        consumer.accept(json);
+        json.flush();
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testObject00() throws IOException {
+        String json = write(w -> w.beginObject()
+                .name("a").value(1)
+                .name("b").beginArray().value(true).nullValue().value(-42).endArray()
+                .name("c").beginObject().endObject()
+                .endObject(), 512);
+        Assert.assertEquals("{\"a\":1,\"b\":[true,null,-42],\"c\":{}}", json);
+    }
+
+    @Test
+    public void testEscape00() throws IOException {
+        String s = "\"q\" \\ \n\t\u0001 \u00e5\u20ac\ud83d\ude00";
+        String json = write(w -> w.value(s), 16);
+        Assert.assertEquals("\"\\\"q\\\" \\\\ \\n\\t\\u0001 \u00e5\u20ac\ud83d\ude00\"", json);
+    }
+
+    @Test
+    public void testNumber00() throws IOException {
+        String json = write(w -> w.beginArray()
+                .value(0).value(Long.MAX_VALUE).value(Long.MIN_VALUE)
+                .endArray(), 16);
+        Assert.assertEquals("[0," + Long.MAX_VALUE + "," + Long.MIN_VALUE + "]", json);
+    }
+
+    @Test
+    public void testLines00() throws IOException {
+        String json = write(w -> {
+            w.beginObject().name("n").value(1).endObject().newLine();
+            w.beginObject().name("n").value(2).endObject().newLine();
+        }, 512);
+        Assert.assertEquals("{\"n\":1}\n{\"n\":2}\n", json);
+    }
+
+    private interface JsonWriterConsumer {
+        void accept(JsonWriter json) throws IOException;
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.wnebyte.jcli.util;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.junit.Assert;
+
+public class ObjectPoolTest {
+
+    @Test
+    public void testAcquire00() {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger reset = new AtomicInteger();
+        ObjectPool<Object> pool = new ObjectPool<>(2, () -> { created.incrementAndGet(); return new Object(); },
+                o -> reset.incrementAndGet());
+
+        Object a = pool.acquire();
+        Object b = pool.acquire();
+        Object c = pool.acquire();
+        Assert.assertEquals(3, created.get());
+        Assert.assertTrue(pool.release(a));
+        Assert.assertTrue(pool.release(b));
+        // the pool is bounded; the third object is dropped.
+        Assert.assertFalse(pool.release(c));
+        Assert.assertEquals(3, reset.get());
+        Assert.assertEquals(2, pool.size());
+
+        Set<Object> acquired = Collections.newSetFromMap(new IdentityHashMap<>());
+        acquired.add(pool.acquire());
+        acquired.add(pool.acquire());
+        Assert.assertTrue(acquired.contains(a) && acquired.contains(b));
+        Assert.assertEquals(3, created.get());
+        Assert.assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void testReset00() {
+        ObjectPool<Object> pool = new ObjectPool<>(4, Object::new, o -> {
+            throw new IllegalStateException();
+        });
+        // an object whose reset throws is dropped.
+        Assert.assertFalse(pool.release(pool.acquire()));
+        Assert.assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void testConcurrent00() throws InterruptedException {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger inUse = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        ObjectPool<AtomicInteger> pool = new ObjectPool<>(8, () -> {
+            created.incrementAndGet();
+            return new AtomicInteger();
+        }, null);
+        Thread[] threads = new Thread[8];
+
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    AtomicInteger object = pool.acquire();
+                    // an object is never handed out to two threads at once.
+                    if (!object.compareAndSet(0, 1)) {
+                        errors.incrementAndGet();
+                    }
+                    inUse.incrementAndGet();
+                    object.set(0);
+                    pool.release(object);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(0, errors.get());
+        Assert.assertEquals(80_000, inUse.get());
+        Assert.assertTrue(pool.size() <= pool.capacity());
+        Assert.assertTrue("created " + created.get(), created.get() < 1000);
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.wnebyte.jcli.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import org.junit.Assert;
+
+public class TrieTest {
+
+    @Test
+    public void testStartingWith00() {
+        Trie trie = new Trie();
+        for (String s : new String[] { "commit", "command", "comment", "status", "co", "commit" }) {
+            trie = trie.with(s);
+        }
+        Assert.assertEquals(5, trie.size());
+        Assert.assertEquals(Arrays.asList("co", "command", "comment", "commit"), trie.startingWith("co", 0));
+        Assert.assertEquals(Arrays.asList("command", "comment"), trie.startingWith("comm", 2));
+        Assert.assertEquals(Arrays.asList("co", "command", "comment", "commit", "status"), trie.startingWith("", 0));
+        Assert.assertEquals(Collections.emptyList(), trie.startingWith("x", 0));
+    }
+
+    @Test
+    public void testContains00() {
+        Trie trie = new Trie().with("commit");
+        Assert.assertSame(trie, trie.with("commit"));
+        Assert.assertTrue(trie.contains("commit"));
+        Assert.assertFalse(trie.contains("com"));
+        Assert.assertFalse(trie.contains(null));
+    }
+
+    @Test
+    public void testWithout00() {
+        Trie trie = new Trie().with("co").with("commit").with("comment");
+        Trie removed = trie.without("commit").without("co");
+        Assert.assertSame(removed, removed.without("co"));
+        Assert.assertEquals(1, removed.size());
+        Assert.assertEquals(Arrays.asList("comment"), removed.startingWith("", 0));
+        Assert.assertEquals(Collections.emptyList(), removed.without("comment").startingWith("", 0));
+        // the original trie is left unchanged.
+        Assert.assertEquals(3, trie.size());
+        Assert.assertEquals(Arrays.asList("co", "comment", "commit"), trie.startingWith("", 0));
+    }
+}